@@ -21,7 +21,8 @@ import org.springframework.web.bind.annotation.RequestMethod;
  *       these advanced options are ignored.
  *   <li>Progress information (see {@link #trackProgress()}) is stored in {@link
  *       stirling.software.common.service.TaskManager TaskManager} and can be polled via <code>
- *       GET /api/v1/general/job/{id}</code>.
+ *       GET /api/v1/general/job/{id}</code> or followed as server-sent events from <code>
+ *       GET /api/v1/general/job/{id}/events</code>.
  * </ul>
  *
  * <p>Unless stated otherwise an attribute only affects <em>async</em> execution.
@@ -58,6 +59,7 @@ public @interface AutoJobPostMapping {
 
     /**
      * Record percentage / note updates so they can be retrieved via the REST status endpoint.
+     * Operations report them through {@link stirling.software.common.service.ProgressReporter}.
      *
      * <p>Only honoured when {@code async=true}.
      */
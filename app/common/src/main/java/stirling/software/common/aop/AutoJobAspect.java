@@ -21,6 +21,7 @@ import stirling.software.common.annotations.AutoJobPostMapping;
 import stirling.software.common.model.api.PDFFile;
 import stirling.software.common.service.FileStorage;
 import stirling.software.common.service.JobExecutorService;
+import stirling.software.common.service.ProgressReporter;
 
 @Aspect
 @Component
@@ -34,6 +35,7 @@ public class AutoJobAspect {
     private final JobExecutorService jobExecutorService;
     private final HttpServletRequest request;
     private final FileStorage fileStorage;
+    private final ProgressReporter progressReporter;
 
     @Around("@annotation(autoJobPostMapping)")
     public Object wrapWithJobExecution(
@@ -123,22 +125,17 @@ public class AutoJobAspect {
                     // Attempt counter starts at 1 for first try
                     for (int currentAttempt = 1; currentAttempt <= maxRetries; currentAttempt++) {
                         try {
+                            // Reports from the operation are dropped unless progress is tracked
+                            progressReporter.setEnabled(trackProgress);
                             if (trackProgress && async) {
-                                // Get jobId for progress tracking in TaskManager
-                                // This enables REST API progress queries, not WebSocket
                                 if (jobIdRef.get() == null) {
                                     jobIdRef.set(getJobIdFromContext());
                                 }
-                                String jobId = jobIdRef.get();
-                                if (jobId != null) {
-                                    log.debug(
-                                            "Tracking progress for job {} (attempt {}/{})",
-                                            jobId,
-                                            currentAttempt,
-                                            maxRetries);
-                                    // Progress is tracked in TaskManager for REST API access
-                                    // No WebSocket notifications sent here
-                                }
+                                log.debug(
+                                        "Tracking progress for job {} (attempt {}/{})",
+                                        jobIdRef.get(),
+                                        currentAttempt,
+                                        maxRetries);
                             }
 
                             // Attempt to execute the operation
@@ -162,13 +159,13 @@ public class AutoJobAspect {
                                         maxRetries);
 
                                 if (trackProgress && async) {
-                                    String jobId = jobIdRef.get();
-                                    if (jobId != null) {
-                                        log.debug(
-                                                "Recording retry attempt for job {} in TaskManager",
-                                                jobId);
-                                        // Retry info is tracked in TaskManager for REST API access
-                                    }
+                                    // Restart progress from zero for the next attempt
+                                    progressReporter.start(
+                                            0,
+                                            "Retrying, attempt "
+                                                    + (currentAttempt + 1)
+                                                    + " of "
+                                                    + maxRetries);
                                 }
 
                                 // Use non-blocking delay for all retry attempts to avoid blocking
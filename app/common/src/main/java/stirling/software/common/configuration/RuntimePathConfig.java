@@ -21,6 +21,7 @@ public class RuntimePathConfig {
     private final String basePath;
     private final String weasyPrintPath;
     private final String unoConvertPath;
+    private final String unoServerPath;
 
     // Pipeline paths
     private final String pipelineWatchedFoldersPath;
@@ -67,6 +68,13 @@ public class RuntimePathConfig {
                 resolvePath(
                         defaultUnoConvertPath,
                         operations != null ? operations.getUnoconvert() : null);
+        // unoserver is installed next to unoconvert
+        this.unoServerPath =
+                this.unoConvertPath.endsWith("unoconvert")
+                        ? this.unoConvertPath.substring(
+                                        0, this.unoConvertPath.length() - "unoconvert".length())
+                                + "unoserver"
+                        : "unoserver";
     }
 
     private String resolvePath(String defaultPath, String customPath) {
@@ -329,6 +329,7 @@ public class ApplicationProperties {
         private String fileUploadLimit;
         private TempFileManagement tempFileManagement = new TempFileManagement();
         private DatabaseBackup databaseBackup = new DatabaseBackup();
+        private Pipeline pipeline = new Pipeline();
 
         public boolean isAnalyticsEnabled() {
             return this.getEnableAnalytics() != null && this.getEnableAnalytics();
@@ -340,6 +341,14 @@ public class ApplicationProperties {
         private String cron = "0 0 0 * * ?"; // daily at midnight
     }
 
+    @Data
+    public static class Pipeline {
+        private boolean inProcessExecution = true;
+        private int maxConcurrency = 0; // 0 = number of available processors
+        private int watchedFolderWorkers = 2;
+        private int watchedFolderQueueCapacity = 1000;
+    }
+
     @Data
     public static class CustomPaths {
         private Pipeline pipeline = new Pipeline();
@@ -12,4 +12,10 @@ public class JobProgress {
     private String status;
     private int percentComplete;
     private String message;
+
+    /** Number of steps done so far, for example pages processed */
+    private int current;
+
+    /** Total number of steps, or 0 if unknown */
+    private int total;
 }
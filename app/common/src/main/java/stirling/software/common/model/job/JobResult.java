@@ -41,6 +41,9 @@ public class JobResult {
     /** The actual result object, if not a file */
     private Object result;
 
+    /** Progress reported by the running operation, null until it reports any */
+    private volatile JobProgress progress;
+
     /**
      * Notes attached to this job for tracking purposes. Uses CopyOnWriteArrayList for thread safety
      * when notes are added concurrently.
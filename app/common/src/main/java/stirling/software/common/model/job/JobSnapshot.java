@@ -0,0 +1,41 @@
+package stirling.software.common.model.job;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Persistent copy of a job's state, written to the job store on every change */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobSnapshot {
+
+    /** The job ID */
+    private String jobId;
+
+    /** Lifecycle state of the job */
+    private JobState state;
+
+    /** Time when the job was created */
+    private LocalDateTime createdAt;
+
+    /** Time when the job was completed */
+    private LocalDateTime completedAt;
+
+    /** Error message if the job failed */
+    private String error;
+
+    /** The result object of jobs that do not produce files, if it can be stored */
+    private StoredResult result;
+
+    /** Files produced by the job, stored in FileStorage */
+    private List<ResultFile> resultFiles;
+
+    /** Notes attached to the job */
+    private List<String> notes;
+}
@@ -0,0 +1,13 @@
+package stirling.software.common.model.job;
+
+/** Lifecycle state of a job as recorded in the job store */
+public enum JobState {
+    /** Accepted and waiting in the job queue */
+    QUEUED,
+
+    /** Being executed */
+    RUNNING,
+
+    /** Finished, either with a result or with an error */
+    COMPLETE
+}
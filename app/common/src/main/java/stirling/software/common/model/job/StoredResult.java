@@ -0,0 +1,78 @@
+package stirling.software.common.model.job;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The result object of a job as JSON, together with the name of its class so it can be read back as
+ * the same type after a restart
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredResult {
+
+    // Only our own models and plain JDK values are read back into their class
+    private static final String[] RESTORABLE_PACKAGES = {
+        "stirling.software.", "java.lang.", "java.util.", "java.time."
+    };
+
+    /** Fully qualified class name of the result object */
+    private String type;
+
+    /** The result object as JSON */
+    private JsonNode value;
+
+    /**
+     * Convert a result object to its stored form
+     *
+     * @param result The result object, or null
+     * @param objectMapper The mapper used to write the result
+     * @return The stored result, or null if there is no result
+     * @throws IllegalArgumentException If the result cannot be written as JSON
+     */
+    public static StoredResult of(Object result, ObjectMapper objectMapper) {
+        if (result == null) {
+            return null;
+        }
+        return new StoredResult(result.getClass().getName(), objectMapper.valueToTree(result));
+    }
+
+    /**
+     * Read the stored value back as an instance of its original class. Values whose class is not
+     * available or not one of ours are returned as the JSON tree.
+     *
+     * @param objectMapper The mapper used to read the result
+     * @return The result object
+     */
+    public Object toResult(ObjectMapper objectMapper) {
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (type == null || !isRestorable(type)) {
+            return value;
+        }
+        try {
+            Class<?> resultClass = Class.forName(type, false, StoredResult.class.getClassLoader());
+            return objectMapper.treeToValue(value, resultClass);
+        } catch (ClassNotFoundException | JsonProcessingException | IllegalArgumentException e) {
+            return value;
+        }
+    }
+
+    private static boolean isRestorable(String type) {
+        for (String prefix : RESTORABLE_PACKAGES) {
+            if (type.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -13,9 +13,14 @@ import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.examples.util.DeletingRandomAccessFile;
 import org.apache.pdfbox.io.IOUtils;
 import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
 import org.apache.pdfbox.io.RandomAccessStreamCache.StreamCacheCreateFunction;
 import org.apache.pdfbox.io.ScratchFile;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -25,6 +30,7 @@ import lombok.extern.slf4j.Slf4j;
 import stirling.software.common.model.api.PDFFile;
 import stirling.software.common.util.ApplicationContextProvider;
 import stirling.software.common.util.ExceptionUtils;
+import stirling.software.common.util.MappedRandomAccessReadFile;
 import stirling.software.common.util.TempFileManager;
 import stirling.software.common.util.TempFileRegistry;
 
@@ -42,10 +48,10 @@ public class CustomPDFDocumentFactory {
     // Memory thresholds and limits
 
     private static final long SMALL_FILE_THRESHOLD = 10 * 1024 * 1024; // 10 MB
-    // Files smaller than this threshold are loaded entirely in memory for better performance.
-    // These files use IOUtils.createMemoryOnlyStreamCache() which keeps all document data in RAM.
-    // No temp files are created for document data, reducing I/O operations but consuming more
-    // memory.
+    // Files smaller than this threshold use IOUtils.createMemoryOnlyStreamCache() which keeps the
+    // document's stream cache in RAM. No scratch files are created, reducing I/O operations but
+    // consuming more memory. Files on disk are still read through a buffered RandomAccessRead
+    // rather than being copied onto the heap.
 
     private static final long LARGE_FILE_THRESHOLD = 50 * 1024 * 1024; // 50 MB
     // Files between SMALL and LARGE thresholds use file-based caching with ScratchFile,
@@ -56,13 +62,28 @@ public class CustomPDFDocumentFactory {
     private static final long LARGE_FILE_USAGE = 10 * 1024 * 1024;
 
     private static final long EXTREMELY_LARGE_THRESHOLD = 100 * 1024 * 1024; // 100 MB
-    // Files exceeding this threshold use specialized loading with RandomAccessReadBufferedFile
-    // which provides buffered access to the file without loading the entire content at once.
-    // These files are always processed using file-based caching with minimal memory footprint,
-    // trading some performance for significantly reduced memory usage.
+    // Files exceeding this threshold are read through MappedRandomAccessReadFile, which maps the
+    // file in windows of stirling.pdf.mapped-window-size-mb instead of copying it through heap
+    // buffers, so random xref and object stream seeks are served from the OS page cache.
+    // These files are always processed using file-based caching with minimal memory footprint.
     // For extremely large PDFs, this prevents OutOfMemoryErrors at the cost of being more I/O
     // bound.
 
+    // Small documents lease this many times their size from the scratch memory budget, as
+    // decoded streams are usually much larger than the compressed file
+    private static final int SMALL_FILE_MEMORY_FACTOR = 4;
+    private static final long MIN_SMALL_FILE_USAGE = 4 * 1024 * 1024;
+
+    // Shared memory budget for stream caches; when absent every document sizes its own cache
+    @Autowired(required = false)
+    private PdfScratchMemoryManager scratchMemoryManager;
+
+    @Value("${stirling.pdf.memory-mapped-reads:true}")
+    private boolean memoryMappedReads = true;
+
+    @Value("${stirling.pdf.mapped-window-size-mb:64}")
+    private int mappedWindowSizeMb = 64;
+
     private static final double MIN_FREE_MEMORY_PERCENTAGE = 30.0; // 30%
     private static final long MIN_FREE_MEMORY_BYTES = 4L * 1024 * 1024 * 1024; // 4 GB
 
@@ -155,7 +176,8 @@ public class CustomPDFDocumentFactory {
             throw ExceptionUtils.createNullArgumentException("InputStream");
         }
 
-        // Since we don't know the size upfront, buffer to a temp file
+        // Since we don't know the size upfront, spool to a temp file that is read in place and
+        // deleted when the document is closed
         Path tempFile = createTempFile("pdf-stream-");
 
         Files.copy(input, tempFile, StandardCopyOption.REPLACE_EXISTING);
@@ -178,7 +200,8 @@ public class CustomPDFDocumentFactory {
             throw ExceptionUtils.createNullArgumentException("InputStream");
         }
 
-        // Since we don't know the size upfront, buffer to a temp file
+        // Since we don't know the size upfront, spool to a temp file that is read in place and
+        // deleted when the document is closed
         Path tempFile = createTempFile("pdf-stream-");
 
         Files.copy(input, tempFile, StandardCopyOption.REPLACE_EXISTING);
@@ -190,6 +213,29 @@ public class CustomPDFDocumentFactory {
         return doc;
     }
 
+    /**
+     * Load a PDF from a {@link RandomAccessRead} the caller has opened. Unlike {@link #load(File)}
+     * the underlying file is left in place; the read is closed together with the document.
+     *
+     * @param input the source to parse
+     * @param contentSize the size of the source in bytes, used to pick the caching strategy
+     * @param readOnly skip metadata and password post-processing
+     */
+    public PDDocument load(RandomAccessRead input, long contentSize, boolean readOnly)
+            throws IOException {
+        if (input == null) {
+            throw ExceptionUtils.createNullArgumentException("RandomAccessRead");
+        }
+
+        log.debug("Loading PDF from random access read, size: {}MB", contentSize / (1024 * 1024));
+
+        PDDocument doc = loadAdaptively(input, contentSize);
+        if (!readOnly) {
+            postProcessDocument(doc);
+        }
+        return doc;
+    }
+
     /** Load from a file path string */
     public PDDocument load(String path) throws IOException {
         return load(path, false);
@@ -217,6 +263,13 @@ public class CustomPDFDocumentFactory {
 
     /** Load from a MultipartFile with read-only option */
     public PDDocument load(MultipartFile pdfFile, boolean readOnly) throws IOException {
+        File backingFile = getBackingFile(pdfFile);
+        if (backingFile != null) {
+            return load(
+                    openRandomAccess(backingFile, backingFile.length(), false),
+                    backingFile.length(),
+                    readOnly);
+        }
         return load(pdfFile.getInputStream(), readOnly);
     }
 
@@ -228,9 +281,35 @@ public class CustomPDFDocumentFactory {
     /** Load with password from MultipartFile with read-only option */
     public PDDocument load(MultipartFile fileInput, String password, boolean readOnly)
             throws IOException {
+        File backingFile = getBackingFile(fileInput);
+        if (backingFile != null) {
+            PDDocument doc =
+                    loadAdaptivelyWithPassword(
+                            openRandomAccess(backingFile, backingFile.length(), false),
+                            backingFile.length(),
+                            password);
+            if (!readOnly) {
+                postProcessDocument(doc);
+            }
+            return doc;
+        }
         return load(fileInput.getInputStream(), password, readOnly);
     }
 
+    /**
+     * Returns the file behind a multipart file that is already stored on disk, such as files kept
+     * in {@link FileStorage} or pipeline results, so it can be read in place instead of being
+     * spooled again. Uploads still held by the servlet container return null.
+     */
+    private File getBackingFile(MultipartFile multipartFile) {
+        try {
+            Resource resource = multipartFile.getResource();
+            return resource.isFile() ? resource.getFile() : null;
+        } catch (IOException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
     /**
      * Determine the appropriate caching strategy based on file size and available memory. This
      * common method is used by both password and non-password loading paths.
@@ -259,7 +338,11 @@ public class CustomPDFDocumentFactory {
             log.debug(
                     "Low memory detected ({}%), forcing file-based cache",
                     String.format("%.2f", freeMemoryPercent));
-            return createScratchFileCacheFunction(MemoryUsageSetting.setupTempFileOnly());
+            return scratchMemoryManager != null
+                    ? scratchMemoryManager.createStreamCacheFunction(0)
+                    : createScratchFileCacheFunction(MemoryUsageSetting.setupTempFileOnly());
+        } else if (scratchMemoryManager != null) {
+            return getBudgetedStreamCacheFunction(contentSize);
         } else if (contentSize < SMALL_FILE_THRESHOLD) {
             log.debug("Using memory-only cache for small document ({}KB)", contentSize / 1024);
             return IOUtils.createMemoryOnlyStreamCache();
@@ -275,19 +358,37 @@ public class CustomPDFDocumentFactory {
         }
     }
 
+    /**
+     * Same size tiers as above, but the memory is leased from the shared scratch budget so that
+     * many concurrent documents spill to disk instead of together exhausting the heap.
+     */
+    private StreamCacheCreateFunction getBudgetedStreamCacheFunction(long contentSize) {
+        long desiredMemory;
+        if (contentSize < SMALL_FILE_THRESHOLD) {
+            desiredMemory = Math.max(contentSize * SMALL_FILE_MEMORY_FACTOR, MIN_SMALL_FILE_USAGE);
+        } else if (contentSize < LARGE_FILE_THRESHOLD) {
+            desiredMemory = LARGE_FILE_USAGE;
+        } else {
+            desiredMemory = 0;
+        }
+        log.debug(
+                "Requesting {}MB of scratch memory for document ({}KB)",
+                desiredMemory / (1024 * 1024),
+                contentSize / 1024);
+        return scratchMemoryManager.createStreamCacheFunction(desiredMemory);
+    }
+
     /** Update the existing loadAdaptively method to use the common function */
     private PDDocument loadAdaptively(Object source, long contentSize) throws IOException {
         // Get the appropriate caching strategy
         StreamCacheCreateFunction cacheFunction = getStreamCacheFunction(contentSize);
 
-        // If small handle as bytes and remove original file
-        if (contentSize <= SMALL_FILE_THRESHOLD && source instanceof File file) {
-            source = Files.readAllBytes(file.toPath());
-            file.delete();
-        }
+        // Files are read in place whatever their size; only the stream cache depends on it
         PDDocument document;
         if (source instanceof File file) {
             document = loadFromFile(file, contentSize, cacheFunction);
+        } else if (source instanceof RandomAccessRead read) {
+            document = loadFromRandomAccessRead(read, "", cacheFunction);
         } else if (source instanceof byte[] bytes) {
             document = loadFromBytes(bytes, contentSize, cacheFunction);
         } else {
@@ -324,14 +425,11 @@ public class CustomPDFDocumentFactory {
             throws IOException {
         // Get the appropriate caching strategy
         StreamCacheCreateFunction cacheFunction = getStreamCacheFunction(contentSize);
-        // If small handle as bytes and remove original file
-        if (contentSize <= SMALL_FILE_THRESHOLD && source instanceof File file) {
-            source = Files.readAllBytes(file.toPath());
-            file.delete();
-        }
         PDDocument document;
         if (source instanceof File file) {
             document = loadFromFileWithPassword(file, contentSize, cacheFunction, password);
+        } else if (source instanceof RandomAccessRead read) {
+            document = loadFromRandomAccessRead(read, password, cacheFunction);
         } else if (source instanceof byte[] bytes) {
             document = loadFromBytesWithPassword(bytes, contentSize, cacheFunction, password);
         } else {
@@ -347,7 +445,7 @@ public class CustomPDFDocumentFactory {
     private PDDocument loadFromFileWithPassword(
             File file, long size, StreamCacheCreateFunction cache, String password)
             throws IOException {
-        return Loader.loadPDF(new DeletingRandomAccessFile(file), password, null, null, cache);
+        return Loader.loadPDF(openRandomAccess(file, size, true), password, null, null, cache);
     }
 
     /** Load bytes with password */
@@ -364,6 +462,22 @@ public class CustomPDFDocumentFactory {
         return Loader.loadPDF(bytes, password, null, null, cache);
     }
 
+    /**
+     * Opens a file for parsing: memory mapped above {@link #EXTREMELY_LARGE_THRESHOLD}, buffered
+     * otherwise.
+     */
+    private RandomAccessRead openRandomAccess(File file, long size, boolean deleteOnClose)
+            throws IOException {
+        if (memoryMappedReads && size > EXTREMELY_LARGE_THRESHOLD) {
+            int windowSizeMb = Math.max(1, Math.min(mappedWindowSizeMb, 1024));
+            log.debug("Memory mapping large PDF in {}MB windows", windowSizeMb);
+            return new MappedRandomAccessReadFile(file, windowSizeMb * 1024 * 1024, deleteOnClose);
+        }
+        return deleteOnClose
+                ? new DeletingRandomAccessFile(file)
+                : new RandomAccessReadBufferedFile(file);
+    }
+
     private StreamCacheCreateFunction createScratchFileCacheFunction(MemoryUsageSetting settings) {
         return () -> {
             try {
@@ -382,13 +496,25 @@ public class CustomPDFDocumentFactory {
     private PDDocument loadFromFile(File file, long size, StreamCacheCreateFunction cache)
             throws IOException {
         try {
-            return Loader.loadPDF(new DeletingRandomAccessFile(file), "", null, null, cache);
+            return Loader.loadPDF(openRandomAccess(file, size, true), "", null, null, cache);
         } catch (IOException e) {
             ExceptionUtils.logException("PDF loading from file", e);
             throw ExceptionUtils.handlePdfException(e);
         }
     }
 
+    private PDDocument loadFromRandomAccessRead(
+            RandomAccessRead read, String password, StreamCacheCreateFunction cache)
+            throws IOException {
+        try {
+            return Loader.loadPDF(read, password, null, null, cache);
+        } catch (IOException e) {
+            IOUtils.closeQuietly(read);
+            ExceptionUtils.logException("PDF loading from random access read", e);
+            throw ExceptionUtils.handlePdfException(e);
+        }
+    }
+
     private PDDocument loadFromBytes(byte[] bytes, long size, StreamCacheCreateFunction cache)
             throws IOException {
         if (size >= SMALL_FILE_THRESHOLD) {
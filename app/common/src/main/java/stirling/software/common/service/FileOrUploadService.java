@@ -2,9 +2,15 @@ package stirling.software.common.service;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.util.Arrays;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -25,6 +31,101 @@ public class FileOrUploadService {
         return new CustomMultipartFile(name, data);
     }
 
+    /**
+     * Exposes a file on disk as a MultipartFile without reading it into memory. The content is
+     * streamed from the file on every access.
+     */
+    public MultipartFile toMultipartFile(String name, Path path) {
+        return new FileBackedMultipartFile(name, path);
+    }
+
+    // MultipartFile view of a file that is already stored on disk
+    private static class FileBackedMultipartFile implements MultipartFile {
+        private static final byte[] PDF_HEADER = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+
+        private final String name;
+        private final Path path;
+        private volatile String contentType;
+
+        public FileBackedMultipartFile(String name, Path path) {
+            this.name = name;
+            this.path = path;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return name;
+        }
+
+        @Override
+        public String getContentType() {
+            String type = contentType;
+            if (type == null) {
+                type = detectContentType();
+                contentType = type;
+            }
+            return type;
+        }
+
+        // Stored files are named by their id without an extension, so fall back to sniffing the
+        // content when the platform cannot tell the type from the path
+        private String detectContentType() {
+            try {
+                String type = Files.probeContentType(path);
+                if (type != null) {
+                    return type;
+                }
+                try (InputStream in = Files.newInputStream(path)) {
+                    if (Arrays.equals(in.readNBytes(PDF_HEADER.length), PDF_HEADER)) {
+                        return MediaType.APPLICATION_PDF_VALUE;
+                    }
+                }
+            } catch (IOException e) {
+                // Unreadable files are reported as generic binary content
+            }
+            return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return getSize() == 0;
+        }
+
+        @Override
+        public long getSize() {
+            try {
+                return Files.size(path);
+            } catch (IOException e) {
+                return 0;
+            }
+        }
+
+        @Override
+        public byte[] getBytes() throws IOException {
+            return Files.readAllBytes(path);
+        }
+
+        @Override
+        public java.io.InputStream getInputStream() throws IOException {
+            return Files.newInputStream(path);
+        }
+
+        @Override
+        public Resource getResource() {
+            return new FileSystemResource(path);
+        }
+
+        @Override
+        public void transferTo(java.io.File dest) throws IOException, IllegalStateException {
+            Files.copy(path, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
     // Custom implementation of MultipartFile
     private static class CustomMultipartFile implements MultipartFile {
         private final String name;
@@ -1,6 +1,7 @@
 package stirling.software.common.service;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.UUID;
@@ -70,7 +71,36 @@ public class FileStorage {
     }
 
     /**
-     * Retrieve a file by its ID as a MultipartFile
+     * Store the content of a stream as a file and return its unique ID. The stream is copied with a
+     * small buffer and is not closed.
+     *
+     * @param in The stream to store, read until its end
+     * @param originalName The original name of the file (for extension)
+     * @return The unique ID assigned to the file
+     * @throws IOException If there is an error reading the stream or storing the file
+     */
+    public String storeStream(InputStream in, String originalName) throws IOException {
+        String fileId = generateFileId();
+        Path filePath = getFilePath(fileId);
+
+        // Ensure the directory exists
+        Files.createDirectories(filePath.getParent());
+
+        try {
+            Files.copy(in, filePath);
+        } catch (IOException e) {
+            // Do not leave a partial file behind
+            Files.deleteIfExists(filePath);
+            throw e;
+        }
+
+        log.debug("Stored stream with ID: {}", fileId);
+        return fileId;
+    }
+
+    /**
+     * Retrieve a file by its ID as a MultipartFile. The returned file reads from storage on demand,
+     * so the content is never held in memory as a whole.
      *
      * @param fileId The ID of the file to retrieve
      * @return The file as a MultipartFile
@@ -83,8 +113,24 @@ public class FileStorage {
             throw new IOException("File not found with ID: " + fileId);
         }
 
-        byte[] fileData = Files.readAllBytes(filePath);
-        return fileOrUploadService.toMockMultipartFile(fileId, fileData);
+        return fileOrUploadService.toMultipartFile(fileId, filePath);
+    }
+
+    /**
+     * Open a stored file for reading without loading it into memory
+     *
+     * @param fileId The ID of the file to read
+     * @return A stream over the file content, to be closed by the caller
+     * @throws IOException If the file doesn't exist or can't be read
+     */
+    public InputStream openStream(String fileId) throws IOException {
+        Path filePath = getFilePath(fileId);
+
+        if (!Files.exists(filePath)) {
+            throw new IOException("File not found with ID: " + fileId);
+        }
+
+        return Files.newInputStream(filePath);
     }
 
     /**
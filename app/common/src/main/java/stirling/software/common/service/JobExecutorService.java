@@ -1,6 +1,10 @@
 package stirling.software.common.service;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -22,6 +26,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import stirling.software.common.model.job.JobResponse;
 import stirling.software.common.util.ExecutorFactory;
+import stirling.software.common.util.ProcessExecutor;
 import stirling.software.common.util.RegexPatternUtils;
 
 /** Service for executing jobs asynchronously or synchronously */
@@ -152,7 +157,8 @@ public class JobExecutorService {
             Supplier<Object> wrappedWork =
                     () -> {
                         try {
-                            Object result = work.get();
+                            taskManager.markRunning(jobId);
+                            Object result = ProgressReporter.bind(jobId, work).get();
                             processJobResult(jobId, result);
                             return result;
                         } catch (Exception e) {
@@ -165,7 +171,13 @@ public class JobExecutorService {
 
             // Queue the job and get the future
             CompletableFuture<ResponseEntity<?>> future =
-                    jobQueue.queueJob(jobId, resourceWeight, wrappedWork, timeoutToUse);
+                    jobQueue.queueJob(
+                            jobId,
+                            resourceWeight,
+                            wrappedWork,
+                            timeoutToUse,
+                            resolveJobOwner(),
+                            JobQueue.JobPriority.forWeight(resourceWeight));
 
             // Return immediately with job ID
             return ResponseEntity.ok().body(new JobResponse<>(true, jobId, null));
@@ -174,15 +186,20 @@ public class JobExecutorService {
             executor.execute(
                     () -> {
                         try {
+                            taskManager.markRunning(jobId);
                             log.debug(
                                     "Running async job {} with timeout {} ms", jobId, timeoutToUse);
 
                             // Execute with timeout
-                            Object result = executeWithTimeout(() -> work.get(), timeoutToUse);
+                            Object result =
+                                    executeWithTimeout(
+                                            ProgressReporter.bind(jobId, work), timeoutToUse);
                             processJobResult(jobId, result);
                         } catch (TimeoutException te) {
                             log.error("Job {} timed out after {} ms", jobId, timeoutToUse);
                             taskManager.setError(jobId, "Job timed out");
+                            // Cancelling the future does not interrupt the work, stop its tools
+                            ProcessExecutor.cancelJob(jobId);
                         } catch (Exception e) {
                             log.error("Error executing job {}: {}", jobId, e.getMessage(), e);
                             taskManager.setError(jobId, e.getMessage());
@@ -483,4 +500,43 @@ public class JobExecutorService {
             throw new Exception("Execution was interrupted", e);
         }
     }
+
+    /**
+     * Identify who a queued job belongs to, so the job queue can share capacity fairly between
+     * users, API keys and anonymous clients.
+     *
+     * @return The owner key of the current request
+     */
+    private String resolveJobOwner() {
+        if (request == null) {
+            return JobQueue.DEFAULT_OWNER;
+        }
+        try {
+            // An API key authenticates as its user, who shares one quota across keys and sessions
+            if (request.getUserPrincipal() != null) {
+                return "user:" + request.getUserPrincipal().getName();
+            }
+            String apiKey = request.getHeader("X-API-KEY");
+            if (apiKey != null && !apiKey.isBlank()) {
+                // Never keep the key itself around as a map key
+                return "api-key:" + hash(apiKey.trim());
+            }
+            if (request.getRemoteAddr() != null) {
+                return "client:" + request.getRemoteAddr();
+            }
+        } catch (Exception e) {
+            // The request may be unavailable outside of a request thread
+            log.debug("Could not determine job owner: {}", e.getMessage());
+        }
+        return JobQueue.DEFAULT_OWNER;
+    }
+
+    private static String hash(String apiKey) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(apiKey.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
 }
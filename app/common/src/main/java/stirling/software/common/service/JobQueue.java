@@ -1,6 +1,13 @@
 package stirling.software.common.service;
 
 import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.*;
 import java.util.function.Supplier;
@@ -21,11 +28,24 @@ import stirling.software.common.util.SpringContextHolder;
 /**
  * Manages a queue of jobs with dynamic sizing based on system resources. Used when system resources
  * are limited to prevent overloading.
+ *
+ * <p>Jobs are admitted against a capacity budget expressed in resource weight units, which shrinks
+ * under resource pressure. Waiting jobs are served by priority class, and within a class by
+ * weighted fair share between owners (users, API keys or clients): the owner that has been granted
+ * the least weight goes next, so one owner submitting many heavy jobs cannot starve the others.
+ * Waiting earns an owner credit against the weight it has been granted, a full capacity budget per
+ * maximum wait time, so old jobs move ahead within the fair share order instead of bypassing it;
+ * jobs of a lower class that have waited longer than the maximum wait time compete with the highest
+ * waiting class the same way. Dispatch happens as soon as a job is queued or finishes; the periodic
+ * check only picks up changes in resource status.
  */
 @Service
 @Slf4j
 public class JobQueue implements SmartLifecycle {
 
+    /** Owner of jobs queued without one */
+    public static final String DEFAULT_OWNER = "anonymous";
+
     private volatile boolean running = false;
 
     private final ResourceMonitor resourceMonitor;
@@ -42,12 +62,24 @@ public class JobQueue implements SmartLifecycle {
     @Value("${stirling.job.queue.max-wait-time-ms:600000}")
     private long maxWaitTimeMs = 600000; // 10 minutes
 
-    private volatile BlockingQueue<QueuedJob> jobQueue;
+    @Value("${stirling.job.queue.capacity-weight:200}")
+    private int capacityWeight = 200;
+
+    private volatile int queueCapacity;
     private final Map<String, QueuedJob> jobMap = new ConcurrentHashMap<>();
     private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
     private final ExecutorService jobExecutor = ExecutorFactory.newVirtualOrCachedThreadExecutor();
     private final Object queueLock = new Object(); // Lock for synchronizing queue operations
 
+    // Waiting jobs by priority class and owner, guarded by queueLock
+    private final Map<JobPriority, Map<String, Deque<QueuedJob>>> backlog =
+            new EnumMap<>(JobPriority.class);
+    // Weight granted to each owner with waiting jobs, in virtual time; guarded by queueLock
+    private final Map<String, Long> ownerVirtualTime = new HashMap<>();
+    private long virtualClock = 0;
+    private int queuedCount = 0;
+    private int runningWeight = 0;
+
     private boolean shuttingDown = false;
 
     @Getter private int rejectedJobs = 0;
@@ -56,6 +88,27 @@ public class JobQueue implements SmartLifecycle {
 
     @Getter private int currentQueueSize = 0;
 
+    /** Priority classes. A class is only served while all higher classes are empty. */
+    public enum JobPriority {
+        HIGH,
+        NORMAL,
+        LOW;
+
+        /**
+         * Default priority for a job of the given weight, using the same lightweight and heavy
+         * thresholds as {@link ResourceMonitor#shouldQueueJob(int)}.
+         *
+         * @param resourceWeight The resource weight of the job (1-100)
+         * @return The priority class
+         */
+        public static JobPriority forWeight(int resourceWeight) {
+            if (resourceWeight < 20) {
+                return HIGH;
+            }
+            return resourceWeight < 60 ? NORMAL : LOW;
+        }
+    }
+
     /** Represents a job waiting in the queue. */
     @Data
     @AllArgsConstructor
@@ -65,6 +118,8 @@ public class JobQueue implements SmartLifecycle {
         private final Supplier<Object> work;
         private final long timeoutMs;
         private final Instant queuedAt;
+        private final String owner;
+        private final JobPriority priority;
         private CompletableFuture<ResponseEntity<?>> future;
         private volatile boolean cancelled = false;
     }
@@ -73,21 +128,25 @@ public class JobQueue implements SmartLifecycle {
         this.resourceMonitor = resourceMonitor;
 
         // Initialize with dynamic capacity
-        int capacity =
+        this.queueCapacity =
                 resourceMonitor.calculateDynamicQueueCapacity(baseQueueCapacity, minQueueCapacity);
-        this.jobQueue = new LinkedBlockingQueue<>(capacity);
+        for (JobPriority priority : JobPriority.values()) {
+            backlog.put(priority, new LinkedHashMap<>());
+        }
     }
 
     // Remove @PostConstruct to let SmartLifecycle control startup
     private void initializeSchedulers() {
         log.debug(
-                "Starting job queue with base capacity {}, min capacity {}",
+                "Starting job queue with base capacity {}, min capacity {}, capacity weight {}",
                 baseQueueCapacity,
-                minQueueCapacity);
+                minQueueCapacity,
+                capacityWeight);
 
-        // Periodically process the job queue
+        // Periodically re-check the queue so that jobs held back by resource pressure start
+        // once the pressure is gone
         scheduler.scheduleWithFixedDelay(
-                this::processQueue, 0, queueCheckIntervalMs, TimeUnit.MILLISECONDS);
+                this::dispatchJobs, 0, queueCheckIntervalMs, TimeUnit.MILLISECONDS);
 
         // Periodically update queue capacity based on resource usage
         scheduler.scheduleWithFixedDelay(
@@ -100,7 +159,10 @@ public class JobQueue implements SmartLifecycle {
     // Remove @PreDestroy to let SmartLifecycle control shutdown
     private void shutdownSchedulers() {
         log.info("Shutting down job queue");
-        shuttingDown = true;
+        synchronized (queueLock) {
+            shuttingDown = true;
+            queueLock.notifyAll();
+        }
 
         // Complete any futures that are still waiting
         jobMap.forEach(
@@ -140,8 +202,8 @@ public class JobQueue implements SmartLifecycle {
     public void start() {
         log.info("Starting JobQueue lifecycle");
         if (!running) {
-            initializeSchedulers();
             running = true;
+            initializeSchedulers();
         }
     }
 
@@ -169,7 +231,8 @@ public class JobQueue implements SmartLifecycle {
     }
 
     /**
-     * Queues a job for execution when resources permit.
+     * Queues a job for execution when resources permit, for the default owner and with the default
+     * priority for its weight.
      *
      * @param jobId The job ID
      * @param resourceWeight The resource weight of the job (1-100)
@@ -179,50 +242,91 @@ public class JobQueue implements SmartLifecycle {
      */
     public CompletableFuture<ResponseEntity<?>> queueJob(
             String jobId, int resourceWeight, Supplier<Object> work, long timeoutMs) {
+        return queueJob(
+                jobId,
+                resourceWeight,
+                work,
+                timeoutMs,
+                DEFAULT_OWNER,
+                JobPriority.forWeight(resourceWeight));
+    }
+
+    /**
+     * Queues a job for execution when resources permit.
+     *
+     * @param jobId The job ID
+     * @param resourceWeight The resource weight of the job (1-100)
+     * @param work The work to be done
+     * @param timeoutMs The timeout in milliseconds
+     * @param owner The user, API key or client the job belongs to, used for fair sharing
+     * @param priority The priority class of the job
+     * @return A CompletableFuture that will complete when the job is executed
+     */
+    public CompletableFuture<ResponseEntity<?>> queueJob(
+            String jobId,
+            int resourceWeight,
+            Supplier<Object> work,
+            long timeoutMs,
+            String owner,
+            JobPriority priority) {
 
         // Create a CompletableFuture to track this job's completion
         CompletableFuture<ResponseEntity<?>> future = new CompletableFuture<>();
 
         // Create the queued job
         QueuedJob job =
-                new QueuedJob(jobId, resourceWeight, work, timeoutMs, Instant.now(), future, false);
+                new QueuedJob(
+                        jobId,
+                        Math.max(1, Math.min(100, resourceWeight)),
+                        work,
+                        timeoutMs,
+                        Instant.now(),
+                        owner != null ? owner : DEFAULT_OWNER,
+                        priority != null ? priority : JobPriority.NORMAL,
+                        future,
+                        false);
 
         // Store in our map for lookup
         jobMap.put(jobId, job);
 
-        // Update stats
-        totalQueuedJobs++;
-
-        // Synchronize access to the queue
         synchronized (queueLock) {
-            currentQueueSize = jobQueue.size();
+            // Update stats
+            totalQueuedJobs++;
 
-            // Try to add to the queue
+            // Wait a little for space before rejecting the job
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
             try {
-                boolean added = jobQueue.offer(job, 5, TimeUnit.SECONDS);
-                if (!added) {
-                    log.warn("Queue full, rejecting job {}", jobId);
-                    rejectedJobs++;
-                    future.completeExceptionally(
-                            new RuntimeException("Job queue full, please try again later"));
-                    jobMap.remove(jobId);
-                    return future;
+                while (queuedCount >= queueCapacity && !shuttingDown) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        log.warn("Queue full, rejecting job {}", jobId);
+                        rejectedJobs++;
+                        future.completeExceptionally(
+                                new RuntimeException("Job queue full, please try again later"));
+                        jobMap.remove(jobId);
+                        return future;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(queueLock, remaining);
                 }
-
-                log.debug(
-                        "Job {} queued for execution (weight: {}, queue size: {})",
-                        jobId,
-                        resourceWeight,
-                        jobQueue.size());
-
-                return future;
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 future.completeExceptionally(new RuntimeException("Job queue interrupted"));
                 jobMap.remove(jobId);
                 return future;
             }
+
+            enqueue(job);
+            log.debug(
+                    "Job {} queued (owner: {}, priority: {}, weight: {}, queue size: {})",
+                    jobId,
+                    job.owner,
+                    job.priority,
+                    job.resourceWeight,
+                    queuedCount);
         }
+
+        dispatchJobs();
+        return future;
     }
 
     /**
@@ -231,38 +335,22 @@ public class JobQueue implements SmartLifecycle {
      * @return The current capacity
      */
     public int getQueueCapacity() {
-        synchronized (queueLock) {
-            return ((LinkedBlockingQueue<QueuedJob>) jobQueue).remainingCapacity()
-                    + jobQueue.size();
-        }
+        return queueCapacity;
     }
 
     /** Updates the capacity of the job queue based on available system resources. */
     private void updateQueueCapacity() {
         try {
-            // Calculate new capacity once and cache the result
             int newCapacity =
                     resourceMonitor.calculateDynamicQueueCapacity(
                             baseQueueCapacity, minQueueCapacity);
 
-            int currentCapacity = getQueueCapacity();
-            if (newCapacity != currentCapacity) {
-                log.debug(
-                        "Updating job queue capacity from {} to {}", currentCapacity, newCapacity);
-
+            if (newCapacity != queueCapacity) {
+                log.debug("Updating job queue capacity from {} to {}", queueCapacity, newCapacity);
                 synchronized (queueLock) {
-                    // Double-check that capacity still needs to be updated
-                    // Use the cached currentCapacity to avoid calling getQueueCapacity() again
-                    if (newCapacity != currentCapacity) {
-                        // Create new queue with updated capacity
-                        BlockingQueue<QueuedJob> newQueue = new LinkedBlockingQueue<>(newCapacity);
-
-                        // Transfer jobs from old queue to new queue
-                        jobQueue.drainTo(newQueue);
-                        jobQueue = newQueue;
-
-                        currentQueueSize = jobQueue.size();
-                    }
+                    // Jobs already queued beyond a reduced capacity stay queued
+                    queueCapacity = newCapacity;
+                    queueLock.notifyAll();
                 }
             }
         } catch (Exception e) {
@@ -270,79 +358,116 @@ public class JobQueue implements SmartLifecycle {
         }
     }
 
-    /** Processes jobs in the queue, executing them when resources permit. */
-    private void processQueue() {
+    // Add a job to the backlog; must hold queueLock
+    private void enqueue(QueuedJob job) {
+        if (!ownerVirtualTime.containsKey(job.owner)) {
+            // A newly active owner starts level with the others instead of using saved-up credit
+            ownerVirtualTime.put(job.owner, virtualClock);
+        }
+        backlog.get(job.priority).computeIfAbsent(job.owner, k -> new ArrayDeque<>()).addLast(job);
+        queuedCount++;
+        currentQueueSize = queuedCount;
+    }
+
+    // Remove a job from the backlog; must hold queueLock
+    private boolean dequeue(QueuedJob job) {
+        Map<String, Deque<QueuedJob>> owners = backlog.get(job.priority);
+        Deque<QueuedJob> jobs = owners.get(job.owner);
+        if (jobs == null || !jobs.remove(job)) {
+            return false;
+        }
+        if (jobs.isEmpty()) {
+            owners.remove(job.owner);
+            if (backlog.values().stream().noneMatch(o -> o.containsKey(job.owner))) {
+                ownerVirtualTime.remove(job.owner);
+            }
+        }
+        queuedCount--;
+        currentQueueSize = queuedCount;
+        queueLock.notifyAll();
+        return true;
+    }
+
+    // The job that should run next; must hold queueLock
+    private QueuedJob nextJob() {
+        long now = Instant.now().toEpochMilli();
+        QueuedJob next = null;
+        long lowestVirtualTime = Long.MAX_VALUE;
+        boolean highestClass = true;
+        for (Map<String, Deque<QueuedJob>> owners : backlog.values()) {
+            if (owners.isEmpty()) {
+                continue;
+            }
+            for (Map.Entry<String, Deque<QueuedJob>> entry : owners.entrySet()) {
+                QueuedJob oldest = entry.getValue().peekFirst();
+                if (oldest == null) {
+                    continue;
+                }
+                long waitedMs = now - oldest.queuedAt.toEpochMilli();
+                if (!highestClass && waitedMs <= maxWaitTimeMs) {
+                    continue;
+                }
+                long virtualTime =
+                        ownerVirtualTime.getOrDefault(entry.getKey(), virtualClock)
+                                - waitCredit(waitedMs);
+                if (virtualTime < lowestVirtualTime) {
+                    lowestVirtualTime = virtualTime;
+                    next = oldest;
+                }
+            }
+            highestClass = false;
+        }
+        return next;
+    }
+
+    // Virtual time credited for waiting, a full capacity budget per maximum wait time
+    private long waitCredit(long waitedMs) {
+        if (maxWaitTimeMs <= 0 || waitedMs <= 0) {
+            return 0;
+        }
+        return waitedMs * capacityWeight / maxWaitTimeMs;
+    }
+
+    /** Starts waiting jobs for as long as they fit into the capacity budget. */
+    private void dispatchJobs() {
         // Jobs to execute after releasing the lock
-        java.util.List<QueuedJob> jobsToExecute = new java.util.ArrayList<>();
+        List<QueuedJob> jobsToExecute = new ArrayList<>();
 
-        // First synchronized block: poll jobs from the queue and prepare them for execution
         synchronized (queueLock) {
-            if (shuttingDown || jobQueue.isEmpty()) {
+            if (!running || shuttingDown || queuedCount == 0) {
                 return;
             }
 
             try {
-                // Get current resource status
                 ResourceMonitor.ResourceStatus status = resourceMonitor.getCurrentStatus().get();
-
-                // Check if we should execute any jobs
-                boolean canExecuteJobs = (status != ResourceMonitor.ResourceStatus.CRITICAL);
-
-                if (!canExecuteJobs) {
+                int budget =
+                        switch (status) {
+                            case OK -> capacityWeight;
+                            case WARNING -> capacityWeight / 2;
+                            case CRITICAL -> 0;
+                        };
+                if (budget <= 0) {
                     // Under critical load, don't execute any jobs
                     log.debug("System under critical load, delaying job execution");
                     return;
                 }
 
-                // Get jobs from the queue, up to a limit based on resource availability
-                int jobsToProcess =
-                        Math.max(
-                                1,
-                                switch (status) {
-                                    case OK -> 3;
-                                    case WARNING -> 1;
-                                    case CRITICAL -> 0;
-                                });
-
-                for (int i = 0; i < jobsToProcess && !jobQueue.isEmpty(); i++) {
-                    QueuedJob job = jobQueue.poll();
-                    if (job == null) break;
-
-                    // Check if it's been waiting too long
-                    long waitTimeMs = Instant.now().toEpochMilli() - job.queuedAt.toEpochMilli();
-                    if (waitTimeMs > maxWaitTimeMs) {
-                        log.warn(
-                                "Job {} exceeded maximum wait time ({} ms), executing anyway",
-                                job.jobId,
-                                waitTimeMs);
-
-                        // Add a specific status to the job context that can be tracked
-                        // This will be visible in the job status API
-                        try {
-                            TaskManager taskManager =
-                                    SpringContextHolder.getBean(TaskManager.class);
-                            if (taskManager != null) {
-                                taskManager.addNote(
-                                        job.jobId,
-                                        "QUEUED_TIMEOUT: Job waited in queue for "
-                                                + (waitTimeMs / 1000)
-                                                + " seconds, exceeding the maximum wait time of "
-                                                + (maxWaitTimeMs / 1000)
-                                                + " seconds.");
-                            }
-                        } catch (Exception e) {
-                            log.error(
-                                    "Failed to add timeout note to job {}: {}",
-                                    job.jobId,
-                                    e.getMessage());
-                        }
+                QueuedJob job;
+                while ((job = nextJob()) != null) {
+                    // A job heavier than the whole budget still runs on its own
+                    if (runningWeight + job.resourceWeight > budget && runningWeight > 0) {
+                        break;
+                    }
+                    long ownerTime = ownerVirtualTime.getOrDefault(job.owner, virtualClock);
+                    virtualClock = Math.max(virtualClock, ownerTime);
+                    dequeue(job);
+                    if (ownerVirtualTime.containsKey(job.owner)) {
+                        ownerVirtualTime.put(job.owner, ownerTime + job.resourceWeight);
                     }
+                    runningWeight += job.resourceWeight;
 
                     // Remove from our map
                     jobMap.remove(job.jobId);
-                    currentQueueSize = jobQueue.size();
-
-                    // Add to the list of jobs to execute outside the synchronized block
                     jobsToExecute.add(job);
                 }
             } catch (Exception e) {
@@ -357,37 +482,81 @@ public class JobQueue implements SmartLifecycle {
     }
 
     /**
-     * Executes a job from the queue.
+     * Executes a job from the queue and releases its weight once it has finished.
      *
      * @param job The job to execute
      */
     private void executeJob(QueuedJob job) {
         if (job.cancelled) {
             log.debug("Job {} was cancelled, not executing", job.jobId);
+            releaseWeight(job);
             return;
         }
 
-        jobExecutor.execute(
-                () -> {
-                    log.debug("Executing queued job {} (queued at {})", job.jobId, job.queuedAt);
+        long waitTimeMs = Instant.now().toEpochMilli() - job.queuedAt.toEpochMilli();
+        if (waitTimeMs > maxWaitTimeMs) {
+            log.warn("Job {} exceeded maximum wait time ({} ms)", job.jobId, waitTimeMs);
+            addTimeoutNote(job, waitTimeMs);
+        }
+
+        try {
+            jobExecutor.execute(
+                    () -> {
+                        log.debug(
+                                "Executing queued job {} (queued at {})", job.jobId, job.queuedAt);
 
-                    try {
-                        // Execute with timeout
-                        Object result = executeWithTimeout(job.work, job.timeoutMs);
+                        try {
+                            // Execute with timeout
+                            Object result = executeWithTimeout(job.work, job.timeoutMs);
+
+                            // Process the result
+                            if (result instanceof ResponseEntity) {
+                                job.future.complete((ResponseEntity<?>) result);
+                            } else {
+                                job.future.complete(ResponseEntity.ok(result));
+                            }
 
-                        // Process the result
-                        if (result instanceof ResponseEntity) {
-                            job.future.complete((ResponseEntity<?>) result);
-                        } else {
-                            job.future.complete(ResponseEntity.ok(result));
+                        } catch (Exception e) {
+                            log.error(
+                                    "Error executing queued job {}: {}",
+                                    job.jobId,
+                                    e.getMessage(),
+                                    e);
+                            job.future.completeExceptionally(e);
+                        } finally {
+                            releaseWeight(job);
                         }
+                    });
+        } catch (RejectedExecutionException e) {
+            job.future.completeExceptionally(e);
+            releaseWeight(job);
+        }
+    }
 
-                    } catch (Exception e) {
-                        log.error(
-                                "Error executing queued job {}: {}", job.jobId, e.getMessage(), e);
-                        job.future.completeExceptionally(e);
-                    }
-                });
+    // Return a finished job's weight to the budget and start whatever fits now
+    private void releaseWeight(QueuedJob job) {
+        synchronized (queueLock) {
+            runningWeight -= job.resourceWeight;
+        }
+        dispatchJobs();
+    }
+
+    // Add a note to the job status so that the long wait is visible in the job status API
+    private void addTimeoutNote(QueuedJob job, long waitTimeMs) {
+        try {
+            TaskManager taskManager = SpringContextHolder.getBean(TaskManager.class);
+            if (taskManager != null) {
+                taskManager.addNote(
+                        job.jobId,
+                        "QUEUED_TIMEOUT: Job waited in queue for "
+                                + (waitTimeMs / 1000)
+                                + " seconds, exceeding the maximum wait time of "
+                                + (maxWaitTimeMs / 1000)
+                                + " seconds.");
+            }
+        } catch (Exception e) {
+            log.error("Failed to add timeout note to job {}: {}", job.jobId, e.getMessage());
+        }
     }
 
     /**
@@ -431,28 +600,40 @@ public class JobQueue implements SmartLifecycle {
     }
 
     /**
-     * Gets the current position of a job in the queue.
+     * Gets the current position of a job in the queue. Jobs of a higher priority class, and older
+     * jobs of the same class, count as ahead of it; fair sharing between owners may still reorder
+     * jobs of the same class.
      *
      * @param jobId The job ID
      * @return The position (0-based) or -1 if not found
      */
     public int getJobPosition(String jobId) {
-        if (!jobMap.containsKey(jobId)) {
+        QueuedJob job = jobMap.get(jobId);
+        if (job == null) {
             return -1;
         }
 
-        // Count positions
-        int position = 0;
-        for (QueuedJob job : jobQueue) {
-            if (job.jobId.equals(jobId)) {
-                return position;
+        synchronized (queueLock) {
+            Deque<QueuedJob> ownerJobs = backlog.get(job.priority).get(job.owner);
+            if (ownerJobs == null || !ownerJobs.contains(job)) {
+                // In the map but no longer waiting, it might be executing already
+                return -1;
             }
-            position++;
-        }
 
-        // If we didn't find it in the queue but it's in the map,
-        // it might be executing already
-        return -1;
+            int position = 0;
+            for (Map<String, Deque<QueuedJob>> owners : backlog.values()) {
+                for (Deque<QueuedJob> jobs : owners.values()) {
+                    for (QueuedJob other : jobs) {
+                        if (other.priority.compareTo(job.priority) < 0
+                                || (other.priority == job.priority
+                                        && other.queuedAt.isBefore(job.queuedAt))) {
+                            position++;
+                        }
+                    }
+                }
+            }
+            return position;
+        }
     }
 
     /**
@@ -468,8 +649,9 @@ public class JobQueue implements SmartLifecycle {
             job.future.completeExceptionally(new RuntimeException("Job cancelled by user"));
 
             // Try to remove from queue if it's still there
-            jobQueue.remove(job);
-            currentQueueSize = jobQueue.size();
+            synchronized (queueLock) {
+                dequeue(job);
+            }
 
             log.debug("Job {} cancelled", jobId);
 
@@ -485,11 +667,15 @@ public class JobQueue implements SmartLifecycle {
      * @return A map containing queue statistics
      */
     public Map<String, Object> getQueueStats() {
-        return Map.of(
-                "queuedJobs", jobQueue.size(),
-                "queueCapacity", getQueueCapacity(),
-                "totalQueuedJobs", totalQueuedJobs,
-                "rejectedJobs", rejectedJobs,
-                "resourceStatus", resourceMonitor.getCurrentStatus().get().name());
+        synchronized (queueLock) {
+            return Map.of(
+                    "queuedJobs", queuedCount,
+                    "queueCapacity", getQueueCapacity(),
+                    "runningWeight", runningWeight,
+                    "capacityWeight", capacityWeight,
+                    "totalQueuedJobs", totalQueuedJobs,
+                    "rejectedJobs", rejectedJobs,
+                    "resourceStatus", resourceMonitor.getCurrentStatus().get().name());
+        }
     }
 }
@@ -0,0 +1,39 @@
+package stirling.software.common.service;
+
+import java.io.IOException;
+import java.util.List;
+
+import stirling.software.common.model.job.JobSnapshot;
+
+/**
+ * Persistent storage for the state of async jobs, so that job results survive a restart. The {@link
+ * TaskManager} saves a snapshot on every state change and replays all snapshots on startup.
+ *
+ * <p>Implementations must be thread-safe. Failures to save or remove are logged by the
+ * implementation and never propagated, because the in-memory job state stays authoritative while
+ * the application runs.
+ */
+public interface JobStore {
+
+    /**
+     * Save the latest state of a job, replacing any earlier snapshot of it
+     *
+     * @param snapshot The job state
+     */
+    void save(JobSnapshot snapshot);
+
+    /**
+     * Remove a job from the store
+     *
+     * @param jobId The job ID
+     */
+    void remove(String jobId);
+
+    /**
+     * Load the latest snapshot of every stored job
+     *
+     * @return The stored jobs in the order they were first saved
+     * @throws IOException If the store cannot be read
+     */
+    List<JobSnapshot> loadAll() throws IOException;
+}
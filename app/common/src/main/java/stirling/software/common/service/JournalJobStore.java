@@ -0,0 +1,202 @@
+package stirling.software.common.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import jakarta.annotation.PreDestroy;
+
+import lombok.extern.slf4j.Slf4j;
+
+import stirling.software.common.model.job.JobSnapshot;
+
+/**
+ * {@link JobStore} backed by an append-only journal of JSON lines. Every save or remove appends one
+ * line, and the journal is replayed on startup. By default the journal lives next to the result
+ * files in the FileStorage directory, so jobs and their files are kept or lost together.
+ *
+ * <p>The journal is compacted to one line per live job on startup and whenever it has grown to
+ * several times the number of live jobs. A line cut short by a crash is skipped on replay.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(
+        name = "stirling.job.store.journal.enabled",
+        havingValue = "true",
+        matchIfMissing = true)
+public class JournalJobStore implements JobStore {
+
+    private static final String JOURNAL_FILE_NAME = "job-journal.jsonl";
+    private static final int MIN_ENTRIES_BEFORE_COMPACTION = 1000;
+
+    private final Path journalPath;
+    private final ObjectMapper objectMapper =
+            new ObjectMapper()
+                    .registerModule(new JavaTimeModule())
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    // Latest snapshot of every live job, used for compaction
+    private final Map<String, JobSnapshot> jobs = new LinkedHashMap<>();
+    private BufferedWriter writer;
+    private boolean loaded = false;
+    private int entriesSinceCompaction = 0;
+
+    /** A single journal line */
+    private record JournalEntry(String op, String jobId, JobSnapshot job) {}
+
+    public JournalJobStore(
+            @Value("${stirling.job.store.journal.path:}") String journalPath,
+            @Value("${stirling.tempDir:/tmp/stirling-files}") String fileStorageDir) {
+        this.journalPath =
+                journalPath == null || journalPath.isBlank()
+                        ? Path.of(fileStorageDir).resolve(JOURNAL_FILE_NAME)
+                        : Path.of(journalPath);
+    }
+
+    @Override
+    public synchronized void save(JobSnapshot snapshot) {
+        try {
+            ensureLoaded();
+            jobs.put(snapshot.getJobId(), snapshot);
+            append(new JournalEntry("save", snapshot.getJobId(), snapshot));
+        } catch (IOException e) {
+            log.warn("Failed to journal job {}: {}", snapshot.getJobId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void remove(String jobId) {
+        try {
+            ensureLoaded();
+            if (jobs.remove(jobId) != null) {
+                append(new JournalEntry("remove", jobId, null));
+            }
+        } catch (IOException e) {
+            log.warn("Failed to journal removal of job {}: {}", jobId, e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized List<JobSnapshot> loadAll() throws IOException {
+        ensureLoaded();
+        return new ArrayList<>(jobs.values());
+    }
+
+    /** Close the journal */
+    @PreDestroy
+    public synchronized void close() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                log.warn("Failed to close job journal: {}", e.getMessage());
+            }
+            writer = null;
+        }
+    }
+
+    private void ensureLoaded() throws IOException {
+        if (loaded) {
+            return;
+        }
+        Files.createDirectories(journalPath.toAbsolutePath().getParent());
+        if (Files.exists(journalPath)) {
+            replay();
+        }
+        loaded = true;
+        compact();
+        log.debug("Loaded {} jobs from journal {}", jobs.size(), journalPath);
+    }
+
+    private void replay() throws IOException {
+        int lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    JournalEntry entry = objectMapper.readValue(line, JournalEntry.class);
+                    if ("save".equals(entry.op()) && entry.job() != null) {
+                        jobs.put(entry.jobId(), entry.job());
+                    } else if ("remove".equals(entry.op())) {
+                        jobs.remove(entry.jobId());
+                    }
+                } catch (JsonProcessingException e) {
+                    log.warn(
+                            "Skipping unreadable line {} of job journal {}: {}",
+                            lineNumber,
+                            journalPath,
+                            e.getOriginalMessage());
+                }
+            }
+        }
+    }
+
+    private void append(JournalEntry entry) throws IOException {
+        if (writer == null) {
+            writer =
+                    Files.newBufferedWriter(
+                            journalPath,
+                            StandardCharsets.UTF_8,
+                            StandardOpenOption.CREATE,
+                            StandardOpenOption.APPEND);
+        }
+        writer.write(toLine(entry));
+        writer.newLine();
+        writer.flush();
+
+        if (++entriesSinceCompaction > Math.max(MIN_ENTRIES_BEFORE_COMPACTION, jobs.size() * 4)) {
+            compact();
+        }
+    }
+
+    // Rewrite the journal with one line per live job, replacing the old one atomically
+    private void compact() throws IOException {
+        close();
+        Path compacted = journalPath.resolveSibling(journalPath.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8)) {
+            for (JobSnapshot snapshot : jobs.values()) {
+                out.write(toLine(new JournalEntry("save", snapshot.getJobId(), snapshot)));
+                out.newLine();
+            }
+        }
+        try {
+            Files.move(
+                    compacted,
+                    journalPath,
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(compacted, journalPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+        entriesSinceCompaction = 0;
+    }
+
+    private String toLine(JournalEntry entry) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(entry);
+    }
+}
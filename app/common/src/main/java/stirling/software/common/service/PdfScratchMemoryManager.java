@@ -0,0 +1,207 @@
+package stirling.software.common.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccess;
+import org.apache.pdfbox.io.RandomAccessStreamCache;
+import org.apache.pdfbox.io.RandomAccessStreamCache.StreamCacheCreateFunction;
+import org.apache.pdfbox.io.ScratchFile;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Process-wide memory budget for PDFBox stream caches. Every document leases the main memory its
+ * {@link ScratchFile} may use from one shared budget; once the budget is spent, new documents get
+ * file-only caches and spill straight to the shared scratch directory. Leases are returned when the
+ * document, and with it its stream cache, is closed.
+ *
+ * <p>Exposes the leased memory and the size of the scratch directory as the {@code
+ * stirling.pdf.scratch.memory.bytes} and {@code stirling.pdf.scratch.disk.bytes} gauges.
+ */
+@Service
+@Slf4j
+public class PdfScratchMemoryManager {
+
+    // Leases smaller than this are not worth a mixed cache
+    private static final long MIN_LEASE_BYTES = 1024 * 1024;
+
+    private final long budgetBytes;
+    private final Path scratchDirectory;
+    private final AtomicLong leasedBytes = new AtomicLong();
+    private final AtomicInteger activeCaches = new AtomicInteger();
+
+    public PdfScratchMemoryManager(
+            @Value("${stirling.pdf.scratch.memory-budget-mb:0}") long memoryBudgetMb,
+            @Value("${stirling.pdf.scratch.directory:}") String scratchDirectory,
+            @Autowired(required = false) MeterRegistry meterRegistry)
+            throws IOException {
+        // Default to a quarter of the heap so caches cannot crowd out everything else
+        this.budgetBytes =
+                memoryBudgetMb > 0
+                        ? memoryBudgetMb * 1024 * 1024
+                        : Runtime.getRuntime().maxMemory() / 4;
+        this.scratchDirectory =
+                scratchDirectory == null || scratchDirectory.isBlank()
+                        ? Path.of(System.getProperty("java.io.tmpdir"), "stirling-pdf-scratch")
+                        : Path.of(scratchDirectory);
+        Files.createDirectories(this.scratchDirectory);
+        log.info(
+                "PDF scratch memory budget: {}MB, spilling to {}",
+                budgetBytes / (1024 * 1024),
+                this.scratchDirectory);
+
+        if (meterRegistry != null) {
+            Gauge.builder(
+                            "stirling.pdf.scratch.memory.bytes",
+                            this,
+                            PdfScratchMemoryManager::getLeasedMemoryBytes)
+                    .description("Main memory leased to PDFBox stream caches")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+            Gauge.builder(
+                            "stirling.pdf.scratch.disk.bytes",
+                            this,
+                            PdfScratchMemoryManager::getScratchDiskBytes)
+                    .description("Size of the PDFBox scratch files on disk")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Creates a stream cache factory whose caches hold up to {@code desiredMemoryBytes} in memory,
+     * or less if the shared budget cannot cover it, and spill the rest to the scratch directory.
+     * The memory is leased when the cache is created, not when this method is called.
+     *
+     * @param desiredMemoryBytes the main memory the document would like to use, 0 for file only
+     * @return the cache factory to hand to PDFBox
+     */
+    public StreamCacheCreateFunction createStreamCacheFunction(long desiredMemoryBytes) {
+        return () -> {
+            long granted = acquire(desiredMemoryBytes);
+            MemoryUsageSetting settings =
+                    granted > 0
+                            ? MemoryUsageSetting.setupMixed(granted)
+                            : MemoryUsageSetting.setupTempFileOnly();
+            settings.setTempDir(scratchDirectory.toFile());
+            try {
+                ScratchFile scratchFile = new ScratchFile(settings);
+                activeCaches.incrementAndGet();
+                return new LeasedStreamCache(scratchFile, granted);
+            } catch (IOException e) {
+                release(granted);
+                throw new RuntimeException("ScratchFile initialization failed", e);
+            }
+        };
+    }
+
+    /**
+     * @return the main memory currently leased to open stream caches
+     */
+    public long getLeasedMemoryBytes() {
+        return leasedBytes.get();
+    }
+
+    /**
+     * @return the total main memory budget
+     */
+    public long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    /**
+     * @return the number of stream caches that have not been closed yet
+     */
+    public int getActiveCacheCount() {
+        return activeCaches.get();
+    }
+
+    /**
+     * @return the combined size of the scratch files currently on disk
+     */
+    public long getScratchDiskBytes() {
+        try (Stream<Path> files = Files.list(scratchDirectory)) {
+            return files.mapToLong(
+                            file -> {
+                                try {
+                                    return Files.size(file);
+                                } catch (IOException e) {
+                                    // Scratch files disappear as documents are closed
+                                    return 0;
+                                }
+                            })
+                    .sum();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private long acquire(long desiredBytes) {
+        if (desiredBytes <= 0) {
+            return 0;
+        }
+        while (true) {
+            long leased = leasedBytes.get();
+            long granted = Math.min(desiredBytes, budgetBytes - leased);
+            if (granted < MIN_LEASE_BYTES) {
+                log.debug(
+                        "Scratch memory budget exhausted ({}MB leased), using file-only cache",
+                        leased / (1024 * 1024));
+                return 0;
+            }
+            if (leasedBytes.compareAndSet(leased, leased + granted)) {
+                return granted;
+            }
+        }
+    }
+
+    private void release(long bytes) {
+        if (bytes > 0) {
+            leasedBytes.addAndGet(-bytes);
+        }
+    }
+
+    /** Stream cache that returns its memory lease when closed. */
+    private class LeasedStreamCache implements RandomAccessStreamCache {
+
+        private final ScratchFile delegate;
+        private final long leasedMemory;
+        private boolean closed;
+
+        LeasedStreamCache(ScratchFile delegate, long leasedMemory) {
+            this.delegate = delegate;
+            this.leasedMemory = leasedMemory;
+        }
+
+        @Override
+        public RandomAccess createBuffer() throws IOException {
+            return delegate.createBuffer();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                delegate.close();
+            } finally {
+                release(leasedMemory);
+                activeCaches.decrementAndGet();
+            }
+        }
+    }
+}
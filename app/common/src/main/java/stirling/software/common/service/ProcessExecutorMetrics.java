@@ -0,0 +1,43 @@
+package stirling.software.common.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import stirling.software.common.model.ApplicationProperties;
+import stirling.software.common.util.ProcessExecutor;
+import stirling.software.common.util.ProcessExecutor.Processes;
+
+/**
+ * Applies the configured session limits and timeouts to {@link ProcessExecutor} and exposes, per
+ * {@link Processes} type, the commands waiting for a slot and the commands running as the {@code
+ * stirling.process.queue.depth} and {@code stirling.process.running} gauges.
+ */
+@Service
+public class ProcessExecutorMetrics {
+
+    public ProcessExecutorMetrics(
+            ApplicationProperties applicationProperties,
+            @Autowired(required = false) MeterRegistry meterRegistry) {
+        ProcessExecutor.configure(applicationProperties);
+
+        if (meterRegistry != null) {
+            for (Processes type : Processes.values()) {
+                Gauge.builder(
+                                "stirling.process.queue.depth",
+                                () -> ProcessExecutor.getQueueDepth(type))
+                        .description("Commands waiting for a free process slot")
+                        .tag("type", type.name())
+                        .register(meterRegistry);
+                Gauge.builder(
+                                "stirling.process.running",
+                                () -> ProcessExecutor.getRunningCount(type))
+                        .description("Commands currently running")
+                        .tag("type", type.name())
+                        .register(meterRegistry);
+            }
+        }
+    }
+}
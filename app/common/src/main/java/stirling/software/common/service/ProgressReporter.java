@@ -0,0 +1,144 @@
+package stirling.software.common.service;
+
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Reports the progress of the async job that runs on the current thread, for example one step per
+ * processed page. The job is bound to the thread by {@link JobExecutorService}, so operations can
+ * report progress without knowing the job ID. When no job is bound, as for synchronous requests,
+ * every call is a no-op.
+ *
+ * <p>Progress is stored in the {@link TaskManager}, where it is returned by the job status endpoint
+ * and streamed to subscribers.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProgressReporter {
+
+    private static final ThreadLocal<JobContext> CURRENT_JOB = new ThreadLocal<>();
+
+    private final TaskManager taskManager;
+
+    /** Progress of one job, only touched by the thread the job is bound to */
+    private static final class JobContext {
+        private final String jobId;
+        private boolean enabled = true;
+        private int current;
+        private int total;
+
+        private JobContext(String jobId) {
+            this.jobId = jobId;
+        }
+    }
+
+    /**
+     * Wrap work so that progress reported while it runs is attributed to the given job, on
+     * whichever thread the work ends up running.
+     *
+     * @param jobId The job ID
+     * @param work The work of the job
+     * @return The wrapped work
+     */
+    public static <T> Supplier<T> bind(String jobId, Supplier<T> work) {
+        return () -> {
+            JobContext previous = CURRENT_JOB.get();
+            CURRENT_JOB.set(new JobContext(jobId));
+            try {
+                return work.get();
+            } finally {
+                if (previous == null) {
+                    CURRENT_JOB.remove();
+                } else {
+                    CURRENT_JOB.set(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * @return the ID of the job bound to the current thread, or null if there is none
+     */
+    public static String currentJobId() {
+        JobContext context = CURRENT_JOB.get();
+        return context == null ? null : context.jobId;
+    }
+
+    /**
+     * @return true if progress reported from this thread is recorded
+     */
+    public boolean isActive() {
+        JobContext context = CURRENT_JOB.get();
+        return context != null && context.enabled;
+    }
+
+    /**
+     * Turn reporting on or off for the rest of the current job.
+     *
+     * @param enabled false to ignore all further progress reports
+     */
+    public void setEnabled(boolean enabled) {
+        JobContext context = CURRENT_JOB.get();
+        if (context != null) {
+            context.enabled = enabled;
+        }
+    }
+
+    /**
+     * Start a new phase of work, resetting the step counter.
+     *
+     * @param totalSteps The number of steps of this phase, or 0 if unknown
+     * @param message A short description of the phase
+     */
+    public void start(int totalSteps, String message) {
+        update(0, totalSteps, message);
+    }
+
+    /**
+     * Mark one more step as done.
+     *
+     * @param message A short description of the step, may be null
+     */
+    public void step(String message) {
+        JobContext context = CURRENT_JOB.get();
+        if (context != null) {
+            int current =
+                    context.total > 0
+                            ? Math.min(context.current + 1, context.total)
+                            : context.current + 1;
+            update(current, context.total, message);
+        }
+    }
+
+    /**
+     * Replace the message without changing the step counter.
+     *
+     * @param message A short description of what is happening
+     */
+    public void message(String message) {
+        JobContext context = CURRENT_JOB.get();
+        if (context != null) {
+            update(context.current, context.total, message);
+        }
+    }
+
+    /**
+     * Set the progress explicitly.
+     *
+     * @param current The number of steps done
+     * @param total The total number of steps, or 0 if unknown
+     * @param message A short description of the current step, may be null
+     */
+    public void update(int current, int total, String message) {
+        JobContext context = CURRENT_JOB.get();
+        if (context == null || !context.enabled) {
+            return;
+        }
+        context.current = current;
+        context.total = total;
+        taskManager.updateProgress(context.jobId, current, total, message);
+    }
+}
@@ -1,51 +1,76 @@
 package stirling.software.common.service;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 import io.github.pixee.security.ZipSecurity;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 
 import lombok.extern.slf4j.Slf4j;
 
+import stirling.software.common.model.job.JobProgress;
 import stirling.software.common.model.job.JobResult;
+import stirling.software.common.model.job.JobSnapshot;
+import stirling.software.common.model.job.JobState;
 import stirling.software.common.model.job.JobStats;
 import stirling.software.common.model.job.ResultFile;
+import stirling.software.common.model.job.StoredResult;
 
-/** Manages async tasks and their results */
+/**
+ * Manages async tasks and their results. When a {@link JobStore} is available every state change is
+ * persisted, so completed results stay available across a restart. Progress updates are kept in
+ * memory only, and every change can be followed with {@link #subscribe}.
+ */
 @Service
 @Slf4j
 public class TaskManager {
     private final Map<String, JobResult> jobResults = new ConcurrentHashMap<>();
+    private final Set<String> runningJobs = ConcurrentHashMap.newKeySet();
+    private final Map<String, List<Consumer<JobResult>>> listeners = new ConcurrentHashMap<>();
+
+    private final ObjectMapper resultMapper =
+            new ObjectMapper()
+                    .registerModule(new JavaTimeModule())
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
 
     @Value("${stirling.jobResultExpiryMinutes:30}")
     private int jobResultExpiryMinutes = 30;
 
     private final FileStorage fileStorage;
+    private final JobStore jobStore;
     private final ScheduledExecutorService cleanupExecutor =
             Executors.newSingleThreadScheduledExecutor();
 
     /** Initialize the task manager and start the cleanup scheduler */
-    public TaskManager(FileStorage fileStorage) {
+    public TaskManager(FileStorage fileStorage, ObjectProvider<JobStore> jobStore) {
         this.fileStorage = fileStorage;
+        this.jobStore = jobStore.getIfAvailable();
 
         // Schedule periodic cleanup of old job results
         cleanupExecutor.scheduleAtFixedRate(
@@ -59,16 +84,79 @@ public class TaskManager {
                 jobResultExpiryMinutes);
     }
 
+    /** Restore the jobs recorded by the job store before the last shutdown */
+    @PostConstruct
+    public void restoreJobs() {
+        if (jobStore == null) {
+            return;
+        }
+
+        List<JobSnapshot> snapshots;
+        try {
+            snapshots = jobStore.loadAll();
+        } catch (IOException e) {
+            log.error("Failed to load persisted jobs: {}", e.getMessage(), e);
+            return;
+        }
+
+        int restored = 0;
+        int interrupted = 0;
+        int dropped = 0;
+        for (JobSnapshot snapshot : snapshots) {
+            JobResult jobResult = toJobResult(snapshot);
+            if (snapshot.getState() != JobState.COMPLETE) {
+                // The work and its input only lived in memory, so the job cannot be resumed
+                jobResult.failWithError(
+                        "Job was interrupted by a server restart, please submit it again");
+                jobResults.put(jobResult.getJobId(), jobResult);
+                persist(jobResult);
+                interrupted++;
+            } else if (jobResult.getAllResultFiles().stream()
+                    .allMatch(file -> fileStorage.fileExists(file.getFileId()))) {
+                jobResults.put(jobResult.getJobId(), jobResult);
+                restored++;
+            } else {
+                // Some result files are gone, so the result can no longer be downloaded
+                cleanupJobFiles(jobResult, jobResult.getJobId());
+                jobStore.remove(jobResult.getJobId());
+                dropped++;
+            }
+        }
+
+        if (!snapshots.isEmpty()) {
+            log.info(
+                    "Restored {} jobs, failed {} interrupted jobs, dropped {} jobs with missing files",
+                    restored,
+                    interrupted,
+                    dropped);
+        }
+    }
+
     /**
      * Create a new task with the given job ID
      *
      * @param jobId The job ID
      */
     public void createTask(String jobId) {
-        jobResults.put(jobId, JobResult.createNew(jobId));
+        JobResult jobResult = JobResult.createNew(jobId);
+        jobResults.put(jobId, jobResult);
+        jobChanged(jobResult);
         log.debug("Created task with job ID: {}", jobId);
     }
 
+    /**
+     * Mark a task as running once its work has started
+     *
+     * @param jobId The job ID
+     */
+    public void markRunning(String jobId) {
+        JobResult jobResult = jobResults.get(jobId);
+        if (jobResult != null && !jobResult.isComplete()) {
+            runningJobs.add(jobId);
+            jobChanged(jobResult);
+        }
+    }
+
     /**
      * Set the result of a task as a general object
      *
@@ -78,6 +166,7 @@ public class TaskManager {
     public void setResult(String jobId, Object result) {
         JobResult jobResult = getOrCreateJobResult(jobId);
         jobResult.completeWithResult(result);
+        jobChanged(jobResult);
         log.debug("Set result for job ID: {}", jobId);
     }
 
@@ -100,6 +189,7 @@ public class TaskManager {
                         extractZipToIndividualFiles(fileId, originalFileName);
                 if (!extractedFiles.isEmpty()) {
                     jobResult.completeWithFiles(extractedFiles);
+                    jobChanged(jobResult);
                     log.debug(
                             "Set multiple file results for job ID: {} with {} files extracted from ZIP",
                             jobId,
@@ -124,6 +214,7 @@ public class TaskManager {
                     "Failed to get file size for job {}: {}. Using size 0.", jobId, e.getMessage());
             jobResult.completeWithSingleFile(fileId, originalFileName, contentType, 0);
         }
+        jobChanged(jobResult);
     }
 
     /**
@@ -135,6 +226,7 @@ public class TaskManager {
     public void setMultipleFileResults(String jobId, List<ResultFile> resultFiles) {
         JobResult jobResult = getOrCreateJobResult(jobId);
         jobResult.completeWithFiles(resultFiles);
+        jobChanged(jobResult);
         log.debug(
                 "Set multiple file results for job ID: {} with {} files",
                 jobId,
@@ -150,6 +242,7 @@ public class TaskManager {
     public void setError(String jobId, String error) {
         JobResult jobResult = getOrCreateJobResult(jobId);
         jobResult.failWithError(error);
+        jobChanged(jobResult);
         log.debug("Set error for job ID: {}: {}", jobId, error);
     }
 
@@ -165,6 +258,7 @@ public class TaskManager {
                 && jobResult.getError() == null) {
             // If no result or error has been set, mark it as complete with an empty result
             jobResult.completeWithResult("Task completed successfully");
+            jobChanged(jobResult);
         }
         log.debug("Marked job ID: {} as complete", jobId);
     }
@@ -202,6 +296,7 @@ public class TaskManager {
         JobResult jobResult = jobResults.get(jobId);
         if (jobResult != null) {
             jobResult.addNote(note);
+            jobChanged(jobResult);
             log.debug("Added note to job ID: {}: {}", jobId, note);
             return true;
         }
@@ -209,6 +304,54 @@ public class TaskManager {
         return false;
     }
 
+    /**
+     * Update the progress of a running task. Progress is not persisted, and listeners are only
+     * notified when the percentage changes or the last step is reached.
+     *
+     * @param jobId The job ID
+     * @param current The number of steps done
+     * @param total The total number of steps, or 0 if unknown
+     * @param message A short description of the current step, may be null
+     */
+    public void updateProgress(String jobId, int current, int total, String message) {
+        JobResult jobResult = jobResults.get(jobId);
+        if (jobResult == null || jobResult.isComplete()) {
+            return;
+        }
+        int percent = total > 0 ? (int) Math.min(100, Math.max(0, current * 100L / total)) : 0;
+        JobProgress previous = jobResult.getProgress();
+        jobResult.setProgress(
+                new JobProgress(
+                        jobId, stateOf(jobResult).name(), percent, message, current, total));
+        if (previous == null
+                || previous.getPercentComplete() != percent
+                || previous.getTotal() != total
+                || (total > 0 && current >= total)) {
+            notifyListeners(jobResult);
+        }
+    }
+
+    /**
+     * Follow the changes of a task. The listener is called with the job after every state or
+     * progress change, from the thread that made the change, until it is unsubscribed, so it must
+     * not block; hand slow work such as network writes to another thread. It stays registered after
+     * the job completes, so callers should unsubscribe once they have seen a complete job.
+     *
+     * @param jobId The job ID
+     * @param listener Called with the changed job
+     * @return A handle that removes the listener again
+     */
+    public Runnable subscribe(String jobId, Consumer<JobResult> listener) {
+        listeners.computeIfAbsent(jobId, k -> new CopyOnWriteArrayList<>()).add(listener);
+        return () ->
+                listeners.computeIfPresent(
+                        jobId,
+                        (k, jobListeners) -> {
+                            jobListeners.remove(listener);
+                            return jobListeners.isEmpty() ? null : jobListeners;
+                        });
+    }
+
     /**
      * Get statistics about all jobs in the system
      *
@@ -292,6 +435,96 @@ public class TaskManager {
         return jobResults.computeIfAbsent(jobId, JobResult::createNew);
     }
 
+    /** Persist a changed job and tell its listeners */
+    private void jobChanged(JobResult jobResult) {
+        if (jobResult.isComplete()) {
+            runningJobs.remove(jobResult.getJobId());
+        }
+        persist(jobResult);
+        notifyListeners(jobResult);
+    }
+
+    private void notifyListeners(JobResult jobResult) {
+        List<Consumer<JobResult>> jobListeners = listeners.get(jobResult.getJobId());
+        if (jobListeners == null) {
+            return;
+        }
+        for (Consumer<JobResult> listener : jobListeners) {
+            try {
+                listener.accept(jobResult);
+            } catch (Exception e) {
+                log.debug("Listener of job {} failed: {}", jobResult.getJobId(), e.getMessage());
+            }
+        }
+    }
+
+    /** Save the current state of a job to the job store, if there is one */
+    private void persist(JobResult jobResult) {
+        JobState state = stateOf(jobResult);
+        if (jobStore == null) {
+            return;
+        }
+        try {
+            jobStore.save(
+                    JobSnapshot.builder()
+                            .jobId(jobResult.getJobId())
+                            .state(state)
+                            .createdAt(jobResult.getCreatedAt())
+                            .completedAt(jobResult.getCompletedAt())
+                            .error(jobResult.getError())
+                            .result(storeResult(jobResult))
+                            .resultFiles(new ArrayList<>(jobResult.getAllResultFiles()))
+                            .notes(new ArrayList<>(jobResult.getNotes()))
+                            .build());
+        } catch (Exception e) {
+            log.warn("Failed to persist job {}: {}", jobResult.getJobId(), e.getMessage());
+        }
+    }
+
+    private StoredResult storeResult(JobResult jobResult) {
+        try {
+            return StoredResult.of(jobResult.getResult(), resultMapper);
+        } catch (IllegalArgumentException e) {
+            // Keep the job even if its result object cannot be written as JSON
+            log.debug(
+                    "Result of job {} cannot be persisted: {}",
+                    jobResult.getJobId(),
+                    e.getMessage());
+            return null;
+        }
+    }
+
+    private JobState stateOf(JobResult jobResult) {
+        if (jobResult.isComplete()) {
+            return JobState.COMPLETE;
+        }
+        return runningJobs.contains(jobResult.getJobId()) ? JobState.RUNNING : JobState.QUEUED;
+    }
+
+    /** Rebuild a job result from its persisted snapshot */
+    private JobResult toJobResult(JobSnapshot snapshot) {
+        JobResult jobResult =
+                JobResult.builder()
+                        .jobId(snapshot.getJobId())
+                        .complete(snapshot.getState() == JobState.COMPLETE)
+                        .createdAt(snapshot.getCreatedAt())
+                        .completedAt(snapshot.getCompletedAt())
+                        .error(snapshot.getError())
+                        .result(
+                                snapshot.getResult() != null
+                                        ? snapshot.getResult().toResult(resultMapper)
+                                        : null)
+                        .resultFiles(
+                                snapshot.getResultFiles() != null
+                                        ? new ArrayList<>(snapshot.getResultFiles())
+                                        : null)
+                        .build();
+        if (snapshot.getNotes() != null) {
+            snapshot.getNotes().forEach(jobResult::addNote);
+        }
+        return jobResult;
+    }
+
     /** Clean up old completed job results */
     public void cleanupOldJobs() {
         LocalDateTime expiryThreshold =
@@ -312,6 +545,11 @@ public class TaskManager {
 
                     // Remove the job result
                     jobResults.remove(entry.getKey());
+                    runningJobs.remove(entry.getKey());
+                    listeners.remove(entry.getKey());
+                    if (jobStore != null) {
+                        jobStore.remove(entry.getKey());
+                    }
                     removedCount++;
                 }
             }
@@ -354,47 +592,43 @@ public class TaskManager {
         return false;
     }
 
-    /** Extract a ZIP file into individual files and store them */
+    /**
+     * Extract a ZIP file into individual files and store them. Entries are streamed from the stored
+     * ZIP straight into their own files, so memory use does not depend on the archive size. If
+     * extraction fails, the files extracted so far are deleted and the ZIP is kept.
+     */
     private List<ResultFile> extractZipToIndividualFiles(
             String zipFileId, String originalZipFileName) throws IOException {
         List<ResultFile> extractedFiles = new ArrayList<>();
 
-        MultipartFile zipFile = fileStorage.retrieveFile(zipFileId);
-
-        try (ZipInputStream zipIn =
-                ZipSecurity.createHardenedInputStream(
-                        new ByteArrayInputStream(zipFile.getBytes()))) {
+        try (InputStream zipFile = new BufferedInputStream(fileStorage.openStream(zipFileId));
+                ZipInputStream zipIn = ZipSecurity.createHardenedInputStream(zipFile)) {
             ZipEntry entry;
             while ((entry = zipIn.getNextEntry()) != null) {
                 if (!entry.isDirectory()) {
-                    // Use buffered reading for memory safety
-                    ByteArrayOutputStream out = new ByteArrayOutputStream();
-                    byte[] buffer = new byte[4096];
-                    int bytesRead;
-                    while ((bytesRead = zipIn.read(buffer)) != -1) {
-                        out.write(buffer, 0, bytesRead);
-                    }
-                    byte[] fileContent = out.toByteArray();
-
                     String contentType = determineContentType(entry.getName());
-                    String individualFileId = fileStorage.storeBytes(fileContent, entry.getName());
+                    // Reads the current entry only, the ZIP stream stays open
+                    String individualFileId = fileStorage.storeStream(zipIn, entry.getName());
+                    long fileSize = fileStorage.getFileSize(individualFileId);
 
                     ResultFile resultFile =
                             ResultFile.builder()
                                     .fileId(individualFileId)
                                     .fileName(entry.getName())
                                     .contentType(contentType)
-                                    .fileSize(fileContent.length)
+                                    .fileSize(fileSize)
                                     .build();
 
                     extractedFiles.add(resultFile);
-                    log.debug(
-                            "Extracted file: {} (size: {} bytes)",
-                            entry.getName(),
-                            fileContent.length);
+                    log.debug("Extracted file: {} (size: {} bytes)", entry.getName(), fileSize);
                 }
                 zipIn.closeEntry();
             }
+        } catch (IOException | RuntimeException e) {
+            for (ResultFile extracted : extractedFiles) {
+                fileStorage.deleteFile(extracted.getFileId());
+            }
+            throw e;
         }
 
         // Clean up the original ZIP file after extraction
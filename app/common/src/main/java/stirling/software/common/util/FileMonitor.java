@@ -9,6 +9,8 @@ import java.nio.channels.FileLock;
 import java.nio.file.*;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
@@ -30,6 +32,7 @@ public class FileMonitor {
     private final WatchService watchService;
     private final Predicate<Path> pathFilter;
     private final Path rootDir;
+    private final List<Consumer<Path>> readyListeners;
     private Set<Path> stagingFiles;
 
     /**
@@ -46,6 +49,7 @@ public class FileMonitor {
         this.stagingFiles = new HashSet<>();
         this.pathFilter = pathFilter;
         this.readyForProcessingFiles = ConcurrentHashMap.newKeySet();
+        this.readyListeners = new CopyOnWriteArrayList<>();
         this.watchService = FileSystems.getDefault().newWatchService();
         log.info("Monitoring directory: {}", runtimePathConfig.getPipelineWatchedFoldersPath());
         this.rootDir = Path.of(runtimePathConfig.getPipelineWatchedFoldersPath());
@@ -102,7 +106,8 @@ public class FileMonitor {
             key.pollEvents()
                     .forEach(
                             (evt) -> {
-                                final Path path = (Path) evt.context();
+                                // Event contexts are relative to the directory being watched
+                                final Path path = watchingDir.resolve((Path) evt.context());
                                 final WatchEvent.Kind<?> kind = evt.kind();
                                 if (shouldNotProcess(path)) return;
 
@@ -117,13 +122,12 @@ public class FileMonitor {
                                          - directory modification indicates a new file creation or deletion, which is handled by below
                                         */
                                     }
-                                    Path relativePathFromRoot = watchingDir.resolve(path);
                                     if (kind == ENTRY_CREATE) {
-                                        handleFileCreation(relativePathFromRoot);
+                                        handleFileCreation(path);
                                     } else if (kind == ENTRY_DELETE) {
-                                        handleFileRemoval(relativePathFromRoot);
+                                        handleFileRemoval(path);
                                     } else if (kind == ENTRY_MODIFY) {
-                                        handleFileModification(relativePathFromRoot);
+                                        handleFileModification(path);
                                     }
                                 } catch (Exception e) {
                                     log.error("Error while processing file: {}", path, e);
@@ -136,6 +140,36 @@ public class FileMonitor {
             }
         }
         readyForProcessingFiles.addAll(stagingFiles);
+        notifyReadyListeners();
+    }
+
+    /**
+     * Registers a listener that is called from {@link #trackFiles()} with every file that is ready
+     * for processing. A file is reported on every tracking cycle until it is removed, so listeners
+     * must tolerate repeated notifications.
+     *
+     * @param listener the callback, invoked on the monitoring thread and expected to return quickly
+     */
+    public void addReadyListener(Consumer<Path> listener) {
+        readyListeners.add(listener);
+    }
+
+    private void notifyReadyListeners() {
+        if (readyListeners.isEmpty()) {
+            return;
+        }
+        for (Path path : readyForProcessingFiles) {
+            if (!Files.isRegularFile(path)) {
+                continue;
+            }
+            for (Consumer<Path> listener : readyListeners) {
+                try {
+                    listener.accept(path);
+                } catch (Exception e) {
+                    log.error("Error notifying listener about ready file: {}", path, e);
+                }
+            }
+        }
     }
 
     private void handleDirectoryCreation(Path dir) throws IOException {
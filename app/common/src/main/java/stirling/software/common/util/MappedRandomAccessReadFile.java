@@ -0,0 +1,238 @@
+package stirling.software.common.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.io.RandomAccessReadView;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link RandomAccessRead} that maps a file into memory in fixed size windows instead of reading it
+ * through heap buffers. Seeks land directly in the OS page cache, and only a handful of windows are
+ * mapped at any time so files larger than 2 GB work as well.
+ *
+ * <p>Evicted windows are unmapped right away and all windows are unmapped on {@link #close()}, so
+ * the address space and file handle are released without waiting for the garbage collector. Mapped
+ * buffers never leave this class, and every access to them or to the position as well as every
+ * unmap happens under one lock, so a view reading on another thread can never touch a window after
+ * it was unmapped. Views sharing this reader across threads still move its single position, so like
+ * the other PDFBox readers it should be read from one thread at a time.
+ */
+@Slf4j
+public class MappedRandomAccessReadFile implements RandomAccessRead {
+
+    private static final int MAX_MAPPED_WINDOWS = 4;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long length;
+    private final int windowSize;
+    private final boolean deleteOnClose;
+
+    // Guards the windows and the position: nothing reads a window while another thread unmaps it
+    private final ReentrantLock lock = new ReentrantLock();
+    // Access ordered so the least recently used window is evicted first
+    private final LinkedHashMap<Long, MappedByteBuffer> windows =
+            new LinkedHashMap<>(MAX_MAPPED_WINDOWS, 0.75f, true);
+    private MappedByteBuffer currentWindow;
+    private long currentWindowStart = -1;
+    private long position;
+    private volatile boolean closed;
+
+    /**
+     * @param file the file to read
+     * @param windowSize the size of each mapped window in bytes
+     * @param deleteOnClose delete the file once it has been closed
+     * @throws IOException if the file cannot be opened
+     */
+    public MappedRandomAccessReadFile(File file, int windowSize, boolean deleteOnClose)
+            throws IOException {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("Window size must be positive: " + windowSize);
+        }
+        this.path = file.toPath();
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.length = channel.size();
+        this.windowSize = windowSize;
+        this.deleteOnClose = deleteOnClose;
+    }
+
+    @Override
+    public int read() throws IOException {
+        lock.lock();
+        try {
+            checkClosed();
+            if (position >= length) {
+                return -1;
+            }
+            MappedByteBuffer window = windowFor(position);
+            int value = window.get((int) (position - currentWindowStart)) & 0xff;
+            position++;
+            return value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int read(byte[] b, int offset, int length) throws IOException {
+        lock.lock();
+        try {
+            checkClosed();
+            if (position >= this.length) {
+                return -1;
+            }
+            int remaining = (int) Math.min(length, this.length - position);
+            int read = 0;
+            while (read < remaining) {
+                MappedByteBuffer window = windowFor(position);
+                int windowOffset = (int) (position - currentWindowStart);
+                int count = Math.min(remaining - read, window.capacity() - windowOffset);
+                window.get(windowOffset, b, offset + read, count);
+                read += count;
+                position += count;
+            }
+            return read;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long getPosition() throws IOException {
+        lock.lock();
+        try {
+            checkClosed();
+            return position;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void seek(long position) throws IOException {
+        if (position < 0) {
+            throw new IOException("Invalid position " + position);
+        }
+        lock.lock();
+        try {
+            checkClosed();
+            this.position = Math.min(position, length);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long length() throws IOException {
+        checkClosed();
+        return length;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public boolean isEOF() throws IOException {
+        lock.lock();
+        try {
+            checkClosed();
+            return position >= length;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public RandomAccessReadView createView(long startPosition, long streamLength)
+            throws IOException {
+        checkClosed();
+        return new RandomAccessReadView(this, startPosition, streamLength);
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            windows.values().forEach(IOUtils::unmap);
+            windows.clear();
+            currentWindow = null;
+            currentWindowStart = -1;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            channel.close();
+        } finally {
+            if (deleteOnClose) {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.error("Error deleting temp file: {}", path, e);
+                }
+            }
+        }
+    }
+
+    /** Number of windows currently mapped, for tests. */
+    int getMappedWindowCount() {
+        lock.lock();
+        try {
+            return windows.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called with the lock held
+
+    private MappedByteBuffer windowFor(long position) throws IOException {
+        long start = position - position % windowSize;
+        if (start == currentWindowStart) {
+            return currentWindow;
+        }
+        MappedByteBuffer window = windows.get(start);
+        if (window == null) {
+            if (windows.size() >= MAX_MAPPED_WINDOWS) {
+                Iterator<Map.Entry<Long, MappedByteBuffer>> eldest = windows.entrySet().iterator();
+                MappedByteBuffer evicted = eldest.next().getValue();
+                eldest.remove();
+                if (evicted == currentWindow) {
+                    currentWindow = null;
+                    currentWindowStart = -1;
+                }
+                IOUtils.unmap(evicted);
+            }
+            long size = Math.min(windowSize, length - start);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+            windows.put(start, window);
+        }
+        currentWindow = window;
+        currentWindowStart = start;
+        return window;
+    }
+
+    private void checkClosed() throws IOException {
+        if (closed) {
+            throw new IOException(getClass().getSimpleName() + " already closed");
+        }
+    }
+}
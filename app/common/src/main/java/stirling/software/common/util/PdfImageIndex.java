@@ -0,0 +1,179 @@
+package stirling.software.common.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.graphics.PDXObject;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Index of the image XObjects in a document, covering images placed directly on pages and images
+ * nested in the Form XObjects of a page.
+ *
+ * <p>Images are identified by a content key: a SHA-256 over the full raw (still encoded) stream
+ * combined with the image dimensions, bit depth and filters. Keys are computed lazily and at most
+ * once per stream object, so an image shared between pages is only read once and distinct images
+ * with identical headers are never merged. Building the index only walks the resources and does not
+ * read any image data.
+ *
+ * <p>Like the document it indexes, this class is not thread-safe except for {@link #getContentKey},
+ * which serializes stream reads so worker threads can share one index.
+ */
+public class PdfImageIndex {
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private final List<ImageOccurrence> occurrences = new ArrayList<>();
+    private final Map<Integer, List<ImageOccurrence>> occurrencesByPage = new LinkedHashMap<>();
+    // Keyed by stream identity so each object is hashed once however often it is referenced
+    private final Map<COSStream, String> contentKeys = new IdentityHashMap<>();
+
+    /** Where an image is referenced from: a page, or a Form XObject placed on a page. */
+    @Getter
+    @AllArgsConstructor
+    public static class ImageOccurrence {
+        private final int pageIndex;
+        private final COSName formName; // null for images placed directly on the page
+        private final COSName imageName;
+        private final PDResources resources; // the resources the image is registered in
+
+        public boolean isNested() {
+            return formName != null;
+        }
+
+        public PDImageXObject getImage() throws IOException {
+            return (PDImageXObject) resources.getXObject(imageName);
+        }
+    }
+
+    /**
+     * Indexes every page of the document. Pages whose resources cannot be read are logged and
+     * skipped so that one corrupt page does not hide the images on the others.
+     */
+    public static PdfImageIndex build(PDDocument document) {
+        PdfImageIndex index = new PdfImageIndex();
+        int pageIndex = 0;
+        for (PDPage page : document.getPages()) {
+            try {
+                index.indexPage(pageIndex, page);
+            } catch (Exception e) {
+                ExceptionUtils.logException("image indexing for page " + (pageIndex + 1), e);
+            }
+            pageIndex++;
+        }
+        return index;
+    }
+
+    /**
+     * @return all image occurrences in page order
+     */
+    public List<ImageOccurrence> getOccurrences() {
+        return Collections.unmodifiableList(occurrences);
+    }
+
+    /**
+     * @return the image occurrences on the given zero-based page
+     */
+    public List<ImageOccurrence> getOccurrences(int pageIndex) {
+        return Collections.unmodifiableList(occurrencesByPage.getOrDefault(pageIndex, List.of()));
+    }
+
+    /**
+     * Groups all occurrences by content key, in order of first appearance.
+     *
+     * @return the occurrences of each unique image
+     */
+    public Map<String, List<ImageOccurrence>> getImagesByContent() throws IOException {
+        Map<String, List<ImageOccurrence>> unique = new LinkedHashMap<>();
+        for (ImageOccurrence occurrence : occurrences) {
+            String key = getContentKey(occurrence.getImage());
+            unique.computeIfAbsent(key, k -> new ArrayList<>()).add(occurrence);
+        }
+        return unique;
+    }
+
+    /**
+     * Returns the content key of an image, hashing its stream on first use.
+     *
+     * @param image an image of the indexed document
+     * @return a key that is equal for images with identical encoded content
+     */
+    public synchronized String getContentKey(PDImageXObject image) {
+        COSStream stream = image.getCOSObject();
+        String key = contentKeys.get(stream);
+        if (key == null) {
+            key = computeContentKey(image, stream);
+            contentKeys.put(stream, key);
+        }
+        return key;
+    }
+
+    private void indexPage(int pageIndex, PDPage page) throws IOException {
+        PDResources resources = page.getResources();
+        if (resources == null || resources.getXObjectNames() == null) {
+            return;
+        }
+        for (COSName name : resources.getXObjectNames()) {
+            if (resources.isImageXObject(name)) {
+                add(new ImageOccurrence(pageIndex, null, name, resources));
+                continue;
+            }
+            PDXObject xObject = resources.getXObject(name);
+            if (xObject instanceof PDFormXObject form) {
+                indexForm(pageIndex, name, form);
+            }
+        }
+    }
+
+    private void indexForm(int pageIndex, COSName formName, PDFormXObject form) {
+        PDResources formResources = form.getResources();
+        if (formResources == null || formResources.getXObjectNames() == null) {
+            return;
+        }
+        for (COSName name : formResources.getXObjectNames()) {
+            if (formResources.isImageXObject(name)) {
+                add(new ImageOccurrence(pageIndex, formName, name, formResources));
+            }
+        }
+    }
+
+    private void add(ImageOccurrence occurrence) {
+        occurrences.add(occurrence);
+        occurrencesByPage
+                .computeIfAbsent(occurrence.getPageIndex(), k -> new ArrayList<>())
+                .add(occurrence);
+    }
+
+    private String computeContentKey(PDImageXObject image, COSStream stream) {
+        try (InputStream raw = stream.createRawInputStream()) {
+            return ChecksumUtils.checksum(raw, HASH_ALGORITHM)
+                    + ':'
+                    + image.getWidth()
+                    + 'x'
+                    + image.getHeight()
+                    + ':'
+                    + image.getBitsPerComponent()
+                    + ':'
+                    + stream.getFilters();
+        } catch (IOException e) {
+            // Never merge an unreadable image with anything else
+            ExceptionUtils.logException("image hash generation", e);
+            return "unreadable-" + System.identityHashCode(stream);
+        }
+    }
+}
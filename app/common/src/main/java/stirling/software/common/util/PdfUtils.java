@@ -41,6 +41,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import stirling.software.common.model.ApplicationProperties;
 import stirling.software.common.service.CustomPDFDocumentFactory;
+import stirling.software.common.service.ProgressReporter;
 
 @Slf4j
 @UtilityClass
@@ -177,6 +178,10 @@ public class PdfUtils {
                 pdfRenderer.setAnnotationsFilter(annotation -> false);
             }
             int pageCount = document.getNumberOfPages();
+            ProgressReporter progress = ApplicationContextProvider.getBean(ProgressReporter.class);
+            if (progress != null) {
+                progress.start(pageCount, "Rendering pages");
+            }
 
             // Create a ByteArrayOutputStream to save the image(s) to
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
@@ -218,6 +223,7 @@ public class PdfUtils {
                                 throw ExceptionUtils.createOutOfMemoryDpiException(i + 1, DPI, e);
                             }
                             writer.writeToSequence(new IIOImage(image, null, null), param);
+                            reportRenderedPage(progress, i, pageCount);
                         }
 
                         writer.endWriteSequence();
@@ -323,6 +329,7 @@ public class PdfUtils {
 
                         g.drawImage(pageImage, x, currentHeight, null);
                         currentHeight += pageImage.getHeight();
+                        reportRenderedPage(progress, i, pageCount);
                     }
 
                     // Write the image to the output stream
@@ -366,6 +373,7 @@ public class PdfUtils {
                                                     imageType.toLowerCase())));
                             zos.write(baosImage.toByteArray());
                         }
+                        reportRenderedPage(progress, i, pageCount);
                     }
                     // Log that the images were successfully written to the byte array
                     log.info("Images successfully written to byte array as a zip");
@@ -379,6 +387,12 @@ public class PdfUtils {
         }
     }
 
+    private void reportRenderedPage(ProgressReporter progress, int pageIndex, int pageCount) {
+        if (progress != null) {
+            progress.step("Rendered page " + (pageIndex + 1) + " of " + pageCount);
+        }
+    }
+
     /**
      * Converts a given Pdf file to PDF-Image.
      *
@@ -3,15 +3,23 @@ package stirling.software.common.util;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.InterruptedIOException;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
+import java.util.ArrayDeque;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import io.github.pixee.security.BoundedLineReader;
 
@@ -20,20 +28,38 @@ import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import stirling.software.common.model.ApplicationProperties;
+import stirling.software.common.service.ProgressReporter;
 
 @Slf4j
 public class ProcessExecutor {
 
+    private static final int MAX_LINE_LENGTH = 5_000_000;
+    private static final int MAX_OUTPUT_LINES = 10_000;
+    private static final long PUMP_DRAIN_TIMEOUT_SECONDS = 10;
+    private static final long DESTROY_TIMEOUT_SECONDS = 10;
+
     private static final Map<Processes, ProcessExecutor> instances = new ConcurrentHashMap<>();
+    private static final ExecutorService OUTPUT_PUMPS =
+            ExecutorFactory.newVirtualOrCachedThreadExecutor();
+    private static final Map<String, Set<Process>> processesByJob = new ConcurrentHashMap<>();
+    private static final Set<Process> cancelledProcesses = ConcurrentHashMap.newKeySet();
     private static ApplicationProperties applicationProperties = new ApplicationProperties();
+    private final Processes processType;
+    private final int limit;
     private final Semaphore semaphore;
     private final boolean liveUpdates;
-    private long timeoutDuration;
+    private final long timeoutMillis;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
 
-    private ProcessExecutor(int semaphoreLimit, boolean liveUpdates, long timeout) {
-        this.semaphore = new Semaphore(semaphoreLimit);
+    private ProcessExecutor(
+            Processes processType, int semaphoreLimit, boolean liveUpdates, long timeoutMinutes) {
+        this.processType = processType;
+        this.limit = semaphoreLimit;
+        // Fair, so commands run in the order they were submitted
+        this.semaphore = new Semaphore(semaphoreLimit, true);
         this.liveUpdates = liveUpdates;
-        this.timeoutDuration = timeout;
+        this.timeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutes);
     }
 
     public static ProcessExecutor getInstance(Processes processType) {
@@ -151,7 +177,7 @@ public class ProcessExecutor {
                                                 .getTimeoutMinutes()
                                                 .getOcrMyPdfTimeoutMinutes();
                             };
-                    return new ProcessExecutor(semaphoreLimit, liveUpdates, timeoutMinutes);
+                    return new ProcessExecutor(key, semaphoreLimit, liveUpdates, timeoutMinutes);
                 });
     }
 
@@ -162,119 +188,124 @@ public class ProcessExecutor {
 
     public ProcessExecutorResult runCommandWithOutputHandling(
             List<String> command, File workingDirectory) throws IOException, InterruptedException {
+        acquire();
+        try {
+            return runWithSlot(command, workingDirectory);
+        } finally {
+            running.decrementAndGet();
+            semaphore.release();
+        }
+    }
+
+    /**
+     * Run a command that uses a resource which is only chosen once the command holds a slot, such
+     * as the least loaded of several servers. Choosing it while the command still waits in line
+     * could bind the command to a resource that is busy by the time it runs.
+     *
+     * @param resource Chooses the resource, called once a slot is held
+     * @param command Builds the command that uses the resource
+     * @return The result of the command
+     */
+    public <R extends CommandResource> ProcessExecutorResult runCommandWithOutputHandling(
+            Supplier<R> resource, Function<? super R, List<String>> command)
+            throws IOException, InterruptedException {
+        acquire();
+        try (R chosen = resource.get()) {
+            try {
+                return runWithSlot(command.apply(chosen), null);
+            } catch (IOException | RuntimeException e) {
+                chosen.markFailed();
+                throw e;
+            }
+        } finally {
+            running.decrementAndGet();
+            semaphore.release();
+        }
+    }
+
+    /** A resource a command runs with, released once the command has finished */
+    public interface CommandResource extends AutoCloseable {
+
+        /** Called before closing when the command failed */
+        default void markFailed() {}
+
+        @Override
+        void close();
+    }
+
+    // Runs a command while holding a slot
+    private ProcessExecutorResult runWithSlot(List<String> command, File workingDirectory)
+            throws IOException, InterruptedException {
         String messages = "";
         int exitCode = 1;
-        semaphore.acquire();
-        try {
+        log.info("Running command: {}", String.join(" ", command));
+        ProcessBuilder processBuilder = new ProcessBuilder(command);
 
-            log.info("Running command: {}", String.join(" ", command));
-            ProcessBuilder processBuilder = new ProcessBuilder(command);
+        // Use the working directory if it's set
+        if (workingDirectory != null) {
+            processBuilder.directory(workingDirectory);
+        }
+        Process process = processBuilder.start();
+        String jobId = ProgressReporter.currentJobId();
+        if (jobId != null) {
+            processesByJob.computeIfAbsent(jobId, k -> ConcurrentHashMap.newKeySet()).add(process);
+        }
 
-            // Use the working directory if it's set
-            if (workingDirectory != null) {
-                processBuilder.directory(workingDirectory);
-            }
-            Process process = processBuilder.start();
-
-            // Read the error stream and standard output stream concurrently
-            List<String> errorLines = new ArrayList<>();
-            List<String> outputLines = new ArrayList<>();
-
-            Thread errorReaderThread =
-                    new Thread(
-                            () -> {
-                                try (BufferedReader errorReader =
-                                        new BufferedReader(
-                                                new InputStreamReader(
-                                                        process.getErrorStream(),
-                                                        StandardCharsets.UTF_8))) {
-                                    String line;
-                                    while ((line =
-                                                    BoundedLineReader.readLine(
-                                                            errorReader, 5_000_000))
-                                            != null) {
-                                        errorLines.add(line);
-                                        if (liveUpdates) log.info(line);
-                                    }
-                                } catch (InterruptedIOException e) {
-                                    log.warn("Error reader thread was interrupted due to timeout.");
-                                } catch (IOException e) {
-                                    log.error("exception", e);
-                                }
-                            });
-
-            Thread outputReaderThread =
-                    new Thread(
-                            () -> {
-                                try (BufferedReader outputReader =
-                                        new BufferedReader(
-                                                new InputStreamReader(
-                                                        process.getInputStream(),
-                                                        StandardCharsets.UTF_8))) {
-                                    String line;
-                                    while ((line =
-                                                    BoundedLineReader.readLine(
-                                                            outputReader, 5_000_000))
-                                            != null) {
-                                        outputLines.add(line);
-                                        if (liveUpdates) log.info(line);
-                                    }
-                                } catch (InterruptedIOException e) {
-                                    log.warn("Error reader thread was interrupted due to timeout.");
-                                } catch (IOException e) {
-                                    log.error("exception", e);
-                                }
-                            });
-
-            errorReaderThread.start();
-            outputReaderThread.start();
+        // Read the error stream and standard output stream concurrently
+        OutputBuffer errorLines = new OutputBuffer();
+        OutputBuffer outputLines = new OutputBuffer();
+        Future<?> errorPump = pump(process.getErrorStream(), errorLines);
+        Future<?> outputPump = pump(process.getInputStream(), outputLines);
 
+        try {
             // Wait for the conversion process to complete
-            boolean finished = process.waitFor(timeoutDuration, TimeUnit.MINUTES);
+            boolean finished;
+            try {
+                finished = process.waitFor(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                destroyProcessTree(process);
+                throw e;
+            }
 
             if (!finished) {
-                // Terminate the process
-                process.destroy();
-                // Interrupt the reader threads
-                errorReaderThread.interrupt();
-                outputReaderThread.interrupt();
+                destroyProcessTree(process);
                 throw new IOException("Process timeout exceeded.");
             }
+            if (cancelledProcesses.remove(process)) {
+                throw new IOException("Process was cancelled with its job.");
+            }
             exitCode = process.exitValue();
-            // Wait for the reader threads to finish
-            errorReaderThread.join();
-            outputReaderThread.join();
-
-            boolean isQpdf =
-                    command != null && !command.isEmpty() && command.get(0).contains("qpdf");
-
-            if (!outputLines.isEmpty()) {
-                String outputMessage = String.join("\n", outputLines);
-                messages += outputMessage;
-                if (!liveUpdates) {
-                    log.info("Command output:\n{}", outputMessage);
-                }
+            // Collect the remaining output, without waiting on pipes kept open by children
+            awaitPump(errorPump);
+            awaitPump(outputPump);
+        } finally {
+            cancelledProcesses.remove(process);
+            if (jobId != null) {
+                processesByJob.computeIfPresent(
+                        jobId,
+                        (k, processes) -> {
+                            processes.remove(process);
+                            return processes.isEmpty() ? null : processes;
+                        });
             }
+        }
 
-            if (!errorLines.isEmpty()) {
-                String errorMessage = String.join("\n", errorLines);
-                messages += errorMessage;
-                if (!liveUpdates) {
-                    log.warn("Command error output:\n{}", errorMessage);
-                }
-                if (exitCode != 0) {
-                    if (isQpdf && exitCode == 3) {
-                        log.warn("qpdf succeeded with warnings: {}", messages);
-                    } else {
-                        throw new IOException(
-                                "Command process failed with exit code "
-                                        + exitCode
-                                        + ". Error message: "
-                                        + errorMessage);
-                    }
-                }
+        boolean isQpdf = command != null && !command.isEmpty() && command.get(0).contains("qpdf");
+
+        if (!outputLines.isEmpty()) {
+            String outputMessage = outputLines.join();
+            messages += outputMessage;
+            if (!liveUpdates) {
+                log.info("Command output:\n{}", outputMessage);
             }
+        }
 
+        if (!errorLines.isEmpty()) {
+            String errorMessage = errorLines.join();
+            messages += errorMessage;
+            if (!liveUpdates) {
+                log.warn("Command error output:\n{}", errorMessage);
+            }
             if (exitCode != 0) {
                 if (isQpdf && exitCode == 3) {
                     log.warn("qpdf succeeded with warnings: {}", messages);
@@ -282,16 +313,175 @@ public class ProcessExecutor {
                     throw new IOException(
                             "Command process failed with exit code "
                                     + exitCode
-                                    + "\nLogs: "
-                                    + messages);
+                                    + ". Error message: "
+                                    + errorMessage);
                 }
             }
-        } finally {
-            semaphore.release();
+        }
+
+        if (exitCode != 0) {
+            if (isQpdf && exitCode == 3) {
+                log.warn("qpdf succeeded with warnings: {}", messages);
+            } else {
+                throw new IOException(
+                        "Command process failed with exit code "
+                                + exitCode
+                                + "\nLogs: "
+                                + messages);
+            }
         }
         return new ProcessExecutorResult(exitCode, messages);
     }
 
+    // Waits in line for a free slot, for at most as long as a process may run
+    private void acquire() throws IOException, InterruptedException {
+        waiting.incrementAndGet();
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+        } finally {
+            waiting.decrementAndGet();
+        }
+        if (!acquired) {
+            throw new IOException(
+                    "Timed out waiting for one of the "
+                            + limit
+                            + " "
+                            + processType
+                            + " process slots to become free.");
+        }
+        running.incrementAndGet();
+    }
+
+    private Future<?> pump(InputStream stream, OutputBuffer buffer) {
+        return OUTPUT_PUMPS.submit(
+                () -> {
+                    try (BufferedReader reader =
+                            new BufferedReader(
+                                    new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+                        String line;
+                        while ((line = BoundedLineReader.readLine(reader, MAX_LINE_LENGTH))
+                                != null) {
+                            buffer.add(line);
+                            if (liveUpdates) log.info(line);
+                        }
+                    } catch (IOException e) {
+                        // The stream is closed when the process is killed
+                        log.debug("Stopped reading process output: {}", e.getMessage());
+                    }
+                });
+    }
+
+    private void awaitPump(Future<?> pump) throws InterruptedException {
+        try {
+            pump.get(PUMP_DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Process output still open after exit, a child process may have outlived it");
+            pump.cancel(true);
+        } catch (ExecutionException e) {
+            log.error("exception", e.getCause());
+        }
+    }
+
+    /**
+     * Kill the external processes started on behalf of a job, including their children, so that a
+     * cancelled job stops using CPU right away. The job's call to {@link
+     * #runCommandWithOutputHandling} then fails with an IOException.
+     *
+     * @param jobId The job ID
+     * @return the number of processes that were killed
+     */
+    public static int cancelJob(String jobId) {
+        Set<Process> processes = processesByJob.remove(jobId);
+        if (processes == null) {
+            return 0;
+        }
+        for (Process process : processes) {
+            cancelledProcesses.add(process);
+            destroyProcessTree(process);
+        }
+        log.info("Killed {} process(es) of cancelled job {}", processes.size(), jobId);
+        return processes.size();
+    }
+
+    // Children must be collected first, once the parent is gone they are no longer its descendants
+    private static void destroyProcessTree(Process process) {
+        List<ProcessHandle> descendants = process.descendants().toList();
+        descendants.forEach(ProcessHandle::destroy);
+        process.destroy();
+        try {
+            if (!process.waitFor(DESTROY_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                descendants.forEach(ProcessHandle::destroyForcibly);
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            descendants.forEach(ProcessHandle::destroyForcibly);
+            process.destroyForcibly();
+        }
+    }
+
+    /**
+     * @return the number of commands of the given type waiting for a free slot
+     */
+    public static int getQueueDepth(Processes processType) {
+        ProcessExecutor executor = instances.get(processType);
+        return executor == null ? 0 : executor.waiting.get();
+    }
+
+    /**
+     * @return the number of commands of the given type currently running
+     */
+    public static int getRunningCount(Processes processType) {
+        ProcessExecutor executor = instances.get(processType);
+        return executor == null ? 0 : executor.running.get();
+    }
+
+    /**
+     * Use the configured session limits and timeouts instead of the defaults. Executors created
+     * before this call keep their settings until they are next requested.
+     *
+     * @param properties The application properties
+     */
+    public static void configure(ApplicationProperties properties) {
+        applicationProperties = properties;
+        instances.clear();
+    }
+
+    /** The last lines written to a stream, older lines are counted and dropped */
+    static class OutputBuffer {
+        private final int maxLines;
+        private final ArrayDeque<String> lines = new ArrayDeque<>();
+        private long droppedLines = 0;
+
+        OutputBuffer() {
+            this(MAX_OUTPUT_LINES);
+        }
+
+        OutputBuffer(int maxLines) {
+            this.maxLines = maxLines;
+        }
+
+        synchronized void add(String line) {
+            if (lines.size() == maxLines) {
+                lines.removeFirst();
+                droppedLines++;
+            }
+            lines.addLast(line);
+        }
+
+        synchronized boolean isEmpty() {
+            return lines.isEmpty();
+        }
+
+        synchronized String join() {
+            String joined = String.join("\n", lines);
+            return droppedLines == 0
+                    ? joined
+                    : "[" + droppedLines + " earlier lines omitted]\n" + joined;
+        }
+    }
+
     public enum Processes {
         LIBRE_OFFICE,
         PDFTOHTML,
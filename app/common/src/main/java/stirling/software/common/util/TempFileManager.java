@@ -79,16 +79,24 @@ public class TempFileManager {
     }
 
     /**
-     * Convert a MultipartFile to a temporary File and register it. This is a wrapper around
-     * GeneralUtils.convertMultipartFileToFile that ensures the created temp file is registered.
+     * Move a MultipartFile into a registered temporary file. Uploads the servlet container already
+     * spooled to disk are moved rather than copied, which means the MultipartFile may no longer be
+     * readable afterwards; callers must use the returned file instead.
      *
      * @param multipartFile The MultipartFile to convert
      * @return The created temporary file
      * @throws IOException If an I/O error occurs
      */
     public File convertMultipartFileToFile(MultipartFile multipartFile) throws IOException {
-        File tempFile = GeneralUtils.convertMultipartFileToFile(multipartFile);
-        return registry.register(tempFile);
+        File tempFile = createTempFile(".tmp");
+        try {
+            // Relative targets would be resolved against the container's upload directory
+            multipartFile.transferTo(tempFile.getAbsoluteFile());
+        } catch (IOException | RuntimeException e) {
+            deleteTempFile(tempFile);
+            throw e;
+        }
+        return tempFile;
     }
 
     /**
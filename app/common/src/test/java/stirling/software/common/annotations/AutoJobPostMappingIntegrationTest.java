@@ -32,6 +32,7 @@ import stirling.software.common.model.api.PDFFile;
 import stirling.software.common.service.FileStorage;
 import stirling.software.common.service.JobExecutorService;
 import stirling.software.common.service.JobQueue;
+import stirling.software.common.service.ProgressReporter;
 import stirling.software.common.service.ResourceMonitor;
 
 @ExtendWith(MockitoExtension.class)
@@ -49,9 +50,12 @@ class AutoJobPostMappingIntegrationTest {
 
     @Mock private JobQueue jobQueue;
 
+    @Mock private ProgressReporter progressReporter;
+
     @BeforeEach
     void setUp() {
-        autoJobAspect = new AutoJobAspect(jobExecutorService, request, fileStorage);
+        autoJobAspect =
+                new AutoJobAspect(jobExecutorService, request, fileStorage, progressReporter);
     }
 
     @Mock private ProceedingJoinPoint joinPoint;
@@ -20,6 +20,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
 
 import stirling.software.common.model.api.PDFFile;
 import stirling.software.common.service.SpyPDFDocumentFactory.StrategyType;
@@ -122,6 +123,30 @@ class CustomPDFDocumentFactoryTest {
         }
     }
 
+    @Test
+    void testLoadFileBackedMultipartReadsInPlace() throws IOException {
+        File file = writeTempFile(inflatePdf(basePdfBytes, 5));
+        MultipartFile multipart =
+                new FileOrUploadService().toMultipartFile("doc.pdf", file.toPath());
+        try (PDDocument doc = factory.load(multipart)) {
+            assertNotNull(doc);
+            Assertions.assertEquals(StrategyType.MEMORY_ONLY, factory.lastStrategyUsed);
+        }
+        assertTrue(file.exists(), "Stored file must not be consumed by loading it");
+        Files.delete(file.toPath());
+    }
+
+    @Test
+    void testLoadSmallFileDoesNotCopyItOntoTheHeap() throws IOException {
+        File file = writeTempFile(inflatePdf(basePdfBytes, 5));
+        try (PDDocument doc = factory.load(file)) {
+            assertNotNull(doc);
+            // The file is read in place and only released once the document is closed
+            assertTrue(file.exists());
+        }
+        assertFalse(file.exists());
+    }
+
     @Test
     void testLoadFromStringPath() throws IOException {
         File file = writeTempFile(inflatePdf(basePdfBytes, 5));
@@ -82,6 +82,34 @@ class FileStorageTest {
         assertArrayEquals(fileContent, Files.readAllBytes(tempDir.resolve(fileId)));
     }
 
+    @Test
+    void testStoreStream() throws IOException {
+        // Arrange
+        byte[] fileContent = "Test PDF content".getBytes();
+        java.io.InputStream in = new java.io.ByteArrayInputStream(fileContent);
+
+        // Act
+        String fileId = fileStorage.storeStream(in, "test.pdf");
+
+        // Assert
+        assertArrayEquals(fileContent, Files.readAllBytes(tempDir.resolve(fileId)));
+        assertEquals(-1, in.read(), "Stream should be read to its end");
+    }
+
+    @Test
+    void testOpenStream() throws IOException {
+        // Arrange
+        byte[] fileContent = "Test PDF content".getBytes();
+        String fileId = UUID.randomUUID().toString();
+        Files.write(tempDir.resolve(fileId), fileContent);
+
+        // Act & Assert
+        try (java.io.InputStream in = fileStorage.openStream(fileId)) {
+            assertArrayEquals(fileContent, in.readAllBytes());
+        }
+        assertThrows(IOException.class, () -> fileStorage.openStream("missing"));
+    }
+
     @Test
     void testRetrieveFile() throws IOException {
         // Arrange
@@ -91,7 +119,7 @@ class FileStorageTest {
         Files.write(filePath, fileContent);
 
         MultipartFile expectedFile = mock(MultipartFile.class);
-        when(fileOrUploadService.toMockMultipartFile(eq(fileId), eq(fileContent)))
+        when(fileOrUploadService.toMultipartFile(eq(fileId), eq(filePath)))
                 .thenReturn(expectedFile);
 
         // Act
@@ -99,7 +127,45 @@ class FileStorageTest {
 
         // Assert
         assertSame(expectedFile, result);
-        verify(fileOrUploadService).toMockMultipartFile(eq(fileId), eq(fileContent));
+        verify(fileOrUploadService).toMultipartFile(eq(fileId), eq(filePath));
+        verify(fileOrUploadService, never()).toMockMultipartFile(any(), any());
+    }
+
+    @Test
+    void testRetrieveFile_StreamsFromDisk() throws IOException {
+        // Arrange
+        byte[] fileContent = "Test PDF content".getBytes();
+        String fileId = UUID.randomUUID().toString();
+        Path filePath = tempDir.resolve(fileId);
+        Files.write(filePath, fileContent);
+        FileStorage storage = new FileStorage(new FileOrUploadService());
+        ReflectionTestUtils.setField(storage, "tempDirPath", tempDir.toString());
+
+        // Act
+        MultipartFile result = storage.retrieveFile(fileId);
+
+        // Assert
+        assertEquals(fileContent.length, result.getSize());
+        assertTrue(result.getResource().isFile(), "Content should stay on disk");
+        assertEquals(filePath, result.getResource().getFile().toPath());
+        try (java.io.InputStream in = result.getInputStream()) {
+            assertArrayEquals(fileContent, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void testRetrieveFile_DetectsContentType() throws IOException {
+        // Arrange
+        String pdfId = UUID.randomUUID().toString();
+        Files.write(tempDir.resolve(pdfId), "%PDF-1.7\n".getBytes());
+        String zipId = UUID.randomUUID().toString();
+        Files.write(tempDir.resolve(zipId), new byte[] {'P', 'K', 3, 4});
+        FileStorage storage = new FileStorage(new FileOrUploadService());
+        ReflectionTestUtils.setField(storage, "tempDirPath", tempDir.toString());
+
+        // Act & Assert
+        assertEquals("application/pdf", storage.retrieveFile(pdfId).getContentType());
+        assertEquals("application/octet-stream", storage.retrieveFile(zipId).getContentType());
     }
 
     @Test
@@ -126,7 +126,8 @@ class JobExecutorServiceTest {
         when(resourceMonitor.shouldQueueJob(80)).thenReturn(true);
 
         // Configure jobQueue to return our future
-        when(jobQueue.queueJob(anyString(), eq(80), any(), anyLong())).thenReturn(future);
+        when(jobQueue.queueJob(anyString(), eq(80), any(), anyLong(), anyString(), any()))
+                .thenReturn(future);
 
         // When
         ResponseEntity<?> response = jobExecutorService.runJobGeneric(true, work, 5000, true, 80);
@@ -136,10 +137,43 @@ class JobExecutorServiceTest {
         assertTrue(response.getBody() instanceof JobResponse);
 
         // Verify job was queued
-        verify(jobQueue).queueJob(anyString(), eq(80), any(), eq(5000L));
+        verify(jobQueue)
+                .queueJob(
+                        anyString(),
+                        eq(80),
+                        any(),
+                        eq(5000L),
+                        anyString(),
+                        eq(JobQueue.JobPriority.LOW));
         verify(taskManager).createTask(anyString());
     }
 
+    @Test
+    void shouldQueueJobsForTheAuthenticatedUserOrHashedApiKey() {
+        // Given
+        Supplier<Object> work = () -> "test-result";
+        ArgumentCaptor<String> ownerCaptor = ArgumentCaptor.forClass(String.class);
+        when(resourceMonitor.shouldQueueJob(80)).thenReturn(true);
+        when(jobQueue.queueJob(anyString(), eq(80), any(), anyLong(), anyString(), any()))
+                .thenReturn(new CompletableFuture<>());
+        when(request.getHeader("X-API-KEY")).thenReturn("secret-key");
+
+        // When
+        when(request.getUserPrincipal()).thenReturn(() -> "alice");
+        jobExecutorService.runJobGeneric(true, work, 5000, true, 80);
+        when(request.getUserPrincipal()).thenReturn(null);
+        jobExecutorService.runJobGeneric(true, work, 5000, true, 80);
+
+        // Then
+        verify(jobQueue, Mockito.times(2))
+                .queueJob(anyString(), eq(80), any(), anyLong(), ownerCaptor.capture(), any());
+        assertEquals("user:alice", ownerCaptor.getAllValues().get(0));
+        // SHA-256 of the key, never the key itself
+        assertEquals(
+                "api-key:85dbe15d75ef9308c7ae0f33c7a324cc6f4bf519a2ed2f3027bd33c140a4f9aa",
+                ownerCaptor.getAllValues().get(1));
+    }
+
     @Test
     void shouldUseCustomTimeoutWhenProvided() throws Exception {
         // Given
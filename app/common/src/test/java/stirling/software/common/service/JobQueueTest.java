@@ -5,7 +5,12 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
@@ -14,7 +19,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import stirling.software.common.service.JobQueue.JobPriority;
 import stirling.software.common.service.ResourceMonitor.ResourceStatus;
 
 @ExtendWith(MockitoExtension.class)
@@ -96,4 +104,151 @@ class JobQueueTest {
         assertTrue(jobQueue.isJobQueued(jobId));
         assertFalse(jobQueue.isJobQueued("nonexistent"));
     }
+
+    @Test
+    void shouldShareCapacityFairlyBetweenOwners() throws Exception {
+        ReflectionTestUtils.setField(jobQueue, "capacityWeight", 50);
+        List<String> executionOrder = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+        jobQueue.start();
+        try {
+            // Occupy the whole budget so that everything else has to wait
+            jobQueue.queueJob(
+                    "blocker", 50, blockingWork(release), 0, "tenant-a", JobPriority.NORMAL);
+            for (String jobId : List.of("a1", "a2", "a3")) {
+                jobQueue.queueJob(
+                        jobId,
+                        50,
+                        recordingWork(jobId, executionOrder),
+                        0,
+                        "tenant-a",
+                        JobPriority.NORMAL);
+            }
+            CompletableFuture<ResponseEntity<?>> last =
+                    jobQueue.queueJob(
+                            "b1",
+                            50,
+                            recordingWork("b1", executionOrder),
+                            0,
+                            "tenant-b",
+                            JobPriority.NORMAL);
+            assertEquals(3, jobQueue.getJobPosition("b1"));
+
+            release.countDown();
+            last.get(5, TimeUnit.SECONDS);
+
+            // The second tenant does not wait for the first tenant's whole backlog
+            assertEquals(List.of("a1", "b1"), executionOrder.subList(0, 2));
+        } finally {
+            jobQueue.stop();
+        }
+    }
+
+    @Test
+    void shouldServeHigherPriorityFirst() throws Exception {
+        ReflectionTestUtils.setField(jobQueue, "capacityWeight", 50);
+        List<String> executionOrder = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+        jobQueue.start();
+        try {
+            jobQueue.queueJob("blocker", 50, blockingWork(release), 0, "owner", JobPriority.LOW);
+            CompletableFuture<ResponseEntity<?>> low =
+                    jobQueue.queueJob(
+                            "low", 50, recordingWork("low", executionOrder), 0, "owner", null);
+            jobQueue.queueJob(
+                    "high",
+                    50,
+                    recordingWork("high", executionOrder),
+                    0,
+                    "owner",
+                    JobPriority.HIGH);
+
+            release.countDown();
+            low.get(5, TimeUnit.SECONDS);
+
+            assertEquals(List.of("high", "low"), executionOrder);
+        } finally {
+            jobQueue.stop();
+        }
+    }
+
+    @Test
+    void shouldKeepFairShareBetweenOverdueJobs() throws Exception {
+        ReflectionTestUtils.setField(jobQueue, "capacityWeight", 50);
+        ReflectionTestUtils.setField(jobQueue, "maxWaitTimeMs", 200L);
+        List<String> executionOrder = new CopyOnWriteArrayList<>();
+        CountDownLatch releaseBlocker = new CountDownLatch(1);
+        CountDownLatch releaseA1 = new CountDownLatch(1);
+        jobQueue.start();
+        try {
+            jobQueue.queueJob(
+                    "blocker", 50, blockingWork(releaseBlocker), 0, "tenant-a", JobPriority.NORMAL);
+            jobQueue.queueJob(
+                    "a1",
+                    50,
+                    () -> {
+                        executionOrder.add("a1");
+                        return blockingWork(releaseA1).get();
+                    },
+                    0,
+                    "tenant-a",
+                    JobPriority.NORMAL);
+            CompletableFuture<ResponseEntity<?>> last =
+                    jobQueue.queueJob(
+                            "a2",
+                            50,
+                            recordingWork("a2", executionOrder),
+                            0,
+                            "tenant-a",
+                            JobPriority.NORMAL);
+
+            // Tenant a is granted a1 while a2 keeps waiting, then tenant b queues
+            releaseBlocker.countDown();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!executionOrder.contains("a1") && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            jobQueue.queueJob(
+                    "b1",
+                    50,
+                    recordingWork("b1", executionOrder),
+                    0,
+                    "tenant-b",
+                    JobPriority.NORMAL);
+
+            // Both are overdue now, the older a2 still does not jump ahead of tenant b's share
+            Thread.sleep(300);
+            releaseA1.countDown();
+            last.get(5, TimeUnit.SECONDS);
+
+            assertEquals(List.of("a1", "b1", "a2"), executionOrder);
+        } finally {
+            jobQueue.stop();
+        }
+    }
+
+    @Test
+    void shouldDerivePriorityFromWeight() {
+        assertEquals(JobPriority.HIGH, JobPriority.forWeight(10));
+        assertEquals(JobPriority.NORMAL, JobPriority.forWeight(50));
+        assertEquals(JobPriority.LOW, JobPriority.forWeight(80));
+    }
+
+    private static Supplier<Object> blockingWork(CountDownLatch release) {
+        return () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "done";
+        };
+    }
+
+    private static Supplier<Object> recordingWork(String jobId, List<String> executionOrder) {
+        return () -> {
+            executionOrder.add(jobId);
+            return jobId;
+        };
+    }
 }
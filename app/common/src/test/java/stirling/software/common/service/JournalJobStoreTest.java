@@ -0,0 +1,109 @@
+package stirling.software.common.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import stirling.software.common.model.job.JobSnapshot;
+import stirling.software.common.model.job.JobState;
+import stirling.software.common.model.job.ResultFile;
+import stirling.software.common.model.job.StoredResult;
+
+class JournalJobStoreTest {
+
+    @TempDir Path tempDir;
+
+    private JournalJobStore newStore() {
+        return new JournalJobStore("", tempDir.toString());
+    }
+
+    private static JobSnapshot snapshot(String jobId, JobState state) {
+        return JobSnapshot.builder()
+                .jobId(jobId)
+                .state(state)
+                .createdAt(LocalDateTime.of(2025, 1, 1, 12, 0))
+                .build();
+    }
+
+    @Test
+    void replaysTheLatestStateOfEveryJob() throws Exception {
+        JournalJobStore store = newStore();
+        store.save(snapshot("job-1", JobState.QUEUED));
+        store.save(snapshot("job-2", JobState.QUEUED));
+        JobSnapshot completed = snapshot("job-1", JobState.COMPLETE);
+        completed.setResultFiles(
+                List.of(ResultFile.builder().fileId("file-1").fileName("out.pdf").build()));
+        store.save(completed);
+        store.remove("job-2");
+        store.close();
+
+        List<JobSnapshot> jobs = newStore().loadAll();
+
+        assertEquals(1, jobs.size());
+        JobSnapshot restored = jobs.get(0);
+        assertEquals("job-1", restored.getJobId());
+        assertEquals(JobState.COMPLETE, restored.getState());
+        assertEquals(LocalDateTime.of(2025, 1, 1, 12, 0), restored.getCreatedAt());
+        assertEquals("file-1", restored.getResultFiles().get(0).getFileId());
+    }
+
+    @Test
+    void skipsALineCutShortByACrash() throws Exception {
+        JournalJobStore store = newStore();
+        store.save(snapshot("job-1", JobState.RUNNING));
+        store.close();
+        Files.writeString(
+                tempDir.resolve("job-journal.jsonl"),
+                "{\"op\":\"save\",\"jobId\":\"job-2\",\"job\":{\"jo",
+                StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+
+        List<JobSnapshot> jobs = newStore().loadAll();
+
+        assertEquals(1, jobs.size());
+        assertEquals("job-1", jobs.get(0).getJobId());
+    }
+
+    @Test
+    void compactsTheJournalOnStartup() throws Exception {
+        JournalJobStore store = newStore();
+        for (int i = 0; i < 10; i++) {
+            store.save(snapshot("job-1", JobState.RUNNING));
+        }
+        store.close();
+
+        newStore().loadAll();
+
+        assertEquals(1, Files.readAllLines(tempDir.resolve("job-journal.jsonl")).size());
+    }
+
+    @Test
+    void restoresTheResultAsItsOriginalType() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        JournalJobStore store = newStore();
+        JobSnapshot withResult = snapshot("job-1", JobState.COMPLETE);
+        withResult.setResult(
+                StoredResult.of(
+                        ResultFile.builder().fileId("file-1").fileSize(42).build(), objectMapper));
+        store.save(withResult);
+        store.close();
+
+        List<JobSnapshot> jobs = newStore().loadAll();
+
+        assertEquals(1, jobs.size());
+        ResultFile restored =
+                assertInstanceOf(ResultFile.class, jobs.get(0).getResult().toResult(objectMapper));
+        assertEquals("file-1", restored.getFileId());
+        assertEquals(42, restored.getFileSize());
+    }
+}
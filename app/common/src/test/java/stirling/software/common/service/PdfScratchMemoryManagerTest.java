@@ -0,0 +1,89 @@
+package stirling.software.common.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.apache.pdfbox.io.RandomAccess;
+import org.apache.pdfbox.io.RandomAccessStreamCache;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PdfScratchMemoryManagerTest {
+
+    private static final long MB = 1024 * 1024;
+
+    @TempDir Path tempDir;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PdfScratchMemoryManager manager;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        meterRegistry = new SimpleMeterRegistry();
+        manager = new PdfScratchMemoryManager(8, tempDir.toString(), meterRegistry);
+    }
+
+    @Test
+    void leasesAreCappedByTheBudgetAndReturnedOnClose() throws IOException {
+        assertEquals(8 * MB, manager.getBudgetBytes());
+
+        RandomAccessStreamCache first = manager.createStreamCacheFunction(6 * MB).create();
+        assertEquals(6 * MB, manager.getLeasedMemoryBytes());
+
+        // Only 2MB are left, so the second cache gets what remains
+        RandomAccessStreamCache second = manager.createStreamCacheFunction(6 * MB).create();
+        assertEquals(8 * MB, manager.getLeasedMemoryBytes());
+        assertEquals(2, manager.getActiveCacheCount());
+
+        first.close();
+        assertEquals(2 * MB, manager.getLeasedMemoryBytes());
+        // Closing twice must not release the lease twice
+        first.close();
+        assertEquals(2 * MB, manager.getLeasedMemoryBytes());
+
+        second.close();
+        assertEquals(0, manager.getLeasedMemoryBytes());
+        assertEquals(0, manager.getActiveCacheCount());
+    }
+
+    @Test
+    void exhaustedBudgetFallsBackToFileOnlyCaches() throws IOException {
+        try (RandomAccessStreamCache hog = manager.createStreamCacheFunction(8 * MB).create();
+                RandomAccessStreamCache spill = manager.createStreamCacheFunction(MB).create()) {
+            assertEquals(8 * MB, manager.getLeasedMemoryBytes());
+
+            try (RandomAccess buffer = spill.createBuffer()) {
+                buffer.write(new byte[64 * 1024]);
+            }
+            assertTrue(manager.getScratchDiskBytes() > 0, "Spilled data should be on disk");
+        }
+        assertEquals(0, manager.getLeasedMemoryBytes());
+    }
+
+    @Test
+    void documentsReleaseTheirLeaseWhenClosed() throws IOException {
+        try (PDDocument document = new PDDocument(manager.createStreamCacheFunction(4 * MB))) {
+            document.addPage(new PDPage());
+            // The cache is only created once the first stream needs it
+            document.getDocument().createCOSStream();
+            assertEquals(4 * MB, manager.getLeasedMemoryBytes());
+        }
+        assertEquals(0, manager.getLeasedMemoryBytes());
+    }
+
+    @Test
+    void gaugesAreRegistered() throws IOException {
+        try (RandomAccessStreamCache cache = manager.createStreamCacheFunction(2 * MB).create()) {
+            assertEquals(
+                    2 * MB, meterRegistry.get("stirling.pdf.scratch.memory.bytes").gauge().value());
+            assertNotNull(meterRegistry.get("stirling.pdf.scratch.disk.bytes").gauge());
+        }
+    }
+}
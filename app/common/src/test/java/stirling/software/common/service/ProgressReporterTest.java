@@ -0,0 +1,76 @@
+package stirling.software.common.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ProgressReporterTest {
+
+    private TaskManager taskManager;
+    private ProgressReporter progressReporter;
+
+    @BeforeEach
+    void setUp() {
+        taskManager = mock(TaskManager.class);
+        progressReporter = new ProgressReporter(taskManager);
+    }
+
+    @Test
+    void reportsStepsOfTheBoundJob() {
+        ProgressReporter.bind(
+                        "job-1",
+                        () -> {
+                            assertTrue(progressReporter.isActive());
+                            progressReporter.start(3, "Rendering");
+                            progressReporter.step("page 1");
+                            progressReporter.step("page 2");
+                            progressReporter.message("almost done");
+                            return null;
+                        })
+                .get();
+
+        verify(taskManager).updateProgress("job-1", 0, 3, "Rendering");
+        verify(taskManager).updateProgress("job-1", 1, 3, "page 1");
+        verify(taskManager).updateProgress("job-1", 2, 3, "page 2");
+        verify(taskManager).updateProgress("job-1", 2, 3, "almost done");
+        assertFalse(progressReporter.isActive());
+    }
+
+    @Test
+    void ignoresReportsWithoutABoundJob() {
+        progressReporter.start(2, "Rendering");
+        progressReporter.step("page 1");
+
+        verifyNoInteractions(taskManager);
+    }
+
+    @Test
+    void ignoresReportsWhenDisabled() {
+        ProgressReporter.bind(
+                        "job-1",
+                        () -> {
+                            progressReporter.setEnabled(false);
+                            progressReporter.start(2, "Rendering");
+                            return null;
+                        })
+                .get();
+
+        verify(taskManager, never()).updateProgress(anyString(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void restoresTheOuterJobAfterNestedWork() {
+        ProgressReporter.bind(
+                        "outer",
+                        () -> {
+                            ProgressReporter.bind("inner", () -> "done").get();
+                            progressReporter.start(1, "outer phase");
+                            return null;
+                        })
+                .get();
+
+        verify(taskManager).updateProgress("outer", 0, 1, "outer phase");
+    }
+}
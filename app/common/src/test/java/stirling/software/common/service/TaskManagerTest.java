@@ -3,20 +3,33 @@ package stirling.software.common.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.MediaType;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import stirling.software.common.model.job.JobProgress;
 import stirling.software.common.model.job.JobResult;
+import stirling.software.common.model.job.JobSnapshot;
+import stirling.software.common.model.job.JobState;
 import stirling.software.common.model.job.JobStats;
 import stirling.software.common.model.job.ResultFile;
 
@@ -24,13 +37,16 @@ class TaskManagerTest {
 
     @Mock private FileStorage fileStorage;
 
-    @InjectMocks private TaskManager taskManager;
+    @Mock private ObjectProvider<JobStore> jobStoreProvider;
+
+    private TaskManager taskManager;
 
     private AutoCloseable closeable;
 
     @BeforeEach
     void setUp() {
         closeable = MockitoAnnotations.openMocks(this);
+        taskManager = new TaskManager(fileStorage, jobStoreProvider);
         ReflectionTestUtils.setField(taskManager, "jobResultExpiryMinutes", 30);
     }
 
@@ -105,6 +121,43 @@ class TaskManagerTest {
         assertNotNull(result.getCompletedAt());
     }
 
+    @Test
+    void testSetFileResult_ZipIsExpandedIntoFiles(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        FileStorage storage = new FileStorage(new FileOrUploadService());
+        ReflectionTestUtils.setField(storage, "tempDirPath", tempDir.toString());
+        TaskManager manager = new TaskManager(storage, jobStoreProvider);
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(zip)) {
+            out.putNextEntry(new ZipEntry("part_1.pdf"));
+            out.write("first".getBytes());
+            out.closeEntry();
+            out.putNextEntry(new ZipEntry("notes.txt"));
+            out.write("second file".getBytes());
+            out.closeEntry();
+        }
+        String zipId = storage.storeBytes(zip.toByteArray(), "result.zip");
+
+        try {
+            // Act
+            manager.createTask("zip-job");
+            manager.setFileResult("zip-job", zipId, "result.zip", "application/zip");
+
+            // Assert
+            List<ResultFile> files = manager.getJobResult("zip-job").getAllResultFiles();
+            assertEquals(2, files.size());
+            assertEquals("part_1.pdf", files.get(0).getFileName());
+            assertEquals(MediaType.APPLICATION_PDF_VALUE, files.get(0).getContentType());
+            assertEquals(MediaType.TEXT_PLAIN_VALUE, files.get(1).getContentType());
+            assertEquals(11, files.get(1).getFileSize());
+            assertArrayEquals(
+                    "second file".getBytes(), storage.retrieveBytes(files.get(1).getFileId()));
+            assertFalse(storage.fileExists(zipId), "The ZIP should be removed after extraction");
+        } finally {
+            manager.shutdown();
+        }
+    }
+
     @Test
     void testSetError() {
         // Arrange
@@ -307,4 +360,128 @@ class TaskManagerTest {
         // Assert
         assertFalse(result);
     }
+
+    @Test
+    void testStateChangesArePersisted() {
+        // Arrange
+        JobStore jobStore = mock(JobStore.class);
+        TaskManager taskManager = withJobStore(jobStore);
+        String jobId = UUID.randomUUID().toString();
+
+        // Act
+        taskManager.createTask(jobId);
+        taskManager.markRunning(jobId);
+        taskManager.setResult(jobId, "done");
+
+        // Assert
+        ArgumentCaptor<JobSnapshot> captor = ArgumentCaptor.forClass(JobSnapshot.class);
+        verify(jobStore, times(3)).save(captor.capture());
+        assertEquals(
+                List.of(JobState.QUEUED, JobState.RUNNING, JobState.COMPLETE),
+                captor.getAllValues().stream().map(JobSnapshot::getState).toList());
+        assertEquals("done", captor.getValue().getResult().toResult(new ObjectMapper()));
+    }
+
+    @Test
+    void testResultThatCannotBeWrittenIsNotPersisted() {
+        // Arrange
+        JobStore jobStore = mock(JobStore.class);
+        TaskManager taskManager = withJobStore(jobStore);
+        String jobId = UUID.randomUUID().toString();
+        taskManager.createTask(jobId);
+
+        // Act
+        taskManager.setResult(jobId, new Object() {});
+
+        // Assert
+        ArgumentCaptor<JobSnapshot> captor = ArgumentCaptor.forClass(JobSnapshot.class);
+        verify(jobStore, times(2)).save(captor.capture());
+        assertEquals(JobState.COMPLETE, captor.getValue().getState());
+        assertNull(captor.getValue().getResult());
+    }
+
+    @Test
+    void testRestoreJobs() throws Exception {
+        // Arrange
+        JobStore jobStore = mock(JobStore.class);
+        TaskManager taskManager = withJobStore(jobStore);
+        ResultFile kept = ResultFile.builder().fileId("kept-file").fileName("a.pdf").build();
+        ResultFile lost = ResultFile.builder().fileId("lost-file").fileName("b.pdf").build();
+        when(fileStorage.fileExists("kept-file")).thenReturn(true);
+        when(fileStorage.fileExists("lost-file")).thenReturn(false);
+        when(jobStore.loadAll())
+                .thenReturn(
+                        List.of(
+                                snapshot("completed", JobState.COMPLETE, kept),
+                                snapshot("running", JobState.RUNNING, null),
+                                snapshot("lost", JobState.COMPLETE, lost)));
+
+        // Act
+        taskManager.restoreJobs();
+
+        // Assert
+        JobResult completed = taskManager.getJobResult("completed");
+        assertTrue(completed.isComplete());
+        assertEquals("kept-file", completed.getAllResultFiles().get(0).getFileId());
+
+        JobResult interrupted = taskManager.getJobResult("running");
+        assertTrue(interrupted.isComplete());
+        assertNotNull(interrupted.getError());
+
+        assertNull(taskManager.getJobResult("lost"));
+        verify(jobStore).remove("lost");
+    }
+
+    @Test
+    void testProgressIsReportedToSubscribers() {
+        // Arrange
+        JobStore jobStore = mock(JobStore.class);
+        TaskManager taskManager = withJobStore(jobStore);
+        String jobId = UUID.randomUUID().toString();
+        taskManager.createTask(jobId);
+        taskManager.markRunning(jobId);
+        List<Integer> seen = new ArrayList<>();
+        Runnable unsubscribe =
+                taskManager.subscribe(
+                        jobId,
+                        job ->
+                                seen.add(
+                                        job.isComplete()
+                                                ? -1
+                                                : job.getProgress().getPercentComplete()));
+
+        // Act
+        taskManager.updateProgress(jobId, 1, 4, "page 1");
+        taskManager.updateProgress(jobId, 1, 4, "page 1 again");
+        taskManager.updateProgress(jobId, 4, 4, "page 4");
+        taskManager.setResult(jobId, "done");
+        unsubscribe.run();
+        taskManager.addNote(jobId, "after unsubscribe");
+
+        // Assert
+        assertEquals(List.of(25, 100, -1), seen);
+        JobProgress progress = taskManager.getJobResult(jobId).getProgress();
+        assertEquals(4, progress.getCurrent());
+        assertEquals("page 4", progress.getMessage());
+        assertEquals(JobState.RUNNING.name(), progress.getStatus());
+        // Progress alone is never written to the job store
+        verify(jobStore, times(4)).save(any(JobSnapshot.class));
+    }
+
+    private TaskManager withJobStore(JobStore jobStore) {
+        when(jobStoreProvider.getIfAvailable()).thenReturn(jobStore);
+        TaskManager manager = new TaskManager(fileStorage, jobStoreProvider);
+        ReflectionTestUtils.setField(manager, "jobResultExpiryMinutes", 30);
+        return manager;
+    }
+
+    private static JobSnapshot snapshot(String jobId, JobState state, ResultFile file) {
+        return JobSnapshot.builder()
+                .jobId(jobId)
+                .state(state)
+                .createdAt(LocalDateTime.now().minusMinutes(5))
+                .completedAt(state == JobState.COMPLETE ? LocalDateTime.now() : null)
+                .resultFiles(file != null ? List.of(file) : null)
+                .build();
+    }
 }
@@ -0,0 +1,149 @@
+package stirling.software.common.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.RandomAccessReadView;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedRandomAccessReadFileTest {
+
+    @TempDir Path tempDir;
+
+    private Path file;
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        content = new byte[1000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        file = tempDir.resolve("data.bin");
+        Files.write(file, content);
+    }
+
+    @Test
+    void readsAcrossWindowBoundaries() throws IOException {
+        try (MappedRandomAccessReadFile read =
+                new MappedRandomAccessReadFile(file.toFile(), 64, false)) {
+            assertEquals(content.length, read.length());
+
+            byte[] buffer = new byte[content.length];
+            assertEquals(content.length, read.read(buffer, 0, buffer.length));
+            assertArrayEquals(content, buffer);
+            assertTrue(read.isEOF());
+            assertEquals(-1, read.read());
+        }
+    }
+
+    @Test
+    void seeksAndKeepsOnlyAFewWindowsMapped() throws IOException {
+        try (MappedRandomAccessReadFile read =
+                new MappedRandomAccessReadFile(file.toFile(), 16, false)) {
+            for (int position : new int[] {999, 0, 500, 17, 250, 700, 15}) {
+                read.seek(position);
+                assertEquals(content[position] & 0xff, read.read());
+                assertEquals(position + 1, read.getPosition());
+            }
+            assertTrue(read.getMappedWindowCount() <= 4);
+
+            read.seek(5000);
+            assertTrue(read.isEOF());
+            assertThrows(IOException.class, () -> read.seek(-1));
+        }
+    }
+
+    @Test
+    void viewsReadTheirOwnRange() throws IOException {
+        try (MappedRandomAccessReadFile read =
+                        new MappedRandomAccessReadFile(file.toFile(), 32, false);
+                RandomAccessReadView view = read.createView(100, 50)) {
+            byte[] buffer = new byte[50];
+            assertEquals(50, view.read(buffer, 0, buffer.length));
+            for (int i = 0; i < buffer.length; i++) {
+                assertEquals(content[100 + i], buffer[i]);
+            }
+        }
+    }
+
+    @Test
+    void closeUnmapsAndDeletesWhenRequested() throws IOException {
+        MappedRandomAccessReadFile read = new MappedRandomAccessReadFile(file.toFile(), 64, true);
+        read.seek(200);
+        read.read();
+        read.close();
+
+        assertTrue(read.isClosed());
+        assertEquals(0, read.getMappedWindowCount());
+        assertFalse(Files.exists(file));
+        assertThrows(IOException.class, read::read);
+        // Closing twice is harmless
+        read.close();
+    }
+
+    @Test
+    void readersOnOtherThreadsNeverSeeAnUnmappedWindow() throws Exception {
+        MappedRandomAccessReadFile read = new MappedRandomAccessReadFile(file.toFile(), 16, false);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int offset = t * 250;
+                readers.add(
+                        executor.submit(
+                                () -> {
+                                    byte[] buffer = new byte[40];
+                                    try (RandomAccessReadView view = read.createView(offset, 250)) {
+                                        for (int i = 0; ; i = (i + 37) % 210) {
+                                            view.seek(i);
+                                            view.read(buffer, 0, buffer.length);
+                                        }
+                                    } catch (IOException e) {
+                                        // Expected once the reader is closed
+                                    }
+                                    return null;
+                                }));
+            }
+            Thread.sleep(50);
+            read.close();
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+            assertEquals(0, read.getMappedWindowCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void pdfBoxCanParseAMappedFile() throws IOException {
+        Path pdf = tempDir.resolve("doc.pdf");
+        try (PDDocument document = new PDDocument()) {
+            document.addPage(new PDPage());
+            document.addPage(new PDPage());
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.save(out);
+            Files.write(pdf, out.toByteArray());
+        }
+
+        try (PDDocument document =
+                Loader.loadPDF(new MappedRandomAccessReadFile(pdf.toFile(), 128, false))) {
+            assertEquals(2, document.getNumberOfPages());
+        }
+    }
+}
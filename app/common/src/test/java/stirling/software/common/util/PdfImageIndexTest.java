@@ -0,0 +1,90 @@
+package stirling.software.common.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.junit.jupiter.api.Test;
+
+import stirling.software.common.util.PdfImageIndex.ImageOccurrence;
+
+class PdfImageIndexTest {
+
+    @Test
+    void groupsIdenticalImagesAndKeepsDistinctOnesApart() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            // Two separately embedded copies of the same image and one that differs
+            PDImageXObject first = image(document, Color.RED, Color.BLUE);
+            PDImageXObject copy = image(document, Color.RED, Color.BLUE);
+            PDImageXObject other = image(document, Color.RED, Color.GREEN);
+
+            addPage(document).put(COSName.getPDFName("Im1"), first);
+            PDResources second = addPage(document);
+            second.put(COSName.getPDFName("Im1"), copy);
+            second.put(COSName.getPDFName("Im2"), other);
+
+            PdfImageIndex index = PdfImageIndex.build(document);
+            assertEquals(3, index.getOccurrences().size());
+            assertEquals(1, index.getOccurrences(0).size());
+            assertEquals(2, index.getOccurrences(1).size());
+
+            Map<String, List<ImageOccurrence>> unique = index.getImagesByContent();
+            assertEquals(2, unique.size());
+            assertEquals(index.getContentKey(first), index.getContentKey(copy));
+            assertNotEquals(index.getContentKey(first), index.getContentKey(other));
+        }
+    }
+
+    @Test
+    void indexesImagesNestedInForms() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDFormXObject form = new PDFormXObject(document);
+            form.setBBox(new PDRectangle(10, 10));
+            PDResources formResources = new PDResources();
+            formResources.put(COSName.getPDFName("Im1"), image(document, Color.RED, Color.BLUE));
+            form.setResources(formResources);
+            addPage(document).put(COSName.getPDFName("Fm1"), form);
+
+            List<ImageOccurrence> occurrences = PdfImageIndex.build(document).getOccurrences();
+            assertEquals(1, occurrences.size());
+            ImageOccurrence nested = occurrences.get(0);
+            assertTrue(nested.isNested());
+            assertEquals("Fm1", nested.getFormName().getName());
+            assertEquals("Im1", nested.getImageName().getName());
+            assertNotNull(nested.getImage());
+        }
+    }
+
+    private static PDResources addPage(PDDocument document) {
+        PDPage page = new PDPage();
+        PDResources resources = new PDResources();
+        page.setResources(resources);
+        document.addPage(page);
+        return resources;
+    }
+
+    private static PDImageXObject image(PDDocument document, Color top, Color bottom)
+            throws IOException {
+        BufferedImage image = new BufferedImage(20, 20, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(top);
+        g.fillRect(0, 0, 20, 10);
+        g.setColor(bottom);
+        g.fillRect(0, 10, 20, 10);
+        g.dispose();
+        return LosslessFactory.createFromImage(document, image);
+    }
+}
@@ -1,6 +1,7 @@
 package stirling.software.common.util;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -8,10 +9,15 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import stirling.software.common.service.ProgressReporter;
+
 public class ProcessExecutorTest {
 
     private ProcessExecutor processExecutor;
@@ -59,4 +65,83 @@ public class ProcessExecutorTest {
                         || errorMessage.contains("No such file or directory"),
                 "Unexpected error message: " + errorMessage);
     }
+
+    @Test
+    public void testResourceIsChosenOnceSlotIsHeldAndClosedAfterwards() throws Exception {
+        List<String> events = new ArrayList<>();
+        class Port implements ProcessExecutor.CommandResource {
+            @Override
+            public void markFailed() {
+                events.add("failed");
+            }
+
+            @Override
+            public void close() {
+                events.add("closed");
+            }
+        }
+
+        ProcessExecutor.ProcessExecutorResult result =
+                processExecutor.runCommandWithOutputHandling(
+                        () -> {
+                            events.add(
+                                    "chosen while running "
+                                            + ProcessExecutor.getRunningCount(
+                                                    ProcessExecutor.Processes.LIBRE_OFFICE));
+                            return new Port();
+                        },
+                        port -> List.of("java", "-version"));
+
+        assertEquals(0, result.getRc());
+        assertEquals(List.of("chosen while running 1", "closed"), events);
+
+        events.clear();
+        assertThrows(
+                IOException.class,
+                () ->
+                        processExecutor.runCommandWithOutputHandling(
+                                Port::new, port -> List.of("nonexistent-command")));
+        assertEquals(List.of("failed", "closed"), events);
+    }
+
+    @Test
+    public void testOutputBufferKeepsLastLines() {
+        ProcessExecutor.OutputBuffer buffer = new ProcessExecutor.OutputBuffer(2);
+        buffer.add("one");
+        buffer.add("two");
+        buffer.add("three");
+
+        assertEquals("[1 earlier lines omitted]\ntwo\nthree", buffer.join());
+    }
+
+    @Test
+    public void testCancelJobKillsRunningProcess() throws Exception {
+        ProcessExecutor executor =
+                ProcessExecutor.getInstance(ProcessExecutor.Processes.GHOSTSCRIPT, false);
+        Supplier<Exception> work =
+                ProgressReporter.bind(
+                        "job-1",
+                        () -> {
+                            try {
+                                executor.runCommandWithOutputHandling(List.of("sleep", "30"));
+                                return null;
+                            } catch (Exception e) {
+                                return e;
+                            }
+                        });
+        CompletableFuture<Exception> run = CompletableFuture.supplyAsync(work);
+
+        int killed = 0;
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (killed == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            killed = ProcessExecutor.cancelJob("job-1");
+        }
+
+        assertEquals(1, killed);
+        Exception thrown = run.get(15, TimeUnit.SECONDS);
+        assertInstanceOf(IOException.class, thrown);
+        assertTrue(thrown.getMessage().contains("cancelled"), thrown.getMessage());
+        assertEquals(0, ProcessExecutor.getRunningCount(ProcessExecutor.Processes.GHOSTSCRIPT));
+    }
 }
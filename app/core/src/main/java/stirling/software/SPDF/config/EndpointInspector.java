@@ -1,6 +1,7 @@
 package stirling.software.SPDF.config;
 
 import java.lang.reflect.Method;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -25,17 +26,20 @@ public class EndpointInspector implements ApplicationListener<ContextRefreshedEv
 
     private final ApplicationContext applicationContext;
     private final Set<String> validGetEndpoints = new HashSet<>();
+    // Published once discovery has completed, read by request threads
+    private volatile Map<String, HandlerMethod> postHandlerMethods = Map.of();
     private boolean endpointsDiscovered = false;
 
     @Override
     public void onApplicationEvent(ContextRefreshedEvent event) {
-        if (!endpointsDiscovered) {
-            discoverEndpoints();
-            endpointsDiscovered = true;
-        }
+        // Always rediscovered here, an earlier lazy discovery may have run before all handler
+        // mappings were registered
+        discoverEndpoints();
+        endpointsDiscovered = true;
     }
 
     private void discoverEndpoints() {
+        Map<String, HandlerMethod> discoveredPostHandlers = new HashMap<>();
         try {
             Map<String, RequestMappingHandlerMapping> mappings =
                     applicationContext.getBeansOfType(RequestMappingHandlerMapping.class);
@@ -50,21 +54,30 @@ public class EndpointInspector implements ApplicationListener<ContextRefreshedEv
                     HandlerMethod handlerMethod = handlerEntry.getValue();
 
                     boolean isGetHandler = false;
+                    boolean isPostHandler = false;
                     try {
                         Set<RequestMethod> methods = mappingInfo.getMethodsCondition().getMethods();
                         isGetHandler = methods.isEmpty() || methods.contains(RequestMethod.GET);
+                        isPostHandler = methods.contains(RequestMethod.POST);
                     } catch (Exception e) {
                         isGetHandler = true;
                     }
 
-                    if (isGetHandler) {
+                    if (isGetHandler || isPostHandler) {
                         Set<String> patterns = extractPatternsUsingDirectPaths(mappingInfo);
 
                         if (patterns.isEmpty()) {
                             patterns = extractPatternsFromString(mappingInfo);
                         }
 
-                        validGetEndpoints.addAll(patterns);
+                        if (isGetHandler) {
+                            validGetEndpoints.addAll(patterns);
+                        }
+                        if (isPostHandler) {
+                            for (String pattern : patterns) {
+                                discoveredPostHandlers.put(pattern, handlerMethod);
+                            }
+                        }
                     }
                 }
             }
@@ -78,6 +91,7 @@ public class EndpointInspector implements ApplicationListener<ContextRefreshedEv
         } catch (Exception e) {
             log.error("Error discovering endpoints", e);
         }
+        postHandlerMethods = Map.copyOf(discoveredPostHandlers);
     }
 
     private Set<String> extractPatternsUsingDirectPaths(RequestMappingInfo mappingInfo) {
@@ -199,6 +213,18 @@ public class EndpointInspector implements ApplicationListener<ContextRefreshedEv
         return new HashSet<>(validGetEndpoints);
     }
 
+    /**
+     * Returns the controller method mapped to the given POST path, used by the pipeline to invoke
+     * operations in-process.
+     *
+     * @param uri the exact API path, e.g. /api/v1/general/rotate-pdf
+     * @return the handler method or null if no POST mapping exists for the path or the context has
+     *     not been refreshed yet
+     */
+    public HandlerMethod getPostHandlerMethod(String uri) {
+        return postHandlerMethods.get(uri);
+    }
+
     private void logAllEndpoints() {
         Set<String> sortedEndpoints = new TreeSet<>(validGetEndpoints);
 
@@ -20,7 +20,18 @@ public class EndpointInterceptor implements HandlerInterceptor {
     public boolean preHandle(
             HttpServletRequest request, HttpServletResponse response, Object handler)
             throws Exception {
-        String requestURI = request.getRequestURI();
+        if (!isRequestEnabled(request.getRequestURI())) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "This endpoint is disabled");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the endpoint behind a request path is enabled. Shared with the pipeline so
+     * in-process operations are gated the same way as HTTP requests.
+     */
+    public boolean isRequestEnabled(String requestURI) {
         boolean isEnabled;
 
         // Extract the specific endpoint name (e.g: /api/v1/general/remove-pages -> remove-pages)
@@ -42,11 +53,6 @@ public class EndpointInterceptor implements HandlerInterceptor {
         } else {
             isEnabled = endpointConfiguration.isEndpointEnabled(requestURI);
         }
-
-        if (!isEnabled) {
-            response.sendError(HttpServletResponse.SC_FORBIDDEN, "This endpoint is disabled");
-            return false;
-        }
-        return true;
+        return isEnabled;
     }
 }
@@ -15,7 +15,7 @@ public class MetricsConfig {
         return new MeterFilter() {
             @Override
             public MeterFilterReply accept(Meter.Id id) {
-                if ("http.requests".equals(id.getName())) {
+                if ("http.requests".equals(id.getName()) || id.getName().startsWith("stirling.")) {
                     return MeterFilterReply.NEUTRAL;
                 }
                 return MeterFilterReply.DENY;
@@ -4,6 +4,7 @@ import java.io.IOException;
 
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -16,13 +17,18 @@ import jakarta.servlet.http.HttpSession;
 
 import lombok.RequiredArgsConstructor;
 
+import stirling.software.SPDF.service.UniqueUserTracker;
 import stirling.software.common.util.RequestUriUtils;
 
 @Component
 @RequiredArgsConstructor
 public class MetricsFilter extends OncePerRequestFilter {
 
+    // Endpoint of requests no handler was mapped to, such as unknown paths
+    static final String UNMATCHED_ENDPOINT = "UNMATCHED";
+
     private final MeterRegistry meterRegistry;
+    private final UniqueUserTracker uniqueUserTracker;
 
     @Override
     protected void doFilterInternal(
@@ -30,19 +36,35 @@ public class MetricsFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         String uri = request.getRequestURI();
 
-        if (RequestUriUtils.isTrackableResource(request.getContextPath(), uri)) {
+        if (!RequestUriUtils.isTrackableResource(request.getContextPath(), uri)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // Users are counted by sketch, tagging counters with them would add one per session
             HttpSession session = request.getSession(false);
             String sessionId = (session != null) ? session.getId() : "no-session";
-            Counter counter =
-                    Counter.builder("http.requests")
-                            .tag("session", sessionId)
-                            .tag("method", request.getMethod())
-                            .tag("uri", uri)
-                            .register(meterRegistry);
-
-            counter.increment();
+            String endpoint = endpointOf(request);
+            uniqueUserTracker.record(request.getMethod(), endpoint, sessionId);
+
+            Counter.builder("http.requests")
+                    .tag("method", request.getMethod())
+                    .tag("uri", endpoint)
+                    .tag("status", String.valueOf(response.getStatus()))
+                    .register(meterRegistry)
+                    .increment();
         }
+    }
 
-        filterChain.doFilter(request, response);
+    /**
+     * Metrics are kept per mapped pattern, such as /api/v1/general/job/{jobId}, rather than per raw
+     * URI, so that the number of series does not grow with the paths clients make up.
+     */
+    static String endpointOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern instanceof String endpoint ? endpoint : UNMATCHED_ENDPOINT;
     }
 }
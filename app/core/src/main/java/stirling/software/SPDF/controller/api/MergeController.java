@@ -36,6 +36,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import stirling.software.SPDF.model.api.general.MergePdfsRequest;
 import stirling.software.common.service.CustomPDFDocumentFactory;
+import stirling.software.common.service.FileOrUploadService;
 import stirling.software.common.util.ExceptionUtils;
 import stirling.software.common.util.GeneralUtils;
 import stirling.software.common.util.PdfErrorUtils;
@@ -52,6 +53,7 @@ public class MergeController {
 
     private final CustomPDFDocumentFactory pdfDocumentFactory;
     private final TempFileManager tempFileManager;
+    private final FileOrUploadService fileOrUploadService;
 
     // Merges a list of PDDocument objects into a single PDDocument
     public PDDocument mergeDocuments(List<PDDocument> documents) throws IOException {
@@ -179,13 +181,18 @@ public class MergeController {
 
             PDFMergerUtility mergerUtility = new PDFMergerUtility();
             long totalSize = 0;
-            for (MultipartFile multipartFile : files) {
+            for (int i = 0; i < files.length; i++) {
+                MultipartFile multipartFile = files[i];
                 totalSize += multipartFile.getSize();
                 File tempFile =
                         tempFileManager.convertMultipartFileToFile(
                                 multipartFile); // Convert MultipartFile to File
                 filesToDelete.add(tempFile); // Add temp file to the list for later deletion
                 mergerUtility.addSource(tempFile); // Add source file to the merger utility
+                // The upload was moved into the temp file, read it from there from now on
+                files[i] =
+                        fileOrUploadService.toMultipartFile(
+                                multipartFile.getOriginalFilename(), tempFile.toPath());
             }
 
             mergedTempFile = new TempFile(tempFileManager, ".pdf");
@@ -18,6 +18,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 
 import lombok.RequiredArgsConstructor;
 
+import stirling.software.SPDF.controller.api.pipeline.DocumentOperation;
 import stirling.software.SPDF.model.api.general.RotatePDFRequest;
 import stirling.software.common.service.CustomPDFDocumentFactory;
 import stirling.software.common.util.ExceptionUtils;
@@ -28,7 +29,7 @@ import stirling.software.common.util.WebResponseUtils;
 @RequestMapping("/api/v1/general")
 @Tag(name = "General", description = "General APIs")
 @RequiredArgsConstructor
-public class RotationController {
+public class RotationController implements DocumentOperation<RotatePDFRequest> {
 
     private final CustomPDFDocumentFactory pdfDocumentFactory;
 
@@ -41,27 +42,40 @@ public class RotationController {
     public ResponseEntity<byte[]> rotatePDF(@ModelAttribute RotatePDFRequest request)
             throws IOException {
         MultipartFile pdfFile = request.getFileInput();
-        Integer angle = request.getAngle();
-
-        // Validate the angle is a multiple of 90
-        if (angle % 90 != 0) {
-            throw ExceptionUtils.createIllegalArgumentException(
-                    "error.angleNotMultipleOf90", "Angle must be a multiple of 90");
-        }
+        validateAngle(request.getAngle());
 
         // Load the PDF document
         PDDocument document = pdfDocumentFactory.load(request);
 
+        // Return the rotated PDF as a response
+        return WebResponseUtils.pdfDocToWebResponse(
+                apply(document, request), getOutputFilename(pdfFile.getOriginalFilename()));
+    }
+
+    @Override
+    public PDDocument apply(PDDocument document, RotatePDFRequest request) {
+        Integer angle = request.getAngle();
+        validateAngle(angle);
+
         // Get the list of pages in the document
         PDPageTree pages = document.getPages();
 
         for (PDPage page : pages) {
             page.setRotation(page.getRotation() + angle);
         }
+        return document;
+    }
 
-        // Return the rotated PDF as a response
-        return WebResponseUtils.pdfDocToWebResponse(
-                document,
-                GeneralUtils.generateFilename(pdfFile.getOriginalFilename(), "_rotated.pdf"));
+    @Override
+    public String getOutputFilename(String inputFilename) {
+        return GeneralUtils.generateFilename(inputFilename, "_rotated.pdf");
+    }
+
+    private void validateAngle(Integer angle) {
+        // Validate the angle is a multiple of 90
+        if (angle % 90 != 0) {
+            throw ExceptionUtils.createIllegalArgumentException(
+                    "error.angleNotMultipleOf90", "Angle must be a multiple of 90");
+        }
     }
 }
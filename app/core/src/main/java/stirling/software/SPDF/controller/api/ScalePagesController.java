@@ -25,6 +25,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 
 import lombok.RequiredArgsConstructor;
 
+import stirling.software.SPDF.controller.api.pipeline.DocumentOperation;
 import stirling.software.SPDF.model.api.general.ScalePagesRequest;
 import stirling.software.common.service.CustomPDFDocumentFactory;
 import stirling.software.common.util.ExceptionUtils;
@@ -35,7 +36,7 @@ import stirling.software.common.util.WebResponseUtils;
 @RequestMapping("/api/v1/general")
 @Tag(name = "General", description = "General APIs")
 @RequiredArgsConstructor
-public class ScalePagesController {
+public class ScalePagesController implements DocumentOperation<ScalePagesRequest> {
 
     private final CustomPDFDocumentFactory pdfDocumentFactory;
 
@@ -48,10 +49,23 @@ public class ScalePagesController {
     public ResponseEntity<byte[]> scalePages(@ModelAttribute ScalePagesRequest request)
             throws IOException {
         MultipartFile file = request.getFileInput();
+
+        PDDocument outputDocument = apply(pdfDocumentFactory.load(file), request);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        outputDocument.save(baos);
+        outputDocument.close();
+
+        return WebResponseUtils.bytesToWebResponse(
+                baos.toByteArray(), getOutputFilename(file.getOriginalFilename()));
+    }
+
+    @Override
+    public PDDocument apply(PDDocument sourceDocument, ScalePagesRequest request)
+            throws IOException {
         String targetPDRectangle = request.getPageSize();
         float scaleFactor = request.getScaleFactor();
 
-        PDDocument sourceDocument = pdfDocumentFactory.load(file);
         PDDocument outputDocument =
                 pdfDocumentFactory.createNewDocumentBasedOnOldDocument(sourceDocument);
 
@@ -92,14 +106,13 @@ public class ScalePagesController {
             contentStream.close();
         }
 
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        outputDocument.save(baos);
-        outputDocument.close();
         sourceDocument.close();
+        return outputDocument;
+    }
 
-        return WebResponseUtils.bytesToWebResponse(
-                baos.toByteArray(),
-                GeneralUtils.generateFilename(file.getOriginalFilename(), "_scaled.pdf"));
+    @Override
+    public String getOutputFilename(String inputFilename) {
+        return GeneralUtils.generateFilename(inputFilename, "_scaled.pdf");
     }
 
     private PDRectangle getTargetSize(String targetPDRectangle, PDDocument sourceDocument) {
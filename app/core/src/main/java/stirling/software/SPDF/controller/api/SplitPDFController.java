@@ -27,6 +27,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import stirling.software.SPDF.model.api.PDFWithPageNums;
 import stirling.software.common.service.CustomPDFDocumentFactory;
+import stirling.software.common.service.ProgressReporter;
 import stirling.software.common.util.ExceptionUtils;
 import stirling.software.common.util.GeneralUtils;
 import stirling.software.common.util.TempFile;
@@ -42,6 +43,7 @@ public class SplitPDFController {
 
     private final CustomPDFDocumentFactory pdfDocumentFactory;
     private final TempFileManager tempFileManager;
+    private final ProgressReporter progressReporter;
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE, value = "/split-pages")
     @Operation(
@@ -77,6 +79,7 @@ public class SplitPDFController {
                     pageNumbers.stream().map(String::valueOf).collect(Collectors.joining(",")));
 
             splitDocumentsBoas = new ArrayList<>(pageNumbers.size());
+            progressReporter.start(pageNumbers.size(), "Splitting document");
             int previousPageNumber = 0;
             for (int splitPoint : pageNumbers) {
                 try (PDDocument splitDocument =
@@ -94,6 +97,11 @@ public class SplitPDFController {
                     ByteArrayOutputStream baos = new ByteArrayOutputStream();
                     splitDocument.save(baos);
                     splitDocumentsBoas.add(baos);
+                    progressReporter.step(
+                            "Created document "
+                                    + splitDocumentsBoas.size()
+                                    + " of "
+                                    + pageNumbers.size());
                 } catch (Exception e) {
                     ExceptionUtils.logException("document splitting and saving", e);
                     throw e;
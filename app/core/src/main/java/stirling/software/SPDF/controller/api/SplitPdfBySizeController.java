@@ -25,6 +25,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import stirling.software.SPDF.model.api.general.SplitPdfBySizeOrCountRequest;
 import stirling.software.common.service.CustomPDFDocumentFactory;
+import stirling.software.common.service.ProgressReporter;
 import stirling.software.common.util.ExceptionUtils;
 import stirling.software.common.util.GeneralUtils;
 import stirling.software.common.util.TempFile;
@@ -40,6 +41,7 @@ public class SplitPdfBySizeController {
 
     private final CustomPDFDocumentFactory pdfDocumentFactory;
     private final TempFileManager tempFileManager;
+    private final ProgressReporter progressReporter;
 
     @PostMapping(value = "/split-by-size-or-count", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(
@@ -136,6 +138,7 @@ public class SplitPdfBySizeController {
         for (int pageIndex = 0; pageIndex < totalPages; pageIndex++) {
             PDPage page = sourceDocument.getPage(pageIndex);
             log.debug("Processing page {} of {}", pageIndex + 1, totalPages);
+            progressReporter.update(pageIndex, totalPages, "Splitting page " + (pageIndex + 1));
 
             // Add the page to current document
             PDPage newPage = new PDPage(page.getCOSObject());
@@ -271,6 +274,7 @@ public class SplitPdfBySizeController {
             for (PDPage page : sourceDocument.getPages()) {
                 pageIndex++;
                 log.debug("Processing page {} of {}", pageIndex, totalPages);
+                progressReporter.update(pageIndex - 1, totalPages, "Splitting page " + pageIndex);
 
                 try {
                     log.debug("Adding page {} to current document", pageIndex);
@@ -399,6 +403,8 @@ public class SplitPdfBySizeController {
                 log.debug("Saving document {} with {} pages", i + 1, pagesToAdd);
                 saveDocumentToZip(currentDoc, zipOut, baseFilename, fileIndex++);
                 log.debug("Successfully saved document {}", i + 1);
+                progressReporter.update(
+                        currentPageIndex, totalPageCount, "Created document " + (i + 1));
             } catch (Exception e) {
                 log.error("Error saving document {}", i + 1, e);
                 throw e;
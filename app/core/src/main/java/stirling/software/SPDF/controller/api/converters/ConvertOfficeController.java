@@ -28,6 +28,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import stirling.software.SPDF.config.EndpointConfiguration;
+import stirling.software.SPDF.service.LibreOfficeWorkerPool;
 import stirling.software.common.configuration.RuntimePathConfig;
 import stirling.software.common.model.api.GeneralFile;
 import stirling.software.common.service.CustomPDFDocumentFactory;
@@ -49,6 +50,7 @@ public class ConvertOfficeController {
     private final RuntimePathConfig runtimePathConfig;
     private final CustomHtmlSanitizer customHtmlSanitizer;
     private final EndpointConfiguration endpointConfiguration;
+    private final LibreOfficeWorkerPool libreOfficeWorkerPool;
 
     private boolean isUnoconvertAvailable() {
         return endpointConfiguration.isGroupEnabled("Unoconvert")
@@ -95,18 +97,21 @@ public class ConvertOfficeController {
             // Run Unoconvert command
             if (isUnoconvertAvailable()) {
                 // Unoconvert: schreibe direkt in outputPath innerhalb des workDir
-                List<String> command = new ArrayList<>();
-                command.add(runtimePathConfig.getUnoConvertPath());
-                command.add("--port");
-                command.add("2003");
-                command.add("--convert-to");
-                command.add("pdf");
-                command.add(inputPath.toString());
-                command.add(outputPath.toString());
-
+                // The worker is taken once the conversion holds a LibreOffice slot, so a queued
+                // conversion goes to whichever worker is least loaded when it actually starts
                 result =
                         ProcessExecutor.getInstance(ProcessExecutor.Processes.LIBRE_OFFICE)
-                                .runCommandWithOutputHandling(command);
+                                .runCommandWithOutputHandling(
+                                        libreOfficeWorkerPool::acquire,
+                                        worker ->
+                                                List.of(
+                                                        runtimePathConfig.getUnoConvertPath(),
+                                                        "--port",
+                                                        String.valueOf(worker.getPort()),
+                                                        "--convert-to",
+                                                        "pdf",
+                                                        inputPath.toString(),
+                                                        outputPath.toString()));
             } // Run soffice command
             else {
                 List<String> command = new ArrayList<>();
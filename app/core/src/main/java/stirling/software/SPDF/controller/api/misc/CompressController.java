@@ -5,14 +5,17 @@ import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
@@ -21,11 +24,18 @@ import javax.imageio.ImageWriter;
 import javax.imageio.plugins.jpeg.JPEGImageWriteParam;
 import javax.imageio.stream.ImageOutputStream;
 
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
 import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSNull;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDResources;
-import org.apache.pdfbox.pdmodel.graphics.PDXObject;
+import org.apache.pdfbox.pdmodel.common.PDStream;
 import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
 import org.springframework.http.MediaType;
@@ -39,14 +49,19 @@ import org.springframework.web.multipart.MultipartFile;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import jakarta.annotation.PreDestroy;
+
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
 
 import stirling.software.SPDF.config.EndpointConfiguration;
 import stirling.software.SPDF.model.api.misc.OptimizePdfRequest;
 import stirling.software.common.service.CustomPDFDocumentFactory;
-import stirling.software.common.util.ExceptionUtils;
+import stirling.software.common.service.ProgressReporter;
+import stirling.software.common.util.ExecutorFactory;
 import stirling.software.common.util.GeneralUtils;
+import stirling.software.common.util.PdfImageIndex;
+import stirling.software.common.util.PdfImageIndex.ImageOccurrence;
 import stirling.software.common.util.ProcessExecutor;
 import stirling.software.common.util.ProcessExecutor.ProcessExecutorResult;
 import stirling.software.common.util.WebResponseUtils;
@@ -60,6 +75,25 @@ public class CompressController {
 
     private final CustomPDFDocumentFactory pdfDocumentFactory;
     private final EndpointConfiguration endpointConfiguration;
+    private final ProgressReporter progressReporter;
+
+    // Heap reserved for decoded and scaled bitmaps of images being compressed in parallel
+    private static final int BITMAP_BUDGET_KB =
+            (int)
+                    Math.min(
+                            Integer.MAX_VALUE,
+                            Math.max(64 * 1024, Runtime.getRuntime().maxMemory() / 4 / 1024));
+
+    private final Semaphore bitmapBudget = new Semaphore(BITMAP_BUDGET_KB, true);
+    // Virtual threads run on as many carriers as there are processors, the bitmap budget bounds
+    // how many images are decoded at once
+    private final ExecutorService imageExecutor =
+            ExecutorFactory.newVirtualOrCachedThreadExecutor();
+
+    @PreDestroy
+    public void shutdown() {
+        imageExecutor.shutdownNow();
+    }
 
     private boolean isQpdfEnabled() {
         return endpointConfiguration.isGroupEnabled("qpdf");
@@ -148,106 +182,50 @@ public class CompressController {
         }
     }
 
-    // Find all images in the document, both direct and nested within forms
+    // Find all images in the document, both direct and nested within forms, grouped by content
     private Map<String, List<ImageReference>> findImages(PDDocument doc) throws IOException {
-        Map<String, List<ImageReference>> uniqueImages = new HashMap<>();
-
-        // Scan through all pages in the document
-        for (int pageNum = 0; pageNum < doc.getNumberOfPages(); pageNum++) {
-            PDPage page = doc.getPage(pageNum);
-            PDResources res = page.getResources();
-            if (res == null || res.getXObjectNames() == null) continue;
-
-            // Process all XObjects on the page
-            for (COSName name : res.getXObjectNames()) {
-                PDXObject xobj = res.getXObject(name);
-
-                // Direct image
-                if (isImage(xobj)) {
-                    addDirectImage(pageNum, name, (PDImageXObject) xobj, uniqueImages);
-                    log.info(
-                            "Found direct image '{}' on page {} - {}x{}",
-                            name.getName(),
-                            pageNum + 1,
-                            ((PDImageXObject) xobj).getWidth(),
-                            ((PDImageXObject) xobj).getHeight());
-                }
-                // Form XObject that may contain nested images
-                else if (isForm(xobj)) {
-                    checkFormForImages(pageNum, name, (PDFormXObject) xobj, uniqueImages);
-                }
+        Map<String, List<ImageReference>> uniqueImages = new LinkedHashMap<>();
+        PdfImageIndex imageIndex = PdfImageIndex.build(doc);
+
+        for (Entry<String, List<ImageOccurrence>> entry :
+                imageIndex.getImagesByContent().entrySet()) {
+            List<ImageReference> references = new ArrayList<>();
+            for (ImageOccurrence occurrence : entry.getValue()) {
+                references.add(toImageReference(occurrence));
             }
+            uniqueImages.put(entry.getKey(), references);
         }
 
         return uniqueImages;
     }
 
-    private boolean isImage(PDXObject xobj) {
-        return xobj instanceof PDImageXObject;
-    }
-
-    private boolean isForm(PDXObject xobj) {
-        return xobj instanceof PDFormXObject;
-    }
-
-    private ImageReference addDirectImage(
-            int pageNum,
-            COSName name,
-            PDImageXObject image,
-            Map<String, List<ImageReference>> uniqueImages)
-            throws IOException {
-        ImageReference ref = new ImageReference();
-        ref.pageNum = pageNum;
-        ref.name = name;
-
-        String imageHash = generateImageHash(image);
-        uniqueImages.computeIfAbsent(imageHash, k -> new ArrayList<>()).add(ref);
-
-        return ref;
-    }
-
-    // Look for images inside form XObjects
-    private void checkFormForImages(
-            int pageNum,
-            COSName formName,
-            PDFormXObject formXObj,
-            Map<String, List<ImageReference>> uniqueImages)
-            throws IOException {
-        PDResources formResources = formXObj.getResources();
-        if (formResources == null || formResources.getXObjectNames() == null) {
-            return;
+    private ImageReference toImageReference(ImageOccurrence occurrence) throws IOException {
+        PDImageXObject image = occurrence.getImage();
+        int pageNum = occurrence.getPageIndex();
+        if (!occurrence.isNested()) {
+            log.info(
+                    "Found direct image '{}' on page {} - {}x{}",
+                    occurrence.getImageName().getName(),
+                    pageNum + 1,
+                    image.getWidth(),
+                    image.getHeight());
+            return new ImageReference(pageNum, occurrence.getImageName());
         }
 
         log.info(
-                "Checking form XObject '{}' on page {} for nested images",
-                formName.getName(),
-                pageNum + 1);
-
-        // Process all XObjects within the form
-        for (COSName nestedName : formResources.getXObjectNames()) {
-            PDXObject nestedXobj = formResources.getXObject(nestedName);
-
-            if (isImage(nestedXobj)) {
-                PDImageXObject nestedImage = (PDImageXObject) nestedXobj;
-
-                log.info(
-                        "Found nested image '{}' in form '{}' on page {} - {}x{}",
-                        nestedName.getName(),
-                        formName.getName(),
-                        pageNum + 1,
-                        nestedImage.getWidth(),
-                        nestedImage.getHeight());
-
-                // Create specialized reference for the nested image
-                NestedImageReference nestedRef = new NestedImageReference();
-                nestedRef.pageNum = pageNum;
-                nestedRef.formName = formName;
-                nestedRef.imageName = nestedName;
-
-                String imageHash = generateImageHash(nestedImage);
-                uniqueImages.computeIfAbsent(imageHash, k -> new ArrayList<>()).add(nestedRef);
-            }
-        }
+                "Found nested image '{}' in form '{}' on page {} - {}x{}",
+                occurrence.getImageName().getName(),
+                occurrence.getFormName().getName(),
+                pageNum + 1,
+                image.getWidth(),
+                image.getHeight());
+
+        // Create specialized reference for the nested image
+        NestedImageReference nestedRef = new NestedImageReference();
+        nestedRef.pageNum = pageNum;
+        nestedRef.formName = occurrence.getFormName();
+        nestedRef.imageName = occurrence.getImageName();
+        return nestedRef;
     }
 
     // Count total images and nested images
@@ -263,7 +241,9 @@ public class CompressController {
         }
     }
 
-    // Create compressed versions of all unique images
+    // Create compressed versions of all unique images. Decoding, scaling and encoding run in
+    // parallel; everything touching the PDDocument is serialized on documentLock because PDFBox
+    // is not thread-safe, and results are applied in input order so the stats stay deterministic.
     private Map<String, PDImageXObject> createCompressedImages(
             PDDocument doc,
             Map<String, List<ImageReference>> uniqueImages,
@@ -275,56 +255,124 @@ public class CompressController {
 
         Map<String, PDImageXObject> compressedVersions = new HashMap<>();
 
-        // Process each unique image exactly once
+        // Resolve each unique image exactly once before any worker touches the document
+        List<ImageTask> tasks = new ArrayList<>();
         for (Entry<String, List<ImageReference>> entry : uniqueImages.entrySet()) {
-            String imageHash = entry.getKey();
             List<ImageReference> references = entry.getValue();
-
             if (references.isEmpty()) continue;
 
             // Get the first instance of this image
             PDImageXObject originalImage = getOriginalImage(doc, references.get(0));
-
-            // Track original size
-            int originalSize = (int) originalImage.getCOSObject().getLength();
-            stats.totalOriginalBytes += originalSize;
-
-            // Process this unique image
-            PDImageXObject compressedImage =
-                    compressImage(
-                            doc,
+            tasks.add(
+                    new ImageTask(
+                            entry.getKey(),
+                            references.size(),
                             originalImage,
-                            originalSize,
-                            scaleFactor,
-                            jpegQuality,
-                            convertToGrayscale);
+                            (int) originalImage.getCOSObject().getLength(),
+                            bitmapPermits(originalImage)));
+        }
 
-            if (compressedImage != null) {
-                // Store the compressed version in our map
-                compressedVersions.put(imageHash, compressedImage);
-                stats.compressedImages++;
+        Object documentLock = new Object();
+        List<Future<byte[]>> results = new ArrayList<>(tasks.size());
+        try {
+            for (ImageTask task : tasks) {
+                results.add(
+                        imageExecutor.submit(
+                                () ->
+                                        compressImage(
+                                                task,
+                                                documentLock,
+                                                scaleFactor,
+                                                jpegQuality,
+                                                convertToGrayscale)));
+            }
 
-                // Update compression stats
-                int compressedSize = (int) compressedImage.getCOSObject().getLength();
-                stats.totalCompressedBytes += compressedSize * references.size();
+            progressReporter.start(tasks.size(), "Compressing images");
+            for (int i = 0; i < tasks.size(); i++) {
+                ImageTask task = tasks.get(i);
+                String imageHash = task.hash;
+                int originalSize = task.originalSize;
+
+                // Track original size
+                stats.totalOriginalBytes += originalSize;
+
+                byte[] compressedData = awaitCompressedImage(results.get(i));
+                if (compressedData != null) {
+                    // Create the compressed version and store it in our map
+                    PDImageXObject compressedImage;
+                    synchronized (documentLock) {
+                        compressedImage =
+                                PDImageXObject.createFromByteArray(
+                                        doc, compressedData, task.image.getCOSObject().toString());
+                    }
+                    compressedVersions.put(imageHash, compressedImage);
+                    stats.compressedImages++;
 
-                double reductionPercentage = 100.0 - ((compressedSize * 100.0) / originalSize);
-                log.info(
-                        "Image hash {}: Compressed from {} to {} (reduced by {}%)",
-                        imageHash,
-                        GeneralUtils.formatBytes(originalSize),
-                        GeneralUtils.formatBytes(compressedSize),
-                        String.format("%.1f", reductionPercentage));
-            } else {
-                log.info("Image hash {}: Not suitable for compression, skipping", imageHash);
-                stats.totalCompressedBytes += originalSize * references.size();
-                stats.skippedImages++;
+                    // Update compression stats
+                    int compressedSize = (int) compressedImage.getCOSObject().getLength();
+                    stats.totalCompressedBytes += compressedSize * task.referenceCount;
+
+                    double reductionPercentage = 100.0 - ((compressedSize * 100.0) / originalSize);
+                    log.info(
+                            "Image hash {}: Compressed from {} to {} (reduced by {}%)",
+                            imageHash,
+                            GeneralUtils.formatBytes(originalSize),
+                            GeneralUtils.formatBytes(compressedSize),
+                            String.format("%.1f", reductionPercentage));
+                } else {
+                    log.info("Image hash {}: Not suitable for compression, skipping", imageHash);
+                    stats.totalCompressedBytes += originalSize * task.referenceCount;
+                    stats.skippedImages++;
+                }
+                progressReporter.step("Compressed image " + (i + 1) + " of " + tasks.size());
+            }
+        } finally {
+            // Stop outstanding work if an image failed
+            for (Future<byte[]> result : results) {
+                result.cancel(true);
             }
         }
 
         return compressedVersions;
     }
 
+    // A unique image waiting to be compressed
+    @AllArgsConstructor
+    private static class ImageTask {
+        String hash;
+        int referenceCount;
+        PDImageXObject image;
+        int originalSize;
+        int bitmapPermits;
+    }
+
+    // Estimated decoded plus scaled bitmap size in KB, capped at the whole budget
+    private int bitmapPermits(PDImageXObject image) {
+        return bitmapPermits(image, 1);
+    }
+
+    // The decoded bitmap plus the given number of scaled copies alive at the same time, each
+    // counted at full size as a grayscale or barely scaled copy is about as large
+    private int bitmapPermits(PDImageXObject image, int scaledCopies) {
+        long estimateKb =
+                (long) image.getWidth() * image.getHeight() * 4 * (1 + scaledCopies) / 1024;
+        return (int) Math.max(1, Math.min(estimateKb, BITMAP_BUDGET_KB));
+    }
+
+    private byte[] awaitCompressedImage(Future<byte[]> result) throws IOException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while compressing images", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Image compression failed", e.getCause());
+        }
+    }
+
     // Get original image from a reference
     private PDImageXObject getOriginalImage(PDDocument doc, ImageReference ref) throws IOException {
         if (ref instanceof NestedImageReference) {
@@ -347,36 +395,91 @@ public class CompressController {
         }
     }
 
-    // Try to compress an image if it makes sense
-    private PDImageXObject compressImage(
-            PDDocument doc,
-            PDImageXObject originalImage,
-            int originalSize,
+    // Decode, resize and encode one image; returns null if compression is not worthwhile
+    private byte[] compressImage(
+            ImageTask task,
+            Object documentLock,
             double scaleFactor,
             float jpegQuality,
             boolean convertToGrayscale)
-            throws IOException {
+            throws IOException, InterruptedException {
+        // Bound the bitmaps in flight so large images cannot exhaust the heap together
+        bitmapBudget.acquire(task.bitmapPermits);
+        try {
+            // Only copying the encoded stream needs the document, decoding runs on the copy
+            COSStream encodedImage;
+            synchronized (documentLock) {
+                encodedImage =
+                        (COSStream) detach(task.image.getCOSObject(), new IdentityHashMap<>());
+            }
+            BufferedImage decodedImage =
+                    new PDImageXObject(new PDStream(encodedImage), null).getImage();
 
-        // Process and compress the image
-        BufferedImage processedImage =
-                processAndCompressImage(
-                        originalImage, scaleFactor, jpegQuality, convertToGrayscale);
+            // Process and compress the image
+            BufferedImage processedImage =
+                    processAndCompressImage(
+                            decodedImage, scaleFactor, jpegQuality, convertToGrayscale);
 
-        if (processedImage == null) {
-            return null;
-        }
+            if (processedImage == null) {
+                return null;
+            }
 
-        // Convert to bytes for storage
-        byte[] compressedData = convertToBytes(processedImage, jpegQuality);
+            // Convert to bytes for storage
+            byte[] compressedData = convertToBytes(processedImage, jpegQuality);
 
-        // Check if compression is beneficial
-        if (compressedData.length < originalSize || convertToGrayscale) {
-            // Create a compressed version
-            return PDImageXObject.createFromByteArray(
-                    doc, compressedData, originalImage.getCOSObject().toString());
+            // Check if compression is beneficial
+            if (compressedData.length < task.originalSize || convertToGrayscale) {
+                return compressedData;
+            }
+
+            return null;
+        } finally {
+            bitmapBudget.release(task.bitmapPermits);
         }
+    }
 
-        return null;
+    // Copies an object and everything it references into objects that no longer read from the
+    // document. Streams keep their encoded bytes and filters, metadata and optional content are
+    // left out as decoding does not need them.
+    private static COSBase detach(COSBase value, Map<COSBase, COSBase> copies) throws IOException {
+        if (value instanceof COSObject reference) {
+            COSBase resolved = reference.getObject();
+            return resolved == null ? COSNull.NULL : detach(resolved, copies);
+        }
+        if (!(value instanceof COSArray) && !(value instanceof COSDictionary)) {
+            return value;
+        }
+        COSBase existing = copies.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        if (value instanceof COSArray array) {
+            COSArray copy = new COSArray();
+            copies.put(array, copy);
+            for (int i = 0; i < array.size(); i++) {
+                copy.add(detach(array.get(i), copies));
+            }
+            return copy;
+        }
+        COSDictionary dictionary = (COSDictionary) value;
+        COSDictionary copy;
+        if (dictionary instanceof COSStream stream) {
+            COSStream streamCopy = new COSStream();
+            try (InputStream raw = stream.createRawInputStream();
+                    OutputStream out = streamCopy.createRawOutputStream()) {
+                raw.transferTo(out);
+            }
+            copy = streamCopy;
+        } else {
+            copy = new COSDictionary();
+        }
+        copies.put(dictionary, copy);
+        for (Entry<COSName, COSBase> entry : dictionary.entrySet()) {
+            if (!COSName.METADATA.equals(entry.getKey()) && !COSName.OC.equals(entry.getKey())) {
+                copy.setItem(entry.getKey(), detach(entry.getValue(), copies));
+            }
+        }
+        return copy;
     }
 
     // Replace all instances of original images with their compressed versions
@@ -471,9 +574,10 @@ public class CompressController {
 
     // Resize and optionally convert to grayscale
     private BufferedImage processAndCompressImage(
-            PDImageXObject image, double scaleFactor, float jpegQuality, boolean convertToGrayscale)
-            throws IOException {
-        BufferedImage bufferedImage = image.getImage();
+            BufferedImage bufferedImage,
+            double scaleFactor,
+            float jpegQuality,
+            boolean convertToGrayscale) {
         int originalWidth = bufferedImage.getWidth();
         int originalHeight = bufferedImage.getHeight();
 
@@ -582,44 +686,6 @@ public class CompressController {
         return outputStream.toByteArray();
     }
 
-    // Hash function to identify identical images
-    private String generateImageHash(PDImageXObject image) {
-        try {
-            // Create a stream for the raw stream data
-            try (InputStream stream = image.getCOSObject().createRawInputStream()) {
-                // Read up to first 8KB of data for the hash
-                byte[] buffer = new byte[8192];
-                int bytesRead = stream.read(buffer);
-                if (bytesRead > 0) {
-                    byte[] dataToHash =
-                            bytesRead == buffer.length ? buffer : Arrays.copyOf(buffer, bytesRead);
-                    return bytesToHexString(generateMD5(dataToHash));
-                }
-                return "empty-stream";
-            }
-        } catch (Exception e) {
-            ExceptionUtils.logException("image hash generation", e);
-            return "fallback-" + System.identityHashCode(image);
-        }
-    }
-
-    private String bytesToHexString(byte[] bytes) {
-        StringBuilder sb = new StringBuilder();
-        for (byte b : bytes) {
-            sb.append(String.format("%02x", b));
-        }
-        return sb.toString();
-    }
-
-    private byte[] generateMD5(byte[] data) throws IOException {
-        try {
-            MessageDigest md = MessageDigest.getInstance("MD5");
-            return md.digest(data); // Get the MD5 hash of the image bytes
-        } catch (NoSuchAlgorithmException e) {
-            throw ExceptionUtils.createMd5AlgorithmException(e);
-        }
-    }
-
     // Scale factors for different optimization levels
     private double getScaleFactorForLevel(int optimizeLevel) {
         return switch (optimizeLevel) {
@@ -695,37 +761,49 @@ public class CompressController {
             boolean imageCompressionApplied = false;
             boolean externalCompressionApplied = false;
 
+            // Image-heavy documents: predict the parameters instead of stepping through levels
+            Long predictedSize = null;
+            if (autoMode && expectedOutputSize < inputFileSize) {
+                SizeModel sizeModel =
+                        buildSizeModel(
+                                currentFile,
+                                inputFileSize,
+                                Boolean.TRUE.equals(convertToGrayscale));
+                if (sizeModel != null) {
+                    Path predictedFile =
+                            compressToPredictedSize(
+                                    sizeModel,
+                                    currentFile,
+                                    originalFile,
+                                    expectedOutputSize,
+                                    Boolean.TRUE.equals(convertToGrayscale),
+                                    tempFiles);
+                    long actualSize = Files.size(predictedFile);
+                    if (actualSize <= expectedOutputSize) {
+                        predictedSize = sizeModel.lastPrediction;
+                        currentFile =
+                                applyExternalCompressionIfSmaller(
+                                        request, optimizeLevel, predictedFile, tempFiles);
+                        sizeMet = true;
+                    } else {
+                        // The model missed, step through the levels from the original instead
+                        log.info(
+                                "Predicted compression gave {}, above the target of {}",
+                                GeneralUtils.formatBytes(actualSize),
+                                GeneralUtils.formatBytes(expectedOutputSize));
+                        currentFile = Files.createTempFile("working_", ".pdf");
+                        tempFiles.add(currentFile);
+                        Files.copy(originalFile, currentFile, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+            }
+
             while (!sizeMet && optimizeLevel <= 9) {
                 // Apply external compression first
                 if (!externalCompressionApplied) {
-                    boolean ghostscriptSuccess = false;
-
-                    // Try Ghostscript first if available - for ANY compression level
-                    if (isGhostscriptEnabled()) {
-                        try {
-                            applyGhostscriptCompression(
+                    boolean ghostscriptSuccess =
+                            applyExternalCompression(
                                     request, optimizeLevel, currentFile, tempFiles);
-                            log.info("Ghostscript compression applied successfully");
-                            ghostscriptSuccess = true;
-                        } catch (IOException e) {
-                            log.warn("Ghostscript compression failed, trying fallback methods");
-                        }
-                    }
-
-                    // Fallback to QPDF if Ghostscript failed or not available (levels 1-3 only)
-                    if (!ghostscriptSuccess && isQpdfEnabled() && optimizeLevel <= 3) {
-                        try {
-                            applyQpdfCompression(request, optimizeLevel, currentFile, tempFiles);
-                            log.info("QPDF compression applied successfully");
-                        } catch (IOException e) {
-                            log.warn("QPDF compression also failed");
-                        }
-                    }
-
-                    if (!ghostscriptSuccess && !isQpdfEnabled()) {
-                        log.info(
-                                "No external compression tools available, using image compression only");
-                    }
 
                     externalCompressionApplied = true;
 
@@ -797,8 +875,22 @@ public class CompressController {
                     GeneralUtils.generateFilename(
                             inputFile.getOriginalFilename(), "_Optimized.pdf");
 
-            return WebResponseUtils.pdfDocToWebResponse(
-                    pdfDocumentFactory.load(currentFile.toFile()), outputFilename);
+            ResponseEntity<byte[]> response =
+                    WebResponseUtils.pdfDocToWebResponse(
+                            pdfDocumentFactory.load(currentFile.toFile()), outputFilename);
+            if (predictedSize == null) {
+                return response;
+            }
+            long actualSize = response.getBody() == null ? 0 : response.getBody().length;
+            log.info(
+                    "Target-size compression: predicted {}, actual {}",
+                    GeneralUtils.formatBytes(predictedSize),
+                    GeneralUtils.formatBytes(actualSize));
+            return ResponseEntity.status(response.getStatusCode())
+                    .headers(response.getHeaders())
+                    .header(PREDICTED_SIZE_HEADER, String.valueOf(predictedSize))
+                    .header(ACTUAL_SIZE_HEADER, String.valueOf(actualSize))
+                    .body(response.getBody());
 
         } finally {
             // Clean up all temporary files
@@ -812,6 +904,252 @@ public class CompressController {
         }
     }
 
+    // Candidate image settings for target-size compression, mildest first
+    private static final List<CompressionPoint> COMPRESSION_POINTS =
+            List.of(
+                    new CompressionPoint(0.95, 0.85f),
+                    new CompressionPoint(0.9, 0.8f),
+                    new CompressionPoint(0.8, 0.75f),
+                    new CompressionPoint(0.7, 0.7f),
+                    new CompressionPoint(0.65, 0.6f),
+                    new CompressionPoint(0.5, 0.5f),
+                    new CompressionPoint(0.4, 0.35f),
+                    new CompressionPoint(0.3, 0.25f));
+
+    // Only the largest images are sampled, they dominate the output size
+    private static final int SIZE_MODEL_SAMPLE_IMAGES = 6;
+
+    // Below this share of the file, images are not worth modelling
+    private static final double SIZE_MODEL_MIN_IMAGE_SHARE = 0.2;
+
+    private static final String PREDICTED_SIZE_HEADER = "X-Predicted-Output-Size";
+    private static final String ACTUAL_SIZE_HEADER = "X-Actual-Output-Size";
+
+    private record CompressionPoint(double scaleFactor, float jpegQuality) {}
+
+    // Predicts the output size for each compression point from a few sampled images
+    static class SizeModel {
+        final long fixedBytes; // everything that is not image data
+        final long imageBytes;
+        final double[] imageRatios; // compressed/original image bytes per compression point
+        long lastPrediction;
+
+        SizeModel(long fixedBytes, long imageBytes, double[] imageRatios) {
+            this.fixedBytes = fixedBytes;
+            this.imageBytes = imageBytes;
+            this.imageRatios = imageRatios;
+        }
+
+        long predict(int point, double correction) {
+            return Math.round((fixedBytes + imageBytes * imageRatios[point]) * correction);
+        }
+
+        // The mildest point predicted to meet the target, or the strongest one
+        int choose(long targetSize, double correction) {
+            for (int i = 0; i < imageRatios.length; i++) {
+                if (predict(i, correction) <= targetSize) {
+                    return i;
+                }
+            }
+            return imageRatios.length - 1;
+        }
+    }
+
+    // Sample the largest unique images at every compression point, or null if images are
+    // too small a share of the file for the model to be useful
+    SizeModel buildSizeModel(Path pdfFile, long fileSize, boolean convertToGrayscale)
+            throws IOException {
+        // Read without taking ownership, loading a Path deletes it on close
+        try (PDDocument doc =
+                pdfDocumentFactory.load(
+                        new RandomAccessReadBufferedFile(pdfFile.toFile()), fileSize, true)) {
+            List<PDImageXObject> images = new ArrayList<>();
+            long imageBytes = 0;
+            for (List<ImageReference> references : findImages(doc).values()) {
+                PDImageXObject image = getOriginalImage(doc, references.get(0));
+                images.add(image);
+                imageBytes += image.getCOSObject().getLength();
+            }
+            if (imageBytes < fileSize * SIZE_MODEL_MIN_IMAGE_SHARE) {
+                log.info(
+                        "Images are {} of {}, using level-based compression",
+                        GeneralUtils.formatBytes(imageBytes),
+                        GeneralUtils.formatBytes(fileSize));
+                return null;
+            }
+
+            images.sort(
+                    Comparator.comparingLong(
+                                    (PDImageXObject image) -> image.getCOSObject().getLength())
+                            .reversed());
+            long sampledBytes = 0;
+            long[] compressedBytes = new long[COMPRESSION_POINTS.size()];
+            int sampleCount = Math.min(images.size(), SIZE_MODEL_SAMPLE_IMAGES);
+            for (PDImageXObject image : images.subList(0, sampleCount)) {
+                int originalSize = (int) image.getCOSObject().getLength();
+                sampledBytes += originalSize;
+                long[] sizes = sampleImage(image, originalSize, convertToGrayscale);
+                for (int i = 0; i < sizes.length; i++) {
+                    compressedBytes[i] += sizes[i];
+                }
+            }
+
+            double[] ratios = new double[compressedBytes.length];
+            for (int i = 0; i < ratios.length; i++) {
+                ratios[i] = compressedBytes[i] / (double) sampledBytes;
+            }
+            return new SizeModel(Math.max(0, fileSize - imageBytes), imageBytes, ratios);
+        }
+    }
+
+    // Compressed size of one image at every compression point, encoded in parallel
+    private long[] sampleImage(PDImageXObject image, int originalSize, boolean convertToGrayscale)
+            throws IOException {
+        // Takes from the same budget as compressImage, for the decoded bitmap and the scaled copy
+        // of every compression point as they are encoded at the same time
+        int bitmapPermits = bitmapPermits(image, COMPRESSION_POINTS.size());
+        try {
+            bitmapBudget.acquire(bitmapPermits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while sampling images", e);
+        }
+        List<Future<byte[]>> results = new ArrayList<>(COMPRESSION_POINTS.size());
+        try {
+            BufferedImage decodedImage = image.getImage();
+            for (CompressionPoint point : COMPRESSION_POINTS) {
+                results.add(
+                        imageExecutor.submit(
+                                () -> {
+                                    BufferedImage processedImage =
+                                            processAndCompressImage(
+                                                    decodedImage,
+                                                    point.scaleFactor(),
+                                                    point.jpegQuality(),
+                                                    convertToGrayscale);
+                                    return processedImage == null
+                                            ? null
+                                            : convertToBytes(processedImage, point.jpegQuality());
+                                }));
+            }
+
+            long[] sizes = new long[results.size()];
+            for (int i = 0; i < sizes.length; i++) {
+                byte[] compressedData = awaitCompressedImage(results.get(i));
+                // Mirrors compressImage: images that would not shrink are kept as they are
+                sizes[i] =
+                        compressedData != null
+                                        && (compressedData.length < originalSize
+                                                || convertToGrayscale)
+                                ? compressedData.length
+                                : originalSize;
+            }
+            return sizes;
+        } finally {
+            for (Future<byte[]> result : results) {
+                result.cancel(true);
+            }
+            bitmapBudget.release(bitmapPermits);
+        }
+    }
+
+    // One pass at the predicted parameters, plus at most one corrected pass if the target
+    // was missed. The first pass consumes workingFile, the second starts over from a copy of
+    // originalFile rather than compressing already compressed images again.
+    Path compressToPredictedSize(
+            SizeModel sizeModel,
+            Path workingFile,
+            Path originalFile,
+            long targetSize,
+            boolean convertToGrayscale,
+            List<Path> tempFiles)
+            throws Exception {
+        int point = sizeModel.choose(targetSize, 1.0);
+        sizeModel.lastPrediction = sizeModel.predict(point, 1.0);
+        Path outputFile = compressAtPoint(workingFile, point, convertToGrayscale, tempFiles);
+        long actualSize = Files.size(outputFile);
+        log.info(
+                "Predicted {} at scale {} and quality {}, got {}",
+                GeneralUtils.formatBytes(sizeModel.lastPrediction),
+                COMPRESSION_POINTS.get(point).scaleFactor(),
+                COMPRESSION_POINTS.get(point).jpegQuality(),
+                GeneralUtils.formatBytes(actualSize));
+
+        if (actualSize > targetSize && point < COMPRESSION_POINTS.size() - 1) {
+            // Scale the whole model by how far off the first prediction was
+            double correction = actualSize / (double) Math.max(1, sizeModel.lastPrediction);
+            int correctedPoint = Math.max(point + 1, sizeModel.choose(targetSize, correction));
+            sizeModel.lastPrediction = sizeModel.predict(correctedPoint, correction);
+            Path retryFile = Files.createTempFile("working_", ".pdf");
+            tempFiles.add(retryFile);
+            Files.copy(originalFile, retryFile, StandardCopyOption.REPLACE_EXISTING);
+            outputFile = compressAtPoint(retryFile, correctedPoint, convertToGrayscale, tempFiles);
+        }
+        return outputFile;
+    }
+
+    private Path compressAtPoint(
+            Path inputFile, int point, boolean convertToGrayscale, List<Path> tempFiles)
+            throws Exception {
+        CompressionPoint settings = COMPRESSION_POINTS.get(point);
+        Path outputFile =
+                compressImagesInPDF(
+                        inputFile,
+                        settings.scaleFactor(),
+                        settings.jpegQuality(),
+                        convertToGrayscale);
+        tempFiles.add(outputFile);
+        return outputFile;
+    }
+
+    // Ghostscript, or QPDF for levels 1-3 if Ghostscript is unavailable, on currentFile in place.
+    // Returns whether Ghostscript succeeded, which also took care of the images.
+    private boolean applyExternalCompression(
+            OptimizePdfRequest request, int optimizeLevel, Path currentFile, List<Path> tempFiles) {
+        boolean ghostscriptSuccess = false;
+
+        // Try Ghostscript first if available - for ANY compression level
+        if (isGhostscriptEnabled()) {
+            try {
+                applyGhostscriptCompression(request, optimizeLevel, currentFile, tempFiles);
+                log.info("Ghostscript compression applied successfully");
+                ghostscriptSuccess = true;
+            } catch (IOException e) {
+                log.warn("Ghostscript compression failed, trying fallback methods");
+            }
+        }
+
+        // Fallback to QPDF if Ghostscript failed or not available (levels 1-3 only)
+        if (!ghostscriptSuccess && isQpdfEnabled() && optimizeLevel <= 3) {
+            try {
+                applyQpdfCompression(request, optimizeLevel, currentFile, tempFiles);
+                log.info("QPDF compression applied successfully");
+            } catch (IOException e) {
+                log.warn("QPDF compression also failed");
+            }
+        }
+
+        if (!ghostscriptSuccess && !isQpdfEnabled()) {
+            log.info("No external compression tools available, using image compression only");
+        }
+        return ghostscriptSuccess;
+    }
+
+    // The external pass the level loop would have run, on a copy of the predicted output so it is
+    // only kept if it makes the file smaller still
+    private Path applyExternalCompressionIfSmaller(
+            OptimizePdfRequest request, int optimizeLevel, Path predictedFile, List<Path> tempFiles)
+            throws IOException {
+        if (!isGhostscriptEnabled() && !isQpdfEnabled()) {
+            return predictedFile;
+        }
+        Path externalFile = Files.createTempFile("working_", ".pdf");
+        tempFiles.add(externalFile);
+        Files.copy(predictedFile, externalFile, StandardCopyOption.REPLACE_EXISTING);
+        applyExternalCompression(request, optimizeLevel, externalFile, tempFiles);
+        return Files.size(externalFile) < Files.size(predictedFile) ? externalFile : predictedFile;
+    }
+
     // Run Ghostscript compression
     private void applyGhostscriptCompression(
             OptimizePdfRequest request, int optimizeLevel, Path currentFile, List<Path> tempFiles)
@@ -5,11 +5,10 @@ import java.awt.image.BufferedImage;
 import java.awt.image.RenderedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -20,9 +19,7 @@ import java.util.zip.ZipOutputStream;
 
 import javax.imageio.ImageIO;
 
-import org.apache.pdfbox.cos.COSName;
 import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -42,7 +39,8 @@ import stirling.software.SPDF.model.api.PDFExtractImagesRequest;
 import stirling.software.common.service.CustomPDFDocumentFactory;
 import stirling.software.common.util.ExceptionUtils;
 import stirling.software.common.util.GeneralUtils;
-import stirling.software.common.util.ImageProcessingUtils;
+import stirling.software.common.util.PdfImageIndex;
+import stirling.software.common.util.PdfImageIndex.ImageOccurrence;
 import stirling.software.common.util.WebResponseUtils;
 
 @RestController
@@ -81,7 +79,11 @@ public class ExtractImagesController {
         zos.setLevel(Deflater.BEST_COMPRESSION);
 
         String filename = GeneralUtils.removeExtension(file.getOriginalFilename());
-        Set<byte[]> processedImages = new HashSet<>();
+        // Content keys of the images already written, shared by all page workers
+        Set<String> processedImages = ConcurrentHashMap.newKeySet();
+        PdfImageIndex imageIndex = PdfImageIndex.build(document);
+        int pageCount = document.getPages().getCount();
+        log.debug("Document reports {} pages", pageCount);
 
         if (useMultithreading) {
             // Executor service to handle multithreading
@@ -89,57 +91,34 @@ public class ExtractImagesController {
                     Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
             Set<Future<Void>> futures = new HashSet<>();
 
-            // Safely iterate over each page, handling corrupt PDFs where page count might be wrong
-            try {
-                int pageCount = document.getPages().getCount();
-                log.debug("Document reports {} pages", pageCount);
-
-                int consecutiveFailures = 0;
-
-                for (int pgNum = 0; pgNum < pageCount; pgNum++) {
-                    try {
-                        PDPage page = document.getPage(pgNum);
-                        consecutiveFailures = 0; // Reset on success
-                        final int currentPageNum = pgNum + 1; // Convert to 1-based page numbering
-                        Future<Void> future =
-                                executor.submit(
-                                        () -> {
-                                            try {
-                                                // Call the image extraction method for each page
-                                                extractImagesFromPage(
-                                                        page,
-                                                        format,
-                                                        filename,
-                                                        currentPageNum,
-                                                        processedImages,
-                                                        zos,
-                                                        allowDuplicates);
-                                            } catch (Exception e) {
-                                                // Log the error and continue processing other pages
-                                                ExceptionUtils.logException(
-                                                        "image extraction from page "
-                                                                + currentPageNum,
-                                                        e);
-                                            }
-
-                                            return null; // Callable requires a return type
-                                        });
-
-                        // Add the Future object to the list to track completion
-                        futures.add(future);
-                    } catch (Exception e) {
-                        consecutiveFailures++;
-                        ExceptionUtils.logException("page access for page " + (pgNum + 1), e);
-
-                        if (consecutiveFailures >= 3) {
-                            log.warn("Stopping page iteration after 3 consecutive failures");
-                            break;
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                ExceptionUtils.logException("page count determination", e);
-                throw e;
+            for (int pgNum = 0; pgNum < pageCount; pgNum++) {
+                final int currentPageNum = pgNum + 1; // Convert to 1-based page numbering
+                List<ImageOccurrence> pageImages = imageIndex.getOccurrences(pgNum);
+                Future<Void> future =
+                        executor.submit(
+                                () -> {
+                                    try {
+                                        // Call the image extraction method for each page
+                                        extractImagesFromPage(
+                                                pageImages,
+                                                imageIndex,
+                                                format,
+                                                filename,
+                                                currentPageNum,
+                                                processedImages,
+                                                zos,
+                                                allowDuplicates);
+                                    } catch (Exception e) {
+                                        // Log the error and continue processing other pages
+                                        ExceptionUtils.logException(
+                                                "image extraction from page " + currentPageNum, e);
+                                    }
+
+                                    return null; // Callable requires a return type
+                                });
+
+                // Add the Future object to the list to track completion
+                futures.add(future);
             }
 
             // Wait for all tasks to complete
@@ -151,10 +130,16 @@ public class ExtractImagesController {
             executor.shutdown();
         } else {
             // Single-threaded extraction
-            for (int pgNum = 0; pgNum < document.getPages().getCount(); pgNum++) {
-                PDPage page = document.getPage(pgNum);
+            for (int pgNum = 0; pgNum < pageCount; pgNum++) {
                 extractImagesFromPage(
-                        page, format, filename, pgNum + 1, processedImages, zos, allowDuplicates);
+                        imageIndex.getOccurrences(pgNum),
+                        imageIndex,
+                        format,
+                        filename,
+                        pgNum + 1,
+                        processedImages,
+                        zos,
+                        allowDuplicates);
             }
         }
 
@@ -177,55 +162,40 @@ public class ExtractImagesController {
     }
 
     private void extractImagesFromPage(
-            PDPage page,
+            List<ImageOccurrence> pageImages,
+            PdfImageIndex imageIndex,
             String format,
             String filename,
             int pageNum,
-            Set<byte[]> processedImages,
+            Set<String> processedImages,
             ZipOutputStream zos,
             boolean allowDuplicates)
             throws IOException {
-        MessageDigest md;
-        try {
-            md = MessageDigest.getInstance("MD5");
-        } catch (NoSuchAlgorithmException e) {
-            log.error("MD5 algorithm not available for extractImages hash.", e);
-            return;
-        }
-        if (page.getResources() == null || page.getResources().getXObjectNames() == null) {
-            return;
-        }
         int count = 1;
-        for (COSName name : page.getResources().getXObjectNames()) {
+        for (ImageOccurrence occurrence : pageImages) {
+            // Only images placed directly on the page are extracted
+            if (occurrence.isNested()) {
+                continue;
+            }
             try {
-                if (page.getResources().isImageXObject(name)) {
-                    PDImageXObject image = (PDImageXObject) page.getResources().getXObject(name);
-                    if (!allowDuplicates) {
-                        byte[] data = ImageProcessingUtils.getImageData(image.getImage());
-                        byte[] imageHash = md.digest(data);
-                        synchronized (processedImages) {
-                            if (processedImages.stream()
-                                    .anyMatch(hash -> Arrays.equals(hash, imageHash))) {
-                                continue; // Skip already processed images
-                            }
-                            processedImages.add(imageHash);
-                        }
-                    }
+                PDImageXObject image = occurrence.getImage();
+                if (!allowDuplicates && !processedImages.add(imageIndex.getContentKey(image))) {
+                    continue; // Skip already processed images
+                }
 
-                    RenderedImage renderedImage = image.getImage();
+                RenderedImage renderedImage = image.getImage();
 
-                    // Convert to standard RGB colorspace if needed
-                    BufferedImage bufferedImage = convertToRGB(renderedImage, format);
+                // Convert to standard RGB colorspace if needed
+                BufferedImage bufferedImage = convertToRGB(renderedImage, format);
 
-                    // Write image to zip file
-                    String imageName = filename + "_page_" + pageNum + "_" + count++ + "." + format;
-                    synchronized (zos) {
-                        zos.putNextEntry(new ZipEntry(imageName));
-                        ByteArrayOutputStream imageBaos = new ByteArrayOutputStream();
-                        ImageIO.write(bufferedImage, format, imageBaos);
-                        zos.write(imageBaos.toByteArray());
-                        zos.closeEntry();
-                    }
+                // Write image to zip file
+                String imageName = filename + "_page_" + pageNum + "_" + count++ + "." + format;
+                synchronized (zos) {
+                    zos.putNextEntry(new ZipEntry(imageName));
+                    ByteArrayOutputStream imageBaos = new ByteArrayOutputStream();
+                    ImageIO.write(bufferedImage, format, imageBaos);
+                    zos.write(imageBaos.toByteArray());
+                    zos.closeEntry();
                 }
             } catch (IOException e) {
                 ExceptionUtils.logException("image extraction", e);
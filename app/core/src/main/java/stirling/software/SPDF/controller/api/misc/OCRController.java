@@ -38,6 +38,7 @@ import stirling.software.SPDF.config.EndpointConfiguration;
 import stirling.software.SPDF.model.api.misc.ProcessPdfWithOcrRequest;
 import stirling.software.common.model.ApplicationProperties;
 import stirling.software.common.service.CustomPDFDocumentFactory;
+import stirling.software.common.service.ProgressReporter;
 import stirling.software.common.util.*;
 import stirling.software.common.util.ProcessExecutor.ProcessExecutorResult;
 
@@ -52,6 +53,7 @@ public class OCRController {
     private final CustomPDFDocumentFactory pdfDocumentFactory;
     private final TempFileManager tempFileManager;
     private final EndpointConfiguration endpointConfiguration;
+    private final ProgressReporter progressReporter;
 
     private boolean isOcrMyPdfEnabled() {
         return endpointConfiguration.isGroupEnabled("OCRmyPDF");
@@ -335,6 +337,7 @@ public class OCRController {
             try (PDDocument document = pdfDocumentFactory.load(tempInputFile.toFile())) {
                 PDFRenderer pdfRenderer = new PDFRenderer(document);
                 int pageCount = document.getNumberOfPages();
+                progressReporter.start(pageCount, "Running OCR");
 
                 for (int pageNum = 0; pageNum < pageCount; pageNum++) {
                     PDPage page = document.getPage(pageNum);
@@ -415,10 +418,12 @@ public class OCRController {
                             merger.addSource(pageOutputPath);
                         }
                     }
+                    progressReporter.step("Processed page " + (pageNum + 1) + " of " + pageCount);
                 }
             }
 
             // Merge all pages into final PDF
+            progressReporter.message("Merging pages");
             merger.mergeDocuments(null);
 
             // Copy final output to the expected location
@@ -26,6 +26,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 
 import lombok.RequiredArgsConstructor;
 
+import stirling.software.SPDF.controller.api.pipeline.DocumentOperation;
 import stirling.software.SPDF.model.api.misc.AddPageNumbersRequest;
 import stirling.software.common.service.CustomPDFDocumentFactory;
 import stirling.software.common.util.GeneralUtils;
@@ -35,7 +36,7 @@ import stirling.software.common.util.WebResponseUtils;
 @RequestMapping("/api/v1/misc")
 @Tag(name = "Misc", description = "Miscellaneous APIs")
 @RequiredArgsConstructor
-public class PageNumbersController {
+public class PageNumbersController implements DocumentOperation<AddPageNumbersRequest> {
 
     private final CustomPDFDocumentFactory pdfDocumentFactory;
 
@@ -48,6 +49,19 @@ public class PageNumbersController {
     public ResponseEntity<byte[]> addPageNumbers(@ModelAttribute AddPageNumbersRequest request)
             throws IOException {
 
+        MultipartFile file = request.getFileInput();
+        PDDocument document = apply(pdfDocumentFactory.load(file), request);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        document.save(baos);
+        document.close();
+
+        return WebResponseUtils.bytesToWebResponse(
+                baos.toByteArray(), getOutputFilename(file.getOriginalFilename()));
+    }
+
+    @Override
+    public PDDocument apply(PDDocument document, AddPageNumbersRequest request) throws IOException {
         MultipartFile file = request.getFileInput();
         String customMargin = request.getCustomMargin();
         int position = request.getPosition();
@@ -67,8 +81,6 @@ public class PageNumbersController {
             }
         }
 
-        PDDocument document = pdfDocumentFactory.load(file);
-
         float marginFactor =
                 switch (customMargin == null ? "" : customMargin.toLowerCase(Locale.ROOT)) {
                     case "small" -> 0.02f;
@@ -95,6 +107,14 @@ public class PageNumbersController {
         // Clamp position to 1..9 (1 = top-left, 9 = bottom-right)
         int pos = Math.max(1, Math.min(9, position));
 
+        // One font for all pages, so its resources are written to the output only once
+        PDType1Font currentFont =
+                switch (fontType == null ? "" : fontType.toLowerCase(Locale.ROOT)) {
+                    case "courier" -> new PDType1Font(Standard14Fonts.FontName.COURIER);
+                    case "times" -> new PDType1Font(Standard14Fonts.FontName.TIMES_ROMAN);
+                    default -> new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+                };
+
         for (int i : pagesToNumberList) {
             PDPage page = document.getPage(i);
             PDRectangle pageSize = page.getMediaBox();
@@ -109,13 +129,6 @@ public class PageNumbersController {
                                             Filenames.toSimpleFileName(
                                                     file.getOriginalFilename())));
 
-            PDType1Font currentFont =
-                    switch (fontType == null ? "" : fontType.toLowerCase(Locale.ROOT)) {
-                        case "courier" -> new PDType1Font(Standard14Fonts.FontName.COURIER);
-                        case "times" -> new PDType1Font(Standard14Fonts.FontName.TIMES_ROMAN);
-                        default -> new PDType1Font(Standard14Fonts.FontName.HELVETICA);
-                    };
-
             // Text dimensions and font metrics
             float textWidth = currentFont.getStringWidth(text) / 1000f * fontSize;
             float ascent = currentFont.getFontDescriptor().getAscent() / 1000f * fontSize;
@@ -166,14 +179,11 @@ public class PageNumbersController {
 
             pageNumber++;
         }
+        return document;
+    }
 
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        document.save(baos);
-        document.close();
-
-        return WebResponseUtils.bytesToWebResponse(
-                baos.toByteArray(),
-                GeneralUtils.generateFilename(
-                        file.getOriginalFilename(), "_page_numbers_added.pdf"));
+    @Override
+    public String getOutputFilename(String inputFilename) {
+        return GeneralUtils.generateFilename(inputFilename, "_page_numbers_added.pdf");
     }
 }
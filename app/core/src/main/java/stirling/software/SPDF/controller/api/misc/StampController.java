@@ -3,28 +3,20 @@ package stirling.software.SPDF.controller.api.misc;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.beans.PropertyEditorSupport;
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.List;
 
 import javax.imageio.ImageIO;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDFont;
-import org.apache.pdfbox.pdmodel.font.PDType0Font;
-import org.apache.pdfbox.pdmodel.font.PDType1Font;
-import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
 import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
 import org.apache.pdfbox.pdmodel.graphics.state.PDExtendedGraphicsState;
 import org.apache.pdfbox.util.Matrix;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.WebDataBinder;
@@ -41,11 +33,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 
 import stirling.software.SPDF.model.api.misc.AddStampRequest;
+import stirling.software.SPDF.service.BundledFontService;
 import stirling.software.common.service.CustomPDFDocumentFactory;
 import stirling.software.common.util.GeneralUtils;
 import stirling.software.common.util.RegexPatternUtils;
-import stirling.software.common.util.TempFile;
-import stirling.software.common.util.TempFileManager;
 import stirling.software.common.util.WebResponseUtils;
 
 @RestController
@@ -55,7 +46,7 @@ import stirling.software.common.util.WebResponseUtils;
 public class StampController {
 
     private final CustomPDFDocumentFactory pdfDocumentFactory;
-    private final TempFileManager tempFileManager;
+    private final BundledFontService bundledFontService;
 
     /**
      * Initialize data binder for multipart file uploads. This method registers a custom editor for
@@ -127,6 +118,14 @@ public class StampController {
 
         List<Integer> pageNumbers = request.getPageNumbersList(document, true);
 
+        // Shared by all pages, so the font and transparency are written to the output only once
+        PDExtendedGraphicsState graphicsState = new PDExtendedGraphicsState();
+        graphicsState.setNonStrokingAlphaConstant(opacity);
+        PDFont font =
+                "text".equalsIgnoreCase(stampType)
+                        ? bundledFontService.loadFont(document, alphabet)
+                        : null;
+
         for (int pageIndex : pageNumbers) {
             int zeroBasedIndex = pageIndex - 1;
             if (zeroBasedIndex >= 0 && zeroBasedIndex < document.getNumberOfPages()) {
@@ -138,20 +137,17 @@ public class StampController {
                         new PDPageContentStream(
                                 document, page, PDPageContentStream.AppendMode.APPEND, true, true);
 
-                PDExtendedGraphicsState graphicsState = new PDExtendedGraphicsState();
-                graphicsState.setNonStrokingAlphaConstant(opacity);
                 contentStream.setGraphicsStateParameters(graphicsState);
 
                 if ("text".equalsIgnoreCase(stampType)) {
                     addTextStamp(
                             contentStream,
                             stampText,
-                            document,
                             page,
                             rotation,
                             position,
                             fontSize,
-                            alphabet,
+                            font,
                             overrideX,
                             overrideY,
                             margin,
@@ -182,43 +178,16 @@ public class StampController {
     private void addTextStamp(
             PDPageContentStream contentStream,
             String stampText,
-            PDDocument document,
             PDPage page,
             float rotation,
             int position, // 1-9 positioning logic
             float fontSize,
-            String alphabet,
+            PDFont font,
             float overrideX, // X override
             float overrideY,
             float margin,
             String colorString) // Y override
             throws IOException {
-        String resourceDir;
-        PDFont font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
-        resourceDir =
-                switch (alphabet) {
-                    case "arabic" -> "static/fonts/NotoSansArabic-Regular.ttf";
-                    case "japanese" -> "static/fonts/Meiryo.ttf";
-                    case "korean" -> "static/fonts/malgun.ttf";
-                    case "chinese" -> "static/fonts/SimSun.ttf";
-                    case "thai" -> "static/fonts/NotoSansThai-Regular.ttf";
-                    case "roman" -> "static/fonts/NotoSans-Regular.ttf";
-                    default -> "static/fonts/NotoSans-Regular.ttf";
-                };
-
-        ClassPathResource classPathResource = new ClassPathResource(resourceDir);
-        String fileExtension = resourceDir.substring(resourceDir.lastIndexOf("."));
-
-        // Use TempFile with try-with-resources for automatic cleanup
-        try (TempFile tempFileWrapper = new TempFile(tempFileManager, fileExtension)) {
-            File tempFile = tempFileWrapper.getFile();
-            try (InputStream is = classPathResource.getInputStream();
-                    FileOutputStream os = new FileOutputStream(tempFile)) {
-                IOUtils.copy(is, os);
-                font = PDType0Font.load(document, tempFile);
-            }
-        }
-
         contentStream.setFont(font, fontSize);
 
         Color redactColor;
@@ -0,0 +1,39 @@
+package stirling.software.SPDF.controller.api.pipeline;
+
+import java.io.IOException;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+/**
+ * Document-native form of a single-input PDF to PDF operation. Controllers implementing this
+ * contract let {@link PipelineProcessor} chain consecutive operations on one open {@link
+ * PDDocument}: the file is parsed once, every operation mutates it in turn and it is saved once at
+ * the end.
+ *
+ * <p>The request is bound exactly as it would be for the HTTP endpoint. Its file input only
+ * describes the original upload (name, size) and must not be loaded again.
+ *
+ * @param <R> the request type of the controller endpoint
+ */
+public interface DocumentOperation<R> {
+
+    /**
+     * Apply the operation to an open document.
+     *
+     * @param document the document to modify
+     * @param request the bound request parameters
+     * @return the resulting document, either {@code document} itself or a new document in which
+     *     case the implementation closes the one it was given
+     * @throws IOException if the operation fails
+     */
+    PDDocument apply(PDDocument document, R request) throws IOException;
+
+    /**
+     * The name the endpoint gives its output, so that fused operations are named the same as when
+     * run one by one.
+     *
+     * @param inputFilename the name of the input file
+     * @return the output filename the endpoint responds with
+     */
+    String getOutputFilename(String inputFilename);
+}
@@ -1,6 +1,7 @@
 package stirling.software.SPDF.controller.api.pipeline;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
@@ -74,55 +75,60 @@ public class PipelineController {
             }
             PipelineResult result = processor.runPipelineAgainstFiles(inputFiles, config);
             List<Resource> outputFiles = result.getOutputFiles();
-            if (outputFiles != null && outputFiles.size() == 1) {
-                // If there is only one file, return it directly
-                Resource singleFile = outputFiles.get(0);
-                InputStream is = singleFile.getInputStream();
-                byte[] bytes = new byte[(int) singleFile.contentLength()];
-                is.read(bytes);
-                is.close();
-                log.info("Returning single file response...");
-                return WebResponseUtils.bytesToWebResponse(
-                        bytes, singleFile.getFilename(), MediaType.APPLICATION_OCTET_STREAM);
-            } else if (outputFiles == null) {
-                return null;
-            }
-            // Create a ByteArrayOutputStream to hold the zip
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ZipOutputStream zipOut = new ZipOutputStream(baos);
-            // A map to keep track of filenames and their counts
-            Map<String, Integer> filenameCount = new HashMap<>();
-            // Loop through each file and add it to the zip
-            for (Resource file : outputFiles) {
-                String originalFilename = file.getFilename();
-                String filename = originalFilename;
-                // Check if the filename already exists, and modify it if necessary
-                if (filenameCount.containsKey(originalFilename)) {
-                    int count = filenameCount.get(originalFilename);
-                    assert originalFilename != null;
-                    filename = GeneralUtils.generateFilename(originalFilename, "(" + count + ")");
-                    filenameCount.put(originalFilename, count + 1);
-                } else {
-                    filenameCount.put(originalFilename, 1);
-                }
-                ZipEntry zipEntry = new ZipEntry(filename);
-                zipOut.putNextEntry(zipEntry);
-                // Read the file into a byte array
-                InputStream is = file.getInputStream();
-                byte[] bytes = new byte[(int) file.contentLength()];
-                is.read(bytes);
-                // Write the bytes of the file to the zip
-                zipOut.write(bytes, 0, bytes.length);
-                zipOut.closeEntry();
-                is.close();
+            try {
+                return buildResponse(outputFiles);
+            } finally {
+                processor.deleteTempFiles(outputFiles);
             }
-            zipOut.close();
-            log.info("Returning zipped file response...");
-            return WebResponseUtils.baosToWebResponse(
-                    baos, "output.zip", MediaType.APPLICATION_OCTET_STREAM);
         } catch (Exception e) {
             log.error("Error handling data: ", e);
             return null;
         }
     }
+
+    private ResponseEntity<byte[]> buildResponse(List<Resource> outputFiles) throws IOException {
+        if (outputFiles != null && outputFiles.size() == 1) {
+            // If there is only one file, return it directly
+            Resource singleFile = outputFiles.get(0);
+            byte[] bytes;
+            try (InputStream is = singleFile.getInputStream()) {
+                bytes = is.readAllBytes();
+            }
+            log.info("Returning single file response...");
+            return WebResponseUtils.bytesToWebResponse(
+                    bytes, singleFile.getFilename(), MediaType.APPLICATION_OCTET_STREAM);
+        } else if (outputFiles == null) {
+            return null;
+        }
+        // Create a ByteArrayOutputStream to hold the zip
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ZipOutputStream zipOut = new ZipOutputStream(baos);
+        // A map to keep track of filenames and their counts
+        Map<String, Integer> filenameCount = new HashMap<>();
+        // Loop through each file and add it to the zip
+        for (Resource file : outputFiles) {
+            String originalFilename = file.getFilename();
+            String filename = originalFilename;
+            // Check if the filename already exists, and modify it if necessary
+            if (filenameCount.containsKey(originalFilename)) {
+                int count = filenameCount.get(originalFilename);
+                assert originalFilename != null;
+                filename = GeneralUtils.generateFilename(originalFilename, "(" + count + ")");
+                filenameCount.put(originalFilename, count + 1);
+            } else {
+                filenameCount.put(originalFilename, 1);
+            }
+            ZipEntry zipEntry = new ZipEntry(filename);
+            zipOut.putNextEntry(zipEntry);
+            // Copy the file into the zip entry
+            try (InputStream is = file.getInputStream()) {
+                is.transferTo(zipOut);
+            }
+            zipOut.closeEntry();
+        }
+        zipOut.close();
+        log.info("Returning zipped file response...");
+        return WebResponseUtils.baosToWebResponse(
+                baos, "output.zip", MediaType.APPLICATION_OCTET_STREAM);
+    }
 }
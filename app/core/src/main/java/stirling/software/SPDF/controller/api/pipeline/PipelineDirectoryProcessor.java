@@ -1,9 +1,8 @@
 package stirling.software.SPDF.controller.api.pipeline;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystemException;
 import java.nio.file.FileVisitResult;
@@ -21,15 +20,26 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
 import lombok.extern.slf4j.Slf4j;
 
 import stirling.software.SPDF.model.PipelineConfig;
@@ -37,37 +47,87 @@ import stirling.software.SPDF.model.PipelineOperation;
 import stirling.software.SPDF.model.PipelineResult;
 import stirling.software.SPDF.service.ApiDocService;
 import stirling.software.common.configuration.RuntimePathConfig;
+import stirling.software.common.model.ApplicationProperties;
 import stirling.software.common.service.PostHogService;
+import stirling.software.common.util.ExecutorFactory;
 import stirling.software.common.util.FileMonitor;
 
+/**
+ * Runs the pipeline for watched folders. {@link FileMonitor} reports files that are ready and the
+ * folder holding them is queued for a worker; a periodic scan catches anything the events missed. A
+ * folder is only ever handled by one worker at a time, so its files keep their order, while
+ * different folders are processed in parallel.
+ */
 @Service
 @Slf4j
 public class PipelineDirectoryProcessor {
 
+    private static final int MAX_MOVE_ATTEMPTS = 3;
+    private static final long MOVE_RETRY_DELAY_MS = 500;
+
     private final ObjectMapper objectMapper;
     private final ApiDocService apiDocService;
     private final PipelineProcessor processor;
     private final FileMonitor fileMonitor;
     private final PostHogService postHogService;
+    private final ApplicationProperties applicationProperties;
     private final String watchedFoldersDir;
     private final String finishedFoldersDir;
 
+    private final BlockingQueue<Path> directoryQueue;
+    // Directories that are queued or being handled, and those that saw new files meanwhile
+    private final Set<Path> scheduledDirectories = ConcurrentHashMap.newKeySet();
+    private final Set<Path> rescanDirectories = ConcurrentHashMap.newKeySet();
+    private final Map<Path, Integer> moveAttempts = new ConcurrentHashMap<>();
+    private final ExecutorService workerExecutor =
+            ExecutorFactory.newVirtualOrCachedThreadExecutor();
+    private final ScheduledExecutorService retryScheduler =
+            Executors.newSingleThreadScheduledExecutor();
+
     public PipelineDirectoryProcessor(
             ObjectMapper objectMapper,
             ApiDocService apiDocService,
             PipelineProcessor processor,
             FileMonitor fileMonitor,
             PostHogService postHogService,
-            RuntimePathConfig runtimePathConfig) {
+            RuntimePathConfig runtimePathConfig,
+            ApplicationProperties applicationProperties) {
         this.objectMapper = objectMapper;
         this.apiDocService = apiDocService;
         this.processor = processor;
         this.fileMonitor = fileMonitor;
         this.postHogService = postHogService;
+        this.applicationProperties = applicationProperties;
         this.watchedFoldersDir = runtimePathConfig.getPipelineWatchedFoldersPath();
         this.finishedFoldersDir = runtimePathConfig.getPipelineFinishedFoldersPath();
+        this.directoryQueue =
+                new LinkedBlockingQueue<>(
+                        Math.max(
+                                1,
+                                applicationProperties
+                                        .getSystem()
+                                        .getPipeline()
+                                        .getWatchedFolderQueueCapacity()));
+    }
+
+    @PostConstruct
+    public void start() {
+        ApplicationProperties.Pipeline pipeline = applicationProperties.getSystem().getPipeline();
+        int workers = Math.max(1, pipeline.getWatchedFolderWorkers());
+        for (int i = 0; i < workers; i++) {
+            workerExecutor.submit(this::drainQueue);
+        }
+        fileMonitor.addReadyListener(this::onFileReady);
+        log.info("Started {} watched folder workers", workers);
     }
 
+    @PreDestroy
+    public void shutdown() {
+        retryScheduler.shutdownNow();
+        workerExecutor.shutdownNow();
+    }
+
+    /** Periodic safety net that queues every watched folder in case a file event was missed. */
     @Scheduled(fixedRate = 60000)
     public void scanFolders() {
         Path watchedFolderPath = Paths.get(watchedFoldersDir).toAbsolutePath();
@@ -88,13 +148,9 @@ public class PipelineDirectoryProcessor {
                         @Override
                         public FileVisitResult preVisitDirectory(
                                 Path dir, BasicFileAttributes attrs) {
-                            try {
-                                // Skip root directory and "processing" subdirectories
-                                if (!dir.equals(watchedFolderPath) && !dir.endsWith("processing")) {
-                                    handleDirectory(dir);
-                                }
-                            } catch (Exception e) {
-                                log.error("Error handling directory: {}", dir, e);
+                            // Skip root directory and "processing" subdirectories
+                            if (!dir.equals(watchedFolderPath) && !dir.endsWith("processing")) {
+                                submitDirectory(dir);
                             }
                             return FileVisitResult.CONTINUE;
                         }
@@ -111,6 +167,61 @@ public class PipelineDirectoryProcessor {
         }
     }
 
+    private void onFileReady(Path file) {
+        Path watchedFolderPath = Paths.get(watchedFoldersDir).toAbsolutePath();
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir == null
+                || dir.equals(watchedFolderPath)
+                || !dir.startsWith(watchedFolderPath)
+                || dir.endsWith("processing")
+                || dir.endsWith("error")) {
+            return;
+        }
+        submitDirectory(dir);
+    }
+
+    /**
+     * Queues a watched folder for processing. A folder that is already queued or running is only
+     * marked so that it is handled once more when the current run finishes.
+     *
+     * @param dir the watched folder
+     */
+    void submitDirectory(Path dir) {
+        if (!scheduledDirectories.add(dir)) {
+            rescanDirectories.add(dir);
+            return;
+        }
+        if (!directoryQueue.offer(dir)) {
+            scheduledDirectories.remove(dir);
+            log.warn("Watched folder queue is full, {} will be picked up by the next scan", dir);
+        }
+    }
+
+    private void drainQueue() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Path dir;
+            try {
+                dir = directoryQueue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                if (Files.isDirectory(dir)) {
+                    handleDirectory(dir);
+                }
+            } catch (Exception e) {
+                log.error("Error handling directory: {}", dir, e);
+            } finally {
+                // Release the folder before checking for new files so none are missed
+                scheduledDirectories.remove(dir);
+                if (rescanDirectories.remove(dir)) {
+                    submitDirectory(dir);
+                }
+            }
+        }
+    }
+
     public void handleDirectory(Path dir) throws IOException {
         log.info("Handling directory: {}", dir);
         Path processingDir = createProcessingDirectory(dir);
@@ -162,7 +273,7 @@ public class PipelineDirectoryProcessor {
             properties.put("fileCount", files.length);
             postHogService.captureEvent("pipeline_directory_event", properties);
 
-            List<File> filesToProcess = prepareFilesForProcessing(files, processingDir);
+            List<File> filesToProcess = prepareFilesForProcessing(files, dir, processingDir);
             runPipelineAgainstFiles(filesToProcess, config, dir, processingDir);
         }
     }
@@ -241,43 +352,50 @@ public class PipelineDirectoryProcessor {
         }
     }
 
-    private List<File> prepareFilesForProcessing(File[] files, Path processingDir)
+    private List<File> prepareFilesForProcessing(File[] files, Path dir, Path processingDir)
             throws IOException {
         List<File> filesToProcess = new ArrayList<>();
+        boolean moveFailed = false;
         for (File file : files) {
             Path targetPath = resolveUniqueFilePath(processingDir, file.getName());
-
-            // Retry with exponential backoff
-            int maxRetries = 3;
-            int retryDelayMs = 500;
-            boolean moved = false;
-
-            for (int attempt = 1; attempt <= maxRetries; attempt++) {
-                try {
-                    Files.move(file.toPath(), targetPath, StandardCopyOption.REPLACE_EXISTING);
-                    moved = true;
-                    break;
-                } catch (FileSystemException e) {
-                    if (attempt < maxRetries) {
-                        log.info("File move failed (attempt {}), retrying...", attempt);
-                        try {
-                            Thread.sleep(retryDelayMs * (int) Math.pow(2, attempt - 1));
-                        } catch (InterruptedException e1) {
-                            log.error("prepareFilesForProcessing failure", e);
-                        }
-                    }
-                }
-            }
-
-            if (moved) {
+            try {
+                Files.move(file.toPath(), targetPath, StandardCopyOption.REPLACE_EXISTING);
                 filesToProcess.add(targetPath.toFile());
-            } else {
-                log.error("Failed to move file after {} attempts: {}", maxRetries, file.getName());
+            } catch (FileSystemException e) {
+                log.info("File move failed, will retry: {}", file.getName());
+                moveFailed = true;
             }
         }
+        if (moveFailed) {
+            scheduleMoveRetry(dir);
+        } else {
+            moveAttempts.remove(dir);
+        }
         return filesToProcess;
     }
 
+    /**
+     * Queues the folder again with exponential backoff instead of sleeping on the worker, so a
+     * locked file does not hold up other folders.
+     */
+    private void scheduleMoveRetry(Path dir) {
+        int attempt = moveAttempts.merge(dir, 1, Integer::sum);
+        if (attempt >= MAX_MOVE_ATTEMPTS) {
+            moveAttempts.remove(dir);
+            log.error(
+                    "Failed to move files after {} attempts in {}, leaving them for the next scan",
+                    MAX_MOVE_ATTEMPTS,
+                    dir);
+            return;
+        }
+        long delay = MOVE_RETRY_DELAY_MS * (1L << (attempt - 1));
+        try {
+            retryScheduler.schedule(() -> submitDirectory(dir), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("Not retrying {} during shutdown", dir);
+        }
+    }
+
     private Path resolveUniqueFilePath(Path directory, String originalFileName) {
         Path filePath = directory.resolve(originalFileName);
         int counter = 1;
@@ -311,12 +429,16 @@ public class PipelineDirectoryProcessor {
             }
             PipelineResult result = processor.runPipelineAgainstFiles(inputFiles, config);
 
-            if (result.isHasErrors()) {
-                log.error("Errors occurred during processing, retaining original files");
-                moveToErrorDirectory(filesToProcess, dir);
-            } else {
-                moveAndRenameFiles(result.getOutputFiles(), config, dir);
-                deleteOriginalFiles(filesToProcess, processingDir);
+            try {
+                if (result.isHasErrors()) {
+                    log.error("Errors occurred during processing, retaining original files");
+                    moveToErrorDirectory(filesToProcess, dir);
+                } else {
+                    moveAndRenameFiles(result.getOutputFiles(), config, dir);
+                    deleteOriginalFiles(filesToProcess, processingDir);
+                }
+            } finally {
+                processor.deleteTempFiles(result.getOutputFiles());
             }
         } catch (Exception e) {
             log.error("Error during processing", e);
@@ -347,8 +469,8 @@ public class PipelineDirectoryProcessor {
                 log.info("Created directory: {}", outputPath);
             }
             Path outputFile = outputPath.resolve(outputFileName);
-            try (OutputStream os = new FileOutputStream(outputFile.toFile())) {
-                os.write(((ByteArrayResource) resource).getByteArray());
+            try (InputStream is = resource.getInputStream()) {
+                Files.copy(is, outputFile, StandardCopyOption.REPLACE_EXISTING);
             }
             log.info("File moved and renamed to {}", outputFile);
         }
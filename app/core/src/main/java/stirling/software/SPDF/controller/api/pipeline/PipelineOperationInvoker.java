@@ -0,0 +1,306 @@
+package stirling.software.SPDF.controller.api.pipeline;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.Conventions;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.validation.BindException;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.annotation.InitBinder;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.support.WebBindingInitializer;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import jakarta.validation.Valid;
+
+import lombok.extern.slf4j.Slf4j;
+
+import stirling.software.SPDF.config.EndpointInspector;
+import stirling.software.SPDF.config.EndpointInterceptor;
+import stirling.software.common.annotations.AutoJobPostMapping;
+
+/**
+ * Invokes pipeline operations directly on their controller beans instead of looping back over HTTP.
+ * Request objects are bound with the same {@link WebBindingInitializer} (conversion service and
+ * validator) and {@code @InitBinder} methods Spring MVC uses, and disabled endpoints are rejected
+ * the same way {@link EndpointInterceptor} rejects them.
+ *
+ * <p>Only handlers taking a single {@code @ModelAttribute} request object and returning {@code
+ * ResponseEntity<byte[]>} are supported; {@link #supports(String)} returns false for everything
+ * else so the caller can fall back to HTTP.
+ */
+@Component
+@Slf4j
+public class PipelineOperationInvoker {
+
+    private static final String FILE_INPUT = "fileInput";
+
+    private static final int DEFAULT_RESOURCE_WEIGHT = 50;
+
+    private final EndpointInspector endpointInspector;
+    private final EndpointInterceptor endpointInterceptor;
+    private final RequestMappingHandlerAdapter handlerAdapter;
+
+    public PipelineOperationInvoker(
+            EndpointInspector endpointInspector,
+            EndpointInterceptor endpointInterceptor,
+            @Lazy RequestMappingHandlerAdapter handlerAdapter) {
+        this.endpointInspector = endpointInspector;
+        this.endpointInterceptor = endpointInterceptor;
+        this.handlerAdapter = handlerAdapter;
+    }
+
+    /**
+     * Checks whether the operation can be executed in-process.
+     *
+     * @param operation the API path of the operation
+     * @return true if the handler signature is supported
+     */
+    public boolean supports(String operation) {
+        HandlerMethod handlerMethod = endpointInspector.getPostHandlerMethod(operation);
+        if (handlerMethod == null) {
+            return false;
+        }
+        MethodParameter[] parameters = handlerMethod.getMethodParameters();
+        if (parameters.length != 1) {
+            return false;
+        }
+        MethodParameter parameter = parameters[0];
+        Class<?> parameterType = parameter.getParameterType();
+        if (BeanUtils.isSimpleProperty(parameterType)
+                || MultipartFile.class.isAssignableFrom(parameterType)
+                || (parameter.getParameterAnnotations().length > 0
+                        && !parameter.hasParameterAnnotation(ModelAttribute.class)
+                        && !parameter.hasParameterAnnotation(Valid.class)
+                        && !parameter.hasParameterAnnotation(Validated.class))
+                || !ClassUtils.hasConstructor(parameterType)) {
+            return false;
+        }
+        ResolvableType returnType = ResolvableType.forMethodReturnType(handlerMethod.getMethod());
+        return ResponseEntity.class.equals(returnType.resolve())
+                && byte[].class.equals(returnType.getGeneric(0).resolve());
+    }
+
+    /**
+     * Checks whether the operation's controller implements {@link DocumentOperation} for the
+     * request type of its endpoint, so it can be applied to an already open document.
+     *
+     * @param operation the API path of the operation
+     * @return true if the operation can be fused with its neighbours
+     */
+    public boolean supportsDocumentOperation(String operation) {
+        if (!supports(operation)) {
+            return false;
+        }
+        HandlerMethod handlerMethod = endpointInspector.getPostHandlerMethod(operation);
+        Class<?> requestType =
+                ResolvableType.forClass(handlerMethod.getBeanType())
+                        .as(DocumentOperation.class)
+                        .getGeneric(0)
+                        .resolve();
+        return requestType != null
+                && requestType.isAssignableFrom(
+                        handlerMethod.getMethodParameters()[0].getParameterType());
+    }
+
+    /**
+     * Checks whether the operation's endpoint is enabled, as {@link EndpointInterceptor} would for
+     * an HTTP request.
+     *
+     * @param operation the API path of the operation
+     * @return true if the endpoint is enabled
+     */
+    public boolean isEnabled(String operation) {
+        return endpointInterceptor.isRequestEnabled(operation);
+    }
+
+    /**
+     * Returns the name the operation's endpoint gives its output. Only valid for operations
+     * accepted by {@link #supportsDocumentOperation(String)}.
+     *
+     * @param operation the API path of the operation
+     * @param inputFilename the name of the input file
+     * @return the output file name
+     */
+    public String getOutputFilename(String operation, String inputFilename) {
+        HandlerMethod handlerMethod =
+                endpointInspector.getPostHandlerMethod(operation).createWithResolvedBean();
+        return ((DocumentOperation<?>) handlerMethod.getBean()).getOutputFilename(inputFilename);
+    }
+
+    /**
+     * Returns the resource weight the job scheduler uses for the operation, as declared by {@link
+     * AutoJobPostMapping#resourceWeight()}, clamped to 1-100.
+     *
+     * @param operation the API path of the operation
+     * @return the declared weight, or the annotation default if the handler declares none
+     */
+    public int getResourceWeight(String operation) {
+        HandlerMethod handlerMethod = endpointInspector.getPostHandlerMethod(operation);
+        AutoJobPostMapping mapping =
+                handlerMethod == null
+                        ? null
+                        : AnnotatedElementUtils.findMergedAnnotation(
+                                handlerMethod.getMethod(), AutoJobPostMapping.class);
+        int weight = mapping == null ? DEFAULT_RESOURCE_WEIGHT : mapping.resourceWeight();
+        return Math.max(1, Math.min(100, weight));
+    }
+
+    /**
+     * Binds the multipart body onto the controller's request object and invokes the handler.
+     *
+     * @param operation the API path of the operation
+     * @param body the same multipart body that would be posted over HTTP
+     * @return the controller response; a null response is reported as an empty 200 like HTTP does
+     * @throws Exception any exception thrown by binding, validation or the controller itself
+     */
+    public ResponseEntity<byte[]> invoke(String operation, MultiValueMap<String, Object> body)
+            throws Exception {
+        if (!endpointInterceptor.isRequestEnabled(operation)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body("This endpoint is disabled".getBytes());
+        }
+        HandlerMethod handlerMethod =
+                endpointInspector.getPostHandlerMethod(operation).createWithResolvedBean();
+        Object target = bindRequest(handlerMethod, body);
+
+        log.debug("Invoking {} in-process via {}", operation, handlerMethod.getShortLogMessage());
+        Object result = invokeMethod(handlerMethod.getMethod(), handlerMethod.getBean(), target);
+        if (result == null) {
+            return new ResponseEntity<>(new byte[0], HttpStatus.OK);
+        }
+        @SuppressWarnings("unchecked")
+        ResponseEntity<byte[]> response = (ResponseEntity<byte[]>) result;
+        return response;
+    }
+
+    /**
+     * Binds the body onto the controller's request object and applies the operation to an open
+     * document. Only valid for operations accepted by {@link #supportsDocumentOperation(String)}.
+     *
+     * @param operation the API path of the operation
+     * @param document the document to modify
+     * @param body the multipart body; its file input is only used for naming
+     * @return the resulting document
+     * @throws Exception any exception thrown by binding, validation or the operation itself
+     */
+    public PDDocument applyDocumentOperation(
+            String operation, PDDocument document, MultiValueMap<String, Object> body)
+            throws Exception {
+        if (!endpointInterceptor.isRequestEnabled(operation)) {
+            throw new IllegalStateException("This endpoint is disabled: " + operation);
+        }
+        HandlerMethod handlerMethod =
+                endpointInspector.getPostHandlerMethod(operation).createWithResolvedBean();
+        Object target = bindRequest(handlerMethod, body);
+
+        log.debug("Applying {} to open document via {}", operation, handlerMethod.getBeanType());
+        @SuppressWarnings("unchecked")
+        DocumentOperation<Object> documentOperation =
+                (DocumentOperation<Object>) handlerMethod.getBean();
+        return documentOperation.apply(document, target);
+    }
+
+    private Object bindRequest(HandlerMethod handlerMethod, MultiValueMap<String, Object> body)
+            throws Exception {
+        MethodParameter parameter = handlerMethod.getMethodParameters()[0];
+        Object target = BeanUtils.instantiateClass(parameter.getParameterType());
+
+        WebDataBinder binder = new WebDataBinder(target, Conventions.getVariableName(target));
+        WebBindingInitializer initializer = handlerAdapter.getWebBindingInitializer();
+        if (initializer != null) {
+            initializer.initBinder(binder);
+        }
+        applyInitBinderMethods(handlerMethod, binder);
+
+        binder.bind(toPropertyValues(body));
+        if (parameter.hasParameterAnnotation(Valid.class)
+                || parameter.hasParameterAnnotation(Validated.class)) {
+            binder.validate();
+        }
+        if (binder.getBindingResult().hasErrors()) {
+            throw new BindException(binder.getBindingResult());
+        }
+        return target;
+    }
+
+    private MutablePropertyValues toPropertyValues(MultiValueMap<String, Object> body) {
+        MutablePropertyValues values = new MutablePropertyValues();
+        for (Map.Entry<String, List<Object>> entry : body.entrySet()) {
+            List<Object> items = entry.getValue();
+            if (FILE_INPUT.equals(entry.getKey())) {
+                List<MultipartFile> files = new ArrayList<>(items.size());
+                for (Object item : items) {
+                    files.add(new ResourceMultipartFile(FILE_INPUT, (Resource) item));
+                }
+                // Mirror WebDataBinder#bindMultipart: single files bind as a value, several as a
+                // list so both MultipartFile and MultipartFile[] properties work
+                values.add(FILE_INPUT, files.size() == 1 ? files.get(0) : files);
+            } else if (items.size() == 1) {
+                values.add(entry.getKey(), asFormValue(items.get(0)));
+            } else {
+                values.add(entry.getKey(), items.stream().map(this::asFormValue).toArray());
+            }
+        }
+        return values;
+    }
+
+    // Form posts carry every parameter as text, so convert the same way to keep the binding
+    // behaviour identical to the HTTP path
+    private Object asFormValue(Object value) {
+        return value == null ? null : String.valueOf(value);
+    }
+
+    private void applyInitBinderMethods(HandlerMethod handlerMethod, WebDataBinder binder)
+            throws Exception {
+        Set<Method> initBinderMethods =
+                MethodIntrospector.selectMethods(
+                        handlerMethod.getBeanType(),
+                        (Method method) ->
+                                AnnotatedElementUtils.hasAnnotation(method, InitBinder.class)
+                                        && method.getParameterCount() == 1
+                                        && WebDataBinder.class.isAssignableFrom(
+                                                method.getParameterTypes()[0]));
+        for (Method method : initBinderMethods) {
+            ReflectionUtils.makeAccessible(method);
+            invokeMethod(method, handlerMethod.getBean(), binder);
+        }
+    }
+
+    private Object invokeMethod(Method method, Object bean, Object argument) throws Exception {
+        try {
+            return method.invoke(bean, argument);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getTargetException();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
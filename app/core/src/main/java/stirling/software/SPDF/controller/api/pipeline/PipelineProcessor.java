@@ -10,11 +10,16 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
+import org.apache.pdfbox.pdmodel.PDDocument;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
@@ -26,6 +31,7 @@ import org.springframework.web.multipart.MultipartFile;
 import io.github.pixee.security.Filenames;
 import io.github.pixee.security.ZipSecurity;
 
+import jakarta.annotation.PreDestroy;
 import jakarta.servlet.ServletContext;
 
 import lombok.extern.slf4j.Slf4j;
@@ -35,26 +41,61 @@ import stirling.software.SPDF.model.PipelineConfig;
 import stirling.software.SPDF.model.PipelineOperation;
 import stirling.software.SPDF.model.PipelineResult;
 import stirling.software.SPDF.service.ApiDocService;
+import stirling.software.common.model.ApplicationProperties;
 import stirling.software.common.model.enumeration.Role;
+import stirling.software.common.service.CustomPDFDocumentFactory;
+import stirling.software.common.service.ResourceMonitor;
+import stirling.software.common.service.ResourceMonitor.ResourceStatus;
 import stirling.software.common.service.UserServiceInterface;
+import stirling.software.common.util.ExecutorFactory;
+import stirling.software.common.util.TempFileManager;
 
 @Service
 @Slf4j
 public class PipelineProcessor {
 
+    private static final int DEFAULT_RESOURCE_WEIGHT = 50;
+
     private final ApiDocService apiDocService;
 
     private final UserServiceInterface userService;
 
     private final ServletContext servletContext;
 
+    private final PipelineOperationInvoker operationInvoker;
+
+    private final TempFileManager tempFileManager;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final CustomPDFDocumentFactory pdfDocumentFactory;
+
+    private final ResourceMonitor resourceMonitor;
+
+    private final ExecutorService executor = ExecutorFactory.newVirtualOrCachedThreadExecutor();
+
     public PipelineProcessor(
             ApiDocService apiDocService,
             @Autowired(required = false) UserServiceInterface userService,
-            ServletContext servletContext) {
+            ServletContext servletContext,
+            @Autowired(required = false) PipelineOperationInvoker operationInvoker,
+            TempFileManager tempFileManager,
+            ApplicationProperties applicationProperties,
+            CustomPDFDocumentFactory pdfDocumentFactory,
+            @Autowired(required = false) ResourceMonitor resourceMonitor) {
         this.apiDocService = apiDocService;
         this.userService = userService;
         this.servletContext = servletContext;
+        this.operationInvoker = operationInvoker;
+        this.tempFileManager = tempFileManager;
+        this.applicationProperties = applicationProperties;
+        this.pdfDocumentFactory = pdfDocumentFactory;
+        this.resourceMonitor = resourceMonitor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
     }
 
     public static String removeTrailingNaming(String filename) {
@@ -95,7 +136,23 @@ public class PipelineProcessor {
         PrintStream logPrintStream = new PrintStream(logStream);
         boolean hasErrors = false;
         boolean filtersApplied = false;
-        for (PipelineOperation pipelineOperation : config.getOperations()) {
+        List<PipelineOperation> operations = config.getOperations();
+        for (int operationIndex = 0; operationIndex < operations.size(); operationIndex++) {
+            int fusableCount = countFusableOperations(operations, operationIndex);
+            if (fusableCount > 1) {
+                List<Resource> newOutputFiles = new ArrayList<>();
+                hasErrors |=
+                        runFusedOperations(
+                                operations.subList(operationIndex, operationIndex + fusableCount),
+                                outputFiles,
+                                newOutputFiles,
+                                logPrintStream);
+                deleteTempFiles(outputFiles);
+                outputFiles = newOutputFiles;
+                operationIndex += fusableCount - 1;
+                continue;
+            }
+            PipelineOperation pipelineOperation = operations.get(operationIndex);
             String operation = pipelineOperation.getOperation();
             boolean isMultiInputOperation = apiDocService.isMultiInput(operation);
             log.info(
@@ -114,65 +171,15 @@ public class PipelineProcessor {
                         "Invalid operation: " + operation + " with parameters: " + parameters);
             }
 
-            String url = getBaseUrl() + operation;
             List<Resource> newOutputFiles = new ArrayList<>();
             if (!isMultiInputOperation) {
-                for (Resource file : outputFiles) {
-                    boolean hasInputFileType = false;
-                    for (String extension : inputFileTypes) {
-                        if ("ALL".equals(extension)
-                                || file.getFilename().toLowerCase().endsWith(extension)) {
-                            hasInputFileType = true;
-                            MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
-                            body.add("fileInput", file);
-                            for (Entry<String, Object> entry : parameters.entrySet()) {
-                                if (entry.getValue() instanceof List<?> entryList) {
-                                    for (Object item : entryList) {
-                                        body.add(entry.getKey(), item);
-                                    }
-                                } else {
-                                    body.add(entry.getKey(), entry.getValue());
-                                }
-                            }
-                            ResponseEntity<byte[]> response = sendWebRequest(url, body);
-                            // If the operation is filter and the response body is null or empty,
-                            // skip
-                            // this
-                            // file
-                            if (operation.startsWith("/api/v1/filter/filter-")
-                                    && (response.getBody() == null
-                                            || response.getBody().length == 0)) {
-                                filtersApplied = true;
-                                log.info("Skipping file due to filtering {}", operation);
-                                continue;
-                            }
-                            if (!HttpStatus.OK.equals(response.getStatusCode())) {
-                                logPrintStream.println("Error: " + response.getBody());
-                                hasErrors = true;
-                                continue;
-                            }
-                            processOutputFiles(operation, response, newOutputFiles);
-                        }
-                    }
-                    if (!hasInputFileType) {
-                        String filename = file.getFilename();
-                        String providedExtension = "no extension";
-                        if (filename != null && filename.contains(".")) {
-                            providedExtension =
-                                    filename.substring(filename.lastIndexOf(".")).toLowerCase();
-                        }
-
-                        logPrintStream.println(
-                                "No files with extension "
-                                        + String.join(", ", inputFileTypes)
-                                        + " found for operation "
-                                        + operation
-                                        + ". Provided file '"
-                                        + filename
-                                        + "' has extension: "
-                                        + providedExtension);
-                        hasErrors = true;
-                    }
+                // Outcomes come back in input order, so merging them keeps the output stable
+                for (FileOutcome outcome :
+                        runPerFile(operation, outputFiles, inputFileTypes, parameters)) {
+                    filtersApplied |= outcome.filtered;
+                    hasErrors |= outcome.hasErrors;
+                    outcome.messages.forEach(logPrintStream::println);
+                    newOutputFiles.addAll(outcome.outputFiles);
                 }
             } else {
                 // Filter and collect all files that match the inputFileExtension
@@ -193,22 +200,10 @@ public class PipelineProcessor {
                 }
                 // Check if there are matching files
                 if (!matchingFiles.isEmpty()) {
-                    // Create a new MultiValueMap for the request body
-                    MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
-                    // Add all matching files to the body
-                    for (Resource file : matchingFiles) {
-                        body.add("fileInput", file);
-                    }
-                    for (Entry<String, Object> entry : parameters.entrySet()) {
-                        if (entry.getValue() instanceof List<?> entryList) {
-                            for (Object item : entryList) {
-                                body.add(entry.getKey(), item);
-                            }
-                        } else {
-                            body.add(entry.getKey(), entry.getValue());
-                        }
-                    }
-                    ResponseEntity<byte[]> response = sendWebRequest(url, body);
+                    // Create the request body with all matching files
+                    MultiValueMap<String, Object> body =
+                            buildRequestBody(matchingFiles, parameters);
+                    ResponseEntity<byte[]> response = executeOperation(operation, body);
                     // Handle the response
                     if (HttpStatus.OK.equals(response.getStatusCode())) {
                         processOutputFiles(operation, response, newOutputFiles);
@@ -249,6 +244,8 @@ public class PipelineProcessor {
                 }
             }
             logPrintStream.close();
+            // Intermediate results are only needed by the step that consumed them
+            deleteTempFiles(outputFiles);
             outputFiles = newOutputFiles;
         }
         if (hasErrors) {
@@ -260,6 +257,293 @@ public class PipelineProcessor {
         return result;
     }
 
+    /**
+     * Runs a single-input operation against every file, fanning out over up to {@link
+     * #resolveConcurrency} files at a time. If any file fails with an exception the outputs of the
+     * other files are discarded and the first failure, in input order, is rethrown.
+     *
+     * @return one outcome per input file, in input order
+     */
+    private List<FileOutcome> runPerFile(
+            String operation,
+            List<Resource> files,
+            List<String> inputFileTypes,
+            Map<String, Object> parameters)
+            throws Exception {
+        int concurrency = resolveConcurrency(operation, files.size());
+        FileOutcome[] outcomes = new FileOutcome[files.size()];
+        if (concurrency <= 1) {
+            for (int i = 0; i < files.size(); i++) {
+                outcomes[i] = runForFile(operation, files.get(i), inputFileTypes, parameters);
+                if (outcomes[i].failure != null) {
+                    break;
+                }
+            }
+        } else {
+            log.info("Running operation {} on {} files in parallel", operation, concurrency);
+            AtomicInteger nextIndex = new AtomicInteger();
+            List<Future<?>> workers = new ArrayList<>(concurrency);
+            for (int w = 0; w < concurrency; w++) {
+                workers.add(
+                        executor.submit(
+                                () -> {
+                                    int i;
+                                    while ((i = nextIndex.getAndIncrement()) < files.size()) {
+                                        outcomes[i] =
+                                                runForFile(
+                                                        operation,
+                                                        files.get(i),
+                                                        inputFileTypes,
+                                                        parameters);
+                                        if (outcomes[i].failure != null) {
+                                            // The pipeline is aborting, stop taking new files
+                                            nextIndex.set(files.size());
+                                        }
+                                    }
+                                }));
+            }
+            try {
+                for (Future<?> worker : workers) {
+                    worker.get();
+                }
+            } catch (InterruptedException e) {
+                workers.forEach(worker -> worker.cancel(true));
+                Thread.currentThread().interrupt();
+                throw e;
+            }
+        }
+
+        Exception failure = null;
+        for (FileOutcome outcome : outcomes) {
+            if (outcome != null && outcome.failure != null) {
+                failure = outcome.failure;
+                break;
+            }
+        }
+        if (failure != null) {
+            for (FileOutcome outcome : outcomes) {
+                if (outcome != null) {
+                    deleteTempFiles(outcome.outputFiles);
+                }
+            }
+            throw failure;
+        }
+        return List.of(outcomes);
+    }
+
+    /**
+     * Works out how many files of one operation may be processed at once: the configured maximum
+     * (or the number of processors), halved when the resource monitor would queue a job of the
+     * operation's weight and reduced to one while resources are critical.
+     */
+    /* package */ int resolveConcurrency(String operation, int fileCount) {
+        int concurrency = applicationProperties.getSystem().getPipeline().getMaxConcurrency();
+        if (concurrency <= 0) {
+            concurrency = Runtime.getRuntime().availableProcessors();
+        }
+        if (resourceMonitor != null) {
+            int weight =
+                    operationInvoker != null
+                            ? operationInvoker.getResourceWeight(operation)
+                            : DEFAULT_RESOURCE_WEIGHT;
+            if (resourceMonitor.getCurrentStatus().get() == ResourceStatus.CRITICAL) {
+                concurrency = 1;
+            } else if (resourceMonitor.shouldQueueJob(weight)) {
+                concurrency = Math.max(1, concurrency / 2);
+            }
+        }
+        return Math.max(1, Math.min(concurrency, fileCount));
+    }
+
+    private FileOutcome runForFile(
+            String operation,
+            Resource file,
+            List<String> inputFileTypes,
+            Map<String, Object> parameters) {
+        FileOutcome outcome = new FileOutcome();
+        try {
+            boolean hasInputFileType = false;
+            for (String extension : inputFileTypes) {
+                if ("ALL".equals(extension)
+                        || file.getFilename().toLowerCase().endsWith(extension)) {
+                    hasInputFileType = true;
+                    MultiValueMap<String, Object> body =
+                            buildRequestBody(List.of(file), parameters);
+                    ResponseEntity<byte[]> response = executeOperation(operation, body);
+                    // If the operation is filter and the response body is null or empty, skip
+                    // this file
+                    if (operation.startsWith("/api/v1/filter/filter-")
+                            && (response.getBody() == null || response.getBody().length == 0)) {
+                        outcome.filtered = true;
+                        log.info("Skipping file due to filtering {}", operation);
+                        continue;
+                    }
+                    if (!HttpStatus.OK.equals(response.getStatusCode())) {
+                        outcome.messages.add("Error: " + response.getBody());
+                        outcome.hasErrors = true;
+                        continue;
+                    }
+                    processOutputFiles(operation, response, outcome.outputFiles);
+                }
+            }
+            if (!hasInputFileType) {
+                String filename = file.getFilename();
+                String providedExtension = "no extension";
+                if (filename != null && filename.contains(".")) {
+                    providedExtension = filename.substring(filename.lastIndexOf(".")).toLowerCase();
+                }
+
+                outcome.messages.add(
+                        "No files with extension "
+                                + String.join(", ", inputFileTypes)
+                                + " found for operation "
+                                + operation
+                                + ". Provided file '"
+                                + filename
+                                + "' has extension: "
+                                + providedExtension);
+                outcome.hasErrors = true;
+            }
+        } catch (Exception e) {
+            outcome.failure = e;
+        }
+        return outcome;
+    }
+
+    /**
+     * Counts how many operations starting at {@code start} can share one open document. Only valid,
+     * single-input, enabled operations whose controllers implement {@link DocumentOperation} are
+     * fused, and only when in-process execution is enabled. Disabled operations take the regular
+     * path so they are rejected and reported the same way.
+     */
+    private int countFusableOperations(List<PipelineOperation> operations, int start) {
+        if (operationInvoker == null
+                || !applicationProperties.getSystem().getPipeline().isInProcessExecution()) {
+            return 0;
+        }
+        int count = 0;
+        for (int i = start; i < operations.size(); i++) {
+            PipelineOperation pipelineOperation = operations.get(i);
+            String operation = pipelineOperation.getOperation();
+            if (apiDocService.isMultiInput(operation)
+                    || !apiDocService.isValidOperation(operation, pipelineOperation.getParameters())
+                    || !operationInvoker.isEnabled(operation)
+                    || !operationInvoker.supportsDocumentOperation(operation)) {
+                break;
+            }
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Runs consecutive document operations on each PDF: the file is parsed once, every operation is
+     * applied to the open document in order and the result is saved once.
+     *
+     * @return true if any file could not be processed
+     */
+    private boolean runFusedOperations(
+            List<PipelineOperation> operations,
+            List<Resource> inputFiles,
+            List<Resource> newOutputFiles,
+            PrintStream logPrintStream)
+            throws Exception {
+        List<String> operationNames =
+                operations.stream().map(PipelineOperation::getOperation).toList();
+        log.info("Running operations on a single open document: {}", operationNames);
+        // The first operation decides which files enter, like it would on the unfused path
+        List<String> inputFileTypes = apiDocService.getExtensionTypes(false, operationNames.get(0));
+        if (inputFileTypes == null) {
+            inputFileTypes = new ArrayList<>(List.of("ALL"));
+        }
+        boolean hasErrors = false;
+        for (Resource file : inputFiles) {
+            String filename = file.getFilename();
+            if (!hasInputFileType(filename, inputFileTypes)) {
+                logPrintStream.println(
+                        "No files with extension "
+                                + String.join(", ", inputFileTypes)
+                                + " found for operation "
+                                + operationNames.get(0)
+                                + ". Provided file '"
+                                + filename
+                                + "' does not match");
+                hasErrors = true;
+                continue;
+            }
+            PDDocument document;
+            try (InputStream is = file.getInputStream()) {
+                document = pdfDocumentFactory.load(is);
+            }
+            try {
+                String outputName = filename;
+                for (PipelineOperation pipelineOperation : operations) {
+                    String operation = pipelineOperation.getOperation();
+                    MultiValueMap<String, Object> body =
+                            buildRequestBody(List.of(file), pipelineOperation.getParameters());
+                    document = operationInvoker.applyDocumentOperation(operation, document, body);
+                    // Name each step like its endpoint response would be named
+                    outputName =
+                            removeTrailingNaming(
+                                    operationInvoker.getOutputFilename(operation, outputName));
+                }
+                File outputFile = tempFileManager.createTempFile(".tmp");
+                try {
+                    document.save(outputFile);
+                } catch (IOException | RuntimeException e) {
+                    tempFileManager.deleteTempFile(outputFile);
+                    throw e;
+                }
+                newOutputFiles.add(new TempFileResource(outputFile, outputName));
+            } finally {
+                document.close();
+            }
+        }
+        return hasErrors;
+    }
+
+    private static boolean hasInputFileType(String filename, List<String> inputFileTypes) {
+        for (String extension : inputFileTypes) {
+            if ("ALL".equals(extension)
+                    || (filename != null && filename.toLowerCase().endsWith(extension))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private MultiValueMap<String, Object> buildRequestBody(
+            List<Resource> files, Map<String, Object> parameters) {
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        for (Resource file : files) {
+            body.add("fileInput", file);
+        }
+        for (Entry<String, Object> entry : parameters.entrySet()) {
+            if (entry.getValue() instanceof List<?> entryList) {
+                for (Object item : entryList) {
+                    body.add(entry.getKey(), item);
+                }
+            } else {
+                body.add(entry.getKey(), entry.getValue());
+            }
+        }
+        return body;
+    }
+
+    /**
+     * Runs a single operation, in-process when the controller supports it and HTTP loopback
+     * otherwise.
+     */
+    /* package */ ResponseEntity<byte[]> executeOperation(
+            String operation, MultiValueMap<String, Object> body) throws Exception {
+        if (operationInvoker != null
+                && applicationProperties.getSystem().getPipeline().isInProcessExecution()
+                && operationInvoker.supports(operation)) {
+            return operationInvoker.invoke(operation, body);
+        }
+        return sendWebRequest(getBaseUrl() + operation, body);
+    }
+
     /* package */ ResponseEntity<byte[]> sendWebRequest(
             String url, MultiValueMap<String, Object> body) {
         RestTemplate restTemplate = new RestTemplate();
@@ -293,19 +577,31 @@ public class PipelineProcessor {
             // Unzip the file and add all the files to the new output files
             newOutputFiles.addAll(unzip(response.getBody()));
         } else {
-            Resource outputResource =
-                    new ByteArrayResource(response.getBody()) {
-
-                        @Override
-                        public String getFilename() {
-                            return newFilename;
-                        }
-                    };
-            newOutputFiles.add(outputResource);
+            // Hand the next step a file instead of keeping every intermediate result on the heap
+            File outputFile = tempFileManager.createTempFile(".tmp");
+            Files.write(outputFile.toPath(), response.getBody());
+            newOutputFiles.add(new TempFileResource(outputFile, newFilename));
         }
         return newOutputFiles;
     }
 
+    /**
+     * Deletes the temporary files backing pipeline results. Resources that were not created by the
+     * pipeline are left untouched.
+     *
+     * @param resources the resources to release, may be null
+     */
+    void deleteTempFiles(List<Resource> resources) {
+        if (resources == null) {
+            return;
+        }
+        for (Resource resource : resources) {
+            if (resource instanceof TempFileResource tempFileResource) {
+                tempFileManager.deleteTempFile(tempFileResource.getFile());
+            }
+        }
+    }
+
     public String extractFilename(ResponseEntity<byte[]> response) {
         // Default filename if not found
         String filename = "default-filename.ext";
@@ -341,15 +637,8 @@ public class PipelineProcessor {
             // debug statement
             log.info("Reading file: {}", path);
             if (Files.exists(path)) {
-                Resource fileResource =
-                        new ByteArrayResource(Files.readAllBytes(path)) {
-
-                            @Override
-                            public String getFilename() {
-                                return file.getName();
-                            }
-                        };
-                outputFiles.add(fileResource);
+                // Stream from disk rather than reading the whole file up front
+                outputFiles.add(new FileSystemResource(path));
             } else {
                 log.info("File not found: {}", path);
             }
@@ -421,4 +710,29 @@ public class PipelineProcessor {
         log.info("Unzipping completed. {} files were unzipped.", unzippedFiles.size());
         return unzippedFiles;
     }
+
+    /** What one single-input operation produced for one file. */
+    private static class FileOutcome {
+        private final List<Resource> outputFiles = new ArrayList<>();
+        private final List<String> messages = new ArrayList<>();
+        private boolean filtered;
+        private boolean hasErrors;
+        private Exception failure;
+    }
+
+    /** A pipeline result stored in a registered temp file under its output filename. */
+    private static class TempFileResource extends FileSystemResource {
+
+        private final String filename;
+
+        TempFileResource(File file, String filename) {
+            super(file);
+            this.filename = filename;
+        }
+
+        @Override
+        public String getFilename() {
+            return filename;
+        }
+    }
 }
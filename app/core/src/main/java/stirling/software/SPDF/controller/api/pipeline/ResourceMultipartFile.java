@@ -0,0 +1,91 @@
+package stirling.software.SPDF.controller.api.pipeline;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Exposes a pipeline {@link Resource} as a {@link MultipartFile} so controllers can be invoked
+ * in-process. File backed resources are streamed from disk and never copied into memory unless the
+ * controller asks for the bytes.
+ */
+class ResourceMultipartFile implements MultipartFile {
+
+    private final String name;
+    private final Resource resource;
+
+    ResourceMultipartFile(String name, Resource resource) {
+        this.name = name;
+        this.resource = resource;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return resource.getFilename();
+    }
+
+    @Override
+    public String getContentType() {
+        return MediaTypeFactory.getMediaType(resource.getFilename())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM)
+                .toString();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return getSize() == 0;
+    }
+
+    @Override
+    public long getSize() {
+        try {
+            return resource.contentLength();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        return resource.getContentAsByteArray();
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return resource.getInputStream();
+    }
+
+    @Override
+    public Resource getResource() {
+        return resource;
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException, IllegalStateException {
+        transferTo(dest.toPath());
+    }
+
+    @Override
+    public void transferTo(Path dest) throws IOException, IllegalStateException {
+        if (resource.isFile()) {
+            Files.copy(resource.getFile().toPath(), dest, StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            try (InputStream in = resource.getInputStream()) {
+                Files.copy(in, dest, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+}
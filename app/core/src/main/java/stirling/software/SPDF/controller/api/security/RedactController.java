@@ -3,16 +3,20 @@ package stirling.software.SPDF.controller.api.security;
 import java.awt.Color;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.regex.Pattern;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.apache.pdfbox.contentstream.operator.Operator;
@@ -21,6 +25,7 @@ import org.apache.pdfbox.cos.COSBase;
 import org.apache.pdfbox.cos.COSFloat;
 import org.apache.pdfbox.cos.COSName;
 import org.apache.pdfbox.cos.COSNumber;
+import org.apache.pdfbox.cos.COSStream;
 import org.apache.pdfbox.cos.COSString;
 import org.apache.pdfbox.pdfparser.PDFStreamParser;
 import org.apache.pdfbox.pdfwriter.ContentStreamWriter;
@@ -48,6 +53,8 @@ import io.github.pixee.security.Filenames;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import jakarta.annotation.PreDestroy;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
@@ -56,12 +63,15 @@ import lombok.extern.slf4j.Slf4j;
 import stirling.software.SPDF.model.PDFText;
 import stirling.software.SPDF.model.api.security.ManualRedactPdfRequest;
 import stirling.software.SPDF.model.api.security.RedactPdfRequest;
-import stirling.software.SPDF.pdf.TextFinder;
+import stirling.software.SPDF.pdf.PageTextIndex;
+import stirling.software.SPDF.utils.text.MultiPatternMatcher;
+import stirling.software.SPDF.utils.text.MultiPatternMatcher.WordBoundaries;
 import stirling.software.SPDF.utils.text.TextEncodingHelper;
 import stirling.software.SPDF.utils.text.TextFinderUtils;
 import stirling.software.SPDF.utils.text.WidthCalculator;
 import stirling.software.common.model.api.security.RedactionArea;
 import stirling.software.common.service.CustomPDFDocumentFactory;
+import stirling.software.common.util.ExecutorFactory;
 import stirling.software.common.util.GeneralUtils;
 import stirling.software.common.util.PdfUtils;
 import stirling.software.common.util.WebResponseUtils;
@@ -88,6 +98,14 @@ public class RedactController {
 
     private final CustomPDFDocumentFactory pdfDocumentFactory;
 
+    // Tokenizes and matches the content of several pages at once
+    private final ExecutorService pageExecutor = ExecutorFactory.newVirtualOrCachedThreadExecutor();
+
+    @PreDestroy
+    public void shutdown() {
+        pageExecutor.shutdownNow();
+    }
+
     private String removeFileExtension(String filename) {
         return GeneralUtils.removeExtension(filename);
     }
@@ -557,35 +575,45 @@ public class RedactController {
                                 + "_redacted.pdf");
             }
 
-            boolean fallbackToBoxOnlyMode;
-            try {
-                fallbackToBoxOnlyMode =
-                        performTextReplacement(
-                                document,
-                                allFoundTextsByPage,
-                                listOfText,
-                                useRegex,
-                                wholeWordSearchBool);
-            } catch (Exception e) {
+            boolean fallbackToBoxOnlyMode = detectCustomEncodingFonts(document);
+            boolean documentModified = false;
+            if (fallbackToBoxOnlyMode) {
                 log.warn(
-                        "Text replacement redaction failed, falling back to box-only mode: {}",
-                        e.getMessage());
-                fallbackToBoxOnlyMode = true;
+                        "Custom encoded fonts detected (non-standard encodings / DictionaryEncoding / damaged fonts). "
+                                + "Text replacement is unreliable for these fonts. Falling back to box-only redaction mode.");
+            } else {
+                documentModified = true;
+                try {
+                    fallbackToBoxOnlyMode =
+                            performTextReplacement(
+                                    document,
+                                    allFoundTextsByPage,
+                                    listOfText,
+                                    useRegex,
+                                    wholeWordSearchBool);
+                } catch (Exception e) {
+                    log.warn(
+                            "Text replacement redaction failed, falling back to box-only mode: {}",
+                            e.getMessage());
+                    fallbackToBoxOnlyMode = true;
+                }
             }
 
             if (fallbackToBoxOnlyMode) {
                 log.warn(
                         "Font compatibility issues detected. Using box-only redaction mode for better reliability.");
 
-                fallbackDocument = pdfDocumentFactory.load(request.getFileInput());
-
-                allFoundTextsByPage =
-                        findTextToRedact(
-                                fallbackDocument, listOfText, useRegex, wholeWordSearchBool);
+                // The matches were found on the unmodified document, so they stay valid; only a
+                // partially rewritten document has to be reloaded
+                PDDocument boxOnlyDocument = document;
+                if (documentModified) {
+                    fallbackDocument = pdfDocumentFactory.load(request.getFileInput());
+                    boxOnlyDocument = fallbackDocument;
+                }
 
                 byte[] pdfContent =
                         finalizeRedaction(
-                                fallbackDocument,
+                                boxOnlyDocument,
                                 allFoundTextsByPage,
                                 request.getRedactColor(),
                                 request.getCustomPadding(),
@@ -626,9 +654,7 @@ public class RedactController {
         } finally {
             if (document != null) {
                 try {
-                    if (fallbackDocument == null) {
-                        document.close();
-                    }
+                    document.close();
                 } catch (IOException e) {
                     log.warn("Failed to close main document: {}", e.getMessage());
                 }
@@ -646,29 +672,28 @@ public class RedactController {
 
     private Map<Integer, List<PDFText>> findTextToRedact(
             PDDocument document, String[] listOfText, boolean useRegex, boolean wholeWordSearch) {
-        Map<Integer, List<PDFText>> allFoundTextsByPage = new HashMap<>();
-
-        for (String text : listOfText) {
-            text = text.trim();
-            if (text.isEmpty()) continue;
-
-            log.debug(
-                    "Searching for text: '{}' (regex: {}, wholeWord: {})",
-                    text,
-                    useRegex,
-                    wholeWordSearch);
-
-            try {
-                TextFinder textFinder = new TextFinder(text, useRegex, wholeWordSearch);
-                textFinder.getText(document);
+        MultiPatternMatcher matcher =
+                MultiPatternMatcher.create(
+                        Arrays.asList(listOfText),
+                        useRegex,
+                        wholeWordSearch,
+                        WordBoundaries.NUMBER_AWARE);
+        if (matcher.isEmpty()) {
+            return new HashMap<>();
+        }
 
-                List<PDFText> foundTexts = textFinder.getFoundTexts();
-                log.debug("TextFinder found {} instances of '{}'", foundTexts.size(), text);
+        log.debug(
+                "Searching for {} terms (regex: {}, wholeWord: {})",
+                listOfText.length,
+                useRegex,
+                wholeWordSearch);
 
+        try {
+            // One text extraction for all terms instead of one per term
+            Map<Integer, List<PDFText>> allFoundTextsByPage =
+                    PageTextIndex.build(document).find(matcher);
+            for (List<PDFText> foundTexts : allFoundTextsByPage.values()) {
                 for (PDFText found : foundTexts) {
-                    allFoundTextsByPage
-                            .computeIfAbsent(found.getPageIndex(), k -> new ArrayList<>())
-                            .add(found);
                     log.debug(
                             "Added match on page {} at ({},{},{},{}): '{}'",
                             found.getPageIndex(),
@@ -678,12 +703,12 @@ public class RedactController {
                             found.getY2(),
                             found.getText());
                 }
-            } catch (Exception e) {
-                log.error("Error processing search term '{}': {}", text, e.getMessage());
             }
+            return allFoundTextsByPage;
+        } catch (Exception e) {
+            log.error("Error searching for redaction terms: {}", e.getMessage());
+            return new HashMap<>();
         }
-
-        return allFoundTextsByPage;
     }
 
     private boolean performTextReplacement(
@@ -696,29 +721,25 @@ public class RedactController {
             return false;
         }
 
-        if (detectCustomEncodingFonts(document)) {
-            log.warn(
-                    "Custom encoded fonts detected (non-standard encodings / DictionaryEncoding / damaged fonts). "
-                            + "Text replacement is unreliable for these fonts. Falling back to box-only redaction mode.");
-            return true; // signal caller to fall back
-        }
-
         try {
-            Set<String> allSearchTerms =
-                    Arrays.stream(listOfText)
-                            .map(String::trim)
-                            .filter(s -> !s.isEmpty())
-                            .collect(Collectors.toSet());
-
-            int pageCount = 0;
+            MultiPatternMatcher matcher =
+                    MultiPatternMatcher.create(
+                            Arrays.asList(listOfText),
+                            useRegex,
+                            wholeWordSearchBool,
+                            WordBoundaries.STANDARD);
+
+            // Only pages where the text search found something need their content rewritten
+            List<PDPage> pages = new ArrayList<>();
+            int pageIndex = 0;
             for (PDPage page : document.getPages()) {
-                pageCount++;
-                List<Object> filteredTokens =
-                        createTokensWithoutTargetText(
-                                document, page, allSearchTerms, useRegex, wholeWordSearchBool);
-                writeFilteredContentStream(document, page, filteredTokens);
+                if (allFoundTextsByPage.containsKey(pageIndex++)) {
+                    pages.add(page);
+                }
             }
-            log.info("Successfully performed text replacement redaction on {} pages.", pageCount);
+            rewritePageContents(document, pages, matcher);
+            log.info(
+                    "Successfully performed text replacement redaction on {} pages.", pages.size());
             return false;
         } catch (Exception e) {
             log.error(
@@ -813,49 +834,240 @@ public class RedactController {
             boolean useRegex,
             boolean wholeWordSearch)
             throws IOException {
+        return createTokensWithoutTargetText(
+                document,
+                page,
+                MultiPatternMatcher.create(
+                        targetWords, useRegex, wholeWordSearch, WordBoundaries.STANDARD));
+    }
+
+    List<Object> createTokensWithoutTargetText(
+            PDDocument document, PDPage page, MultiPatternMatcher matcher) throws IOException {
+        return redactPageContents(document, List.of(page), matcher).get(0);
+    }
+
+    // Rewrite the content streams of the given pages. The new streams are only written back once
+    // every page is done, so a failing page leaves the document untouched.
+    private void rewritePageContents(
+            PDDocument document, List<PDPage> pages, MultiPatternMatcher matcher)
+            throws IOException {
+        List<List<Object>> pageTokens = redactPageContents(document, pages, matcher);
+        for (int i = 0; i < pages.size(); i++) {
+            writeFilteredContentStream(document, pages.get(i), pageTokens.get(i));
+        }
+    }
+
+    // Redacts the given pages and returns their new tokens; redacted forms are written back.
+    // PDFBox is not thread-safe, so everything that touches the document, reading the content
+    // streams, resolving fonts and rewriting tokens with their widths, runs on the calling thread.
+    // Tokenizing the content and matching the text only work on the bytes and strings read from
+    // it, and run for several pages at once.
+    List<List<Object>> redactPageContents(
+            PDDocument document, List<PDPage> pages, MultiPatternMatcher matcher)
+            throws IOException {
+        ContentRedaction redaction = new ContentRedaction(document, matcher);
+        List<PageContent> contents = new ArrayList<>(pages.size());
+        for (PDPage page : pages) {
+            contents.add(redaction.readPage(page));
+        }
+
+        List<List<Object>> tokens = inParallel(contents, content -> parseTokens(content.bytes()));
+
+        List<Map<COSName, PDFont>> fonts = new ArrayList<>(pages.size());
+        for (int i = 0; i < pages.size(); i++) {
+            fonts.add(resolveFonts(contents.get(i).resources(), tokens.get(i)));
+        }
+
+        List<Integer> pageIndexes = new ArrayList<>(pages.size());
+        for (int i = 0; i < pages.size(); i++) {
+            pageIndexes.add(i);
+        }
+        List<PageMatches> matches =
+                inParallel(
+                        pageIndexes,
+                        i -> {
+                            List<TextSegment> segments =
+                                    extractTextSegments(fonts.get(i), tokens.get(i));
+                            return new PageMatches(
+                                    segments, findAllMatches(buildCompleteText(segments), matcher));
+                        });
+
+        List<List<Object>> pageTokens = new ArrayList<>(pages.size());
+        for (int i = 0; i < pages.size(); i++) {
+            PageMatches page = matches.get(i);
+            pageTokens.add(applyRedactionsToTokens(tokens.get(i), page.segments(), page.matches()));
+        }
+        redaction.writeForms();
+        return pageTokens;
+    }
+
+    @FunctionalInterface
+    private interface PageTask<T, R> {
+        R apply(T input) throws IOException;
+    }
+
+    // Applies the task to every input, on up to one worker per processor, keeping the order
+    private <T, R> List<R> inParallel(List<T> inputs, PageTask<T, R> task) throws IOException {
+        int concurrency = Math.min(inputs.size(), Runtime.getRuntime().availableProcessors());
+        List<R> results = new ArrayList<>(Collections.nCopies(inputs.size(), null));
+        if (concurrency <= 1) {
+            for (int i = 0; i < inputs.size(); i++) {
+                results.set(i, task.apply(inputs.get(i)));
+            }
+            return results;
+        }
+
+        AtomicInteger nextIndex = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            workers.add(
+                    pageExecutor.submit(
+                            () -> {
+                                int i;
+                                while ((i = nextIndex.getAndIncrement()) < inputs.size()) {
+                                    results.set(i, task.apply(inputs.get(i)));
+                                }
+                                return null;
+                            }));
+        }
+        try {
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            workers.forEach(worker -> worker.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while redacting pages", e);
+        } catch (ExecutionException e) {
+            workers.forEach(worker -> worker.cancel(true));
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Failed to redact pages", e.getCause());
+        }
+        return results;
+    }
+
+    // Loads the fonts selected by the Tf operators; fonts that fail to load are left out
+    private static Map<COSName, PDFont> resolveFonts(PDResources resources, List<Object> tokens) {
+        Map<COSName, PDFont> fonts = new HashMap<>();
+        if (resources == null) {
+            return fonts;
+        }
+        for (int i = 2; i < tokens.size(); i++) {
+            if (tokens.get(i) instanceof Operator op
+                    && "Tf".equals(op.getName())
+                    && tokens.get(i - 2) instanceof COSName fontName
+                    && !fonts.containsKey(fontName)) {
+                try {
+                    fonts.put(fontName, resources.getFont(fontName));
+                } catch (IOException e) {
+                    log.debug(
+                            "Failed to extract font and font size from Tf operator: {}",
+                            e.getMessage());
+                }
+            }
+        }
+        return fonts;
+    }
 
-        PDFStreamParser parser = new PDFStreamParser(page);
+    private static List<Object> parseTokens(byte[] content) throws IOException {
+        PDFStreamParser parser = new PDFStreamParser(content);
         List<Object> tokens = new ArrayList<>();
         Object token;
         while ((token = parser.parseNextToken()) != null) {
             tokens.add(token);
         }
+        return tokens;
+    }
 
-        PDResources resources = page.getResources();
-        if (resources != null) {
-            processPageXObjects(document, resources, targetWords, useRegex, wholeWordSearch);
-        }
+    private record PageContent(byte[] bytes, PDResources resources) {}
 
-        List<TextSegment> textSegments = extractTextSegments(page, tokens);
+    private record PageMatches(List<TextSegment> segments, List<MatchRange> matches) {}
 
-        String completeText = buildCompleteText(textSegments);
+    // One text replacement pass over a document, shared by all its pages
+    private class ContentRedaction {
+        private final PDDocument document;
+        private final MultiPatternMatcher matcher;
+        // Form XObjects are often shared by many pages; each one is redacted only once
+        private final Set<COSStream> claimedForms = new HashSet<>();
+        private final List<FormRedaction> redactedForms = new ArrayList<>();
 
-        List<MatchRange> matches =
-                findAllMatches(completeText, targetWords, useRegex, wholeWordSearch);
+        ContentRedaction(PDDocument document, MultiPatternMatcher matcher) {
+            this.document = document;
+            this.matcher = matcher;
+        }
 
-        return applyRedactionsToTokens(tokens, textSegments, matches);
-    }
+        // Reads the content of a page and redacts the forms it uses
+        PageContent readPage(PDPage page) throws IOException {
+            byte[] content;
+            try (InputStream in = page.getContents()) {
+                content = in.readAllBytes();
+            }
+            PDResources resources = page.getResources();
+            if (resources != null) {
+                redactForms(resources);
+            }
+            return new PageContent(content, resources);
+        }
 
-    private void processPageXObjects(
-            PDDocument document,
-            PDResources resources,
-            Set<String> targetWords,
-            boolean useRegex,
-            boolean wholeWordSearch) {
+        void writeForms() throws IOException {
+            for (FormRedaction form : redactedForms) {
+                writeRedactedContentToXObject(document, form.formXObject(), form.tokens());
+            }
+        }
 
-        for (COSName xobjName : resources.getXObjectNames()) {
+        private void redactForms(PDResources resources) {
+            for (COSName xobjName : resources.getXObjectNames()) {
+                try {
+                    PDXObject xobj = resources.getXObject(xobjName);
+                    if (xobj instanceof PDFormXObject formXObj
+                            && claimedForms.add(formXObj.getCOSObject())) {
+                        redactForm(formXObj);
+                        log.debug("Processed Form XObject: {}", xobjName.getName());
+                    }
+                } catch (Exception e) {
+                    log.warn(
+                            "Failed to process XObject {}: {}", xobjName.getName(), e.getMessage());
+                }
+            }
+        }
+
+        private void redactForm(PDFormXObject formXObject) {
             try {
-                PDXObject xobj = resources.getXObject(xobjName);
-                if (xobj instanceof PDFormXObject formXObj) {
-                    processFormXObject(document, formXObj, targetWords, useRegex, wholeWordSearch);
-                    log.debug("Processed Form XObject: {}", xobjName.getName());
+                PDResources xobjResources = formXObject.getResources();
+                if (xobjResources == null) {
+                    return;
                 }
+                byte[] content;
+                try (InputStream in = formXObject.getContents()) {
+                    content = in.readAllBytes();
+                }
+
+                redactForms(xobjResources);
+
+                List<Object> tokens = parseTokens(content);
+                List<TextSegment> textSegments =
+                        extractTextSegmentsFromXObject(xobjResources, tokens);
+                String completeText = buildCompleteText(textSegments);
+
+                List<MatchRange> matches = findAllMatches(completeText, matcher);
+
+                if (!matches.isEmpty()) {
+                    List<Object> redactedTokens =
+                            applyRedactionsToTokens(tokens, textSegments, matches);
+                    redactedForms.add(new FormRedaction(formXObject, redactedTokens));
+                    log.debug("Processed {} redactions in Form XObject", matches.size());
+                }
+
             } catch (Exception e) {
-                log.warn("Failed to process XObject {}: {}", xobjName.getName(), e.getMessage());
+                log.warn("Failed to process Form XObject: {}", e.getMessage());
             }
         }
     }
 
+    private record FormRedaction(PDFormXObject formXObject, List<Object> tokens) {}
+
     @Data
     private static class GraphicsState {
         private PDFont font = null;
@@ -881,12 +1093,11 @@ public class RedactController {
         private int endPos;
     }
 
-    private List<TextSegment> extractTextSegments(PDPage page, List<Object> tokens) {
+    private List<TextSegment> extractTextSegments(Map<COSName, PDFont> fonts, List<Object> tokens) {
 
         List<TextSegment> segments = new ArrayList<>();
         int currentTextPos = 0;
         GraphicsState graphicsState = new GraphicsState();
-        PDResources resources = page.getResources();
 
         for (int i = 0; i < tokens.size(); i++) {
             Object currentToken = tokens.get(i);
@@ -894,19 +1105,13 @@ public class RedactController {
             if (currentToken instanceof Operator op) {
                 String opName = op.getName();
 
-                if ("Tf".equals(opName) && i >= 2) {
-                    try {
-                        COSName fontName = (COSName) tokens.get(i - 2);
-                        COSBase fontSizeBase = (COSBase) tokens.get(i - 1);
-                        if (fontSizeBase instanceof COSNumber cosNumber) {
-                            graphicsState.setFont(resources.getFont(fontName));
-                            graphicsState.setFontSize(cosNumber.floatValue());
-                        }
-                    } catch (ClassCastException | IOException e) {
-                        log.debug(
-                                "Failed to extract font and font size from Tf operator: {}",
-                                e.getMessage());
-                    }
+                if ("Tf".equals(opName)
+                        && i >= 2
+                        && tokens.get(i - 2) instanceof COSName fontName
+                        && fonts.containsKey(fontName)
+                        && tokens.get(i - 1) instanceof COSNumber cosNumber) {
+                    graphicsState.setFont(fonts.get(fontName));
+                    graphicsState.setFontSize(cosNumber.floatValue());
                 }
 
                 currentTextPos =
@@ -926,32 +1131,9 @@ public class RedactController {
         return sb.toString();
     }
 
-    private List<MatchRange> findAllMatches(
-            String completeText,
-            Set<String> targetWords,
-            boolean useRegex,
-            boolean wholeWordSearch) {
-
-        // Use the new utility for creating optimized patterns
-        List<Pattern> patterns =
-                TextFinderUtils.createOptimizedSearchPatterns(
-                        targetWords, useRegex, wholeWordSearch);
-
-        return patterns.stream()
-                .flatMap(
-                        pattern -> {
-                            try {
-                                return pattern.matcher(completeText).results();
-                            } catch (Exception e) {
-                                log.debug(
-                                        "Pattern matching failed for pattern {}: {}",
-                                        pattern.pattern(),
-                                        e.getMessage());
-                                return java.util.stream.Stream.empty();
-                            }
-                        })
-                .map(matchResult -> new MatchRange(matchResult.start(), matchResult.end()))
-                .sorted(Comparator.comparingInt(MatchRange::getStartPos))
+    private List<MatchRange> findAllMatches(String completeText, MultiPatternMatcher matcher) {
+        return matcher.findAll(completeText).stream()
+                .map(match -> new MatchRange(match.start(), match.end()))
                 .collect(Collectors.toList());
     }
 
@@ -1568,52 +1750,6 @@ public class RedactController {
         }
     }
 
-    private void processFormXObject(
-            PDDocument document,
-            PDFormXObject formXObject,
-            Set<String> targetWords,
-            boolean useRegex,
-            boolean wholeWordSearch) {
-
-        try {
-            PDResources xobjResources = formXObject.getResources();
-            if (xobjResources == null) {
-                return;
-            }
-
-            for (COSName xobjName : xobjResources.getXObjectNames()) {
-                PDXObject nestedXObj = xobjResources.getXObject(xobjName);
-                if (nestedXObj instanceof PDFormXObject nestedFormXObj) {
-                    processFormXObject(
-                            document, nestedFormXObj, targetWords, useRegex, wholeWordSearch);
-                }
-            }
-
-            PDFStreamParser parser = new PDFStreamParser(formXObject);
-            List<Object> tokens = new ArrayList<>();
-            Object token;
-            while ((token = parser.parseNextToken()) != null) {
-                tokens.add(token);
-            }
-
-            List<TextSegment> textSegments = extractTextSegmentsFromXObject(xobjResources, tokens);
-            String completeText = buildCompleteText(textSegments);
-
-            List<MatchRange> matches =
-                    findAllMatches(completeText, targetWords, useRegex, wholeWordSearch);
-
-            if (!matches.isEmpty()) {
-                List<Object> redactedTokens =
-                        applyRedactionsToTokens(tokens, textSegments, matches);
-                writeRedactedContentToXObject(document, formXObject, redactedTokens);
-                log.debug("Processed {} redactions in Form XObject", matches.size());
-            }
-
-        } catch (Exception e) {
-            log.warn("Failed to process Form XObject: {}", e.getMessage());
-        }
-    }
-
     private List<TextSegment> extractTextSegmentsFromXObject(
             PDResources resources, List<Object> tokens) {
         List<TextSegment> segments = new ArrayList<>();
@@ -3,27 +3,18 @@ package stirling.software.SPDF.controller.api.security;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.beans.PropertyEditorSupport;
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
 
 import javax.imageio.ImageIO;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.font.PDFont;
-import org.apache.pdfbox.pdmodel.font.PDType0Font;
-import org.apache.pdfbox.pdmodel.font.PDType1Font;
-import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
 import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
 import org.apache.pdfbox.pdmodel.graphics.state.PDExtendedGraphicsState;
 import org.apache.pdfbox.util.Matrix;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.WebDataBinder;
@@ -39,7 +30,9 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 
 import lombok.RequiredArgsConstructor;
 
+import stirling.software.SPDF.controller.api.pipeline.DocumentOperation;
 import stirling.software.SPDF.model.api.security.AddWatermarkRequest;
+import stirling.software.SPDF.service.BundledFontService;
 import stirling.software.common.service.CustomPDFDocumentFactory;
 import stirling.software.common.util.GeneralUtils;
 import stirling.software.common.util.PdfUtils;
@@ -50,9 +43,10 @@ import stirling.software.common.util.WebResponseUtils;
 @RequestMapping("/api/v1/security")
 @Tag(name = "Security", description = "Security APIs")
 @RequiredArgsConstructor
-public class WatermarkController {
+public class WatermarkController implements DocumentOperation<AddWatermarkRequest> {
 
     private final CustomPDFDocumentFactory pdfDocumentFactory;
+    private final BundledFontService bundledFontService;
 
     @InitBinder
     public void initBinder(WebDataBinder binder) {
@@ -80,6 +74,17 @@ public class WatermarkController {
         if (pdfFileName != null && (pdfFileName.contains("..") || pdfFileName.startsWith("/"))) {
             throw new SecurityException("Invalid file path in pdfFile");
         }
+
+        // Load the input PDF
+        PDDocument document = apply(pdfDocumentFactory.load(pdfFile), request);
+
+        // Return the watermarked PDF as a response
+        return WebResponseUtils.pdfDocToWebResponse(
+                document, getOutputFilename(pdfFile.getOriginalFilename()));
+    }
+
+    @Override
+    public PDDocument apply(PDDocument document, AddWatermarkRequest request) throws IOException {
         String watermarkType = request.getWatermarkType();
         String watermarkText = request.getWatermarkText();
         MultipartFile watermarkImage = request.getWatermarkImage();
@@ -100,8 +105,13 @@ public class WatermarkController {
         String customColor = request.getCustomColor();
         boolean convertPdfToImage = Boolean.TRUE.equals(request.getConvertPDFToImage());
 
-        // Load the input PDF
-        PDDocument document = pdfDocumentFactory.load(pdfFile);
+        // Shared by all pages, so the font and transparency are written to the output only once
+        PDExtendedGraphicsState graphicsState = new PDExtendedGraphicsState();
+        graphicsState.setNonStrokingAlphaConstant(opacity);
+        PDFont font =
+                "text".equalsIgnoreCase(watermarkType)
+                        ? bundledFontService.loadFont(document, alphabet)
+                        : null;
 
         // Create a page in the document
         for (PDPage page : document.getPages()) {
@@ -112,21 +122,18 @@ public class WatermarkController {
                             document, page, PDPageContentStream.AppendMode.APPEND, true, true);
 
             // Set transparency
-            PDExtendedGraphicsState graphicsState = new PDExtendedGraphicsState();
-            graphicsState.setNonStrokingAlphaConstant(opacity);
             contentStream.setGraphicsStateParameters(graphicsState);
 
             if ("text".equalsIgnoreCase(watermarkType)) {
                 addTextWatermark(
                         contentStream,
                         watermarkText,
-                        document,
                         page,
                         rotation,
                         widthSpacer,
                         heightSpacer,
                         fontSize,
-                        alphabet,
+                        font,
                         customColor);
             } else if ("image".equalsIgnoreCase(watermarkType)) {
                 addImageWatermark(
@@ -149,48 +156,25 @@ public class WatermarkController {
             document.close();
             document = convertedPdf;
         }
+        return document;
+    }
 
-        // Return the watermarked PDF as a response
-        return WebResponseUtils.pdfDocToWebResponse(
-                document,
-                GeneralUtils.generateFilename(pdfFile.getOriginalFilename(), "_watermarked.pdf"));
+    @Override
+    public String getOutputFilename(String inputFilename) {
+        return GeneralUtils.generateFilename(inputFilename, "_watermarked.pdf");
     }
 
     private void addTextWatermark(
             PDPageContentStream contentStream,
             String watermarkText,
-            PDDocument document,
             PDPage page,
             float rotation,
             int widthSpacer,
             int heightSpacer,
             float fontSize,
-            String alphabet,
+            PDFont font,
             String colorString)
             throws IOException {
-        String resourceDir = "";
-        PDFont font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
-        resourceDir =
-                switch (alphabet) {
-                    case "arabic" -> "static/fonts/NotoSansArabic-Regular.ttf";
-                    case "japanese" -> "static/fonts/Meiryo.ttf";
-                    case "korean" -> "static/fonts/malgun.ttf";
-                    case "chinese" -> "static/fonts/SimSun.ttf";
-                    case "thai" -> "static/fonts/NotoSansThai-Regular.ttf";
-                    default -> "static/fonts/NotoSans-Regular.ttf";
-                };
-
-        ClassPathResource classPathResource = new ClassPathResource(resourceDir);
-        String fileExtension = resourceDir.substring(resourceDir.lastIndexOf("."));
-        File tempFile = Files.createTempFile("NotoSansFont", fileExtension).toFile();
-        try (InputStream is = classPathResource.getInputStream();
-                FileOutputStream os = new FileOutputStream(tempFile)) {
-            IOUtils.copy(is, os);
-            font = PDType0Font.load(document, tempFile);
-        } finally {
-            Files.deleteIfExists(tempFile.toPath());
-        }
-
         contentStream.setFont(font, fontSize);
 
         Color redactColor;
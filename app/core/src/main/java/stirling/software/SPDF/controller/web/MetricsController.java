@@ -26,6 +26,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import stirling.software.SPDF.config.EndpointInspector;
 import stirling.software.SPDF.config.StartupApplicationListener;
+import stirling.software.SPDF.service.UniqueUserTracker;
 import stirling.software.common.model.ApplicationProperties;
 
 @RestController
@@ -35,9 +36,13 @@ import stirling.software.common.model.ApplicationProperties;
 @RequiredArgsConstructor
 public class MetricsController {
 
+    private static final String WINDOW_DOC =
+            "Time span to count users over: hour, day or all (default)";
+
     private final ApplicationProperties applicationProperties;
     private final MeterRegistry meterRegistry;
     private final EndpointInspector endpointInspector;
+    private final UniqueUserTracker uniqueUserTracker;
     private boolean metricsEnabled;
 
     @PostConstruct
@@ -88,13 +93,17 @@ public class MetricsController {
                     "This endpoint returns the count of unique users for GET requests for a specific endpoint or all endpoints.")
     public ResponseEntity<?> getUniquePageLoads(
             @RequestParam(required = false, name = "endpoint") @Parameter(description = "endpoint")
-                    Optional<String> endpoint) {
+                    Optional<String> endpoint,
+            @RequestParam(required = false, name = "window") @Parameter(description = WINDOW_DOC)
+                    Optional<String> window) {
         if (!metricsEnabled) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("This endpoint is disabled.");
         }
         try {
-            double count = getUniqueUserCount("GET", endpoint);
+            double count = getUniqueUserCount("GET", endpoint, window);
             return ResponseEntity.ok(count);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -121,13 +130,17 @@ public class MetricsController {
             summary = "Unique users count for GET requests for all endpoints",
             description =
                     "This endpoint returns the count of unique users for GET requests for each endpoint.")
-    public ResponseEntity<?> getAllUniqueEndpointLoads() {
+    public ResponseEntity<?> getAllUniqueEndpointLoads(
+            @RequestParam(required = false, name = "window") @Parameter(description = WINDOW_DOC)
+                    Optional<String> window) {
         if (!metricsEnabled) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("This endpoint is disabled.");
         }
         try {
-            List<EndpointCount> results = getUniqueUserCounts("GET");
+            List<EndpointCount> results = getUniqueUserCounts("GET", window);
             return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -159,13 +172,17 @@ public class MetricsController {
                     "This endpoint returns the count of unique users for POST requests for a specific endpoint or all endpoints.")
     public ResponseEntity<?> getUniqueTotalRequests(
             @RequestParam(required = false, name = "endpoint") @Parameter(description = "endpoint")
-                    Optional<String> endpoint) {
+                    Optional<String> endpoint,
+            @RequestParam(required = false, name = "window") @Parameter(description = WINDOW_DOC)
+                    Optional<String> window) {
         if (!metricsEnabled) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("This endpoint is disabled.");
         }
         try {
-            double count = getUniqueUserCount("POST", endpoint);
+            double count = getUniqueUserCount("POST", endpoint, window);
             return ResponseEntity.ok(count);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.ok(-1);
         }
@@ -192,13 +209,17 @@ public class MetricsController {
             summary = "Unique users count for POST requests for all endpoints",
             description =
                     "This endpoint returns the count of unique users for POST requests for each endpoint.")
-    public ResponseEntity<?> getAllUniquePostRequests() {
+    public ResponseEntity<?> getAllUniquePostRequests(
+            @RequestParam(required = false, name = "window") @Parameter(description = WINDOW_DOC)
+                    Optional<String> window) {
         if (!metricsEnabled) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("This endpoint is disabled.");
         }
         try {
-            List<EndpointCount> results = getUniqueUserCounts("POST");
+            List<EndpointCount> results = getUniqueUserCounts("POST", window);
             return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -209,33 +230,9 @@ public class MetricsController {
                 .filter(
                         counter -> {
                             String uri = counter.getId().getTag("uri");
-
-                            // Apply filtering logic - Skip if uri is null
-                            if (uri == null) {
-                                return false;
-                            }
-
-                            // For POST requests, only include if they start with /api/v1
-                            if ("POST".equals(method) && !uri.contains("api/v1")) {
-                                return false;
-                            }
-
-                            if (uri.contains(".txt")) {
-                                return false;
-                            }
-
-                            // For GET requests, validate if we have a list of valid endpoints
-                            final boolean validateGetEndpoints =
-                                    endpointInspector.getValidGetEndpoints().size() != 0;
-                            if ("GET".equals(method)
-                                    && validateGetEndpoints
-                                    && !endpointInspector.isValidGetEndpoint(uri)) {
-                                log.debug("Skipping invalid GET endpoint: {}", uri);
-                                return false;
-                            }
-
                             // Filter for specific endpoint if provided
-                            return !endpoint.isPresent() || endpoint.get().equals(uri);
+                            return isCountedUri(method, uri)
+                                    && (!endpoint.isPresent() || endpoint.get().equals(uri));
                         })
                 .mapToDouble(Counter::count)
                 .sum();
@@ -243,6 +240,7 @@ public class MetricsController {
 
     private List<EndpointCount> getEndpointCounts(String method) {
         Map<String, Double> counts = new HashMap<>();
+        // Counters are split by status, so an endpoint may have several
         meterRegistry
                 .find("http.requests")
                 .tag("method", method)
@@ -250,32 +248,9 @@ public class MetricsController {
                 .forEach(
                         counter -> {
                             String uri = counter.getId().getTag("uri");
-
-                            // Skip if uri is null
-                            if (uri == null) {
-                                return;
+                            if (isCountedUri(method, uri)) {
+                                counts.merge(uri, counter.count(), Double::sum);
                             }
-
-                            // For POST requests, only include if they start with /api/v1
-                            if ("POST".equals(method) && !uri.contains("api/v1")) {
-                                return;
-                            }
-
-                            if (uri.contains(".txt")) {
-                                return;
-                            }
-
-                            // For GET requests, validate if we have a list of valid endpoints
-                            final boolean validateGetEndpoints =
-                                    endpointInspector.getValidGetEndpoints().size() != 0;
-                            if ("GET".equals(method)
-                                    && validateGetEndpoints
-                                    && !endpointInspector.isValidGetEndpoint(uri)) {
-                                log.debug("Skipping invalid GET endpoint: {}", uri);
-                                return;
-                            }
-
-                            counts.merge(uri, counter.count(), Double::sum);
                         });
 
         return counts.entrySet().stream()
@@ -284,66 +259,52 @@ public class MetricsController {
                 .toList();
     }
 
-    private double getUniqueUserCount(String method, Optional<String> endpoint) {
-        Set<String> uniqueUsers = new HashSet<>();
-        meterRegistry.find("http.requests").tag("method", method).counters().stream()
-                .filter(
-                        counter -> {
-                            String uri = counter.getId().getTag("uri");
+    private double getUniqueUserCount(
+            String method, Optional<String> endpoint, Optional<String> window) {
+        return uniqueUserTracker.countUsers(
+                method,
+                uri ->
+                        isCountedUri(method, uri)
+                                && (!endpoint.isPresent() || endpoint.get().equals(uri)),
+                UniqueUserTracker.Window.fromString(window.orElse(null)));
+    }
 
-                            // Skip if uri is null
-                            if (uri == null) {
-                                return false;
-                            }
+    private List<EndpointCount> getUniqueUserCounts(String method, Optional<String> window) {
+        return uniqueUserTracker
+                .countUsersByEndpoint(
+                        method, UniqueUserTracker.Window.fromString(window.orElse(null)))
+                .entrySet()
+                .stream()
+                .map(entry -> new EndpointCount(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparing(EndpointCount::getCount).reversed())
+                .toList();
+    }
 
-                            // For POST requests, only include if they start with /api/v1
-                            if ("POST".equals(method) && !uri.contains("api/v1")) {
-                                return false;
-                            }
+    // Applies the same exclusions to request counts and user counts
+    private boolean isCountedUri(String method, String uri) {
+        // Skip if uri is null
+        if (uri == null) {
+            return false;
+        }
 
-                            if (uri.contains(".txt")) {
-                                return false;
-                            }
+        // For POST requests, only include if they start with /api/v1
+        if ("POST".equals(method) && !uri.contains("api/v1")) {
+            return false;
+        }
 
-                            // For GET requests, validate if we have a list of valid endpoints
-                            final boolean validateGetEndpoints =
-                                    endpointInspector.getValidGetEndpoints().size() != 0;
-                            if ("GET".equals(method)
-                                    && validateGetEndpoints
-                                    && !endpointInspector.isValidGetEndpoint(uri)) {
-                                log.debug("Skipping invalid GET endpoint: {}", uri);
-                                return false;
-                            }
-                            return !endpoint.isPresent() || endpoint.get().equals(uri);
-                        })
-                .forEach(
-                        counter -> {
-                            String session = counter.getId().getTag("session");
-                            if (session != null) {
-                                uniqueUsers.add(session);
-                            }
-                        });
-        return uniqueUsers.size();
-    }
+        if (uri.contains(".txt")) {
+            return false;
+        }
 
-    private List<EndpointCount> getUniqueUserCounts(String method) {
-        Map<String, Set<String>> uniqueUsers = new HashMap<>();
-        meterRegistry
-                .find("http.requests")
-                .tag("method", method)
-                .counters()
-                .forEach(
-                        counter -> {
-                            String uri = counter.getId().getTag("uri");
-                            String session = counter.getId().getTag("session");
-                            if (uri != null && session != null) {
-                                uniqueUsers.computeIfAbsent(uri, k -> new HashSet<>()).add(session);
-                            }
-                        });
-        return uniqueUsers.entrySet().stream()
-                .map(entry -> new EndpointCount(entry.getKey(), entry.getValue().size()))
-                .sorted(Comparator.comparing(EndpointCount::getCount).reversed())
-                .toList();
+        // For GET requests, validate if we have a list of valid endpoints
+        final boolean validateGetEndpoints = endpointInspector.getValidGetEndpoints().size() != 0;
+        if ("GET".equals(method)
+                && validateGetEndpoints
+                && !endpointInspector.isValidGetEndpoint(uri)) {
+            log.debug("Skipping invalid GET endpoint: {}", uri);
+            return false;
+        }
+        return true;
     }
 
     @GetMapping("/uptime")
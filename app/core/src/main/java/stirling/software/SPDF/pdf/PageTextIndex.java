@@ -0,0 +1,177 @@
+package stirling.software.SPDF.pdf;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.text.TextPosition;
+
+import lombok.extern.slf4j.Slf4j;
+
+import stirling.software.SPDF.model.PDFText;
+import stirling.software.SPDF.utils.text.MultiPatternMatcher;
+import stirling.software.SPDF.utils.text.MultiPatternMatcher.Match;
+
+/**
+ * Text and {@link TextPosition}s of every page of a document, extracted in one {@link
+ * PDFTextStripper} pass so that any number of searches can run against it without stripping the
+ * document again. Word and line separators have a {@code null} position, as in {@link TextFinder}.
+ */
+@Slf4j
+public class PageTextIndex {
+
+    private final List<String> pageTexts = new ArrayList<>();
+    private final List<List<TextPosition>> pagePositions = new ArrayList<>();
+
+    private PageTextIndex() {}
+
+    /**
+     * Extracts the text of all pages.
+     *
+     * @param document the document to index
+     * @return the index
+     * @throws IOException if the text cannot be extracted
+     */
+    public static PageTextIndex build(PDDocument document) throws IOException {
+        PageTextIndex index = new PageTextIndex();
+        new Collector(index).getText(document);
+        return index;
+    }
+
+    /**
+     * @return the number of indexed pages
+     */
+    public int getPageCount() {
+        return pageTexts.size();
+    }
+
+    /**
+     * @return the extracted text of the given zero-based page
+     */
+    public String getPageText(int pageIndex) {
+        return pageTexts.get(pageIndex);
+    }
+
+    /**
+     * Runs a search over every page.
+     *
+     * @param matcher the terms to look for
+     * @return the bounding boxes of the matches, by zero-based page index
+     */
+    public Map<Integer, List<PDFText>> find(MultiPatternMatcher matcher) {
+        Map<Integer, List<PDFText>> foundByPage = new HashMap<>();
+        for (int pageIndex = 0; pageIndex < pageTexts.size(); pageIndex++) {
+            List<TextPosition> positions = pagePositions.get(pageIndex);
+            for (Match match : matcher.findAll(pageTexts.get(pageIndex))) {
+                PDFText found =
+                        toPdfText(pageIndex, positions, match.start(), match.end(), match.text());
+                if (found != null) {
+                    foundByPage.computeIfAbsent(pageIndex, k -> new ArrayList<>()).add(found);
+                } else {
+                    log.warn(
+                            "Found text match '{}' but no valid position data at {}-{}",
+                            match.text(),
+                            match.start(),
+                            match.end());
+                }
+            }
+        }
+        return foundByPage;
+    }
+
+    /**
+     * Computes the bounding box of the characters in {@code [start, end)}. If none of them has a
+     * position, the nearest positioned character within five characters is used instead.
+     *
+     * @return the box, or null if no position could be found
+     */
+    static PDFText toPdfText(
+            int pageIndex, List<TextPosition> positions, int start, int end, String text) {
+        float minX = Float.MAX_VALUE;
+        float minY = Float.MAX_VALUE;
+        float maxX = Float.MIN_VALUE;
+        float maxY = Float.MIN_VALUE;
+        boolean foundPosition = false;
+
+        for (int i = start; i < Math.min(end, positions.size()); i++) {
+            TextPosition pos = positions.get(i);
+            if (pos != null) {
+                foundPosition = true;
+                minX = Math.min(minX, pos.getX());
+                maxX = Math.max(maxX, pos.getX() + pos.getWidth());
+                minY = Math.min(minY, pos.getY() - pos.getHeight());
+                maxY = Math.max(maxY, pos.getY());
+            }
+        }
+
+        if (!foundPosition && start < positions.size()) {
+            for (int i = Math.max(0, start - 5); i < Math.min(positions.size(), end + 5); i++) {
+                TextPosition pos = positions.get(i);
+                if (pos != null) {
+                    foundPosition = true;
+                    minX = Math.min(minX, pos.getX());
+                    maxX = Math.max(maxX, pos.getX() + pos.getWidth());
+                    minY = Math.min(minY, pos.getY() - pos.getHeight());
+                    maxY = Math.max(maxY, pos.getY());
+                    break;
+                }
+            }
+        }
+
+        return foundPosition ? new PDFText(pageIndex, minX, minY, maxX, maxY, text) : null;
+    }
+
+    private static class Collector extends PDFTextStripper {
+
+        private final PageTextIndex index;
+        private final List<TextPosition> positions = new ArrayList<>();
+        private final StringBuilder text = new StringBuilder();
+
+        Collector(PageTextIndex index) throws IOException {
+            this.index = index;
+            setWordSeparator(" ");
+        }
+
+        @Override
+        protected void startPage(PDPage page) throws IOException {
+            super.startPage(page);
+            positions.clear();
+            text.setLength(0);
+        }
+
+        @Override
+        protected void writeString(String string, List<TextPosition> textPositions) {
+            text.append(string);
+            positions.addAll(textPositions);
+        }
+
+        @Override
+        protected void writeWordSeparator() {
+            text.append(getWordSeparator());
+            positions.add(null); // Placeholder for separator
+        }
+
+        @Override
+        protected void writeLineSeparator() {
+            text.append(getLineSeparator());
+            positions.add(null); // Placeholder for separator
+        }
+
+        @Override
+        protected void endPage(PDPage page) throws IOException {
+            // Keep list positions equal to page indexes even if a page was never started
+            while (index.pageTexts.size() < getCurrentPageNo() - 1) {
+                index.pageTexts.add("");
+                index.pagePositions.add(List.of());
+            }
+            index.pageTexts.add(text.toString());
+            index.pagePositions.add(new ArrayList<>(positions));
+            super.endPage(page);
+        }
+    }
+}
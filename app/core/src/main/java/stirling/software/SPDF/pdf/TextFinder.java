@@ -110,68 +110,24 @@ public class TextFinder extends PDFTextStripper {
                     matchEnd,
                     matcher.group());
 
-            float minX = Float.MAX_VALUE;
-            float minY = Float.MAX_VALUE;
-            float maxX = Float.MIN_VALUE;
-            float maxY = Float.MIN_VALUE;
-            boolean foundPosition = false;
-
-            for (int i = matchStart; i < matchEnd; i++) {
-                if (i >= pageTextPositions.size()) {
-                    log.debug(
-                            "Position index {} exceeds available positions ({})",
-                            i,
-                            pageTextPositions.size());
-                    continue;
-                }
-                TextPosition pos = pageTextPositions.get(i);
-                if (pos != null) {
-                    foundPosition = true;
-                    minX = Math.min(minX, pos.getX());
-                    maxX = Math.max(maxX, pos.getX() + pos.getWidth());
-                    minY = Math.min(minY, pos.getY() - pos.getHeight());
-                    maxY = Math.max(maxY, pos.getY());
-                }
-            }
-
-            if (!foundPosition && matchStart < pageTextPositions.size()) {
-                log.debug(
-                        "Attempting to find nearby positions for match at {}-{}",
-                        matchStart,
-                        matchEnd);
-
-                for (int i = Math.max(0, matchStart - 5);
-                        i < Math.min(pageTextPositions.size(), matchEnd + 5);
-                        i++) {
-                    TextPosition pos = pageTextPositions.get(i);
-                    if (pos != null) {
-                        foundPosition = true;
-                        minX = Math.min(minX, pos.getX());
-                        maxX = Math.max(maxX, pos.getX() + pos.getWidth());
-                        minY = Math.min(minY, pos.getY() - pos.getHeight());
-                        maxY = Math.max(maxY, pos.getY());
-                        break;
-                    }
-                }
-            }
-
-            if (foundPosition) {
-                foundTexts.add(
-                        new PDFText(
-                                this.getCurrentPageNo() - 1,
-                                minX,
-                                minY,
-                                maxX,
-                                maxY,
-                                matcher.group()));
+            PDFText found =
+                    PageTextIndex.toPdfText(
+                            this.getCurrentPageNo() - 1,
+                            pageTextPositions,
+                            matchStart,
+                            matchEnd,
+                            matcher.group());
+
+            if (found != null) {
+                foundTexts.add(found);
                 log.debug(
                         "Added PDFText for match: page={}, bounds=({},{},{},{}), text='{}'",
-                        getCurrentPageNo() - 1,
-                        minX,
-                        minY,
-                        maxX,
-                        maxY,
-                        matcher.group());
+                        found.getPageIndex(),
+                        found.getX1(),
+                        found.getY1(),
+                        found.getX2(),
+                        found.getY2(),
+                        found.getText());
             } else {
                 log.warn(
                         "Found text match '{}' but no valid position data at {}-{}",
@@ -0,0 +1,76 @@
+package stirling.software.SPDF.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The fonts bundled under {@code static/fonts} for drawing text in a given alphabet. Each font file
+ * is parsed once per JVM and the parsed font is shared by all documents; only the embedding, a
+ * subset of the glyphs actually drawn, is done per document.
+ */
+@Service
+@Slf4j
+public class BundledFontService {
+
+    private final Map<String, TrueTypeFont> fontsByResource = new ConcurrentHashMap<>();
+
+    /**
+     * @param alphabet the alphabet of the text, such as "arabic" or "japanese"; any other value
+     *     selects the Latin font
+     * @return the class path of the font for the alphabet
+     */
+    public static String getFontResource(String alphabet) {
+        return switch (alphabet == null ? "" : alphabet) {
+            case "arabic" -> "static/fonts/NotoSansArabic-Regular.ttf";
+            case "japanese" -> "static/fonts/Meiryo.ttf";
+            case "korean" -> "static/fonts/malgun.ttf";
+            case "chinese" -> "static/fonts/SimSun.ttf";
+            case "thai" -> "static/fonts/NotoSansThai-Regular.ttf";
+            default -> "static/fonts/NotoSans-Regular.ttf";
+        };
+    }
+
+    /**
+     * Creates a font for the alphabet that embeds into the document. Load it once per document and
+     * reuse it for every page, each call adds another font subset to the output.
+     *
+     * @param document the document the font is embedded in
+     * @param alphabet the alphabet of the text
+     * @return the font
+     * @throws IOException if the font cannot be read
+     */
+    public PDType0Font loadFont(PDDocument document, String alphabet) throws IOException {
+        return PDType0Font.load(document, getTrueTypeFont(getFontResource(alphabet)), true);
+    }
+
+    private TrueTypeFont getTrueTypeFont(String resource) throws IOException {
+        TrueTypeFont font = fontsByResource.get(resource);
+        if (font != null) {
+            return font;
+        }
+        synchronized (fontsByResource) {
+            font = fontsByResource.get(resource);
+            if (font == null) {
+                // Kept open for the lifetime of the JVM, PDFBox reads glyphs from it lazily
+                try (InputStream is = new ClassPathResource(resource).getInputStream()) {
+                    font = new TTFParser().parse(new RandomAccessReadBuffer(is));
+                }
+                fontsByResource.put(resource, font);
+                log.debug("Parsed bundled font {}", resource);
+            }
+            return font;
+        }
+    }
+}
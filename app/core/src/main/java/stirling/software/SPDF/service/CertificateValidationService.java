@@ -1,10 +1,14 @@
 package stirling.software.SPDF.service;
 
 import java.io.*;
+import java.security.InvalidAlgorithmParameterException;
 import java.security.KeyStore;
-import java.security.KeyStoreException;
+import java.security.MessageDigest;
 import java.security.cert.*;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import javax.security.auth.x500.X500Principal;
 
 import org.springframework.stereotype.Service;
 
@@ -12,15 +16,110 @@ import io.github.pixee.security.BoundedLineReader;
 
 import jakarta.annotation.PostConstruct;
 
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Checks signing certificates against the Mozilla trust store. The trust anchors are indexed by
+ * subject once per load of the trust store, and chain validation results are cached by certificate
+ * fingerprint, so validating many signatures by the same signers stays cheap.
+ */
 @Service
+@Slf4j
 public class CertificateValidationService {
+
+    private static final int MAX_CACHED_RESULTS = 1000;
+    private static final long RESULT_TTL_MS = TimeUnit.HOURS.toMillis(1);
+
     private KeyStore trustStore;
+    private volatile AnchorIndex anchorIndex = AnchorIndex.EMPTY;
+
+    // Access ordered so the least recently used result is evicted first
+    private final LinkedHashMap<String, CachedResult> chainResults =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                    return size() > MAX_CACHED_RESULTS;
+                }
+            };
+
+    /** A chain validation result, valid until the certificate expires or the entry gets stale */
+    private record CachedResult(boolean valid, long expiresAt) {}
+
+    /** Trust anchors by subject, built once per load of the trust store and never modified */
+    private static final class AnchorIndex {
+        private static final AnchorIndex EMPTY = new AnchorIndex(Map.of(), null);
+
+        private final Map<X500Principal, List<X509Certificate>> bySubject;
+        // Shared by all validations, null if there are no anchors
+        private final PKIXParameters parameters;
+
+        private AnchorIndex(
+                Map<X500Principal, List<X509Certificate>> bySubject, PKIXParameters parameters) {
+            this.bySubject = bySubject;
+            this.parameters = parameters;
+        }
+
+        private static AnchorIndex of(List<X509Certificate> certificates)
+                throws InvalidAlgorithmParameterException {
+            if (certificates.isEmpty()) {
+                return EMPTY;
+            }
+            Map<X500Principal, List<X509Certificate>> bySubject = new HashMap<>();
+            Set<TrustAnchor> anchors = new HashSet<>();
+            for (X509Certificate certificate : certificates) {
+                X500Principal subject = certificate.getSubjectX500Principal();
+                bySubject.computeIfAbsent(subject, k -> new ArrayList<>()).add(certificate);
+                anchors.add(new TrustAnchor(certificate, null));
+            }
+            bySubject.replaceAll((subject, list) -> List.copyOf(list));
+            PKIXParameters parameters = new PKIXParameters(anchors);
+            parameters.setRevocationEnabled(false);
+            return new AnchorIndex(Map.copyOf(bySubject), parameters);
+        }
+
+        private boolean hasSubject(X500Principal subject) {
+            return subject != null && bySubject.containsKey(subject);
+        }
+
+        private boolean contains(X509Certificate cert) {
+            X500Principal subject = cert.getSubjectX500Principal();
+            return subject != null && bySubject.getOrDefault(subject, List.of()).contains(cert);
+        }
+    }
 
     @PostConstruct
     private void initializeTrustStore() throws Exception {
+        reloadTrustStore();
+    }
+
+    /**
+     * Load the trust store again and rebuild the anchor index, dropping all cached results.
+     *
+     * @throws Exception if the trust store cannot be loaded
+     */
+    public synchronized void reloadTrustStore() throws Exception {
         trustStore = KeyStore.getInstance(KeyStore.getDefaultType());
         trustStore.load(null, null);
         loadMozillaCertificates();
+
+        List<X509Certificate> certificates = new ArrayList<>();
+        Enumeration<String> aliases = trustStore.aliases();
+        while (aliases.hasMoreElements()) {
+            if (trustStore.getCertificate(aliases.nextElement()) instanceof X509Certificate cert) {
+                certificates.add(cert);
+            }
+        }
+        indexTrustAnchors(certificates);
+        log.debug("Indexed {} trust anchors", certificates.size());
+    }
+
+    // Replaces the anchors used for validation
+    void indexTrustAnchors(List<X509Certificate> certificates)
+            throws InvalidAlgorithmParameterException {
+        anchorIndex = AnchorIndex.of(certificates);
+        synchronized (chainResults) {
+            chainResults.clear();
+        }
     }
 
     private void loadMozillaCertificates() throws Exception {
@@ -74,42 +173,66 @@ public class CertificateValidationService {
     }
 
     public boolean validateCertificateChain(X509Certificate cert) {
+        AnchorIndex index = anchorIndex;
+        // The path is the certificate alone, so only a certificate issued by an anchor can pass
+        if (index.parameters == null || !index.hasSubject(cert.getIssuerX500Principal())) {
+            return false;
+        }
+
+        String fingerprint = fingerprint(cert);
+        long now = System.currentTimeMillis();
+        if (fingerprint != null) {
+            synchronized (chainResults) {
+                CachedResult cached = chainResults.get(fingerprint);
+                if (cached != null && cached.expiresAt() > now) {
+                    return cached.valid();
+                }
+            }
+        }
+
+        boolean valid;
         try {
             CertPathValidator validator = CertPathValidator.getInstance("PKIX");
             CertificateFactory cf = CertificateFactory.getInstance("X.509");
-            List<X509Certificate> certList = Collections.singletonList(cert);
-            CertPath certPath = cf.generateCertPath(certList);
+            CertPath certPath = cf.generateCertPath(Collections.singletonList(cert));
+            validator.validate(certPath, index.parameters);
+            valid = true;
+        } catch (Exception e) {
+            valid = false;
+        }
 
-            Set<TrustAnchor> anchors = new HashSet<>();
-            Enumeration<String> aliases = trustStore.aliases();
-            while (aliases.hasMoreElements()) {
-                Object trustCert = trustStore.getCertificate(aliases.nextElement());
-                if (trustCert instanceof X509Certificate x509Cert) {
-                    anchors.add(new TrustAnchor(x509Cert, null));
+        if (fingerprint != null) {
+            long expiresAt = Math.min(now + RESULT_TTL_MS, cert.getNotAfter().getTime());
+            synchronized (chainResults) {
+                // Results of an outdated index must not outlive a reload
+                if (index == anchorIndex) {
+                    chainResults.put(fingerprint, new CachedResult(valid, expiresAt));
                 }
             }
-
-            PKIXParameters params = new PKIXParameters(anchors);
-            params.setRevocationEnabled(false);
-            validator.validate(certPath, params);
-            return true;
-        } catch (Exception e) {
-            return false;
         }
+        return valid;
     }
 
     public boolean validateTrustStore(X509Certificate cert) {
+        return anchorIndex.contains(cert);
+    }
+
+    int getCachedResultCount() {
+        synchronized (chainResults) {
+            return chainResults.size();
+        }
+    }
+
+    // SHA-256 of the encoded certificate, or null if it cannot be encoded
+    private String fingerprint(X509Certificate cert) {
         try {
-            Enumeration<String> aliases = trustStore.aliases();
-            while (aliases.hasMoreElements()) {
-                Object trustCert = trustStore.getCertificate(aliases.nextElement());
-                if (trustCert instanceof X509Certificate && cert.equals(trustCert)) {
-                    return true;
-                }
+            byte[] encoded = cert.getEncoded();
+            if (encoded == null) {
+                return null;
             }
-            return false;
-        } catch (KeyStoreException e) {
-            return false;
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(encoded));
+        } catch (Exception e) {
+            return null;
         }
     }
 
@@ -0,0 +1,414 @@
+package stirling.software.SPDF.service;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+import lombok.extern.slf4j.Slf4j;
+
+import stirling.software.SPDF.config.EndpointConfiguration;
+import stirling.software.common.configuration.RuntimePathConfig;
+import stirling.software.common.model.ApplicationProperties;
+import stirling.software.common.util.ProcessExecutor;
+
+/**
+ * Pool of long-lived unoserver instances used by unoconvert for office conversions, so that a
+ * conversion neither waits for the single shared server nor pays the LibreOffice startup time.
+ *
+ * <p>The pool has one worker per LibreOffice session allowed by {@code
+ * processExecutor.sessionLimit.libreOfficeSessionLimit}. Worker {@code i} listens on {@code
+ * basePort + 2i} with its LibreOffice instance on the port below it, which keeps the first worker
+ * on the classic 2003/2002 pair. A server already listening on a worker's port, such as the one
+ * started by the Docker image, is adopted as is; it is health checked but never restarted.
+ *
+ * <p>Conversions go to the healthy worker with the fewest conversions in progress. Workers the pool
+ * started itself are restarted when they crash or stop answering, and recycled after a configurable
+ * number of conversions to bound LibreOffice's memory growth. If no worker is usable, conversions
+ * fall back to the base port, as before the pool existed.
+ */
+@Service
+@Slf4j
+public class LibreOfficeWorkerPool {
+
+    private static final String LOCALHOST = "127.0.0.1";
+    private static final int CONNECT_TIMEOUT_MS = 1000;
+    private static final long STARTUP_TIMEOUT_MS = 60_000;
+    private static final long STOP_TIMEOUT_SECONDS = 10;
+
+    private final RuntimePathConfig runtimePathConfig;
+    private final EndpointConfiguration endpointConfiguration;
+    private final boolean enabled;
+    private final int basePort;
+    private final int maxConversionsPerWorker;
+    private final long healthCheckIntervalSeconds;
+    private final List<Worker> workers = new ArrayList<>();
+    private final ScheduledExecutorService maintenanceExecutor =
+            Executors.newSingleThreadScheduledExecutor(
+                    r -> {
+                        Thread thread = new Thread(r, "libreoffice-pool");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+
+    private boolean started = false;
+
+    public LibreOfficeWorkerPool(
+            ApplicationProperties applicationProperties,
+            RuntimePathConfig runtimePathConfig,
+            EndpointConfiguration endpointConfiguration,
+            @Value("${stirling.libreoffice.pool.enabled:true}") boolean enabled,
+            @Value("${stirling.libreoffice.pool.base-port:2003}") int basePort,
+            @Value("${stirling.libreoffice.pool.max-conversions-per-worker:200}")
+                    int maxConversionsPerWorker,
+            @Value("${stirling.libreoffice.pool.health-check-interval-seconds:30}")
+                    long healthCheckIntervalSeconds) {
+        this.runtimePathConfig = runtimePathConfig;
+        this.endpointConfiguration = endpointConfiguration;
+        this.enabled = enabled;
+        this.basePort = basePort;
+        this.maxConversionsPerWorker = maxConversionsPerWorker;
+        this.healthCheckIntervalSeconds = healthCheckIntervalSeconds;
+
+        int size =
+                applicationProperties
+                        .getProcessExecutor()
+                        .getSessionLimit()
+                        .getLibreOfficeSessionLimit();
+        for (int i = 0; i < size; i++) {
+            workers.add(new Worker(i, basePort + 2 * i));
+        }
+    }
+
+    /** A unoserver instance of the pool */
+    private static class Worker {
+        private final int index;
+        private final int port;
+        private Process process;
+        private Path profileDir;
+        private boolean external;
+        private boolean healthy;
+        private boolean restarting;
+        private int activeConversions;
+        private int conversionsSinceStart;
+
+        private Worker(int index, int port) {
+            this.index = index;
+            this.port = port;
+        }
+    }
+
+    /** A worker handed out for one conversion. Closing the lease returns the worker to the pool. */
+    public class Lease implements ProcessExecutor.CommandResource {
+        private final Worker worker;
+        private final int port;
+        private boolean failed;
+        private boolean closed;
+
+        private Lease(Worker worker, int port) {
+            this.worker = worker;
+            this.port = port;
+        }
+
+        /**
+         * @return the port of the unoserver to pass to unoconvert
+         */
+        public int getPort() {
+            return port;
+        }
+
+        /** Report that the conversion failed, so the worker is checked before its next use */
+        @Override
+        public void markFailed() {
+            failed = true;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                release(this);
+            }
+        }
+    }
+
+    /** Start the workers once the external dependency checks have run */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            log.info("LibreOffice worker pool is disabled");
+            return;
+        }
+        if (!endpointConfiguration.isGroupEnabled("Unoconvert")) {
+            log.info("unoconvert is not available, LibreOffice worker pool not started");
+            return;
+        }
+        maintenanceExecutor.execute(this::startWorkers);
+        maintenanceExecutor.scheduleWithFixedDelay(
+                this::checkHealth,
+                healthCheckIntervalSeconds,
+                healthCheckIntervalSeconds,
+                TimeUnit.SECONDS);
+    }
+
+    /**
+     * Take the least loaded healthy worker for a conversion. Never blocks: parallelism is already
+     * limited by the LibreOffice session limit of {@code ProcessExecutor}, and the worker should be
+     * taken once the conversion holds one of its slots, see {@link
+     * ProcessExecutor#runCommandWithOutputHandling(java.util.function.Supplier,
+     * java.util.function.Function)}.
+     *
+     * @return a lease for a worker, or for the base port if no worker is usable
+     */
+    public synchronized Lease acquire() {
+        Worker best = null;
+        for (Worker worker : workers) {
+            if (!worker.healthy || worker.restarting) {
+                continue;
+            }
+            if (best == null || worker.activeConversions < best.activeConversions) {
+                best = worker;
+            }
+        }
+        if (best == null) {
+            return new Lease(null, basePort);
+        }
+        best.activeConversions++;
+        best.conversionsSinceStart++;
+        return new Lease(best, best.port);
+    }
+
+    /**
+     * @return the number of workers currently accepting conversions
+     */
+    public synchronized int getHealthyWorkerCount() {
+        return (int) workers.stream().filter(w -> w.healthy && !w.restarting).count();
+    }
+
+    private void release(Lease lease) {
+        Worker worker = lease.worker;
+        if (worker == null) {
+            return;
+        }
+        // A failed conversion may mean the server died, check it before handing it out again
+        boolean lost = lease.failed && !isListening(worker.port);
+        boolean restart;
+        synchronized (this) {
+            worker.activeConversions--;
+            if (lost) {
+                worker.healthy = false;
+            }
+            boolean recycle =
+                    maxConversionsPerWorker > 0
+                            && worker.conversionsSinceStart >= maxConversionsPerWorker;
+            restart =
+                    !worker.external
+                            && !worker.restarting
+                            && worker.activeConversions == 0
+                            && (!worker.healthy || recycle);
+            if (restart) {
+                worker.restarting = true;
+            }
+        }
+        if (restart) {
+            log.info(
+                    "Restarting LibreOffice worker {} after {} conversions",
+                    worker.index,
+                    worker.conversionsSinceStart);
+            maintenanceExecutor.execute(() -> restartWorker(worker));
+        }
+    }
+
+    // Runs on the maintenance thread
+    void startWorkers() {
+        synchronized (this) {
+            if (started) {
+                return;
+            }
+            started = true;
+        }
+        for (Worker worker : workers) {
+            if (isListening(worker.port)) {
+                synchronized (this) {
+                    worker.external = true;
+                    worker.healthy = true;
+                }
+                log.info(
+                        "Using already running unoserver on port {} as LibreOffice worker {}",
+                        worker.port,
+                        worker.index);
+            } else {
+                synchronized (this) {
+                    worker.restarting = true;
+                }
+                restartWorker(worker);
+            }
+        }
+        log.info(
+                "LibreOffice worker pool started with {} of {} workers available",
+                getHealthyWorkerCount(),
+                workers.size());
+    }
+
+    // Runs on the maintenance thread
+    void checkHealth() {
+        for (Worker worker : workers) {
+            boolean listening = isListening(worker.port);
+            boolean restart;
+            synchronized (this) {
+                if (worker.restarting) {
+                    continue;
+                }
+                boolean alive =
+                        listening
+                                && (worker.external
+                                        || (worker.process != null && worker.process.isAlive()));
+                if (alive != worker.healthy) {
+                    log.warn(
+                            "LibreOffice worker {} on port {} is {}",
+                            worker.index,
+                            worker.port,
+                            alive ? "available again" : "not responding");
+                }
+                worker.healthy = alive;
+                restart = !alive && !worker.external && worker.activeConversions == 0;
+                if (restart) {
+                    worker.restarting = true;
+                }
+            }
+            if (restart) {
+                restartWorker(worker);
+            }
+        }
+    }
+
+    // Stops the worker's server if it has one and starts a new one, called with restarting set
+    private void restartWorker(Worker worker) {
+        stopProcess(worker);
+        boolean healthy = false;
+        try {
+            if (worker.profileDir == null) {
+                // Separate LibreOffice profiles, instances sharing one would block each other
+                worker.profileDir = Files.createTempDirectory("libreoffice-worker-");
+            }
+            List<String> command =
+                    List.of(
+                            runtimePathConfig.getUnoServerPath(),
+                            "--interface",
+                            LOCALHOST,
+                            "--port",
+                            String.valueOf(worker.port),
+                            "--uno-port",
+                            String.valueOf(worker.port - 1),
+                            "--user-installation",
+                            worker.profileDir.toUri().toString());
+            Process process =
+                    new ProcessBuilder(command)
+                            .redirectErrorStream(true)
+                            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                            .start();
+            worker.process = process;
+            healthy = waitUntilListening(process, worker.port);
+            if (!healthy) {
+                log.warn(
+                        "LibreOffice worker {} did not start listening on port {}",
+                        worker.index,
+                        worker.port);
+                stopProcess(worker);
+            }
+        } catch (IOException e) {
+            log.warn("Could not start LibreOffice worker {}: {}", worker.index, e.getMessage());
+        } finally {
+            synchronized (this) {
+                worker.healthy = healthy;
+                worker.restarting = false;
+                worker.conversionsSinceStart = 0;
+            }
+        }
+    }
+
+    private boolean waitUntilListening(Process process, int port) {
+        long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline && process.isAlive()) {
+            if (isListening(port)) {
+                return true;
+            }
+            try {
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private void stopProcess(Worker worker) {
+        Process process = worker.process;
+        worker.process = null;
+        if (process == null) {
+            return;
+        }
+        // unoserver runs LibreOffice as a child process that must not outlive it. The children are
+        // collected first, once unoserver is gone they are no longer its descendants. A child that
+        // ignores the request to stop would keep the port bound, so any still alive after the wait
+        // is killed, even if unoserver itself stopped in time.
+        List<ProcessHandle> descendants = process.descendants().toList();
+        descendants.forEach(ProcessHandle::destroy);
+        process.destroy();
+        try {
+            if (!process.waitFor(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process.destroyForcibly();
+        }
+        for (ProcessHandle descendant : descendants) {
+            if (descendant.isAlive()) {
+                descendant.destroyForcibly();
+            }
+        }
+    }
+
+    private boolean isListening(int port) {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(LOCALHOST, port), CONNECT_TIMEOUT_MS);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /** Stop all workers started by the pool */
+    @PreDestroy
+    public void shutdown() {
+        maintenanceExecutor.shutdownNow();
+        for (Worker worker : workers) {
+            if (!worker.external) {
+                stopProcess(worker);
+            }
+            if (worker.profileDir != null) {
+                try {
+                    FileUtils.deleteDirectory(worker.profileDir.toFile());
+                } catch (IOException e) {
+                    log.debug("Could not delete LibreOffice profile {}", worker.profileDir);
+                }
+            }
+        }
+    }
+}
@@ -28,6 +28,7 @@ public class MetricsAggregatorService {
     @Scheduled(fixedRate = 7200000) // Run every 2 hours
     public void aggregateAndSendMetrics() {
         Map<String, Object> metrics = new HashMap<>();
+        Map<String, Double> currentCounts = new HashMap<>();
 
         final boolean validateGetEndpoints = !endpointInspector.getValidGetEndpoints().isEmpty();
         Search.in(meterRegistry)
@@ -71,15 +72,19 @@ public class MetricsAggregatorService {
                             String key =
                                     String.format(
                                             "http_requests_%s_%s", method, uri.replace("/", "_"));
-                            double currentCount = counter.count();
-                            double lastCount = lastSentMetrics.getOrDefault(key, 0.0);
-                            double difference = currentCount - lastCount;
-                            if (difference > 0) {
-                                log.debug("{}, {}", key, difference);
-                                metrics.put(key, difference);
-                                lastSentMetrics.put(key, currentCount);
-                            }
+                            // Counters are split by status, add them up per endpoint
+                            currentCounts.merge(key, counter.count(), Double::sum);
                         });
+        currentCounts.forEach(
+                (key, currentCount) -> {
+                    double lastCount = lastSentMetrics.getOrDefault(key, 0.0);
+                    double difference = currentCount - lastCount;
+                    if (difference > 0) {
+                        log.debug("{}, {}", key, difference);
+                        metrics.put(key, difference);
+                        lastSentMetrics.put(key, currentCount);
+                    }
+                });
         // Send aggregated metrics to PostHog
         if (!metrics.isEmpty()) {
 
@@ -0,0 +1,171 @@
+package stirling.software.SPDF.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import stirling.software.SPDF.utils.HyperLogLog;
+
+/**
+ * Counts the distinct users of each endpoint with {@link HyperLogLog} sketches, so the memory used
+ * depends on the number of endpoints and not on the number of users. Besides the count since
+ * startup, every endpoint keeps one sketch per hour of the last day, from which the counts of the
+ * last hour and the last day are rolled up. Endpoints should be recorded by their mapped pattern
+ * rather than by the raw URI; even so the number of sketches is bounded, and the sketches of an
+ * endpoint without requests for a week are dropped.
+ */
+@Service
+public class UniqueUserTracker {
+
+    private static final int HOURS_PER_DAY = 24;
+    private static final long MILLIS_PER_HOUR = 3_600_000L;
+    private static final long MAX_ENDPOINTS = 10_000;
+    private static final Duration ENDPOINT_IDLE_TIMEOUT = Duration.ofDays(7);
+
+    /** Time span over which distinct users are counted */
+    public enum Window {
+        HOUR,
+        DAY,
+        ALL;
+
+        /**
+         * @param value the window name, case-insensitive, or null
+         * @return the matching window, ALL if the value is null or blank
+         * @throws IllegalArgumentException if the value names no window
+         */
+        public static Window fromString(String value) {
+            if (value == null || value.isBlank()) {
+                return ALL;
+            }
+            for (Window window : values()) {
+                if (window.name().equalsIgnoreCase(value.trim())) {
+                    return window;
+                }
+            }
+            throw new IllegalArgumentException(
+                    "Unknown window '" + value + "', expected one of hour, day or all");
+        }
+    }
+
+    private final Clock clock;
+    private final Cache<Endpoint, EndpointUsers> usersByEndpoint =
+            Caffeine.newBuilder()
+                    .maximumSize(MAX_ENDPOINTS)
+                    .expireAfterAccess(ENDPOINT_IDLE_TIMEOUT)
+                    .build();
+
+    public UniqueUserTracker() {
+        this(Clock.systemUTC());
+    }
+
+    UniqueUserTracker(Clock clock) {
+        this.clock = clock;
+    }
+
+    private record Endpoint(String method, String uri) {}
+
+    /** Users of one endpoint */
+    private static class EndpointUsers {
+        private final HyperLogLog total = new HyperLogLog();
+        private final HyperLogLog[] hourly = new HyperLogLog[HOURS_PER_DAY];
+        private final long[] hourOfSketch = new long[HOURS_PER_DAY];
+
+        private synchronized void offer(String user, long hour) {
+            total.offer(user);
+            int slot = (int) (hour % HOURS_PER_DAY);
+            if (hourly[slot] == null || hourOfSketch[slot] != hour) {
+                hourly[slot] = new HyperLogLog();
+                hourOfSketch[slot] = hour;
+            }
+            hourly[slot].offer(user);
+        }
+
+        // Adds the users of the window to the target sketch
+        private synchronized void mergeInto(HyperLogLog target, Window window, long hour) {
+            if (window == Window.ALL) {
+                target.merge(total);
+                return;
+            }
+            long hours = window == Window.HOUR ? 1 : HOURS_PER_DAY;
+            for (int slot = 0; slot < HOURS_PER_DAY; slot++) {
+                if (hourly[slot] != null && hour - hourOfSketch[slot] < hours) {
+                    target.merge(hourly[slot]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Records a request.
+     *
+     * @param method the HTTP method
+     * @param uri the endpoint, preferably the pattern the request was mapped to
+     * @param user an identifier of the user, such as the session ID
+     */
+    public void record(String method, String uri, String user) {
+        usersByEndpoint
+                .get(new Endpoint(method, uri), k -> new EndpointUsers())
+                .offer(user, currentHour());
+    }
+
+    /**
+     * Estimates the distinct users of all matching endpoints together.
+     *
+     * @param method the HTTP method
+     * @param uriFilter selects the endpoints to count
+     * @param window the time span to count
+     * @return the estimated number of distinct users
+     */
+    public long countUsers(String method, Predicate<String> uriFilter, Window window) {
+        HyperLogLog union = new HyperLogLog();
+        long hour = currentHour();
+        usersByEndpoint
+                .asMap()
+                .forEach(
+                        (endpoint, users) -> {
+                            if (endpoint.method().equals(method)
+                                    && uriFilter.test(endpoint.uri())) {
+                                users.mergeInto(union, window, hour);
+                            }
+                        });
+        return union.estimate();
+    }
+
+    /**
+     * Estimates the distinct users of each endpoint.
+     *
+     * @param method the HTTP method
+     * @param window the time span to count
+     * @return the estimated number of distinct users by URI, endpoints without users are left out
+     */
+    public Map<String, Long> countUsersByEndpoint(String method, Window window) {
+        Map<String, Long> counts = new HashMap<>();
+        long hour = currentHour();
+        usersByEndpoint
+                .asMap()
+                .forEach(
+                        (endpoint, users) -> {
+                            if (!endpoint.method().equals(method)) {
+                                return;
+                            }
+                            HyperLogLog sketch = new HyperLogLog();
+                            users.mergeInto(sketch, window, hour);
+                            long count = sketch.estimate();
+                            if (count > 0) {
+                                counts.put(endpoint.uri(), count);
+                            }
+                        });
+        return counts;
+    }
+
+    private long currentHour() {
+        return clock.millis() / MILLIS_PER_HOUR;
+    }
+}
@@ -0,0 +1,342 @@
+package stirling.software.SPDF.utils.text;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import lombok.extern.slf4j.Slf4j;
+
+import stirling.software.common.util.RegexPatternUtils;
+
+/**
+ * Matches a set of search terms against a text in a single pass, case-insensitively.
+ *
+ * <p>Literal terms are matched with an Aho-Corasick automaton, so the cost of a scan does not grow
+ * with the number of terms. Each term reports the same leftmost, non-overlapping matches a separate
+ * {@code \Q term \E} regex would, while matches of different terms may overlap, exactly as when
+ * every term was searched on its own.
+ *
+ * <p>Regex terms keep their own patterns so their semantics do not change, but a combined
+ * alternation of all of them is tried first and text that matches none of them is skipped in one
+ * scan.
+ *
+ * <p>Instances are immutable and can be shared between threads.
+ */
+@Slf4j
+public class MultiPatternMatcher {
+
+    /** How whole-word matches of single character terms are delimited. */
+    public enum WordBoundaries {
+        /** Not adjacent to a word character. */
+        STANDARD,
+        /** As {@link #STANDARD}, and a single digit must not be part of a number like 1.5 */
+        NUMBER_AWARE
+    }
+
+    /**
+     * A match in the scanned text.
+     *
+     * @param start index of the first matched character
+     * @param end index after the last matched character
+     * @param text the matched text
+     */
+    public record Match(int start, int end, String text) {}
+
+    private static final Comparator<Match> MATCH_ORDER =
+            Comparator.comparingInt(Match::start).thenComparingInt(Match::end);
+
+    // Whole words of literal terms are checked with the same flags as the per-term regexes, so
+    // \b and \w mean the same here on every JDK (newer ones no longer treat all letters as word
+    // characters for \b unless UNICODE_CHARACTER_CLASS is set)
+    private static final Pattern BOUNDARY =
+            RegexPatternUtils.getInstance().createSearchPattern("\\b", true);
+    private static final Pattern WORD_CHAR =
+            RegexPatternUtils.getInstance().createSearchPattern("\\w", true);
+
+    private final boolean wholeWordSearch;
+    private final WordBoundaries wordBoundaries;
+
+    // Literal mode: Aho-Corasick automaton over case-folded terms
+    private final List<String> terms = new ArrayList<>();
+    private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+    private final List<int[]> outputs = new ArrayList<>();
+    private int[] failure = new int[0];
+
+    // Regex mode
+    private final List<Pattern> patterns = new ArrayList<>();
+    private final Pattern combinedPattern;
+
+    private MultiPatternMatcher(
+            Collection<String> searchTerms,
+            boolean useRegex,
+            boolean wholeWordSearch,
+            WordBoundaries wordBoundaries) {
+        this.wholeWordSearch = wholeWordSearch;
+        this.wordBoundaries = wordBoundaries;
+
+        Set<String> uniqueTerms = new LinkedHashSet<>();
+        for (String term : searchTerms) {
+            if (term != null && !term.trim().isEmpty()) {
+                uniqueTerms.add(useRegex ? term.trim() : fold(term.trim()));
+            }
+        }
+
+        if (useRegex) {
+            for (String term : uniqueTerms) {
+                try {
+                    String regex = wholeWordSearch ? applyWordBoundaries(term, term) : term;
+                    patterns.add(RegexPatternUtils.getInstance().createSearchPattern(regex, true));
+                } catch (PatternSyntaxException e) {
+                    log.warn("Failed to create pattern for term '{}': {}", term, e.getMessage());
+                }
+            }
+            combinedPattern = combine(patterns);
+        } else {
+            terms.addAll(uniqueTerms);
+            buildAutomaton();
+            combinedPattern = null;
+        }
+    }
+
+    /**
+     * @param searchTerms the terms to search for, blank terms are ignored
+     * @param useRegex treat the terms as regular expressions
+     * @param wholeWordSearch only match whole words
+     * @param wordBoundaries how single character terms are delimited in whole word mode
+     */
+    public static MultiPatternMatcher create(
+            Collection<String> searchTerms,
+            boolean useRegex,
+            boolean wholeWordSearch,
+            WordBoundaries wordBoundaries) {
+        return new MultiPatternMatcher(searchTerms, useRegex, wholeWordSearch, wordBoundaries);
+    }
+
+    /**
+     * @return true if there is no usable term, so nothing can ever match
+     */
+    public boolean isEmpty() {
+        return terms.isEmpty() && patterns.isEmpty();
+    }
+
+    /**
+     * Finds the matches of all terms.
+     *
+     * @param text the text to scan
+     * @return the matches ordered by position
+     */
+    public List<Match> findAll(CharSequence text) {
+        if (text == null || text.isEmpty() || isEmpty()) {
+            return List.of();
+        }
+        List<Match> matches = patterns.isEmpty() ? findLiterals(text) : findPatterns(text);
+        matches.sort(MATCH_ORDER);
+        return matches;
+    }
+
+    private List<Match> findLiterals(CharSequence text) {
+        List<Match> matches = new ArrayList<>();
+        // End of the last accepted match per term, so each term's matches never overlap
+        int[] lastEnd = new int[terms.size()];
+        WordMatcher words = wholeWordSearch ? new WordMatcher(text) : null;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = fold(text.charAt(i));
+            Integer next;
+            while ((next = transitions.get(state).get(c)) == null && state != 0) {
+                state = failure[state];
+            }
+            state = next == null ? 0 : next;
+
+            for (int termIndex : outputs.get(state)) {
+                int end = i + 1;
+                int start = end - terms.get(termIndex).length();
+                if (start < lastEnd[termIndex]) {
+                    continue;
+                }
+                if (wholeWordSearch && !isWholeWord(text, words, start, end)) {
+                    continue;
+                }
+                lastEnd[termIndex] = end;
+                matches.add(new Match(start, end, text.subSequence(start, end).toString()));
+            }
+        }
+        return matches;
+    }
+
+    private List<Match> findPatterns(CharSequence text) {
+        List<Match> matches = new ArrayList<>();
+        if (combinedPattern != null && !combinedPattern.matcher(text).find()) {
+            return matches;
+        }
+        for (Pattern pattern : patterns) {
+            try {
+                Matcher matcher = pattern.matcher(text);
+                while (matcher.find()) {
+                    matches.add(new Match(matcher.start(), matcher.end(), matcher.group()));
+                }
+            } catch (Exception e) {
+                log.debug(
+                        "Pattern matching failed for pattern {}: {}",
+                        pattern.pattern(),
+                        e.getMessage());
+            }
+        }
+        return matches;
+    }
+
+    private void buildAutomaton() {
+        transitions.add(new HashMap<>());
+        List<List<Integer>> nodeTerms = new ArrayList<>();
+        nodeTerms.add(new ArrayList<>());
+
+        for (int termIndex = 0; termIndex < terms.size(); termIndex++) {
+            String term = terms.get(termIndex);
+            int state = 0;
+            for (int i = 0; i < term.length(); i++) {
+                Integer next = transitions.get(state).get(term.charAt(i));
+                if (next == null) {
+                    next = transitions.size();
+                    transitions.add(new HashMap<>());
+                    nodeTerms.add(new ArrayList<>());
+                    transitions.get(state).put(term.charAt(i), next);
+                }
+                state = next;
+            }
+            nodeTerms.get(state).add(termIndex);
+        }
+
+        // Breadth-first so every failure target is complete before it is inherited
+        failure = new int[transitions.size()];
+        Queue<Integer> queue = new ArrayDeque<>(transitions.get(0).values());
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (Map.Entry<Character, Integer> edge : transitions.get(state).entrySet()) {
+                int child = edge.getValue();
+                int fallback = failure[state];
+                Integer target;
+                while ((target = transitions.get(fallback).get(edge.getKey())) == null
+                        && fallback != 0) {
+                    fallback = failure[fallback];
+                }
+                failure[child] = target == null || target == child ? 0 : target;
+                nodeTerms.get(child).addAll(nodeTerms.get(failure[child]));
+                queue.add(child);
+            }
+        }
+
+        for (List<Integer> termIndexes : nodeTerms) {
+            outputs.add(termIndexes.stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+
+    // Same rules as the regex lookarounds used for whole word searches
+    private boolean isWholeWord(CharSequence text, WordMatcher words, int start, int end) {
+        if (end - start > 1) {
+            // \b on both sides
+            return words.isBoundary(start) && words.isBoundary(end);
+        }
+        boolean wordBefore = start > 0 && words.isWordChar(start - 1);
+        boolean wordAfter = end < text.length() && words.isWordChar(end);
+        if (wordBefore || wordAfter) {
+            return false;
+        }
+        if (wordBoundaries == WordBoundaries.NUMBER_AWARE
+                && Character.isDigit(text.charAt(start))) {
+            boolean numberBefore =
+                    start > 1
+                            && isDecimalSeparator(text.charAt(start - 1))
+                            && Character.isDigit(text.charAt(start - 2));
+            boolean numberAfter =
+                    end + 1 < text.length()
+                            && isDecimalSeparator(text.charAt(end))
+                            && Character.isDigit(text.charAt(end + 1));
+            return !numberBefore && !numberAfter;
+        }
+        return true;
+    }
+
+    private String applyWordBoundaries(String term, String regex) {
+        if (term.length() == 1
+                && Character.isDigit(term.charAt(0))
+                && wordBoundaries == WordBoundaries.NUMBER_AWARE) {
+            return "(?<![\\w])(?<!\\d[\\.,])" + regex + "(?![\\w])(?![\\.,]\\d)";
+        } else if (term.length() == 1) {
+            return "(?<![\\w])" + regex + "(?![\\w])";
+        }
+        return "\\b" + regex + "\\b";
+    }
+
+    // Alternation of all patterns, or null if they cannot be combined safely
+    private static Pattern combine(List<Pattern> patterns) {
+        if (patterns.size() < 2) {
+            return null;
+        }
+        StringBuilder combined = new StringBuilder();
+        for (Pattern pattern : patterns) {
+            String regex = pattern.pattern();
+            // Group numbers and names would shift or clash in the alternation
+            if (regex.matches("(?s).*\\\\(\\d|k<).*")) {
+                return null;
+            }
+            if (!combined.isEmpty()) {
+                combined.append('|');
+            }
+            combined.append("(?:").append(regex).append(')');
+        }
+        try {
+            return RegexPatternUtils.getInstance().createSearchPattern(combined.toString(), true);
+        } catch (PatternSyntaxException e) {
+            return null;
+        }
+    }
+
+    // Tests \b and \w at single positions of one text, reusing its matchers
+    private static class WordMatcher {
+        private final int length;
+        private final Matcher boundary;
+        private final Matcher wordChar;
+
+        WordMatcher(CharSequence text) {
+            length = text.length();
+            // Transparent bounds let \b look at the character before the region
+            boundary = BOUNDARY.matcher(text).useTransparentBounds(true).useAnchoringBounds(false);
+            wordChar = WORD_CHAR.matcher(text);
+        }
+
+        boolean isBoundary(int index) {
+            return boundary.region(index, length).lookingAt();
+        }
+
+        boolean isWordChar(int index) {
+            return wordChar.region(index, index + 1).lookingAt();
+        }
+    }
+
+    private static boolean isDecimalSeparator(char c) {
+        return c == '.' || c == ',';
+    }
+
+    // Case folding as done by CASE_INSENSITIVE | UNICODE_CASE for single characters
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static String fold(String term) {
+        StringBuilder folded = new StringBuilder(term.length());
+        for (int i = 0; i < term.length(); i++) {
+            folded.append(fold(term.charAt(i)));
+        }
+        return folded.toString();
+    }
+}
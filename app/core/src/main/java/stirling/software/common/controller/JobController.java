@@ -1,9 +1,16 @@
 package stirling.software.common.controller;
 
+import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -12,10 +19,12 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import jakarta.annotation.PreDestroy;
 import jakarta.servlet.http.HttpServletRequest;
 
 import lombok.RequiredArgsConstructor;
@@ -26,6 +35,8 @@ import stirling.software.common.model.job.ResultFile;
 import stirling.software.common.service.FileStorage;
 import stirling.software.common.service.JobQueue;
 import stirling.software.common.service.TaskManager;
+import stirling.software.common.util.ExecutorFactory;
+import stirling.software.common.util.ProcessExecutor;
 import stirling.software.common.util.RegexPatternUtils;
 
 /** REST controller for job-related endpoints */
@@ -36,11 +47,16 @@ import stirling.software.common.util.RegexPatternUtils;
 @Tag(name = "Job Management", description = "Job Management API")
 public class JobController {
 
+    private static final long JOB_EVENTS_TIMEOUT_MS = 30 * 60 * 1000L;
+
     private final TaskManager taskManager;
     private final FileStorage fileStorage;
     private final JobQueue jobQueue;
     private final HttpServletRequest request;
 
+    // Writes job events to the clients, off the threads that change the jobs
+    private final ExecutorService eventSender = ExecutorFactory.newVirtualOrCachedThreadExecutor();
+
     /**
      * Get the status of a job
      *
@@ -70,6 +86,34 @@ public class JobController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Stream the status of a job as server-sent events. A {@code progress} event with the job is
+     * sent right away and after every change, and a final {@code complete} event once the job has
+     * finished, after which the stream is closed.
+     *
+     * @param jobId The job ID
+     * @return The event stream
+     */
+    @GetMapping(value = "/job/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream job progress")
+    public ResponseEntity<SseEmitter> streamJobEvents(@PathVariable("jobId") String jobId) {
+        JobResult result = taskManager.getJobResult(jobId);
+        if (result == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        SseEmitter emitter = new SseEmitter(JOB_EVENTS_TIMEOUT_MS);
+        JobEventStream stream = new JobEventStream(emitter, eventSender);
+        emitter.onCompletion(stream::close);
+        emitter.onTimeout(stream::close);
+        emitter.onError(e -> stream.close());
+        stream.attach(taskManager.subscribe(jobId, stream));
+
+        // Changes made before subscribing are covered by sending the current state
+        stream.accept(taskManager.getJobResult(jobId));
+        return ResponseEntity.ok(emitter);
+    }
+
     /**
      * Get the result of a job
      *
@@ -172,6 +216,8 @@ public class JobController {
             if (result != null && !result.isComplete()) {
                 // Mark as error with cancellation message
                 taskManager.setError(jobId, "Job was cancelled by user");
+                // Stop any external tool still working for the job
+                ProcessExecutor.cancelJob(jobId);
                 cancelled = true;
                 log.info("Marked job as cancelled in TaskManager: {}", jobId);
             }
@@ -311,6 +357,106 @@ public class JobController {
         }
     }
 
+    /** Stop sending job events */
+    @PreDestroy
+    public void shutdown() {
+        eventSender.shutdownNow();
+    }
+
+    /**
+     * Sends the changes of one job to a client until the job is complete. Changes are queued and
+     * written by the event sender, so a slow client never holds up the thread that changed the job.
+     * When the client falls behind, the oldest pending progress events are dropped; the complete
+     * event is always sent.
+     */
+    private static class JobEventStream implements Consumer<JobResult> {
+
+        private static final int MAX_PENDING_EVENTS = 8;
+
+        private final SseEmitter emitter;
+        private final Executor sender;
+        private final Deque<SseEmitter.SseEventBuilder> pending = new ArrayDeque<>();
+        private Runnable unsubscribe;
+        private boolean sending;
+        private boolean completing;
+        private boolean closed;
+
+        JobEventStream(SseEmitter emitter, Executor sender) {
+            this.emitter = emitter;
+            this.sender = sender;
+        }
+
+        synchronized void attach(Runnable unsubscribe) {
+            this.unsubscribe = unsubscribe;
+            if (closed) {
+                unsubscribe.run();
+            }
+        }
+
+        @Override
+        public void accept(JobResult job) {
+            synchronized (this) {
+                if (closed || completing || job == null) {
+                    return;
+                }
+                if (job.isComplete()) {
+                    completing = true;
+                    pending.add(SseEmitter.event().name("complete").data(job));
+                } else {
+                    if (pending.size() >= MAX_PENDING_EVENTS) {
+                        pending.poll();
+                    }
+                    pending.add(SseEmitter.event().name("progress").data(job));
+                }
+                if (sending) {
+                    return;
+                }
+                sending = true;
+            }
+            try {
+                sender.execute(() -> sendPending(job.getJobId()));
+            } catch (RejectedExecutionException e) {
+                log.debug("Stopped streaming job {}: {}", job.getJobId(), e.getMessage());
+                close();
+            }
+        }
+
+        private void sendPending(String jobId) {
+            while (true) {
+                SseEmitter.SseEventBuilder event;
+                boolean last;
+                synchronized (this) {
+                    event = closed ? null : pending.poll();
+                    if (event == null) {
+                        sending = false;
+                        return;
+                    }
+                    last = completing && pending.isEmpty();
+                }
+                try {
+                    emitter.send(event);
+                    if (last) {
+                        close();
+                        emitter.complete();
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // The client has gone away
+                    log.debug("Stopped streaming job {}: {}", jobId, e.getMessage());
+                    close();
+                }
+            }
+        }
+
+        synchronized void close() {
+            closed = true;
+            pending.clear();
+            if (unsubscribe != null) {
+                unsubscribe.run();
+                unsubscribe = null;
+            }
+        }
+    }
+
     /**
      * Create Content-Disposition header with UTF-8 filename support
      *
@@ -0,0 +1,75 @@
+package stirling.software.SPDF.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import jakarta.servlet.FilterChain;
+
+import stirling.software.SPDF.service.UniqueUserTracker;
+
+class MetricsFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private UniqueUserTracker uniqueUserTracker;
+    private MetricsFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        uniqueUserTracker = mock(UniqueUserTracker.class);
+        filter = new MetricsFilter(meterRegistry, uniqueUserTracker);
+    }
+
+    @Test
+    void requestsAreCountedByMappedPattern() throws Exception {
+        MockHttpServletRequest request =
+                new MockHttpServletRequest("GET", "/api/v1/general/job/1234");
+        FilterChain chain =
+                (req, res) ->
+                        req.setAttribute(
+                                HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                                "/api/v1/general/job/{jobId}");
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNotNull(
+                meterRegistry
+                        .find("http.requests")
+                        .tag("uri", "/api/v1/general/job/{jobId}")
+                        .counter());
+        verify(uniqueUserTracker).record("GET", "/api/v1/general/job/{jobId}", "no-session");
+    }
+
+    @Test
+    void unmappedRequestsShareOneEndpoint() throws Exception {
+        FilterChain chain = (req, res) -> {};
+
+        filter.doFilter(
+                new MockHttpServletRequest("GET", "/made-up-1"),
+                new MockHttpServletResponse(),
+                chain);
+        filter.doFilter(
+                new MockHttpServletRequest("GET", "/made-up-2"),
+                new MockHttpServletResponse(),
+                chain);
+
+        assertEquals(1, meterRegistry.find("http.requests").counters().size());
+        assertEquals(
+                2.0,
+                meterRegistry
+                        .find("http.requests")
+                        .tag("uri", MetricsFilter.UNMATCHED_ENDPOINT)
+                        .counter()
+                        .count());
+    }
+}
@@ -0,0 +1,164 @@
+package stirling.software.SPDF.controller.api.misc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+
+import stirling.software.SPDF.config.EndpointConfiguration;
+import stirling.software.SPDF.model.api.misc.OptimizePdfRequest;
+import stirling.software.common.service.CustomPDFDocumentFactory;
+import stirling.software.common.service.ProgressReporter;
+
+@ExtendWith(MockitoExtension.class)
+class CompressControllerTest {
+
+    @Mock private CustomPDFDocumentFactory pdfDocumentFactory;
+
+    @Mock private EndpointConfiguration endpointConfiguration;
+
+    @Mock private ProgressReporter progressReporter;
+
+    @TempDir Path tempDir;
+
+    private CompressController compressController;
+
+    @BeforeEach
+    void setUp() {
+        compressController =
+                spy(
+                        new CompressController(
+                                pdfDocumentFactory, endpointConfiguration, progressReporter));
+    }
+
+    @Test
+    void sizeModelPredictsFixedBytesPlusScaledImageBytes() {
+        CompressController.SizeModel model =
+                new CompressController.SizeModel(1000, 9000, new double[] {0.8, 0.5, 0.2});
+
+        assertEquals(8200, model.predict(0, 1.0));
+        assertEquals(5500, model.predict(1, 1.0));
+        assertEquals(6600, model.predict(1, 1.2));
+    }
+
+    @Test
+    void sizeModelChoosesTheMildestPointThatMeetsTheTarget() {
+        CompressController.SizeModel model =
+                new CompressController.SizeModel(1000, 9000, new double[] {0.8, 0.5, 0.2});
+
+        assertEquals(0, model.choose(9000, 1.0));
+        assertEquals(1, model.choose(6000, 1.0));
+        // The correction shifts the choice to a stronger point
+        assertEquals(2, model.choose(6000, 1.2));
+        // Nothing meets the target, so the strongest point is used
+        assertEquals(2, model.choose(100, 1.0));
+    }
+
+    private OptimizePdfRequest autoRequest(int inputBytes, String expectedOutputSize) {
+        OptimizePdfRequest request = new OptimizePdfRequest();
+        request.setFileInput(
+                new MockMultipartFile(
+                        "fileInput",
+                        "test.pdf",
+                        MediaType.APPLICATION_PDF_VALUE,
+                        new byte[inputBytes]));
+        request.setExpectedOutputSize(expectedOutputSize);
+        return request;
+    }
+
+    private Path fileOfSize(String name, int size) throws Exception {
+        Path file = tempDir.resolve(name);
+        Files.write(file, new byte[size]);
+        return file;
+    }
+
+    private PDDocument onePageDocument() {
+        PDDocument document = new PDDocument();
+        document.addPage(new PDPage());
+        return document;
+    }
+
+    @Test
+    void predictionHitSkipsTheLevelLoop() throws Exception {
+        OptimizePdfRequest request = autoRequest(10_000, "5KB");
+        CompressController.SizeModel model =
+                new CompressController.SizeModel(1000, 9000, new double[] {0.3});
+        model.lastPrediction = 3700;
+        doReturn(model).when(compressController).buildSizeModel(any(), anyLong(), anyBoolean());
+        doReturn(fileOfSize("predicted.pdf", 4000))
+                .when(compressController)
+                .compressToPredictedSize(any(), any(), any(), anyLong(), anyBoolean(), any());
+        when(pdfDocumentFactory.load(any(File.class))).thenReturn(onePageDocument());
+
+        ResponseEntity<byte[]> response = compressController.optimizePdf(request);
+
+        verify(compressController, never())
+                .compressImagesInPDF(any(), anyDouble(), anyFloat(), anyBoolean());
+        // The external tools still get their pass over the predicted output
+        verify(endpointConfiguration, atLeastOnce()).isGroupEnabled("Ghostscript");
+        assertEquals("3700", response.getHeaders().getFirst("X-Predicted-Output-Size"));
+    }
+
+    @Test
+    void predictionMissFallsBackToTheLevelLoopFromTheOriginal() throws Exception {
+        OptimizePdfRequest request = autoRequest(10_000, "5KB");
+        CompressController.SizeModel model =
+                new CompressController.SizeModel(1000, 9000, new double[] {0.3});
+        Path predictedFile = fileOfSize("predicted.pdf", 8000);
+        doReturn(model).when(compressController).buildSizeModel(any(), anyLong(), anyBoolean());
+        doReturn(predictedFile)
+                .when(compressController)
+                .compressToPredictedSize(any(), any(), any(), anyLong(), anyBoolean(), any());
+        doReturn(fileOfSize("level.pdf", 3000))
+                .when(compressController)
+                .compressImagesInPDF(any(), anyDouble(), anyFloat(), anyBoolean());
+        when(pdfDocumentFactory.load(any(File.class))).thenReturn(onePageDocument());
+
+        ResponseEntity<byte[]> response = compressController.optimizePdf(request);
+
+        // The loop starts over from a copy of the original, not from the missed prediction
+        verify(compressController)
+                .compressImagesInPDF(
+                        argThat(
+                                (Path path) ->
+                                        !path.equals(predictedFile)
+                                                && path.getFileName()
+                                                        .toString()
+                                                        .startsWith("working_")),
+                        eq(0.9),
+                        eq(0.7f),
+                        eq(false));
+        assertNull(response.getHeaders().getFirst("X-Predicted-Output-Size"));
+    }
+
+    @Test
+    void noSizeModelUsesTheLevelLoop() throws Exception {
+        OptimizePdfRequest request = autoRequest(10_000, "5KB");
+        doReturn(null).when(compressController).buildSizeModel(any(), anyLong(), anyBoolean());
+        doReturn(fileOfSize("level.pdf", 3000))
+                .when(compressController)
+                .compressImagesInPDF(any(), anyDouble(), anyFloat(), anyBoolean());
+        when(pdfDocumentFactory.load(any(File.class))).thenReturn(onePageDocument());
+
+        compressController.optimizePdf(request);
+
+        verify(compressController, never())
+                .compressToPredictedSize(any(), any(), any(), anyLong(), anyBoolean(), any());
+        verify(compressController).compressImagesInPDF(any(), eq(0.9), eq(0.7f), eq(false));
+    }
+}
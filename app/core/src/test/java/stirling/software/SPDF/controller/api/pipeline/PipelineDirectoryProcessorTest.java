@@ -0,0 +1,113 @@
+package stirling.software.SPDF.controller.api.pipeline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import stirling.software.SPDF.service.ApiDocService;
+import stirling.software.common.configuration.RuntimePathConfig;
+import stirling.software.common.model.ApplicationProperties;
+import stirling.software.common.service.PostHogService;
+import stirling.software.common.util.FileMonitor;
+
+@ExtendWith(MockitoExtension.class)
+class PipelineDirectoryProcessorTest {
+
+    @TempDir Path tempDir;
+
+    @Mock ApiDocService apiDocService;
+
+    @Mock PipelineProcessor processor;
+
+    @Mock FileMonitor fileMonitor;
+
+    @Mock PostHogService postHogService;
+
+    @Mock RuntimePathConfig runtimePathConfig;
+
+    ApplicationProperties applicationProperties = new ApplicationProperties();
+
+    PipelineDirectoryProcessor directoryProcessor;
+
+    @BeforeEach
+    void setUp() {
+        when(runtimePathConfig.getPipelineWatchedFoldersPath()).thenReturn(tempDir.toString());
+        applicationProperties.getSystem().getPipeline().setWatchedFolderWorkers(4);
+        directoryProcessor =
+                spy(
+                        new PipelineDirectoryProcessor(
+                                new ObjectMapper(),
+                                apiDocService,
+                                processor,
+                                fileMonitor,
+                                postHogService,
+                                runtimePathConfig,
+                                applicationProperties));
+    }
+
+    @AfterEach
+    void tearDown() {
+        directoryProcessor.shutdown();
+    }
+
+    @Test
+    void directoriesAreHandledInParallelButNeverConcurrentlyWithThemselves() throws Exception {
+        Path first = Files.createDirectory(tempDir.resolve("first"));
+        Path second = Files.createDirectory(tempDir.resolve("second"));
+
+        Map<Path, AtomicInteger> running = new ConcurrentHashMap<>();
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch handled = new CountDownLatch(3);
+        doAnswer(
+                        invocation -> {
+                            Path dir = invocation.getArgument(0);
+                            if (running.computeIfAbsent(dir, d -> new AtomicInteger())
+                                            .incrementAndGet()
+                                    > 1) {
+                                overlaps.incrementAndGet();
+                            }
+                            bothStarted.countDown();
+                            release.await(5, TimeUnit.SECONDS);
+                            running.get(dir).decrementAndGet();
+                            handled.countDown();
+                            return null;
+                        })
+                .when(directoryProcessor)
+                .handleDirectory(any());
+
+        directoryProcessor.start();
+        directoryProcessor.submitDirectory(first);
+        directoryProcessor.submitDirectory(second);
+        // New files while "first" is queued or running only trigger one more pass
+        directoryProcessor.submitDirectory(first);
+        directoryProcessor.submitDirectory(first);
+
+        assertTrue(bothStarted.await(5, TimeUnit.SECONDS), "Directories should run in parallel");
+        release.countDown();
+        assertTrue(handled.await(5, TimeUnit.SECONDS), "Directories should be handled");
+        assertEquals(0, overlaps.get(), "A directory must not be handled concurrently");
+        verify(directoryProcessor, timeout(1000).times(2)).handleDirectory(first);
+        verify(directoryProcessor, times(1)).handleDirectory(second);
+    }
+}
@@ -1,13 +1,21 @@
 package stirling.software.SPDF.controller.api.pipeline;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
+import org.apache.pdfbox.pdmodel.PDDocument;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,8 +23,10 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MultiValueMap;
 
 import jakarta.servlet.ServletContext;
 
@@ -24,7 +34,12 @@ import stirling.software.SPDF.model.PipelineConfig;
 import stirling.software.SPDF.model.PipelineOperation;
 import stirling.software.SPDF.model.PipelineResult;
 import stirling.software.SPDF.service.ApiDocService;
+import stirling.software.common.model.ApplicationProperties;
+import stirling.software.common.service.CustomPDFDocumentFactory;
+import stirling.software.common.service.ResourceMonitor;
+import stirling.software.common.service.ResourceMonitor.ResourceStatus;
 import stirling.software.common.service.UserServiceInterface;
+import stirling.software.common.util.TempFileManager;
 
 @ExtendWith(MockitoExtension.class)
 class PipelineProcessorTest {
@@ -35,11 +50,31 @@ class PipelineProcessorTest {
 
     @Mock ServletContext servletContext;
 
+    @Mock TempFileManager tempFileManager;
+
+    @Mock PipelineOperationInvoker operationInvoker;
+
+    @Mock CustomPDFDocumentFactory pdfDocumentFactory;
+
+    @Mock ResourceMonitor resourceMonitor;
+
+    ApplicationProperties applicationProperties = new ApplicationProperties();
+
     PipelineProcessor pipelineProcessor;
 
     @BeforeEach
     void setUp() {
-        pipelineProcessor = spy(new PipelineProcessor(apiDocService, userService, servletContext));
+        pipelineProcessor =
+                spy(
+                        new PipelineProcessor(
+                                apiDocService,
+                                userService,
+                                servletContext,
+                                null,
+                                tempFileManager,
+                                applicationProperties,
+                                pdfDocumentFactory,
+                                null));
     }
 
     @Test
@@ -78,4 +113,326 @@ class PipelineProcessorTest {
         assertFalse(result.isHasErrors(), "No errors should occur");
         assertTrue(result.getOutputFiles().isEmpty(), "Filtered file list should be empty");
     }
+
+    @Test
+    void runPipelineInvokesSupportedOperationInProcess() throws Exception {
+        pipelineProcessor =
+                spy(
+                        new PipelineProcessor(
+                                apiDocService,
+                                userService,
+                                servletContext,
+                                operationInvoker,
+                                tempFileManager,
+                                applicationProperties,
+                                pdfDocumentFactory,
+                                null));
+
+        PipelineOperation op = new PipelineOperation();
+        op.setOperation("/api/v1/filter/filter-page-count");
+        op.setParameters(Map.of());
+        PipelineConfig config = new PipelineConfig();
+        config.setOperations(List.of(op));
+
+        Resource file =
+                new ByteArrayResource("data".getBytes()) {
+                    @Override
+                    public String getFilename() {
+                        return "test.pdf";
+                    }
+                };
+
+        when(apiDocService.isMultiInput("/api/v1/filter/filter-page-count")).thenReturn(false);
+        when(apiDocService.getExtensionTypes(false, "/api/v1/filter/filter-page-count"))
+                .thenReturn(List.of("pdf"));
+        when(apiDocService.isValidOperation(eq("/api/v1/filter/filter-page-count"), anyMap()))
+                .thenReturn(true);
+        when(operationInvoker.supports("/api/v1/filter/filter-page-count")).thenReturn(true);
+        when(operationInvoker.invoke(eq("/api/v1/filter/filter-page-count"), any()))
+                .thenReturn(new ResponseEntity<>(new byte[0], HttpStatus.OK));
+
+        PipelineResult result = pipelineProcessor.runPipelineAgainstFiles(List.of(file), config);
+
+        verify(pipelineProcessor, never()).sendWebRequest(anyString(), any());
+        assertTrue(result.isFiltersApplied(), "In-process filter result should be honoured");
+        assertFalse(result.isHasErrors(), "No errors should occur");
+    }
+
+    @Test
+    void runPipelineFusesConsecutiveDocumentOperations() throws Exception {
+        pipelineProcessor =
+                spy(
+                        new PipelineProcessor(
+                                apiDocService,
+                                userService,
+                                servletContext,
+                                operationInvoker,
+                                tempFileManager,
+                                applicationProperties,
+                                pdfDocumentFactory,
+                                null));
+
+        PipelineOperation rotate = new PipelineOperation();
+        rotate.setOperation("/api/v1/general/rotate-pdf");
+        rotate.setParameters(Map.of("angle", 90));
+        PipelineOperation pageNumbers = new PipelineOperation();
+        pageNumbers.setOperation("/api/v1/misc/add-page-numbers");
+        pageNumbers.setParameters(Map.of());
+        PipelineConfig config = new PipelineConfig();
+        config.setOperations(List.of(rotate, pageNumbers));
+
+        Resource file =
+                new ByteArrayResource("data".getBytes()) {
+                    @Override
+                    public String getFilename() {
+                        return "test.pdf";
+                    }
+                };
+
+        PDDocument document = mock(PDDocument.class);
+        File outputFile = File.createTempFile("pipeline-test", ".pdf");
+        outputFile.deleteOnExit();
+
+        when(apiDocService.isMultiInput(anyString())).thenReturn(false);
+        when(apiDocService.isValidOperation(anyString(), anyMap())).thenReturn(true);
+        when(operationInvoker.isEnabled(anyString())).thenReturn(true);
+        when(operationInvoker.supportsDocumentOperation(anyString())).thenReturn(true);
+        when(apiDocService.getExtensionTypes(false, "/api/v1/general/rotate-pdf"))
+                .thenReturn(List.of("pdf"));
+        when(operationInvoker.applyDocumentOperation(anyString(), eq(document), any()))
+                .thenReturn(document);
+        when(operationInvoker.getOutputFilename("/api/v1/general/rotate-pdf", "test.pdf"))
+                .thenReturn("test_rotated.pdf");
+        when(operationInvoker.getOutputFilename("/api/v1/misc/add-page-numbers", "test.pdf"))
+                .thenReturn("test_page_numbers_added.pdf");
+        when(pdfDocumentFactory.load(any(InputStream.class))).thenReturn(document);
+        when(tempFileManager.createTempFile(anyString())).thenReturn(outputFile);
+
+        PipelineResult result = pipelineProcessor.runPipelineAgainstFiles(List.of(file), config);
+
+        verify(pdfDocumentFactory, times(1)).load(any(InputStream.class));
+        verify(operationInvoker, times(2)).applyDocumentOperation(anyString(), eq(document), any());
+        verify(document, times(1)).save(outputFile);
+        verify(pipelineProcessor, never()).sendWebRequest(anyString(), any());
+        assertFalse(result.isHasErrors(), "No errors should occur");
+        assertEquals(1, result.getOutputFiles().size());
+        // Named like the HTTP path names the same steps
+        assertEquals("test_page_numbers.pdf", result.getOutputFiles().get(0).getFilename());
+    }
+
+    private PipelineConfig fusableConfig() {
+        pipelineProcessor =
+                spy(
+                        new PipelineProcessor(
+                                apiDocService,
+                                userService,
+                                servletContext,
+                                operationInvoker,
+                                tempFileManager,
+                                applicationProperties,
+                                pdfDocumentFactory,
+                                null));
+        PipelineOperation rotate = new PipelineOperation();
+        rotate.setOperation("/api/v1/general/rotate-pdf");
+        rotate.setParameters(Map.of("angle", 90));
+        PipelineOperation pageNumbers = new PipelineOperation();
+        pageNumbers.setOperation("/api/v1/misc/add-page-numbers");
+        pageNumbers.setParameters(Map.of());
+        PipelineConfig config = new PipelineConfig();
+        config.setOperations(List.of(rotate, pageNumbers));
+
+        when(apiDocService.isMultiInput(anyString())).thenReturn(false);
+        when(apiDocService.isValidOperation(anyString(), anyMap())).thenReturn(true);
+        when(operationInvoker.isEnabled(anyString())).thenReturn(true);
+        when(operationInvoker.supportsDocumentOperation(anyString())).thenReturn(true);
+        when(apiDocService.getExtensionTypes(false, "/api/v1/general/rotate-pdf"))
+                .thenReturn(List.of("pdf"));
+        return config;
+    }
+
+    @Test
+    void runPipelineFusedSkipsFilesTheFirstOperationDoesNotAccept() throws Exception {
+        PipelineConfig config = fusableConfig();
+        Resource file =
+                new ByteArrayResource("data".getBytes()) {
+                    @Override
+                    public String getFilename() {
+                        return "notes.txt";
+                    }
+                };
+
+        PipelineResult result = pipelineProcessor.runPipelineAgainstFiles(List.of(file), config);
+
+        verify(pdfDocumentFactory, never()).load(any(InputStream.class));
+        assertTrue(result.isHasErrors(), "A file of another type should be reported");
+        assertTrue(result.getOutputFiles().isEmpty());
+    }
+
+    @Test
+    void runPipelineFusedDeletesOutputFileWhenSaveFails() throws Exception {
+        PipelineConfig config = fusableConfig();
+        Resource file =
+                new ByteArrayResource("data".getBytes()) {
+                    @Override
+                    public String getFilename() {
+                        return "test.pdf";
+                    }
+                };
+        PDDocument document = mock(PDDocument.class);
+        File outputFile = File.createTempFile("pipeline-test", ".pdf");
+        outputFile.deleteOnExit();
+
+        when(operationInvoker.applyDocumentOperation(anyString(), eq(document), any()))
+                .thenReturn(document);
+        when(operationInvoker.getOutputFilename(anyString(), anyString()))
+                .thenReturn("test_rotated.pdf");
+        when(pdfDocumentFactory.load(any(InputStream.class))).thenReturn(document);
+        when(tempFileManager.createTempFile(anyString())).thenReturn(outputFile);
+        doThrow(new IOException("disk full")).when(document).save(outputFile);
+
+        assertThrows(
+                IOException.class,
+                () -> pipelineProcessor.runPipelineAgainstFiles(List.of(file), config));
+
+        verify(tempFileManager).deleteTempFile(outputFile);
+        verify(document).close();
+    }
+
+    @Test
+    void runPipelineDoesNotFuseDisabledOperations() throws Exception {
+        pipelineProcessor =
+                spy(
+                        new PipelineProcessor(
+                                apiDocService,
+                                userService,
+                                servletContext,
+                                operationInvoker,
+                                tempFileManager,
+                                applicationProperties,
+                                pdfDocumentFactory,
+                                null));
+
+        PipelineOperation rotate = new PipelineOperation();
+        rotate.setOperation("/api/v1/general/rotate-pdf");
+        rotate.setParameters(Map.of("angle", 90));
+        PipelineOperation pageNumbers = new PipelineOperation();
+        pageNumbers.setOperation("/api/v1/misc/add-page-numbers");
+        pageNumbers.setParameters(Map.of());
+        PipelineConfig config = new PipelineConfig();
+        config.setOperations(List.of(rotate, pageNumbers));
+
+        Resource file =
+                new ByteArrayResource("data".getBytes()) {
+                    @Override
+                    public String getFilename() {
+                        return "test.pdf";
+                    }
+                };
+
+        when(apiDocService.isMultiInput(anyString())).thenReturn(false);
+        when(apiDocService.getExtensionTypes(eq(false), anyString())).thenReturn(List.of("pdf"));
+        when(apiDocService.isValidOperation(anyString(), anyMap())).thenReturn(true);
+        when(operationInvoker.isEnabled(anyString())).thenReturn(false);
+        when(operationInvoker.supports(anyString())).thenReturn(true);
+        when(operationInvoker.invoke(eq("/api/v1/general/rotate-pdf"), any()))
+                .thenReturn(
+                        new ResponseEntity<>(
+                                "This endpoint is disabled".getBytes(), HttpStatus.FORBIDDEN));
+
+        PipelineResult result = pipelineProcessor.runPipelineAgainstFiles(List.of(file), config);
+
+        verify(operationInvoker, never()).applyDocumentOperation(anyString(), any(), any());
+        verify(pdfDocumentFactory, never()).load(any(InputStream.class));
+        assertTrue(result.isHasErrors(), "The disabled endpoint should be reported as an error");
+        assertTrue(result.getOutputFiles().isEmpty());
+    }
+
+    @Test
+    void runPipelineFansOutFilesAndKeepsInputOrder() throws Exception {
+        applicationProperties.getSystem().getPipeline().setMaxConcurrency(4);
+
+        PipelineOperation op = new PipelineOperation();
+        op.setOperation("/api/v1/general/rotate-pdf");
+        op.setParameters(Map.of("angle", 90));
+        PipelineConfig config = new PipelineConfig();
+        config.setOperations(List.of(op));
+
+        List<Resource> files = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            final String filename = "file" + i + ".pdf";
+            files.add(
+                    new ByteArrayResource(filename.getBytes()) {
+                        @Override
+                        public String getFilename() {
+                            return filename;
+                        }
+                    });
+        }
+
+        when(apiDocService.isMultiInput("/api/v1/general/rotate-pdf")).thenReturn(false);
+        when(apiDocService.getExtensionTypes(false, "/api/v1/general/rotate-pdf"))
+                .thenReturn(List.of("pdf"));
+        when(apiDocService.isValidOperation(eq("/api/v1/general/rotate-pdf"), anyMap()))
+                .thenReturn(true);
+        when(tempFileManager.createTempFile(anyString()))
+                .thenAnswer(
+                        invocation -> {
+                            File tempFile = File.createTempFile("pipeline-test", ".tmp");
+                            tempFile.deleteOnExit();
+                            return tempFile;
+                        });
+        doAnswer(
+                        invocation -> {
+                            MultiValueMap<String, Object> body = invocation.getArgument(1);
+                            Resource input = (Resource) body.getFirst("fileInput");
+                            // Finish the early files last so completion order differs from input
+                            // order
+                            int index = Integer.parseInt(input.getFilename().replaceAll("\\D", ""));
+                            Thread.sleep((8 - index) * 10L);
+                            return ResponseEntity.ok()
+                                    .header(
+                                            HttpHeaders.CONTENT_DISPOSITION,
+                                            "attachment; filename=" + input.getFilename())
+                                    .body(input.getContentAsByteArray());
+                        })
+                .when(pipelineProcessor)
+                .sendWebRequest(anyString(), any());
+
+        PipelineResult result = pipelineProcessor.runPipelineAgainstFiles(files, config);
+
+        assertFalse(result.isHasErrors(), "No errors should occur");
+        assertEquals(8, result.getOutputFiles().size());
+        for (int i = 0; i < 8; i++) {
+            Resource output = result.getOutputFiles().get(i);
+            assertEquals("file" + i + ".pdf", output.getFilename());
+            assertEquals("file" + i + ".pdf", new String(output.getContentAsByteArray()));
+        }
+    }
+
+    @Test
+    void resolveConcurrencyBacksOffUnderResourcePressure() {
+        pipelineProcessor =
+                new PipelineProcessor(
+                        apiDocService,
+                        userService,
+                        servletContext,
+                        null,
+                        tempFileManager,
+                        applicationProperties,
+                        pdfDocumentFactory,
+                        resourceMonitor);
+        applicationProperties.getSystem().getPipeline().setMaxConcurrency(8);
+        AtomicReference<ResourceStatus> status = new AtomicReference<>(ResourceStatus.OK);
+        when(resourceMonitor.getCurrentStatus()).thenReturn(status);
+
+        when(resourceMonitor.shouldQueueJob(50)).thenReturn(false);
+        assertEquals(8, pipelineProcessor.resolveConcurrency("/api/v1/misc/compress-pdf", 20));
+        assertEquals(3, pipelineProcessor.resolveConcurrency("/api/v1/misc/compress-pdf", 3));
+
+        when(resourceMonitor.shouldQueueJob(50)).thenReturn(true);
+        assertEquals(4, pipelineProcessor.resolveConcurrency("/api/v1/misc/compress-pdf", 20));
+
+        status.set(ResourceStatus.CRITICAL);
+        assertEquals(1, pipelineProcessor.resolveConcurrency("/api/v1/misc/compress-pdf", 20));
+    }
 }
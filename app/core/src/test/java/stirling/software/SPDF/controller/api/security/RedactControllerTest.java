@@ -48,6 +48,8 @@ import org.springframework.mock.web.MockMultipartFile;
 
 import stirling.software.SPDF.model.api.security.ManualRedactPdfRequest;
 import stirling.software.SPDF.model.api.security.RedactPdfRequest;
+import stirling.software.SPDF.utils.text.MultiPatternMatcher;
+import stirling.software.SPDF.utils.text.MultiPatternMatcher.WordBoundaries;
 import stirling.software.common.model.api.security.RedactionArea;
 import stirling.software.common.service.CustomPDFDocumentFactory;
 
@@ -1019,6 +1021,41 @@ class RedactControllerTest {
             assertTrue(finalText.contains("document"), "Other text should remain");
         }
 
+        @Test
+        @DisplayName("Pages tokenized and matched in parallel keep their own content")
+        void shouldRedactManyPagesInPageOrder() throws Exception {
+            PDResources resources = realPage.getResources();
+            List<PDPage> pages = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                page.setResources(resources);
+                realDocument.addPage(page);
+                try (PDPageContentStream contentStream =
+                        new PDPageContentStream(realDocument, page)) {
+                    contentStream.beginText();
+                    contentStream.setFont(resources.getFont(COSName.getPDFName("F1")), 12);
+                    contentStream.newLineAtOffset(50, 750);
+                    contentStream.showText("Page " + i + " holds secret data");
+                    contentStream.endText();
+                }
+                pages.add(page);
+            }
+
+            List<List<Object>> pageTokens =
+                    redactController.redactPageContents(
+                            realDocument,
+                            pages,
+                            MultiPatternMatcher.create(
+                                    Set.of("secret"), false, false, WordBoundaries.STANDARD));
+
+            assertEquals(pages.size(), pageTokens.size());
+            for (int i = 0; i < pages.size(); i++) {
+                String text = extractTextFromTokens(pageTokens.get(i));
+                assertTrue(text.startsWith("Page " + i + " holds"), text);
+                assertFalse(text.contains("secret"), text);
+            }
+        }
+
         @Test
         @DisplayName("Should preserve text positioning operators")
         void shouldPreserveTextPositioning() throws Exception {
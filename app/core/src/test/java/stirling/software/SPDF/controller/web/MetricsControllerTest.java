@@ -0,0 +1,58 @@
+package stirling.software.SPDF.controller.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import stirling.software.SPDF.config.EndpointInspector;
+import stirling.software.SPDF.service.UniqueUserTracker;
+import stirling.software.common.model.ApplicationProperties;
+
+@ExtendWith(MockitoExtension.class)
+class MetricsControllerTest {
+
+    @Mock private EndpointInspector endpointInspector;
+
+    private MetricsController metricsController;
+
+    @BeforeEach
+    void setUp() {
+        metricsController =
+                new MetricsController(
+                        new ApplicationProperties(),
+                        new SimpleMeterRegistry(),
+                        endpointInspector,
+                        new UniqueUserTracker());
+        metricsController.init();
+    }
+
+    @Test
+    void unknownWindowIsABadRequest() {
+        ResponseEntity<?> response =
+                metricsController.getUniquePageLoads(Optional.empty(), Optional.of("week"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(
+                HttpStatus.BAD_REQUEST,
+                metricsController.getAllUniquePostRequests(Optional.of("week")).getStatusCode());
+    }
+
+    @Test
+    void knownWindowIsCounted() {
+        ResponseEntity<?> response =
+                metricsController.getUniqueTotalRequests(Optional.empty(), Optional.of("Day"));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(0.0, response.getBody());
+    }
+}
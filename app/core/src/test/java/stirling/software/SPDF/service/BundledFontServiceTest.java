@@ -0,0 +1,43 @@
+package stirling.software.SPDF.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDCIDFontType2;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.junit.jupiter.api.Test;
+
+class BundledFontServiceTest {
+
+    private final BundledFontService bundledFontService = new BundledFontService();
+
+    @Test
+    void documentsShareOneParsedFont() throws IOException {
+        try (PDDocument first = new PDDocument();
+                PDDocument second = new PDDocument()) {
+            PDType0Font firstFont = bundledFontService.loadFont(first, "roman");
+            PDType0Font secondFont = bundledFontService.loadFont(second, "roman");
+
+            assertNotSame(firstFont, secondFont);
+            assertSame(
+                    ((PDCIDFontType2) firstFont.getDescendantFont()).getTrueTypeFont(),
+                    ((PDCIDFontType2) secondFont.getDescendantFont()).getTrueTypeFont());
+            assertTrue(firstFont.getStringWidth("Stirling PDF") > 0);
+        }
+    }
+
+    @Test
+    void unknownAlphabetsUseTheLatinFont() {
+        assertEquals(
+                "static/fonts/NotoSans-Regular.ttf", BundledFontService.getFontResource("klingon"));
+        assertEquals("static/fonts/NotoSans-Regular.ttf", BundledFontService.getFontResource(null));
+        assertEquals(
+                "static/fonts/NotoSansThai-Regular.ttf",
+                BundledFontService.getFontResource("thai"));
+    }
+}
@@ -1,5 +1,6 @@
 package stirling.software.SPDF.service;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.doNothing;
@@ -7,12 +8,21 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.security.cert.CertificateExpiredException;
 import java.security.cert.X509Certificate;
+import java.util.Date;
+import java.util.List;
 
 import javax.security.auth.x500.X500Principal;
 
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -143,4 +153,74 @@ class CertificateValidationServiceTest {
         // Then validation should fail
         assertFalse(result, "Certificate chain with failed signing should not validate");
     }
+
+    @Test
+    void testValidateCertificateChain_IssuedByAnchor() throws Exception {
+        KeyPair rootKeys = newKeyPair();
+        X509Certificate root =
+                newCertificate("CN=Test Root", "CN=Test Root", rootKeys.getPublic(), rootKeys);
+        X509Certificate leaf =
+                newCertificate("CN=Test Root", "CN=Signer", newKeyPair().getPublic(), rootKeys);
+        validationService.indexTrustAnchors(List.of(root));
+
+        assertTrue(validationService.validateCertificateChain(leaf));
+        assertTrue(validationService.validateTrustStore(root));
+        assertFalse(validationService.validateTrustStore(leaf));
+    }
+
+    @Test
+    void testValidateCertificateChain_ResultIsCachedUntilReindex() throws Exception {
+        KeyPair rootKeys = newKeyPair();
+        X509Certificate root =
+                newCertificate("CN=Test Root", "CN=Test Root", rootKeys.getPublic(), rootKeys);
+        X509Certificate leaf =
+                newCertificate("CN=Test Root", "CN=Signer", newKeyPair().getPublic(), rootKeys);
+        validationService.indexTrustAnchors(List.of(root));
+
+        assertTrue(validationService.validateCertificateChain(leaf));
+        assertTrue(validationService.validateCertificateChain(leaf));
+        assertEquals(1, validationService.getCachedResultCount());
+
+        validationService.indexTrustAnchors(List.of());
+        assertEquals(0, validationService.getCachedResultCount());
+        assertFalse(validationService.validateCertificateChain(leaf));
+    }
+
+    @Test
+    void testValidateCertificateChain_UnknownIssuer() throws Exception {
+        KeyPair rootKeys = newKeyPair();
+        X509Certificate root =
+                newCertificate("CN=Test Root", "CN=Test Root", rootKeys.getPublic(), rootKeys);
+        KeyPair otherKeys = newKeyPair();
+        X509Certificate leaf =
+                newCertificate("CN=Other Root", "CN=Signer", newKeyPair().getPublic(), otherKeys);
+        validationService.indexTrustAnchors(List.of(root));
+
+        assertFalse(validationService.validateCertificateChain(leaf));
+    }
+
+    private static KeyPair newKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    private static X509Certificate newCertificate(
+            String issuer, String subject, PublicKey publicKey, KeyPair issuerKeys)
+            throws Exception {
+        PrivateKey signingKey = issuerKeys.getPrivate();
+        long now = System.currentTimeMillis();
+        JcaX509v3CertificateBuilder builder =
+                new JcaX509v3CertificateBuilder(
+                        new X500Principal(issuer),
+                        BigInteger.valueOf(now),
+                        new Date(now - 60_000),
+                        new Date(now + 3_600_000),
+                        new X500Principal(subject),
+                        publicKey);
+        return new JcaX509CertificateConverter()
+                .getCertificate(
+                        builder.build(
+                                new JcaContentSignerBuilder("SHA256withRSA").build(signingKey)));
+    }
 }
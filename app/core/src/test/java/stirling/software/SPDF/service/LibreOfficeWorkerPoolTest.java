@@ -0,0 +1,75 @@
+package stirling.software.SPDF.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import stirling.software.SPDF.config.EndpointConfiguration;
+import stirling.software.common.configuration.RuntimePathConfig;
+import stirling.software.common.model.ApplicationProperties;
+
+class LibreOfficeWorkerPoolTest {
+
+    private LibreOfficeWorkerPool pool;
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private LibreOfficeWorkerPool createPool(int size, int basePort) {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getProcessExecutor().getSessionLimit().setLibreOfficeSessionLimit(size);
+        RuntimePathConfig runtimePathConfig = mock(RuntimePathConfig.class);
+        when(runtimePathConfig.getUnoServerPath()).thenReturn("/nonexistent/unoserver");
+        return new LibreOfficeWorkerPool(
+                properties,
+                runtimePathConfig,
+                mock(EndpointConfiguration.class),
+                true,
+                basePort,
+                2,
+                30);
+    }
+
+    @Test
+    void fallsBackToBasePortWithoutWorkers() {
+        pool = createPool(2, 2003);
+
+        try (LibreOfficeWorkerPool.Lease lease = pool.acquire()) {
+            assertEquals(2003, lease.getPort());
+        }
+        assertEquals(0, pool.getHealthyWorkerCount());
+    }
+
+    @Test
+    void adoptsRunningServerAndSkipsWorkersThatFailToStart() throws IOException {
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            pool = createPool(2, server.getLocalPort());
+            pool.startWorkers();
+
+            // The second worker cannot start, so all conversions go to the adopted server
+            assertEquals(1, pool.getHealthyWorkerCount());
+            try (LibreOfficeWorkerPool.Lease first = pool.acquire();
+                    LibreOfficeWorkerPool.Lease second = pool.acquire()) {
+                assertEquals(server.getLocalPort(), first.getPort());
+                assertEquals(server.getLocalPort(), second.getPort());
+            }
+
+            // Adopted servers are never recycled
+            try (LibreOfficeWorkerPool.Lease lease = pool.acquire()) {
+                assertEquals(server.getLocalPort(), lease.getPort());
+            }
+            assertEquals(1, pool.getHealthyWorkerCount());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package stirling.software.SPDF.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import stirling.software.SPDF.service.UniqueUserTracker.Window;
+
+class UniqueUserTrackerTest {
+
+    private Instant now;
+    private UniqueUserTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        now = Instant.parse("2024-01-01T10:15:00Z");
+        Clock clock =
+                new Clock() {
+                    @Override
+                    public ZoneId getZone() {
+                        return ZoneOffset.UTC;
+                    }
+
+                    @Override
+                    public Clock withZone(ZoneId zone) {
+                        return this;
+                    }
+
+                    @Override
+                    public Instant instant() {
+                        return now;
+                    }
+                };
+        tracker = new UniqueUserTracker(clock);
+    }
+
+    @Test
+    void countsDistinctUsersPerEndpointAndOverall() {
+        tracker.record("GET", "/merge", "a");
+        tracker.record("GET", "/merge", "a");
+        tracker.record("GET", "/merge", "b");
+        tracker.record("GET", "/split", "b");
+        tracker.record("POST", "/api/v1/merge", "c");
+
+        assertEquals(2, tracker.countUsers("GET", uri -> true, Window.ALL));
+        assertEquals(1, tracker.countUsers("GET", "/split"::equals, Window.ALL));
+        assertEquals(
+                Map.of("/merge", 2L, "/split", 1L),
+                tracker.countUsersByEndpoint("GET", Window.ALL));
+    }
+
+    @Test
+    void windowsOnlyCountRecentHours() {
+        tracker.record("GET", "/merge", "a");
+        now = now.plus(Duration.ofHours(2));
+        tracker.record("GET", "/merge", "b");
+
+        assertEquals(1, tracker.countUsers("GET", uri -> true, Window.HOUR));
+        assertEquals(2, tracker.countUsers("GET", uri -> true, Window.DAY));
+
+        now = now.plus(Duration.ofHours(24));
+        assertEquals(0, tracker.countUsers("GET", uri -> true, Window.DAY));
+        assertEquals(2, tracker.countUsers("GET", uri -> true, Window.ALL));
+    }
+
+    @Test
+    void windowIsParsedCaseInsensitively() {
+        assertEquals(Window.DAY, Window.fromString("day"));
+        assertEquals(Window.ALL, Window.fromString(null));
+    }
+
+    @Test
+    void unknownWindowIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Window.fromString("week"));
+    }
+}
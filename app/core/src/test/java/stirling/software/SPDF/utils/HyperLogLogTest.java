@@ -0,0 +1,57 @@
+package stirling.software.SPDF.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class HyperLogLogTest {
+
+    @Test
+    void countsSmallSetsExactly() {
+        HyperLogLog sketch = new HyperLogLog();
+        assertEquals(0, sketch.estimate());
+
+        for (int i = 0; i < 10; i++) {
+            sketch.offer("session-" + i);
+            sketch.offer("session-" + i);
+        }
+
+        assertEquals(10, sketch.estimate());
+    }
+
+    @Test
+    void estimatesLargeSetsWithinTenPercent() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 100_000; i++) {
+            sketch.offer("session-" + i);
+        }
+
+        long estimate = sketch.estimate();
+        assertTrue(Math.abs(estimate - 100_000) < 10_000, "Estimate was " + estimate);
+    }
+
+    @Test
+    void mergeCountsTheUnion() {
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        for (int i = 0; i < 50; i++) {
+            first.offer("a-" + i);
+            second.offer("a-" + i);
+            second.offer("b-" + i);
+        }
+
+        first.merge(second);
+
+        long estimate = first.estimate();
+        assertTrue(Math.abs(estimate - 100) <= 3, "Estimate was " + estimate);
+    }
+
+    @Test
+    void mergeRejectsOtherPrecision() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new HyperLogLog(10).merge(new HyperLogLog(12)));
+    }
+}
@@ -0,0 +1,90 @@
+package stirling.software.SPDF.utils.text;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import stirling.software.SPDF.utils.text.MultiPatternMatcher.Match;
+import stirling.software.SPDF.utils.text.MultiPatternMatcher.WordBoundaries;
+
+@DisplayName("Multi-pattern matcher tests")
+class MultiPatternMatcherTest {
+
+    private static List<String> texts(List<Match> matches) {
+        return matches.stream().map(Match::text).toList();
+    }
+
+    @Test
+    void findsAllLiteralTermsCaseInsensitivelyInOrder() {
+        MultiPatternMatcher matcher =
+                MultiPatternMatcher.create(
+                        List.of("secret", "Project X", "x"), false, false, WordBoundaries.STANDARD);
+
+        List<Match> matches = matcher.findAll("The SECRET of project x");
+
+        assertEquals(List.of("SECRET", "project x", "x"), texts(matches));
+        assertEquals(4, matches.get(0).start());
+        assertEquals(10, matches.get(0).end());
+    }
+
+    @Test
+    void matchesOfOneTermDoNotOverlap() {
+        MultiPatternMatcher matcher =
+                MultiPatternMatcher.create(List.of("aa"), false, false, WordBoundaries.STANDARD);
+
+        assertEquals(1, matcher.findAll("aaa").size());
+        assertEquals(2, matcher.findAll("aaaa").size());
+    }
+
+    @Test
+    void wholeWordSearchSkipsPartialWords() {
+        MultiPatternMatcher matcher =
+                MultiPatternMatcher.create(
+                        List.of("cat", "1"), false, true, WordBoundaries.NUMBER_AWARE);
+
+        assertEquals(List.of("cat", "1"), texts(matcher.findAll("cat concat 1 1.5 21")));
+    }
+
+    @Test
+    void wholeWordLiteralsAgreeWithRegexBoundariesOnNonAsciiText() {
+        String text = "café caf naïve naï über_x \u212Aelvin";
+        for (String term : List.of("caf", "na", "über", "elvin")) {
+            MultiPatternMatcher literal =
+                    MultiPatternMatcher.create(List.of(term), false, true, WordBoundaries.STANDARD);
+            MultiPatternMatcher regex =
+                    MultiPatternMatcher.create(
+                            List.of(Pattern.quote(term)), true, true, WordBoundaries.STANDARD);
+
+            assertEquals(texts(regex.findAll(text)), texts(literal.findAll(text)), term);
+        }
+    }
+
+    @Test
+    void regexTermsKeepTheirOwnMatches() {
+        MultiPatternMatcher matcher =
+                MultiPatternMatcher.create(
+                        List.of("\\d{3}-\\d{4}", "[a-z]+@example\\.com"),
+                        true,
+                        false,
+                        WordBoundaries.STANDARD);
+
+        assertEquals(
+                List.of("555-1234", "Bob@example.com"),
+                texts(matcher.findAll("Call 555-1234 or mail Bob@example.com")));
+        assertTrue(matcher.findAll("nothing to see here").isEmpty());
+    }
+
+    @Test
+    void blankTermsAreIgnored() {
+        MultiPatternMatcher matcher =
+                MultiPatternMatcher.create(List.of(" ", ""), false, false, WordBoundaries.STANDARD);
+
+        assertTrue(matcher.isEmpty());
+        assertTrue(matcher.findAll("anything").isEmpty());
+    }
+}
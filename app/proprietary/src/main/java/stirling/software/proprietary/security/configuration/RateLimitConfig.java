@@ -0,0 +1,38 @@
+package stirling.software.proprietary.security.configuration;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+
+import lombok.extern.slf4j.Slf4j;
+
+import stirling.software.proprietary.security.ratelimit.LocalRateLimitBucketStore;
+import stirling.software.proprietary.security.ratelimit.ProxyManagerRateLimitBucketStore;
+import stirling.software.proprietary.security.ratelimit.RateLimitBucketStore;
+
+@Configuration
+@Slf4j
+public class RateLimitConfig {
+
+    /**
+     * Shares the rate limit quotas between nodes when a Bucket4j {@link ProxyManager} bean is
+     * defined, otherwise keeps them in memory of this node.
+     */
+    @Bean
+    public RateLimitBucketStore rateLimitBucketStore(
+            ObjectProvider<ProxyManager<String>> proxyManager,
+            @Value("${security.rateLimit.maxBuckets:100000}") long maxBuckets) {
+        ProxyManager<String> shared = proxyManager.getIfUnique();
+        if (shared != null) {
+            log.info("Rate limit buckets are shared through {}", shared.getClass().getName());
+            return new ProxyManagerRateLimitBucketStore(shared);
+        }
+        // Buckets refill daily, an idle bucket is full again after a day
+        return new LocalRateLimitBucketStore(maxBuckets, Duration.ofDays(1));
+    }
+}
@@ -1,5 +1,6 @@
 package stirling.software.proprietary.security.controller.api;
 
+import java.sql.SQLException;
 import java.util.Optional;
 
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -14,12 +15,14 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import stirling.software.common.model.exception.UnsupportedProviderException;
 import stirling.software.proprietary.model.Team;
 import stirling.software.proprietary.security.config.PremiumEndpoint;
 import stirling.software.proprietary.security.database.repository.UserRepository;
 import stirling.software.proprietary.security.model.User;
 import stirling.software.proprietary.security.repository.TeamRepository;
 import stirling.software.proprietary.security.service.TeamService;
+import stirling.software.proprietary.security.service.UserService;
 
 @Controller
 @RequestMapping("/api/v1/team")
@@ -31,6 +34,7 @@ public class TeamController {
 
     private final TeamRepository teamRepository;
     private final UserRepository userRepository;
+    private final UserService userService;
 
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @PostMapping("/create")
@@ -96,7 +100,8 @@ public class TeamController {
     @PostMapping("/addUser")
     @Transactional
     public RedirectView addUserToTeam(
-            @RequestParam("teamId") Long teamId, @RequestParam("userId") Long userId) {
+            @RequestParam("teamId") Long teamId, @RequestParam("userId") Long userId)
+            throws SQLException, UnsupportedProviderException {
 
         // Find the team
         Team team =
@@ -121,9 +126,8 @@ public class TeamController {
             return new RedirectView("/teams/" + teamId + "?error=cannotMoveInternalUsers");
         }
 
-        // Assign user to team
-        user.setTeam(team);
-        userRepository.save(user);
+        // Assign user to team, through UserService so its cached authentication is dropped
+        userService.changeUserTeam(user, team);
 
         // Redirect back to team details page
         return new RedirectView("/teams/" + teamId + "?messageType=userAdded");
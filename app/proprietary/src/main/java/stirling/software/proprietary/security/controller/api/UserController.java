@@ -37,7 +37,6 @@ import stirling.software.proprietary.audit.AuditEventType;
 import stirling.software.proprietary.audit.AuditLevel;
 import stirling.software.proprietary.audit.Audited;
 import stirling.software.proprietary.model.Team;
-import stirling.software.proprietary.security.database.repository.UserRepository;
 import stirling.software.proprietary.security.model.AuthenticationType;
 import stirling.software.proprietary.security.model.User;
 import stirling.software.proprietary.security.model.api.user.UsernameAndPass;
@@ -59,7 +58,6 @@ public class UserController {
     private final SessionPersistentRegistry sessionRegistry;
     private final ApplicationProperties applicationProperties;
     private final TeamRepository teamRepository;
-    private final UserRepository userRepository;
 
     @PreAuthorize("!hasAuthority('ROLE_DEMO_USER')")
     @PostMapping("/register")
@@ -337,8 +335,7 @@ public class UserController {
                             "/adminSettings?messageType=cannotMoveInternalUsers", true);
                 }
 
-                user.setTeam(team);
-                userRepository.save(user);
+                userService.changeUserTeam(user, team);
             }
         }
 
@@ -2,6 +2,7 @@ package stirling.software.proprietary.security.database.repository;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -30,6 +31,20 @@ public interface SessionRepository extends JpaRepository<SessionEntity, String>
             @Param("lastRequest") Instant lastRequest,
             @Param("principalName") String principalName);
 
+    @Modifying
+    @Transactional
+    @Query(
+            "UPDATE SessionEntity s SET s.lastRequest = :lastRequest WHERE s.sessionId = :sessionId"
+                    + " AND (s.lastRequest IS NULL OR s.lastRequest < :lastRequest)")
+    int updateLastRequest(
+            @Param("sessionId") String sessionId, @Param("lastRequest") Instant lastRequest);
+
+    /** Move the last request times of several sessions forward, in one transaction */
+    @Transactional
+    default void updateLastRequests(Map<String, Instant> lastRequestsBySessionId) {
+        lastRequestsBySessionId.forEach(this::updateLastRequest);
+    }
+
     @Query(
             "SELECT t.id as teamId, MAX(s.lastRequest) as lastActivity "
                     + "FROM stirling.software.proprietary.model.Team t "
@@ -29,6 +29,7 @@ import stirling.software.common.model.ApplicationProperties.Security.SAML2;
 import stirling.software.proprietary.security.model.ApiKeyAuthenticationToken;
 import stirling.software.proprietary.security.model.User;
 import stirling.software.proprietary.security.saml2.CustomSaml2AuthenticatedPrincipal;
+import stirling.software.proprietary.security.service.AuthenticationCache;
 import stirling.software.proprietary.security.service.UserService;
 import stirling.software.proprietary.security.session.SessionPersistentRegistry;
 
@@ -39,16 +40,19 @@ public class UserAuthenticationFilter extends OncePerRequestFilter {
     private final ApplicationProperties.Security securityProp;
     private final UserService userService;
     private final SessionPersistentRegistry sessionPersistentRegistry;
+    private final AuthenticationCache authenticationCache;
     private final boolean loginEnabledValue;
 
     public UserAuthenticationFilter(
             @Lazy ApplicationProperties.Security securityProp,
             @Lazy UserService userService,
             SessionPersistentRegistry sessionPersistentRegistry,
+            AuthenticationCache authenticationCache,
             @Qualifier("loginEnabled") boolean loginEnabledValue) {
         this.securityProp = securityProp;
         this.userService = userService;
         this.sessionPersistentRegistry = sessionPersistentRegistry;
+        this.authenticationCache = authenticationCache;
         this.loginEnabledValue = loginEnabledValue;
     }
 
@@ -86,15 +90,17 @@ public class UserAuthenticationFilter extends OncePerRequestFilter {
                 try {
                     // Use API key to authenticate. This requires you to have an authentication
                     // provider for API keys.
-                    Optional<User> user = userService.getUserByApiKey(apiKey);
-                    if (user.isEmpty()) {
+                    Optional<UserDetails> principal =
+                            authenticationCache.getPrincipalByApiKey(
+                                    apiKey, userService::getUserByApiKey);
+                    if (principal.isEmpty()) {
                         response.setStatus(HttpStatus.UNAUTHORIZED.value());
                         response.getWriter().write("Invalid API Key.");
                         return;
                     }
                     authentication =
                             new ApiKeyAuthenticationToken(
-                                    user.get(), apiKey, user.get().getAuthorities());
+                                    principal.get(), apiKey, principal.get().getAuthorities());
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                 } catch (AuthenticationException e) {
                     // If API key authentication fails, deny the request
@@ -153,15 +159,13 @@ public class UserAuthenticationFilter extends OncePerRequestFilter {
                 loginMethod = UserLoginType.STRINGUSER;
             }
 
-            // Retrieve all active sessions for the user
-            List<SessionInformation> sessionsInformations =
-                    sessionPersistentRegistry.getAllSessions(principal, false);
-
             // Check if the user exists, is disabled, or needs session invalidation
             if (username != null) {
                 log.debug("Validating user: {}", username);
-                boolean isUserExists = userService.usernameExistsIgnoreCase(username);
-                boolean isUserDisabled = userService.isUserDisabled(username);
+                AuthenticationCache.UserStatus status =
+                        authenticationCache.getUserStatus(username, this::loadUserStatus);
+                boolean isUserExists = status.exists();
+                boolean isUserDisabled = status.disabled();
 
                 boolean notSsoLogin =
                         !UserLoginType.OAUTH2USER.equals(loginMethod)
@@ -179,6 +183,9 @@ public class UserAuthenticationFilter extends OncePerRequestFilter {
                 if (!isUserExists || isUserDisabled) {
                     log.info(
                             "Invalidating session for disabled or non-existent user: {}", username);
+                    // Retrieve all active sessions for the user
+                    List<SessionInformation> sessionsInformations =
+                            sessionPersistentRegistry.getAllSessions(principal, false);
                     for (SessionInformation sessionsInformation : sessionsInformations) {
                         sessionsInformation.expireNow();
                         sessionPersistentRegistry.expireSession(sessionsInformation.getSessionId());
@@ -200,6 +207,13 @@ public class UserAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Existence and status from a single lookup
+    private AuthenticationCache.UserStatus loadUserStatus(String username) {
+        Optional<User> user = userService.findByUsernameIgnoreCase(username);
+        return new AuthenticationCache.UserStatus(
+                user.isPresent(), user.map(u -> !u.isEnabled()).orElse(false));
+    }
+
     private enum UserLoginType {
         USERDETAILS("UserDetails"),
         OAUTH2USER("OAuth2User"),
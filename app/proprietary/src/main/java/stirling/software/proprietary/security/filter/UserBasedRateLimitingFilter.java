@@ -1,9 +1,11 @@
 package stirling.software.proprietary.security.filter;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.HexFormat;
 
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
@@ -15,7 +17,6 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
 import io.github.bucket4j.ConsumptionProbe;
 import io.github.pixee.security.Newlines;
 
@@ -26,19 +27,33 @@ import jakarta.servlet.http.HttpServletResponse;
 
 import stirling.software.common.model.enumeration.Role;
 import stirling.software.common.util.RegexPatternUtils;
+import stirling.software.proprietary.security.ratelimit.RateLimitBucketStore;
+import stirling.software.proprietary.security.ratelimit.RequestCostEstimator;
 
+/**
+ * Limits the POST requests of each API key, user or IP address per day. Requests take tokens from a
+ * daily bucket in proportion to their estimated cost (see {@link RequestCostEstimator}), and the
+ * buckets are held by a {@link RateLimitBucketStore}, which may share them between nodes.
+ */
 @Component
 public class UserBasedRateLimitingFilter extends OncePerRequestFilter {
 
-    private final Map<String, Bucket> apiBuckets = new ConcurrentHashMap<>();
-
-    private final Map<String, Bucket> webBuckets = new ConcurrentHashMap<>();
+    private static final String API_PREFIX = "api:";
+    private static final String WEB_PREFIX = "web:";
 
     @Qualifier("rateLimit")
     private final boolean rateLimit;
 
-    public UserBasedRateLimitingFilter(@Qualifier("rateLimit") boolean rateLimit) {
+    private final RateLimitBucketStore bucketStore;
+    private final RequestCostEstimator costEstimator;
+
+    public UserBasedRateLimitingFilter(
+            @Qualifier("rateLimit") boolean rateLimit,
+            RateLimitBucketStore bucketStore,
+            RequestCostEstimator costEstimator) {
         this.rateLimit = rateLimit;
+        this.bucketStore = bucketStore;
+        this.costEstimator = costEstimator;
     }
 
     @Override
@@ -60,8 +75,9 @@ public class UserBasedRateLimitingFilter extends OncePerRequestFilter {
         // Check for API key in the request headers
         String apiKey = request.getHeader("X-API-KEY");
         if (apiKey != null && !apiKey.trim().isEmpty()) {
-            identifier = // Prefix to distinguish between API keys and usernames
-                    "API_KEY_" + apiKey;
+            // Prefix to distinguish between API keys and usernames, hashed so that buckets
+            // stored outside this node do not expose the key
+            identifier = "API_KEY_" + hash(apiKey);
         } else {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             if (authentication != null && authentication.isAuthenticated()) {
@@ -79,8 +95,7 @@ public class UserBasedRateLimitingFilter extends OncePerRequestFilter {
             // It's an API call
             processRequest(
                     userRole.getApiCallsPerDay(),
-                    identifier,
-                    apiBuckets,
+                    API_PREFIX + identifier,
                     request,
                     response,
                     filterChain);
@@ -88,8 +103,7 @@ public class UserBasedRateLimitingFilter extends OncePerRequestFilter {
             // It's a Web UI call
             processRequest(
                     userRole.getWebCallsPerDay(),
-                    identifier,
-                    webBuckets,
+                    WEB_PREFIX + identifier,
                     request,
                     response,
                     filterChain);
@@ -111,14 +125,14 @@ public class UserBasedRateLimitingFilter extends OncePerRequestFilter {
 
     private void processRequest(
             int limitPerDay,
-            String identifier,
-            Map<String, Bucket> buckets,
+            String bucketKey,
             HttpServletRequest request,
             HttpServletResponse response,
             FilterChain filterChain)
             throws IOException, ServletException {
-        Bucket userBucket = buckets.computeIfAbsent(identifier, k -> createUserBucket(limitPerDay));
-        ConsumptionProbe probe = userBucket.tryConsumeAndReturnRemaining(1);
+        long cost = costEstimator.estimate(request, limitPerDay);
+        ConsumptionProbe probe =
+                bucketStore.tryConsume(bucketKey, cost, createUserLimit(limitPerDay));
         if (probe.isConsumed()) {
             response.setHeader(
                     "X-Rate-Limit-Remaining",
@@ -134,13 +148,20 @@ public class UserBasedRateLimitingFilter extends OncePerRequestFilter {
         }
     }
 
-    private Bucket createUserBucket(int limitPerDay) {
-        Bandwidth limit =
-                Bandwidth.builder()
-                        .capacity(limitPerDay)
-                        .refillIntervally(limitPerDay, Duration.ofDays(1))
-                        .build();
-        return Bucket.builder().addLimit(limit).build();
+    private Bandwidth createUserLimit(int limitPerDay) {
+        return Bandwidth.builder()
+                .capacity(limitPerDay)
+                .refillIntervally(limitPerDay, Duration.ofDays(1))
+                .build();
+    }
+
+    private static String hash(String apiKey) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(apiKey.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
     private static String stripNewlines(final String s) {
@@ -0,0 +1,47 @@
+package stirling.software.proprietary.security.ratelimit;
+
+import java.time.Duration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+
+/**
+ * Buckets held in memory of this node. Buckets not used for longer than the idle timeout are
+ * evicted; with an idle timeout of at least the refill period an evicted bucket would have been
+ * full again anyway. The number of buckets is bounded, beyond it the least recently used buckets
+ * are evicted.
+ */
+public class LocalRateLimitBucketStore implements RateLimitBucketStore {
+
+    private final Cache<String, Bucket> buckets;
+
+    /**
+     * @param maxBuckets the maximum number of buckets kept
+     * @param idleTimeout how long an unused bucket is kept
+     */
+    public LocalRateLimitBucketStore(long maxBuckets, Duration idleTimeout) {
+        this.buckets =
+                Caffeine.newBuilder()
+                        .maximumSize(maxBuckets)
+                        .expireAfterAccess(idleTimeout)
+                        .build();
+    }
+
+    @Override
+    public ConsumptionProbe tryConsume(String key, long tokens, Bandwidth limit) {
+        Bucket bucket = buckets.get(key, k -> Bucket.builder().addLimit(limit).build());
+        return bucket.tryConsumeAndReturnRemaining(tokens);
+    }
+
+    /**
+     * @return the number of buckets currently held
+     */
+    public long size() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,28 @@
+package stirling.software.proprietary.security.ratelimit;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+
+/**
+ * Buckets held in a backend shared by several nodes, through a Bucket4j {@link ProxyManager} such
+ * as the ones of the Redis or JCache integrations, so that all nodes enforce one quota per user.
+ * Expiry of unused buckets is left to the backend.
+ */
+public class ProxyManagerRateLimitBucketStore implements RateLimitBucketStore {
+
+    private final ProxyManager<String> proxyManager;
+
+    public ProxyManagerRateLimitBucketStore(ProxyManager<String> proxyManager) {
+        this.proxyManager = proxyManager;
+    }
+
+    @Override
+    public ConsumptionProbe tryConsume(String key, long tokens, Bandwidth limit) {
+        return proxyManager
+                .builder()
+                .build(key, () -> BucketConfiguration.builder().addLimit(limit).build())
+                .tryConsumeAndReturnRemaining(tokens);
+    }
+}
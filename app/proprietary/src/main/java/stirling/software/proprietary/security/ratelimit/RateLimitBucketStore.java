@@ -0,0 +1,22 @@
+package stirling.software.proprietary.security.ratelimit;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.ConsumptionProbe;
+
+/**
+ * Holds the token buckets of the rate limiter. The store decides where bucket state lives: {@link
+ * LocalRateLimitBucketStore} keeps it in memory of this node, {@link
+ * ProxyManagerRateLimitBucketStore} in a backend shared by several nodes.
+ */
+public interface RateLimitBucketStore {
+
+    /**
+     * Take tokens from a bucket, creating the bucket if it does not exist yet.
+     *
+     * @param key identifies the bucket, such as a hashed API key or a username
+     * @param tokens the number of tokens to take, at least 1
+     * @param limit the limit of the bucket when it has to be created
+     * @return whether the tokens were taken, with the remaining tokens or the time to wait
+     */
+    ConsumptionProbe tryConsume(String key, long tokens, Bandwidth limit);
+}
@@ -0,0 +1,106 @@
+package stirling.software.proprietary.security.ratelimit;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import stirling.software.common.annotations.AutoJobPostMapping;
+
+/**
+ * Estimates how many rate limit tokens a request costs, so that users are throttled by the load
+ * they put on the server rather than by their number of requests. A request of the default resource
+ * weight with a small upload costs one token. The cost grows with the upload size, one more token
+ * per {@code security.rateLimit.bytesPerToken} bytes, and is scaled by the {@link
+ * AutoJobPostMapping#resourceWeight()} of the endpoint relative to the default weight; endpoints
+ * not annotated with it keep the default weight. The cost is estimated before the upload is read,
+ * so a request that does not declare its length, such as a chunked upload, costs {@code
+ * security.rateLimit.unknownLengthTokens} at the default weight instead of a size-based cost.
+ */
+@Component
+@Slf4j
+public class RequestCostEstimator implements ApplicationListener<ContextRefreshedEvent> {
+
+    static final int DEFAULT_WEIGHT = 50;
+
+    private final ApplicationContext applicationContext;
+    private final long bytesPerToken;
+    private final long unknownLengthTokens;
+
+    // Resource weights of the endpoints with a fixed path, looked up by request path
+    private volatile Map<String, Integer> weightsByPath = Map.of();
+
+    public RequestCostEstimator(
+            ApplicationContext applicationContext,
+            @Value("${security.rateLimit.bytesPerToken:10485760}") long bytesPerToken,
+            @Value("${security.rateLimit.unknownLengthTokens:10}") long unknownLengthTokens) {
+        this.applicationContext = applicationContext;
+        this.bytesPerToken = Math.max(1, bytesPerToken);
+        this.unknownLengthTokens = Math.max(1, unknownLengthTokens);
+    }
+
+    RequestCostEstimator(
+            Map<String, Integer> weightsByPath, long bytesPerToken, long unknownLengthTokens) {
+        this.applicationContext = null;
+        this.bytesPerToken = Math.max(1, bytesPerToken);
+        this.unknownLengthTokens = Math.max(1, unknownLengthTokens);
+        this.weightsByPath = Map.copyOf(weightsByPath);
+    }
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        if (applicationContext == null || event.getApplicationContext() != applicationContext) {
+            return;
+        }
+        Map<String, Integer> weights = new HashMap<>();
+        for (RequestMappingHandlerMapping mapping :
+                applicationContext.getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+            for (Map.Entry<RequestMappingInfo, HandlerMethod> entry :
+                    mapping.getHandlerMethods().entrySet()) {
+                AutoJobPostMapping autoJob =
+                        entry.getValue().getMethodAnnotation(AutoJobPostMapping.class);
+                if (autoJob == null) {
+                    continue;
+                }
+                int weight = Math.max(1, Math.min(100, autoJob.resourceWeight()));
+                for (String pattern : entry.getKey().getPatternValues()) {
+                    // Templated paths keep the default weight
+                    if (!pattern.contains("{") && !pattern.contains("*")) {
+                        weights.put(pattern, weight);
+                    }
+                }
+            }
+        }
+        weightsByPath = Map.copyOf(weights);
+        log.debug("Indexed resource weights of {} endpoints for rate limiting", weights.size());
+    }
+
+    /**
+     * @param request the request to estimate
+     * @param maxTokens the capacity of the bucket, the cost never exceeds it
+     * @return the number of tokens the request costs, between 1 and maxTokens
+     */
+    public long estimate(HttpServletRequest request, long maxTokens) {
+        String path = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        if (contextPath != null && !contextPath.isEmpty() && path.startsWith(contextPath)) {
+            path = path.substring(contextPath.length());
+        }
+        int weight = weightsByPath.getOrDefault(path, DEFAULT_WEIGHT);
+        long uploadBytes = request.getContentLengthLong();
+        long sizeTokens = uploadBytes < 0 ? unknownLengthTokens : 1 + uploadBytes / bytesPerToken;
+        long cost = Math.round((double) weight / DEFAULT_WEIGHT * sizeTokens);
+        return Math.max(1, Math.min(maxTokens, cost));
+    }
+}
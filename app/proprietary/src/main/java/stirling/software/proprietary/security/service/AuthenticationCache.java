@@ -0,0 +1,130 @@
+package stirling.software.proprietary.security.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import stirling.software.proprietary.security.model.User;
+
+/**
+ * Short-lived cache of what {@code UserAuthenticationFilter} looks up for every request: the user
+ * of an API key and whether a username exists and is enabled. Entries expire after a few seconds
+ * and are dropped by {@link UserService} as soon as it changes the user, so changes to a user's API
+ * key, role or status take effect on the next request.
+ *
+ * <p>API keys are only kept as SHA-256 hashes, and only keys that belong to a user are cached. For
+ * them an immutable principal is kept instead of the user entity, so no detached entity with its
+ * lazy associations and password hash outlives the request that loaded it.
+ */
+@Component
+public class AuthenticationCache {
+
+    /** Whether a username belongs to a user and whether that user is disabled */
+    public record UserStatus(boolean exists, boolean disabled) {}
+
+    private final Cache<String, UserDetails> principalsByApiKeyHash;
+    private final Cache<String, UserStatus> statusByUsername;
+
+    public AuthenticationCache(
+            @Value("${security.authCache.ttlSeconds:30}") long ttlSeconds,
+            @Value("${security.authCache.maxEntries:10000}") long maxEntries) {
+        this.principalsByApiKeyHash =
+                Caffeine.newBuilder()
+                        .maximumSize(maxEntries)
+                        .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                        .build();
+        this.statusByUsername =
+                Caffeine.newBuilder()
+                        .maximumSize(maxEntries)
+                        .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                        .build();
+    }
+
+    /**
+     * @param apiKey the API key sent with the request
+     * @param loader looks the key up when it is not cached
+     * @return a snapshot of the user the key belongs to, if any
+     */
+    public Optional<UserDetails> getPrincipalByApiKey(
+            String apiKey, Function<String, Optional<User>> loader) {
+        String hash = hash(apiKey);
+        UserDetails cached = principalsByApiKeyHash.getIfPresent(hash);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<UserDetails> principal = loader.apply(apiKey).map(AuthenticationCache::snapshot);
+        principal.ifPresent(p -> principalsByApiKeyHash.put(hash, p));
+        return principal;
+    }
+
+    /**
+     * @param username the username of the authenticated principal
+     * @param loader looks the status up when it is not cached
+     * @return the status of the user
+     */
+    public UserStatus getUserStatus(String username, Function<String, UserStatus> loader) {
+        return statusByUsername.get(
+                username.toLowerCase(Locale.ROOT), key -> loader.apply(username));
+    }
+
+    /**
+     * Drop everything cached about a user, to be called whenever the user is changed.
+     *
+     * @param username the username, matched ignoring case
+     */
+    public void invalidateUser(String username) {
+        if (username == null) {
+            return;
+        }
+        statusByUsername.invalidate(username.toLowerCase(Locale.ROOT));
+        principalsByApiKeyHash
+                .asMap()
+                .values()
+                .removeIf(principal -> username.equalsIgnoreCase(principal.getUsername()));
+    }
+
+    /** Drop all cached entries */
+    public void invalidateAll() {
+        statusByUsername.invalidateAll();
+        principalsByApiKeyHash.invalidateAll();
+    }
+
+    // Username, authorities and account flags only, the password is not needed past the API key
+    private static UserDetails snapshot(User user) {
+        return org.springframework.security.core.userdetails.User.withUsername(user.getUsername())
+                .password("")
+                .authorities(
+                        user.getAuthorities().stream()
+                                .map(GrantedAuthority::getAuthority)
+                                .map(SimpleGrantedAuthority::new)
+                                .toList())
+                .disabled(!user.isEnabled())
+                .accountExpired(!user.isAccountNonExpired())
+                .accountLocked(!user.isAccountNonLocked())
+                .credentialsExpired(!user.isCredentialsNonExpired())
+                .build();
+    }
+
+    private static String hash(String apiKey) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(apiKey.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
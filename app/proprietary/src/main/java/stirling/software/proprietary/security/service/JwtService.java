@@ -24,6 +24,7 @@ import org.springframework.stereotype.Service;
 import io.github.pixee.security.Newlines;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
@@ -188,11 +189,7 @@ public class JwtService implements JwtServiceInterface {
                 return tryAllKeys(token);
             }
 
-            return Jwts.parser()
-                    .verifyWith(keyPair.getPublic())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            return getParser(keyPair.getPublic()).parseSignedClaims(token).getPayload();
         } catch (SignatureException e) {
             log.warn("Invalid signature: {}", e.getMessage());
             throw new AuthenticationFailureException("Invalid signature", e);
@@ -217,11 +214,7 @@ public class JwtService implements JwtServiceInterface {
             JwtVerificationKey activeKey = keyPersistenceService.getActiveKey();
             PublicKey publicKey =
                     keyPersistenceService.decodePublicKey(activeKey.getVerifyingKey());
-            return Jwts.parser()
-                    .verifyWith(publicKey)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            return getParser(publicKey).parseSignedClaims(token).getPayload();
         } catch (SignatureException
                 | NoSuchAlgorithmException
                 | InvalidKeySpecException activeKeyException) {
@@ -237,11 +230,7 @@ public class JwtService implements JwtServiceInterface {
                     PublicKey publicKey =
                             keyPersistenceService.decodePublicKey(
                                     verificationKey.getVerifyingKey());
-                    return Jwts.parser()
-                            .verifyWith(publicKey)
-                            .build()
-                            .parseSignedClaims(token)
-                            .getPayload();
+                    return getParser(publicKey).parseSignedClaims(token).getPayload();
                 } catch (SignatureException
                         | NoSuchAlgorithmException
                         | InvalidKeySpecException e) {
@@ -312,14 +301,7 @@ public class JwtService implements JwtServiceInterface {
                     keyPersistenceService.decodePublicKey(
                             keyPersistenceService.getActiveKey().getVerifyingKey());
 
-            String keyId =
-                    (String)
-                            Jwts.parser()
-                                    .verifyWith(signingKey)
-                                    .build()
-                                    .parse(token)
-                                    .getHeader()
-                                    .get("kid");
+            String keyId = (String) getParser(signingKey).parse(token).getHeader().get("kid");
             log.debug("Extracted key ID from token: {}", keyId);
             return keyId;
         } catch (Exception e) {
@@ -327,4 +309,8 @@ public class JwtService implements JwtServiceInterface {
             return null;
         }
     }
+
+    private JwtParser getParser(PublicKey publicKey) {
+        return keyPersistenceService.getParser(publicKey);
+    }
 }
@@ -15,6 +15,7 @@ import java.security.PublicKey;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Base64;
@@ -29,6 +30,11 @@ import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+
 import jakarta.annotation.PostConstruct;
 
 import lombok.extern.slf4j.Slf4j;
@@ -46,12 +52,26 @@ public class KeyPersistenceService implements KeyPersistenceServiceInterface {
     private final ApplicationProperties.Security.Jwt jwtProperties;
     private final Cache verifyingKeyCache;
 
+    // Decoded keys, so that validating a token reads no key file and parses no key encoding.
+    // Entries of removed keys are dropped in removeKey, the others expire like verifyingKeys.
+    private final com.github.benmanes.caffeine.cache.Cache<String, KeyPair> keyPairCache;
+    private final com.github.benmanes.caffeine.cache.Cache<String, PublicKey> publicKeyCache;
+    // Parsers by encoded verifying key, building one costs more than the verification itself
+    private final com.github.benmanes.caffeine.cache.Cache<String, JwtParser> parserCache;
+
     private volatile JwtVerificationKey activeKey;
 
     public KeyPersistenceService(
             ApplicationProperties applicationProperties, CacheManager cacheManager) {
         this.jwtProperties = applicationProperties.getSecurity().getJwt();
         this.verifyingKeyCache = cacheManager.getCache("verifyingKeys");
+        Duration keyRetention = Duration.ofDays(jwtProperties.getKeyRetentionDays());
+        this.keyPairCache =
+                Caffeine.newBuilder().maximumSize(1000).expireAfterWrite(keyRetention).build();
+        this.publicKeyCache =
+                Caffeine.newBuilder().maximumSize(1000).expireAfterWrite(keyRetention).build();
+        this.parserCache =
+                Caffeine.newBuilder().maximumSize(1000).expireAfterWrite(keyRetention).build();
     }
 
     /** Move all key files from db/keys to backup/keys */
@@ -112,8 +132,11 @@ public class KeyPersistenceService implements KeyPersistenceServiceInterface {
             String keyId = generateKeyId();
 
             storePrivateKey(keyId, keyPair.getPrivate());
-            verifyingKey = new JwtVerificationKey(keyId, encodePublicKey(keyPair.getPublic()));
+            String encodedPublicKey = encodePublicKey(keyPair.getPublic());
+            verifyingKey = new JwtVerificationKey(keyId, encodedPublicKey);
             verifyingKeyCache.put(keyId, verifyingKey);
+            keyPairCache.put(keyId, keyPair);
+            publicKeyCache.put(encodedPublicKey, keyPair.getPublic());
             activeKey = verifyingKey;
         } catch (IOException e) {
             log.error("Failed to generate and store keypair", e);
@@ -142,13 +165,19 @@ public class KeyPersistenceService implements KeyPersistenceServiceInterface {
 
             if (verifyingKey == null) {
                 log.warn("No signing key found in database for keyId: {}", keyId);
+                keyPairCache.invalidate(keyId);
                 return Optional.empty();
             }
 
-            PrivateKey privateKey = loadPrivateKey(keyId);
-            PublicKey publicKey = decodePublicKey(verifyingKey.getVerifyingKey());
+            KeyPair keyPair = keyPairCache.getIfPresent(keyId);
+            if (keyPair == null) {
+                PrivateKey privateKey = loadPrivateKey(keyId);
+                PublicKey publicKey = decodePublicKey(verifyingKey.getVerifyingKey());
+                keyPair = new KeyPair(publicKey, privateKey);
+                keyPairCache.put(keyId, keyPair);
+            }
 
-            return Optional.of(new KeyPair(publicKey, privateKey));
+            return Optional.of(keyPair);
         } catch (Exception e) {
             log.error("Failed to load keypair for keyId: {}", keyId, e);
             return Optional.empty();
@@ -166,7 +195,13 @@ public class KeyPersistenceService implements KeyPersistenceServiceInterface {
             key = "#keyId",
             condition = "#root.target.isKeystoreEnabled()")
     public void removeKey(String keyId) {
+        JwtVerificationKey verifyingKey = verifyingKeyCache.get(keyId, JwtVerificationKey.class);
+        if (verifyingKey != null) {
+            publicKeyCache.invalidate(verifyingKey.getVerifyingKey());
+            parserCache.invalidate(verifyingKey.getVerifyingKey());
+        }
         verifyingKeyCache.evict(keyId);
+        keyPairCache.invalidate(keyId);
     }
 
     @Override
@@ -258,12 +293,29 @@ public class KeyPersistenceService implements KeyPersistenceServiceInterface {
     @Override
     public PublicKey decodePublicKey(String encodedKey)
             throws NoSuchAlgorithmException, InvalidKeySpecException {
+        PublicKey cached = publicKeyCache.getIfPresent(encodedKey);
+        if (cached != null) {
+            return cached;
+        }
+        PublicKey publicKey = decodePublicKeyUncached(encodedKey);
+        publicKeyCache.put(encodedKey, publicKey);
+        return publicKey;
+    }
+
+    private PublicKey decodePublicKeyUncached(String encodedKey)
+            throws NoSuchAlgorithmException, InvalidKeySpecException {
         byte[] keyBytes = Base64.getDecoder().decode(encodedKey);
         X509EncodedKeySpec keySpec = new X509EncodedKeySpec(keyBytes);
         KeyFactory keyFactory = KeyFactory.getInstance("RSA");
         return keyFactory.generatePublic(keySpec);
     }
 
+    @Override
+    public JwtParser getParser(PublicKey publicKey) {
+        return parserCache.get(
+                encodePublicKey(publicKey), key -> Jwts.parser().verifyWith(publicKey).build());
+    }
+
     public boolean isKeystoreEnabled() {
         return jwtProperties.isEnabled();
     }
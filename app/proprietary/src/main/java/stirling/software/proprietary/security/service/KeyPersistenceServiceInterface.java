@@ -8,6 +8,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import io.jsonwebtoken.JwtParser;
+
 import stirling.software.proprietary.security.model.JwtVerificationKey;
 
 public interface KeyPersistenceServiceInterface {
@@ -24,4 +26,6 @@ public interface KeyPersistenceServiceInterface {
 
     PublicKey decodePublicKey(String encodedKey)
             throws NoSuchAlgorithmException, InvalidKeySpecException;
+
+    JwtParser getParser(PublicKey publicKey);
 }
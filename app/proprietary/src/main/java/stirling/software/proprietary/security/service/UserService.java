@@ -61,6 +61,8 @@ public class UserService implements UserServiceInterface {
 
     private final ApplicationProperties.Security.OAUTH2 oAuth2;
 
+    private final AuthenticationCache authenticationCache;
+
     // Handle OAUTH2 login and user auto creation.
     public void processSSOPostLogin(
             String username, boolean autoCreateUser, AuthenticationType type)
@@ -158,7 +160,9 @@ public class UserService implements UserServiceInterface {
     private User saveUser(Optional<User> user, String apiKey) {
         if (user.isPresent()) {
             user.get().setApiKey(apiKey);
-            return userRepository.save(user.get());
+            User saved = userRepository.save(user.get());
+            authenticationCache.invalidateUser(user.get().getUsername());
+            return saved;
         }
         throw new UsernameNotFoundException("User not found");
     }
@@ -267,6 +271,7 @@ public class UserService implements UserServiceInterface {
             }
             userRepository.delete(userOpt.get());
         }
+        authenticationCache.invalidateUser(username);
         invalidateUserSessions(username);
     }
 
@@ -299,6 +304,7 @@ public class UserService implements UserServiceInterface {
             settingsMap.putAll(updates);
             user.setSettings(settingsMap);
             userRepository.save(user);
+            authenticationCache.invalidateUser(user.getUsername());
             databaseService.exportDatabase();
         }
     }
@@ -324,8 +330,11 @@ public class UserService implements UserServiceInterface {
         if (!isUsernameValid(newUsername)) {
             throw new IllegalArgumentException(getInvalidUsernameMessage());
         }
+        String oldUsername = user.getUsername();
         user.setUsername(newUsername);
         userRepository.save(user);
+        authenticationCache.invalidateUser(oldUsername);
+        authenticationCache.invalidateUser(newUsername);
         databaseService.exportDatabase();
     }
 
@@ -333,6 +342,7 @@ public class UserService implements UserServiceInterface {
             throws SQLException, UnsupportedProviderException {
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        authenticationCache.invalidateUser(user.getUsername());
         databaseService.exportDatabase();
     }
 
@@ -340,6 +350,7 @@ public class UserService implements UserServiceInterface {
             throws SQLException, UnsupportedProviderException {
         user.setFirstLogin(firstUse);
         userRepository.save(user);
+        authenticationCache.invalidateUser(user.getUsername());
         databaseService.exportDatabase();
     }
 
@@ -348,6 +359,7 @@ public class UserService implements UserServiceInterface {
         Authority userAuthority = this.findRole(user);
         userAuthority.setAuthority(newRole);
         authorityRepository.save(userAuthority);
+        authenticationCache.invalidateUser(user.getUsername());
         databaseService.exportDatabase();
     }
 
@@ -355,6 +367,7 @@ public class UserService implements UserServiceInterface {
             throws SQLException, UnsupportedProviderException {
         user.setEnabled(enbeled);
         userRepository.save(user);
+        authenticationCache.invalidateUser(user.getUsername());
         databaseService.exportDatabase();
     }
 
@@ -365,6 +378,7 @@ public class UserService implements UserServiceInterface {
         }
         user.setTeam(team);
         userRepository.save(user);
+        authenticationCache.invalidateUser(user.getUsername());
         databaseService.exportDatabase();
     }
 
@@ -470,6 +484,7 @@ public class UserService implements UserServiceInterface {
 
         // Save user
         userRepository.save(user);
+        authenticationCache.invalidateUser(username);
 
         // Export database
         databaseService.exportDatabase();
@@ -593,6 +608,7 @@ public class UserService implements UserServiceInterface {
                     user.addAuthority(new Authority(Role.INTERNAL_API_USER.getRoleId(), user));
                     userRepository.save(user);
                 });
+        authenticationCache.invalidateUser(username);
 
         try {
             databaseService.exportDatabase();
@@ -617,5 +633,6 @@ public class UserService implements UserServiceInterface {
 
     public void saveAll(List<User> users) {
         userRepository.saveAll(users);
+        authenticationCache.invalidateAll();
     }
 }
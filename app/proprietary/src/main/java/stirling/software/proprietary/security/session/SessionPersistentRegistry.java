@@ -7,29 +7,44 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.session.SessionInformation;
 import org.springframework.security.core.session.SessionRegistry;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Component;
 
+import jakarta.annotation.PreDestroy;
 import jakarta.transaction.Transactional;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 import stirling.software.proprietary.security.database.repository.SessionRepository;
 import stirling.software.proprietary.security.model.SessionEntity;
 import stirling.software.proprietary.security.saml2.CustomSaml2AuthenticatedPrincipal;
 
+/**
+ * {@link SessionRegistry} backed by the session table. The last request time of a session is
+ * updated on every request, so it is kept in memory and written to the database in batches by
+ * {@link #flushLastRequests()}, at most one update per session per flush. Sessions read through
+ * this registry always carry the latest time, buffered or not.
+ */
 @Component
+@Slf4j
 @RequiredArgsConstructor
 public class SessionPersistentRegistry implements SessionRegistry {
 
     private final SessionRepository sessionRepository;
 
+    // Last request times not yet written, by session ID
+    private final Map<String, Instant> pendingLastRequests = new ConcurrentHashMap<>();
+
     @Value("${server.servlet.session.timeout:30m}")
     private Duration defaultMaxInactiveInterval;
 
@@ -68,7 +83,7 @@ public class SessionPersistentRegistry implements SessionRegistry {
                             new SessionInformation(
                                     sessionEntity.getPrincipalName(),
                                     sessionEntity.getSessionId(),
-                                    Date.from(sessionEntity.getLastRequest())));
+                                    Date.from(lastRequestOf(sessionEntity))));
                 }
             }
         }
@@ -111,18 +126,39 @@ public class SessionPersistentRegistry implements SessionRegistry {
     @Override
     @Transactional
     public void removeSessionInformation(String sessionId) {
+        pendingLastRequests.remove(sessionId);
         sessionRepository.deleteById(sessionId);
     }
 
     @Override
-    @Transactional
     public void refreshLastRequest(String sessionId) {
-        Optional<SessionEntity> sessionEntityOpt = sessionRepository.findById(sessionId);
-        if (sessionEntityOpt.isPresent()) {
-            SessionEntity sessionEntity = sessionEntityOpt.get();
-            sessionEntity.setLastRequest(Instant.now()); // Update lastRequest to the current date
-            sessionRepository.save(sessionEntity);
+        // Buffered, written by flushLastRequests
+        pendingLastRequests.merge(sessionId, Instant.now(), this::latest);
+    }
+
+    /**
+     * Write the buffered last request times to the database, one update by session ID each in a
+     * single transaction. Not transactional itself: the times are only dropped from the buffer once
+     * the repository has committed them.
+     */
+    @Scheduled(
+            fixedDelayString = "${security.session.lastRequestFlushIntervalMs:30000}",
+            initialDelayString = "${security.session.lastRequestFlushIntervalMs:30000}")
+    @PreDestroy
+    public void flushLastRequests() {
+        if (pendingLastRequests.isEmpty()) {
+            return;
         }
+        Map<String, Instant> batch = Map.copyOf(pendingLastRequests);
+        try {
+            sessionRepository.updateLastRequests(batch);
+        } catch (RuntimeException e) {
+            // Still buffered, the next flush tries again
+            log.warn("Failed to write last request times of sessions: {}", e.getMessage());
+            return;
+        }
+        // Keep times that were buffered while writing, they are newer than the written ones
+        batch.forEach((sessionId, time) -> pendingLastRequests.remove(sessionId, time));
     }
 
     @Override
@@ -133,19 +169,19 @@ public class SessionPersistentRegistry implements SessionRegistry {
             return new SessionInformation(
                     sessionEntity.getPrincipalName(),
                     sessionEntity.getSessionId(),
-                    Date.from(sessionEntity.getLastRequest()));
+                    Date.from(lastRequestOf(sessionEntity)));
         }
         return null;
     }
 
     // Retrieve all non-expired sessions
     public List<SessionEntity> getAllSessionsNotExpired() {
-        return sessionRepository.findByExpired(false);
+        return withPendingLastRequests(sessionRepository.findByExpired(false));
     }
 
     // Retrieve all sessions
     public List<SessionEntity> getAllSessions() {
-        return sessionRepository.findAll();
+        return withPendingLastRequests(sessionRepository.findAll());
     }
 
     // Mark a session as expired
@@ -165,7 +201,11 @@ public class SessionPersistentRegistry implements SessionRegistry {
 
     // Retrieve a session entity by session ID
     public SessionEntity getSessionEntity(String sessionId) {
-        return sessionRepository.findBySessionId(sessionId);
+        SessionEntity sessionEntity = sessionRepository.findBySessionId(sessionId);
+        if (sessionEntity != null) {
+            sessionEntity.setLastRequest(lastRequestOf(sessionEntity));
+        }
+        return sessionEntity;
     }
 
     // Update session details by principal name
@@ -176,7 +216,8 @@ public class SessionPersistentRegistry implements SessionRegistry {
 
     // Find the latest session for a given principal name
     public Optional<SessionEntity> findLatestSession(String principalName) {
-        List<SessionEntity> allSessions = sessionRepository.findByPrincipalName(principalName);
+        List<SessionEntity> allSessions =
+                withPendingLastRequests(sessionRepository.findByPrincipalName(principalName));
         if (allSessions.isEmpty()) {
             return Optional.empty();
         }
@@ -195,4 +236,25 @@ public class SessionPersistentRegistry implements SessionRegistry {
         // The first session in the list is the latest session for the given principal name
         return Optional.of(allSessions.get(0));
     }
+
+    // The last request time of the session, including a buffered one
+    private Instant lastRequestOf(SessionEntity sessionEntity) {
+        return latest(
+                sessionEntity.getLastRequest(),
+                pendingLastRequests.get(sessionEntity.getSessionId()));
+    }
+
+    private List<SessionEntity> withPendingLastRequests(List<SessionEntity> sessions) {
+        for (SessionEntity session : sessions) {
+            session.setLastRequest(lastRequestOf(session));
+        }
+        return sessions;
+    }
+
+    private Instant latest(Instant first, Instant second) {
+        if (first == null) {
+            return second;
+        }
+        return second == null || first.isAfter(second) ? first : second;
+    }
 }
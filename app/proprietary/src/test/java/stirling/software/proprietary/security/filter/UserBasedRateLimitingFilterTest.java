@@ -0,0 +1,106 @@
+package stirling.software.proprietary.security.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+
+import io.github.bucket4j.ConsumptionProbe;
+
+import jakarta.servlet.FilterChain;
+
+import stirling.software.common.model.enumeration.Role;
+import stirling.software.proprietary.security.ratelimit.RateLimitBucketStore;
+import stirling.software.proprietary.security.ratelimit.RequestCostEstimator;
+
+@ExtendWith(MockitoExtension.class)
+class UserBasedRateLimitingFilterTest {
+
+    private static final long MB = 1024 * 1024;
+
+    @Mock private RateLimitBucketStore bucketStore;
+
+    @Mock private FilterChain filterChain;
+
+    private UserBasedRateLimitingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter =
+                new UserBasedRateLimitingFilter(
+                        true, bucketStore, new RequestCostEstimator(null, 10 * MB, 4));
+        User user =
+                new User(
+                        "alice",
+                        "",
+                        List.of(new SimpleGrantedAuthority(Role.LIMITED_API_USER.getRoleId())));
+        SecurityContextHolder.getContext()
+                .setAuthentication(
+                        new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private ConsumptionProbe consumed() {
+        ConsumptionProbe probe = mock(ConsumptionProbe.class);
+        when(probe.isConsumed()).thenReturn(true);
+        when(probe.getRemainingTokens()).thenReturn(30L);
+        return probe;
+    }
+
+    @Test
+    void chunkedUploadIsChargedTheConfiguredTokensNotTheWholeBucket() throws Exception {
+        // No content, so the request declares no length like a chunked upload
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/misc/ocr");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ConsumptionProbe probe = consumed();
+        when(bucketStore.tryConsume(eq("web:alice"), anyLong(), any())).thenReturn(probe);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(bucketStore).tryConsume(eq("web:alice"), eq(4L), any());
+        verify(filterChain).doFilter(request, response);
+        assertEquals("30", response.getHeader("X-Rate-Limit-Remaining"));
+    }
+
+    @Test
+    void uploadOfDeclaredLengthIsChargedBySize() throws Exception {
+        // Only the declared length matters, no need to allocate the upload
+        MockHttpServletRequest request =
+                new MockHttpServletRequest("POST", "/api/v1/misc/ocr") {
+                    @Override
+                    public long getContentLengthLong() {
+                        return 25 * MB;
+                    }
+                };
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ConsumptionProbe probe = consumed();
+        when(bucketStore.tryConsume(eq("web:alice"), anyLong(), any())).thenReturn(probe);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(bucketStore).tryConsume(eq("web:alice"), eq(3L), any());
+        verify(filterChain).doFilter(request, response);
+    }
+}
@@ -0,0 +1,54 @@
+package stirling.software.proprietary.security.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.ConsumptionProbe;
+
+class LocalRateLimitBucketStoreTest {
+
+    private final Bandwidth limit =
+            Bandwidth.builder().capacity(10).refillIntervally(10, Duration.ofDays(1)).build();
+
+    @Test
+    void tokensAreTakenInProportionToCost() {
+        LocalRateLimitBucketStore store = new LocalRateLimitBucketStore(100, Duration.ofDays(1));
+
+        ConsumptionProbe first = store.tryConsume("user", 4, limit);
+        ConsumptionProbe second = store.tryConsume("user", 4, limit);
+        ConsumptionProbe third = store.tryConsume("user", 4, limit);
+
+        assertTrue(first.isConsumed());
+        assertEquals(6, first.getRemainingTokens());
+        assertTrue(second.isConsumed());
+        assertEquals(2, second.getRemainingTokens());
+        assertFalse(third.isConsumed());
+        assertTrue(third.getNanosToWaitForRefill() > 0);
+    }
+
+    @Test
+    void bucketsAreSeparatePerKey() {
+        LocalRateLimitBucketStore store = new LocalRateLimitBucketStore(100, Duration.ofDays(1));
+
+        assertTrue(store.tryConsume("user1", 10, limit).isConsumed());
+        assertTrue(store.tryConsume("user2", 10, limit).isConsumed());
+        assertFalse(store.tryConsume("user1", 1, limit).isConsumed());
+    }
+
+    @Test
+    void numberOfBucketsIsBounded() {
+        LocalRateLimitBucketStore store = new LocalRateLimitBucketStore(50, Duration.ofDays(1));
+
+        for (int i = 0; i < 500; i++) {
+            store.tryConsume("client" + i, 1, limit);
+        }
+
+        assertTrue(store.size() <= 50);
+    }
+}
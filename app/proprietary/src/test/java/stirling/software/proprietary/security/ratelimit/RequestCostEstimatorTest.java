@@ -0,0 +1,66 @@
+package stirling.software.proprietary.security.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+class RequestCostEstimatorTest {
+
+    private static final long MB = 1024 * 1024;
+
+    private final RequestCostEstimator estimator =
+            new RequestCostEstimator(
+                    Map.of("/api/v1/misc/ocr-pdf", 100, "/api/v1/general/rotate-pdf", 10),
+                    10 * MB,
+                    4);
+
+    private MockHttpServletRequest request(String uri, long uploadBytes) {
+        // Only the declared length matters, no need to allocate the upload
+        return new MockHttpServletRequest("POST", uri) {
+            @Override
+            public long getContentLengthLong() {
+                return uploadBytes;
+            }
+        };
+    }
+
+    @Test
+    void smallRequestOfDefaultWeightCostsOneToken() {
+        assertEquals(1, estimator.estimate(request("/api/v1/misc/compress-pdf", 1024), 1000));
+    }
+
+    @Test
+    void costGrowsWithUploadSize() {
+        assertEquals(3, estimator.estimate(request("/api/v1/misc/compress-pdf", 25 * MB), 1000));
+    }
+
+    @Test
+    void costIsScaledByResourceWeight() {
+        assertEquals(2, estimator.estimate(request("/api/v1/misc/ocr-pdf", 1024), 1000));
+        assertEquals(6, estimator.estimate(request("/api/v1/misc/ocr-pdf", 25 * MB), 1000));
+        assertEquals(1, estimator.estimate(request("/api/v1/general/rotate-pdf", 25 * MB), 1000));
+    }
+
+    @Test
+    void contextPathIsIgnored() {
+        MockHttpServletRequest request = request("/pdf/api/v1/misc/ocr-pdf", 0);
+        request.setContextPath("/pdf");
+
+        assertEquals(2, estimator.estimate(request, 1000));
+    }
+
+    @Test
+    void uploadOfUnknownLengthCostsTheConfiguredTokens() {
+        assertEquals(4, estimator.estimate(request("/api/v1/misc/compress-pdf", -1), 1000));
+        assertEquals(8, estimator.estimate(request("/api/v1/misc/ocr-pdf", -1), 1000));
+        assertEquals(3, estimator.estimate(request("/api/v1/misc/ocr-pdf", -1), 3));
+    }
+
+    @Test
+    void costNeverExceedsBucketCapacity() {
+        assertEquals(5, estimator.estimate(request("/api/v1/misc/ocr-pdf", 100 * MB), 5));
+    }
+}
@@ -0,0 +1,121 @@
+package stirling.software.proprietary.security.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import stirling.software.proprietary.security.model.Authority;
+import stirling.software.proprietary.security.model.User;
+import stirling.software.proprietary.security.service.AuthenticationCache.UserStatus;
+
+class AuthenticationCacheTest {
+
+    private AuthenticationCache authenticationCache;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        authenticationCache = new AuthenticationCache(60, 100);
+        user = new User();
+        user.setUsername("testUser");
+        user.setApiKey("key");
+        user.setPassword("hash");
+        user.setEnabled(true);
+        user.addAuthority(new Authority("ROLE_USER", user));
+    }
+
+    @Test
+    void apiKeyUserIsLoadedOnce() {
+        AtomicInteger loads = new AtomicInteger();
+        UserDetails first = null;
+
+        for (int i = 0; i < 3; i++) {
+            Optional<UserDetails> found =
+                    authenticationCache.getPrincipalByApiKey(
+                            "key",
+                            key -> {
+                                loads.incrementAndGet();
+                                return Optional.of(user);
+                            });
+            if (first == null) {
+                first = found.orElseThrow();
+            }
+            assertSame(first, found.orElseThrow());
+        }
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void apiKeyUserIsCachedAsAPrincipalSnapshot() {
+        UserDetails principal =
+                authenticationCache.getPrincipalByApiKey("key", key -> Optional.of(user)).get();
+
+        assertFalse(principal instanceof User);
+        assertEquals("testUser", principal.getUsername());
+        assertEquals("", principal.getPassword());
+        assertTrue(principal.isEnabled());
+        assertEquals("ROLE_USER", principal.getAuthorities().iterator().next().getAuthority());
+
+        // Changing the entity afterwards does not change the cached principal
+        user.setUsername("renamed");
+        assertEquals(
+                "testUser",
+                authenticationCache
+                        .getPrincipalByApiKey("key", key -> Optional.of(user))
+                        .get()
+                        .getUsername());
+    }
+
+    @Test
+    void unknownApiKeysAreNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            Optional<UserDetails> found =
+                    authenticationCache.getPrincipalByApiKey(
+                            "unknown",
+                            key -> {
+                                loads.incrementAndGet();
+                                return Optional.empty();
+                            });
+            assertTrue(found.isEmpty());
+        }
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidateUserDropsApiKeyAndStatus() {
+        AtomicInteger loads = new AtomicInteger();
+        authenticationCache.getPrincipalByApiKey("key", key -> Optional.of(user));
+        authenticationCache.getUserStatus(
+                "testUser",
+                name -> {
+                    loads.incrementAndGet();
+                    return new UserStatus(true, false);
+                });
+
+        authenticationCache.invalidateUser("TESTUSER");
+
+        UserStatus status =
+                authenticationCache.getUserStatus(
+                        "testuser",
+                        name -> {
+                            loads.incrementAndGet();
+                            return new UserStatus(true, true);
+                        });
+        assertTrue(status.disabled());
+        assertEquals(2, loads.get());
+        assertTrue(
+                authenticationCache.getPrincipalByApiKey("key", key -> Optional.empty()).isEmpty());
+    }
+}
@@ -2,6 +2,8 @@ package stirling.software.proprietary.security.service;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mockStatic;
@@ -26,6 +28,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 
+import io.jsonwebtoken.JwtParser;
+
 import stirling.software.common.configuration.InstallationPathConfig;
 import stirling.software.common.model.ApplicationProperties;
 import stirling.software.proprietary.security.model.JwtVerificationKey;
@@ -56,6 +60,7 @@ class KeyPersistenceServiceInterfaceTest {
         lenient().when(applicationProperties.getSecurity()).thenReturn(security);
         lenient().when(security.getJwt()).thenReturn(jwtConfig);
         lenient().when(jwtConfig.isEnabled()).thenReturn(true);
+        lenient().when(jwtConfig.getKeyRetentionDays()).thenReturn(7);
     }
 
     @Test
@@ -139,6 +144,52 @@ class KeyPersistenceServiceInterfaceTest {
         }
     }
 
+    @Test
+    void testGetKeyPairIsDecodedOnceUntilKeyIsRemoved() throws Exception {
+        String keyId = "test-key-cached";
+        String publicKeyBase64 =
+                Base64.getEncoder().encodeToString(testKeyPair.getPublic().getEncoded());
+        String privateKeyBase64 =
+                Base64.getEncoder().encodeToString(testKeyPair.getPrivate().getEncoded());
+
+        Path keyFile = tempDir.resolve(keyId + ".key");
+        Files.writeString(keyFile, privateKeyBase64);
+
+        try (MockedStatic<InstallationPathConfig> mockedStatic =
+                mockStatic(InstallationPathConfig.class)) {
+            mockedStatic
+                    .when(InstallationPathConfig::getPrivateKeyPath)
+                    .thenReturn(tempDir.toString());
+            keyPersistenceService = new KeyPersistenceService(applicationProperties, cacheManager);
+            cacheManager
+                    .getCache("verifyingKeys")
+                    .put(keyId, new JwtVerificationKey(keyId, publicKeyBase64));
+
+            Optional<KeyPair> first = keyPersistenceService.getKeyPair(keyId);
+            // The key file is not read again once decoded
+            Files.delete(keyFile);
+            Optional<KeyPair> second = keyPersistenceService.getKeyPair(keyId);
+
+            assertTrue(first.isPresent());
+            assertTrue(second.isPresent());
+            assertSame(first.get(), second.get());
+            assertSame(
+                    first.get().getPublic(),
+                    keyPersistenceService.decodePublicKey(publicKeyBase64));
+
+            JwtParser parser = keyPersistenceService.getParser(first.get().getPublic());
+            assertSame(parser, keyPersistenceService.getParser(first.get().getPublic()));
+
+            keyPersistenceService.removeKey(keyId);
+
+            assertFalse(keyPersistenceService.getKeyPair(keyId).isPresent());
+            assertNotSame(parser, keyPersistenceService.getParser(first.get().getPublic()));
+            assertNotSame(
+                    first.get().getPublic(),
+                    keyPersistenceService.decodePublicKey(publicKeyBase64));
+        }
+    }
+
     @Test
     void testGetKeyPairNotFound() {
         String keyId = "non-existent-key";
@@ -46,6 +46,8 @@ class UserServiceTest {
 
     @Mock private ApplicationProperties.Security.OAUTH2 oauth2Properties;
 
+    @Mock private AuthenticationCache authenticationCache;
+
     @InjectMocks private UserService userService;
 
     private Team mockTeam;
@@ -0,0 +1,140 @@
+package stirling.software.proprietary.security.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.session.SessionInformation;
+
+import stirling.software.proprietary.security.database.repository.SessionRepository;
+import stirling.software.proprietary.security.model.SessionEntity;
+
+@ExtendWith(MockitoExtension.class)
+class SessionPersistentRegistryTest {
+
+    @Mock private SessionRepository sessionRepository;
+
+    @InjectMocks private SessionPersistentRegistry sessionPersistentRegistry;
+
+    private SessionEntity session(String sessionId, Instant lastRequest) {
+        SessionEntity session = new SessionEntity();
+        session.setSessionId(sessionId);
+        session.setPrincipalName("testUser");
+        session.setLastRequest(lastRequest);
+        return session;
+    }
+
+    @Test
+    void refreshLastRequestDoesNotWriteUntilFlushed() {
+        sessionPersistentRegistry.refreshLastRequest("session1");
+        sessionPersistentRegistry.refreshLastRequest("session1");
+
+        verify(sessionRepository, never()).findById(anyString());
+        verify(sessionRepository, never()).save(any());
+    }
+
+    @Test
+    void flushWritesEachSessionOnceInOneBatch() {
+        Instant before = Instant.now();
+
+        for (int i = 0; i < 5; i++) {
+            sessionPersistentRegistry.refreshLastRequest("session1");
+            sessionPersistentRegistry.refreshLastRequest("session2");
+        }
+        sessionPersistentRegistry.flushLastRequests();
+        sessionPersistentRegistry.flushLastRequests();
+
+        ArgumentCaptor<Map<String, Instant>> batch = ArgumentCaptor.captor();
+        verify(sessionRepository, times(1)).updateLastRequests(batch.capture());
+        assertEquals(2, batch.getValue().size());
+        assertFalse(batch.getValue().get("session1").isBefore(before));
+        assertFalse(batch.getValue().get("session2").isBefore(before));
+        verify(sessionRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void flushFailureKeepsTimesForNextFlush() {
+        doThrow(new IllegalStateException("database down"))
+                .doNothing()
+                .when(sessionRepository)
+                .updateLastRequests(any());
+
+        sessionPersistentRegistry.refreshLastRequest("session1");
+        sessionPersistentRegistry.flushLastRequests();
+        sessionPersistentRegistry.flushLastRequests();
+        sessionPersistentRegistry.flushLastRequests();
+
+        verify(sessionRepository, times(2))
+                .updateLastRequests(argThat(batch -> batch.containsKey("session1")));
+    }
+
+    @Test
+    void timeBufferedWhileWritingIsKeptForNextFlush() throws Exception {
+        doAnswer(
+                        invocation -> {
+                            // A request arrives while the batch is being written
+                            Thread.sleep(2);
+                            sessionPersistentRegistry.refreshLastRequest("session1");
+                            return null;
+                        })
+                .doNothing()
+                .when(sessionRepository)
+                .updateLastRequests(any());
+
+        sessionPersistentRegistry.refreshLastRequest("session1");
+        sessionPersistentRegistry.flushLastRequests();
+        sessionPersistentRegistry.flushLastRequests();
+
+        ArgumentCaptor<Map<String, Instant>> batch = ArgumentCaptor.captor();
+        verify(sessionRepository, times(2)).updateLastRequests(batch.capture());
+        Instant first = batch.getAllValues().get(0).get("session1");
+        assertTrue(batch.getAllValues().get(1).get("session1").isAfter(first));
+    }
+
+    @Test
+    void readsIncludeBufferedLastRequest() {
+        Instant old = Instant.now().minusSeconds(600);
+        when(sessionRepository.findById("session1"))
+                .thenReturn(Optional.of(session("session1", old)));
+        when(sessionRepository.findByExpired(false)).thenReturn(List.of(session("session1", old)));
+
+        sessionPersistentRegistry.refreshLastRequest("session1");
+
+        SessionInformation info = sessionPersistentRegistry.getSessionInformation("session1");
+        assertTrue(info.getLastRequest().toInstant().isAfter(old));
+        List<SessionEntity> notExpired = sessionPersistentRegistry.getAllSessionsNotExpired();
+        assertEquals(1, notExpired.size());
+        assertTrue(notExpired.get(0).getLastRequest().isAfter(old));
+    }
+
+    @Test
+    void removedSessionIsNotFlushed() {
+        sessionPersistentRegistry.refreshLastRequest("session1");
+        sessionPersistentRegistry.removeSessionInformation("session1");
+
+        sessionPersistentRegistry.flushLastRequests();
+
+        verify(sessionRepository).deleteById("session1");
+        verify(sessionRepository, never()).updateLastRequests(any());
+    }
+}